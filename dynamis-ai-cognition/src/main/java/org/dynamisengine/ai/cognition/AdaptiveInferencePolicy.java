@@ -0,0 +1,170 @@
+package org.dynamisengine.ai.cognition;
+
+import org.dynamisengine.ai.core.LodTier;
+import org.dynamisengine.core.entity.EntityId;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Chooses each request's deadline and generation length from what the backend is
+ * actually delivering.
+ *
+ * <ul>
+ *   <li>The staleness window — {@code maxStaleTicks} times the observed canon tick
+ *       duration — caps the deadline, since a later result would be discarded anyway.</li>
+ *   <li>The deadline tracks the backend's rolling p99 queue, prefill and decode latency
+ *       with 25% headroom, so slow backends get room and hung ones are cut early. Timed-out
+ *       requests are recorded at their elapsed time, so when many miss the deadline p99 sits
+ *       at it and the headroom widens the next one.</li>
+ *   <li>maxTokens scales down with the speaker's LOD tier, then down again if the observed
+ *       tokens per second could not finish that many inside the window.</li>
+ * </ul>
+ *
+ * Until enough samples exist the configured deadline and tier-scaled token count apply.
+ * Deterministic requests never have maxTokens changed, so replays stay reproducible.
+ *
+ * Group requests generate every speaker's line at once, so single-line latency says little
+ * about them: they are planned only from their own {@link InferenceRequestClass#GROUP}
+ * samples, the cold-start deadline scales with the tokens requested, and maxTokens is never
+ * cut, since a shorter generation would silently drop the last speakers' lines.
+ */
+public final class AdaptiveInferencePolicy {
+
+    /** Samples needed in a stage histogram before it drives the deadline. */
+    private static final long MIN_SAMPLES = 16L;
+
+    private static final double HEADROOM = 1.25d;
+    private static final long MIN_DEADLINE_MS = 50L;
+    private static final int MIN_TOKENS = 32;
+
+    /** Generation length the configured cold-start deadline is meant for. */
+    private static final int SINGLE_LINE_TOKENS = GenerationConfig.creative(0L).maxTokens();
+
+    /** Weight of the newest tick interval in the tick-duration average. */
+    private static final double TICK_ALPHA = 0.2d;
+
+    private final InferenceTelemetry telemetry;
+    private final long coldStartDeadlineMs;
+    private final long maxStaleTicks;
+    private final LongSupplier nanoClock;
+    private volatile Function<EntityId, LodTier> lodTierSource = speaker -> LodTier.TIER_0;
+
+    private long lastTick = Long.MIN_VALUE;
+    private long lastTickNanos;
+    private volatile double tickMillis;
+
+    public AdaptiveInferencePolicy(InferenceTelemetry telemetry, long coldStartDeadlineMs, long maxStaleTicks) {
+        this(telemetry, coldStartDeadlineMs, maxStaleTicks, System::nanoTime);
+    }
+
+    /** Test constructor — explicit clock for tick-duration estimation. */
+    public AdaptiveInferencePolicy(InferenceTelemetry telemetry, long coldStartDeadlineMs,
+                                   long maxStaleTicks, LongSupplier nanoClock) {
+        if (coldStartDeadlineMs <= 0L) {
+            throw new IllegalArgumentException("coldStartDeadlineMs must be > 0");
+        }
+        if (maxStaleTicks <= 0L) {
+            throw new IllegalArgumentException("maxStaleTicks must be > 0");
+        }
+        this.telemetry = Objects.requireNonNull(telemetry, "telemetry");
+        this.coldStartDeadlineMs = coldStartDeadlineMs;
+        this.maxStaleTicks = maxStaleTicks;
+        this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock");
+    }
+
+    /** Sets the provider of each speaker's current LOD tier. */
+    public void setLodTierSource(Function<EntityId, LodTier> source) {
+        this.lodTierSource = Objects.requireNonNull(source, "source");
+    }
+
+    /** Feeds the canon tick seen at request time — learns the wall-clock tick duration. */
+    public synchronized void observeTick(long tick) {
+        long now = nanoClock.getAsLong();
+        if (lastTick == Long.MIN_VALUE || tick < lastTick) {
+            lastTick = tick;
+            lastTickNanos = now;
+            return;
+        }
+        if (tick == lastTick) {
+            return;
+        }
+        double sample = (now - lastTickNanos) / 1_000_000d / (tick - lastTick);
+        double previous = tickMillis;
+        tickMillis = previous == 0d ? sample : previous + TICK_ALPHA * (sample - previous);
+        lastTick = tick;
+        lastTickNanos = now;
+    }
+
+    /** Learned canon tick duration in milliseconds; 0 until the tick has advanced. */
+    public double tickMillis() {
+        return tickMillis;
+    }
+
+    public InferencePlan plan(DialogueRequest request, InferenceRequestClass requestClass, GenerationConfig base) {
+        LodTier tier = request.speaker() == null ? LodTier.TIER_0 : lodTierSource.apply(request.speaker());
+        double windowMs = tickMillis > 0d ? tickMillis * maxStaleTicks : coldStartDeadlineMs;
+        int tierTokens = Math.max(MIN_TOKENS, (int) (base.maxTokens() * tokenShare(tier)));
+
+        LatencySnapshot queue = latency(requestClass, InferenceStage.QUEUE_WAIT);
+        LatencySnapshot prefill = latency(requestClass, InferenceStage.PREFILL);
+        LatencySnapshot decode = latency(requestClass, InferenceStage.DECODE);
+        boolean warm = queue.count() >= MIN_SAMPLES && prefill.count() >= MIN_SAMPLES;
+
+        long floorMs = Math.min(MIN_DEADLINE_MS, coldStartDeadlineMs);
+        long deadlineMs = warm
+            ? clamp((long) Math.ceil(HEADROOM * (queue.p99Ms() + prefill.p99Ms() + decode.p99Ms())),
+                floorMs, Math.max(floorMs, (long) windowMs))
+            : coldStartDeadlineMs(requestClass, base);
+        if (requestClass == InferenceRequestClass.GROUP) {
+            return new InferencePlan(deadlineMs, base);
+        }
+
+        int maxTokens = tierTokens;
+        double tokensPerSecond = telemetry.tokensPerSecond();
+        if (warm && tokensPerSecond > 0d) {
+            double generationBudgetMs = windowMs / HEADROOM - queue.p99Ms() - prefill.p99Ms();
+            int affordable = (int) (generationBudgetMs * tokensPerSecond / 1_000d);
+            maxTokens = Math.max(MIN_TOKENS, Math.min(tierTokens, affordable));
+        }
+        if (requestClass == InferenceRequestClass.DETERMINISTIC || maxTokens == base.maxTokens()) {
+            return new InferencePlan(deadlineMs, base);
+        }
+        return new InferencePlan(deadlineMs,
+            new GenerationConfig(maxTokens, base.temperature(), base.seed(), base.deterministicMode()));
+    }
+
+    /**
+     * Class-specific distribution once it has enough samples, otherwise all classes merged.
+     * Group latency is never borrowed from single-line classes.
+     */
+    private LatencySnapshot latency(InferenceRequestClass requestClass, InferenceStage stage) {
+        LatencySnapshot own = telemetry.latency(requestClass, stage);
+        return own.count() >= MIN_SAMPLES || requestClass == InferenceRequestClass.GROUP
+            ? own
+            : telemetry.latency(stage);
+    }
+
+    /** The configured deadline, stretched for group generations longer than a single line. */
+    private long coldStartDeadlineMs(InferenceRequestClass requestClass, GenerationConfig base) {
+        if (requestClass != InferenceRequestClass.GROUP || base.maxTokens() <= SINGLE_LINE_TOKENS) {
+            return coldStartDeadlineMs;
+        }
+        return (long) Math.ceil((double) coldStartDeadlineMs * base.maxTokens() / SINGLE_LINE_TOKENS);
+    }
+
+    /** Share of the base generation length each tier may spend, mirroring TickScaler's rate cuts. */
+    private static double tokenShare(LodTier tier) {
+        return switch (tier) {
+            case TIER_0 -> 1.0d;
+            case TIER_1 -> 0.75d;
+            case TIER_2 -> 0.5d;
+            case TIER_3 -> 0.25d;
+        };
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
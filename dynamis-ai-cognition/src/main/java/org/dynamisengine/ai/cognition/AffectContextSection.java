@@ -0,0 +1,51 @@
+package org.dynamisengine.ai.cognition;
+
+/** Mood section — versioned by the mood quantized to the two decimals it renders with. */
+final class AffectContextSection implements PromptContextSection {
+
+    static final AffectContextSection INSTANCE = new AffectContextSection();
+
+    private AffectContextSection() {}
+
+    @Override
+    public String name() {
+        return "affect";
+    }
+
+    @Override
+    public long version(DialogueRequest request) {
+        AffectVector mood = request.currentMood();
+        if (mood == null) {
+            return 0L;
+        }
+        long version = 1L;
+        version = version * 401L + hundredths(mood.valence()) + 100L;
+        version = version * 401L + hundredths(mood.arousal());
+        version = version * 401L + hundredths(mood.dominance());
+        version = version * 401L + hundredths(mood.sarcasm());
+        version = version * 401L + hundredths(mood.intensity());
+        return version;
+    }
+
+    @Override
+    public void render(DialogueRequest request, int tokenBudget, StringBuilder out) {
+        AffectVector mood = request.currentMood();
+        if (mood == null) {
+            return;
+        }
+        out.append("Current mood: valence ");
+        PromptContextCompiler.appendHundredths(out, hundredths(mood.valence()));
+        out.append(", arousal ");
+        PromptContextCompiler.appendHundredths(out, hundredths(mood.arousal()));
+        out.append(", dominance ");
+        PromptContextCompiler.appendHundredths(out, hundredths(mood.dominance()));
+        out.append(", sarcasm ");
+        PromptContextCompiler.appendHundredths(out, hundredths(mood.sarcasm()));
+        out.append(", intensity ");
+        PromptContextCompiler.appendHundredths(out, hundredths(mood.intensity()));
+    }
+
+    private static int hundredths(float value) {
+        return (int) Math.round(value * 100.0);
+    }
+}
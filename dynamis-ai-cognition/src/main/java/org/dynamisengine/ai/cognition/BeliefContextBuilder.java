@@ -1,31 +1,37 @@
 package org.dynamisengine.ai.cognition;
 
-import java.util.Comparator;
-import java.util.stream.Collectors;
-
 public final class BeliefContextBuilder {
 
+    static final String HEADER = "Known facts (NPC beliefs, confidence in brackets):";
+    /** Presize per line — about eight tokens of four characters each. */
+    private static final int CHARS_PER_LINE = 32;
+    /** Lines presized for at most; longer contexts grow the builder as usual. */
+    private static final int MAX_PRESIZED_LINES = 256;
+
     private BeliefContextBuilder() {}
 
+    /**
+     * Renders the {@code maxBeliefs} most confident beliefs — O(maxBeliefs) via the
+     * model's confidence index, with lines reused from the per-belief render cache.
+     */
     public static String buildContext(BeliefModel model, int maxBeliefs) {
         if (maxBeliefs <= 0) {
             return "";
         }
 
-        var beliefs = model.allBeliefs().stream()
-            .sorted(Comparator.comparing(Belief::confidence).reversed())
-            .limit(maxBeliefs)
-            .toList();
-
-        if (beliefs.isEmpty()) {
-            return "Known facts (NPC beliefs, confidence in brackets):";
-        }
-
-        String lines = beliefs.stream()
-            .map(b -> "- " + b.key() + ": " + String.valueOf(b.value()) +
-                " [" + String.format("%.2f", b.confidence()) + "]")
-            .collect(Collectors.joining("\n"));
+        StringBuilder out = new StringBuilder(
+            HEADER.length() + Math.min(maxBeliefs, MAX_PRESIZED_LINES) * CHARS_PER_LINE);
+        appendContext(model, maxBeliefs, out);
+        return out.toString();
+    }
 
-        return "Known facts (NPC beliefs, confidence in brackets):\n" + lines;
+    /**
+     * Appends the header and up to {@code maxBeliefs} lines.
+     *
+     * @return number of belief lines appended
+     */
+    static int appendContext(BeliefModel model, int maxBeliefs, StringBuilder out) {
+        out.append(HEADER);
+        return model.appendTopBeliefLines(maxBeliefs, out);
     }
 }
@@ -0,0 +1,46 @@
+package org.dynamisengine.ai.cognition;
+
+import java.util.Objects;
+
+/** Belief section — re-rendered when beliefs change or the clock moves a confidence bucket. */
+final class BeliefContextSection implements PromptContextSection {
+
+    /** Displayed confidences may lag decay by at most this many ticks. */
+    private static final long CONFIDENCE_REFRESH_TICKS = 32L;
+
+    /** Conservative per-line estimate used to pick how many beliefs to render. */
+    private static final int TOKENS_PER_LINE = 8;
+
+    private final BeliefModelRegistry registry;
+
+    BeliefContextSection(BeliefModelRegistry registry) {
+        this.registry = Objects.requireNonNull(registry);
+    }
+
+    @Override
+    public String name() {
+        return "beliefs";
+    }
+
+    @Override
+    public long version(DialogueRequest request) {
+        if (request.speaker() == null) {
+            return 0L;
+        }
+        BeliefModel model = registry.getOrCreate(request.speaker());
+        return model.version() * 31L + model.currentTick() / CONFIDENCE_REFRESH_TICKS;
+    }
+
+    @Override
+    public void render(DialogueRequest request, int tokenBudget, StringBuilder out) {
+        if (request.speaker() == null) {
+            return;
+        }
+        BeliefModel model = registry.getOrCreate(request.speaker());
+        int maxBeliefs = Math.max(1, tokenBudget / TOKENS_PER_LINE);
+        int start = out.length();
+        if (BeliefContextBuilder.appendContext(model, maxBeliefs, out) == 0) {
+            out.setLength(start);
+        }
+    }
+}
@@ -1,5 +1,13 @@
 package org.dynamisengine.ai.cognition;
 
+/**
+ * Belief decay parameters.
+ *
+ * @param decayPerTick exponential decay rate per tick — confidence after {@code n} ticks
+ *                     without reinforcement is {@code c * exp(-decayPerTick * n)}
+ * @param stalenessThresholdTicks ticks without reinforcement before a belief is reported stale
+ * @param minimumRetainedConfidence beliefs below this confidence are hidden and evicted
+ */
 public record BeliefDecayPolicy(
     float decayPerTick,
     long stalenessThresholdTicks,
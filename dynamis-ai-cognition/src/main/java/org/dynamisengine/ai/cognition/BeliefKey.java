@@ -0,0 +1,196 @@
+package org.dynamisengine.ai.cognition;
+
+import org.dynamisengine.core.entity.EntityId;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interned belief key — one canonical instance per key name, compared by identity.
+ *
+ * Hot ingestion paths resolve keys from primitive components (entity id + channel)
+ * through a lock-free lookup table, so no key strings are built per percept; the
+ * string form is created once per key and used only when rendering for prompts.
+ *
+ * The intern tables hold keys weakly. Once no belief refers to a key it can be collected,
+ * and the next use interns a fresh instance — nothing can still hold the old one to compare
+ * against — so the tables track live beliefs rather than every entity ever referenced.
+ */
+public final class BeliefKey {
+
+    private static final ConcurrentMap<String, KeyRef> BY_NAME = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<BeliefKey> RELEASED = new ReferenceQueue<>();
+    private static final Object ENTITY_LOCK = new Object();
+    private static volatile EntitySlot[] entitySlots = new EntitySlot[256];
+    private static int entityCount;
+    private static int nextId;
+
+    private final int id;
+    private final String name;
+
+    private BeliefKey(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    /** Canonical key for a name, creating it on first use. */
+    public static BeliefKey of(String name) {
+        BeliefKey key = lookup(name);
+        return key != null ? key : intern(name);
+    }
+
+    /** Existing canonical key for a name, or null if no live belief uses it. */
+    public static BeliefKey lookup(String name) {
+        KeyRef ref = BY_NAME.get(Objects.requireNonNull(name));
+        return ref == null ? null : ref.get();
+    }
+
+    /** {@code entity.<id>.visible} */
+    public static BeliefKey entityVisible(EntityId entity) {
+        return entityKey(entity.id(), 0);
+    }
+
+    /** {@code entity.<id>.audible} */
+    public static BeliefKey entityAudible(EntityId entity) {
+        return entityKey(entity.id(), 1);
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public int hashCode() {
+        return id * 0x9E3779B9;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static BeliefKey entityKey(long entityId, int channel) {
+        long composite = (entityId << 1) | channel;
+        BeliefKey found = find(entitySlots, composite);
+        if (found != null) {
+            return found;
+        }
+        synchronized (ENTITY_LOCK) {
+            found = find(entitySlots, composite);
+            if (found != null) {
+                return found;
+            }
+            BeliefKey key = intern("entity." + entityId + (channel == 0 ? ".visible" : ".audible"));
+            putEntitySlot(new EntitySlot(composite, BY_NAME.get(key.name())));
+            return key;
+        }
+    }
+
+    /** Live key for the composite, or null if it was never interned or has been collected. */
+    private static BeliefKey find(EntitySlot[] slots, long composite) {
+        int mask = slots.length - 1;
+        for (int i = mix(composite) & mask; ; i = (i + 1) & mask) {
+            EntitySlot slot = slots[i];
+            if (slot == null) {
+                return null;
+            }
+            if (slot.composite() == composite) {
+                return slot.ref().get();
+            }
+        }
+    }
+
+    private static BeliefKey intern(String name) {
+        synchronized (BY_NAME) {
+            expungeReleased();
+            KeyRef existing = BY_NAME.get(name);
+            BeliefKey live = existing == null ? null : existing.get();
+            if (live != null) {
+                return live;
+            }
+            BeliefKey key = new BeliefKey(nextId++, name);
+            BY_NAME.put(name, new KeyRef(key));
+            return key;
+        }
+    }
+
+    /** Drops name entries whose key has been collected. Caller holds the BY_NAME lock. */
+    private static void expungeReleased() {
+        for (Reference<? extends BeliefKey> ref; (ref = RELEASED.poll()) != null; ) {
+            KeyRef released = (KeyRef) ref;
+            BY_NAME.remove(released.name, released);
+        }
+    }
+
+    /**
+     * Writers hold ENTITY_LOCK; readers see either null or a fully built slot. A slot whose
+     * key was collected is overwritten in place, and such slots are dropped whenever the
+     * table is rebuilt, so it is sized by live keys.
+     */
+    private static void putEntitySlot(EntitySlot slot) {
+        EntitySlot[] slots = entitySlots;
+        int mask = slots.length - 1;
+        for (int i = mix(slot.composite()) & mask; slots[i] != null; i = (i + 1) & mask) {
+            if (slots[i].composite() == slot.composite()) {
+                slots[i] = slot;
+                return;
+            }
+        }
+        if ((entityCount + 1) * 2 > slots.length) {
+            int live = 0;
+            for (EntitySlot existing : slots) {
+                if (existing != null && existing.ref().get() != null) {
+                    live++;
+                }
+            }
+            int length = slots.length;
+            while ((live + 1) * 2 > length) {
+                length *= 2;
+            }
+            EntitySlot[] rebuilt = new EntitySlot[length];
+            for (EntitySlot existing : slots) {
+                if (existing != null && existing.ref().get() != null) {
+                    place(rebuilt, existing);
+                }
+            }
+            slots = rebuilt;
+            entityCount = live;
+        }
+        place(slots, slot);
+        entityCount++;
+        entitySlots = slots;
+    }
+
+    private static void place(EntitySlot[] slots, EntitySlot slot) {
+        int mask = slots.length - 1;
+        int i = mix(slot.composite()) & mask;
+        while (slots[i] != null) {
+            i = (i + 1) & mask;
+        }
+        slots[i] = slot;
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private record EntitySlot(long composite, KeyRef ref) {}
+
+    private static final class KeyRef extends WeakReference<BeliefKey> {
+        private final String name;
+
+        private KeyRef(BeliefKey key) {
+            super(key, RELEASED);
+            this.name = key.name;
+        }
+    }
+}
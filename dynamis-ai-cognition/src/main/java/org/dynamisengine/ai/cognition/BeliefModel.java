@@ -6,55 +6,274 @@ import org.dynamisengine.scripting.api.value.Percept;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Per-entity first/second-order belief store with lazy analytic decay.
+ *
+ * Each belief keeps the confidence it had at its last reinforcement and its own decay
+ * rate; the current confidence is computed on read as
+ * {@code base * exp(-rate * (now - lastReinforcedAtTick))} against the model clock.
+ * Nothing is rewritten per tick — dead beliefs are evicted by budgeted {@link #sweep} calls.
+ *
+ * Only {@link #advanceTo}, {@link #decay} and the owning registry move the clock; asserting
+ * a belief at some tick does not. Callers should drive it from one time source — canonical
+ * world time — so beliefs stamped from different sources never decay by the gap between them.
+ *
+ * Beliefs are also indexed by confidence, one skip list per decay rate. Under a shared
+ * rate the ordering {@code ln(base) + rate * lastReinforcedAtTick} never changes as the
+ * clock advances, so {@link #topBeliefs(int)} walks the heads of those lists instead of
+ * sorting every belief.
+ *
+ * That ordering only holds once the clock has reached a belief's tick: before then the
+ * belief keeps its asserted confidence. Beliefs stamped ahead of the clock therefore wait in
+ * a side set, ranked by their flat confidence, and join their rate list once the clock
+ * passes their tick.
+ */
 public final class BeliefModel {
 
+    private static final ConcurrentMap<String, BeliefKey> PERCEPT_TYPE_KEYS = new ConcurrentHashMap<>();
+
+    private static final Comparator<StoredBelief> BY_RANK_DESC = (a, b) -> {
+        int byRank = Double.compare(b.rank, a.rank);
+        return byRank != 0 ? byRank : Integer.compare(a.key.id(), b.key.id());
+    };
+
     private final EntityId owner;
     private final BeliefDecayPolicy decayPolicy;
-    private final ConcurrentMap<String, Belief> firstOrder = new ConcurrentHashMap<>();
+    private final AtomicLong clock;
+    private final AtomicLong version = new AtomicLong(0L);
+    private final ConcurrentMap<BeliefKey, StoredBelief> firstOrder = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Float, ConcurrentSkipListSet<StoredBelief>> ranked = new ConcurrentHashMap<>();
+    /** Beliefs stamped after the clock, not yet in their rate list. */
+    private final Set<StoredBelief> ahead = ConcurrentHashMap.newKeySet();
     private final ConcurrentMap<EntityId, ConcurrentMap<String, SecondOrderBelief>> secondOrder =
         new ConcurrentHashMap<>();
+    private Iterator<Map.Entry<BeliefKey, StoredBelief>> sweepCursor;
 
     public BeliefModel(EntityId owner, BeliefDecayPolicy decayPolicy) {
+        this(owner, decayPolicy, new AtomicLong(0L));
+    }
+
+    /** Registry constructor — models created by one registry share its decay clock. */
+    BeliefModel(EntityId owner, BeliefDecayPolicy decayPolicy, AtomicLong clock) {
         this.owner = Objects.requireNonNull(owner);
         this.decayPolicy = Objects.requireNonNull(decayPolicy);
+        this.clock = Objects.requireNonNull(clock);
     }
 
     public void assertBelief(String key, Object value, float confidence, long tick) {
+        assertBelief(BeliefKey.of(key), value, confidence, tick, BeliefSource.INFERRED);
+    }
+
+    public void assertBelief(BeliefKey key, Object value, float confidence, long tick) {
         assertBelief(key, value, confidence, tick, BeliefSource.INFERRED);
     }
 
     public void updateBelief(String key, Object value, float confidence, long tick, BeliefSource source) {
-        assertBelief(key, value, confidence, tick, source);
+        assertBelief(BeliefKey.of(key), value, confidence, tick, source);
     }
 
-    private void assertBelief(String key, Object value, float confidence, long tick, BeliefSource source) {
+    /** Asserts a belief with an explicit per-belief exponential decay rate (per tick). */
+    public void updateBelief(String key, Object value, float confidence, long tick,
+                             BeliefSource source, float decayRatePerTick) {
+        if (decayRatePerTick < 0f) {
+            throw new IllegalArgumentException("decayRatePerTick must be >= 0");
+        }
+        assertBelief(BeliefKey.of(key), value, confidence, tick, source, decayRatePerTick);
+    }
+
+    private void assertBelief(BeliefKey key, Object value, float confidence, long tick, BeliefSource source) {
+        assertBelief(key, value, confidence, tick, source, decayPolicy.decayPerTick());
+    }
+
+    private void assertBelief(BeliefKey key, Object value, float confidence, long tick,
+                              BeliefSource source, float decayRate) {
         firstOrder.compute(key, (k, existing) -> {
-            if (existing == null) {
-                return new Belief(k, value, clamp01(confidence), tick, tick, source, owner);
+            long formedAt = existing == null ? tick : existing.base.formedAtTick();
+            StoredBelief stored = new StoredBelief(k,
+                new Belief(k.name(), value, clamp01(confidence), formedAt, tick, source, owner),
+                decayRate);
+            // Index updates run under the per-key compute lock, so they cannot interleave.
+            if (existing != null) {
+                unindex(existing);
+            }
+            if (tick > clock.get()) {
+                ahead.add(stored);
+            } else {
+                rankedFor(decayRate).add(stored);
             }
-            return new Belief(k, value, clamp01(confidence), existing.formedAtTick(), tick, source, owner);
+            version.incrementAndGet();
+            return stored;
         });
     }
 
     public Optional<Belief> getBelief(String key) {
-        Belief belief = firstOrder.get(key);
-        if (belief == null || belief.confidence() < decayPolicy.minimumRetainedConfidence()) {
+        BeliefKey interned = BeliefKey.lookup(key);
+        return interned == null ? Optional.empty() : getBelief(interned);
+    }
+
+    public Optional<Belief> getBelief(BeliefKey key) {
+        StoredBelief stored = firstOrder.get(key);
+        if (stored == null) {
+            return Optional.empty();
+        }
+        long now = clock.get();
+        if (stored.isDead(now, decayPolicy.minimumRetainedConfidence())) {
             return Optional.empty();
         }
-        return Optional.of(belief);
+        return Optional.of(stored.at(now));
     }
 
     public List<Belief> allBeliefs() {
-        return firstOrder.values().stream()
-            .filter(b -> b.confidence() >= decayPolicy.minimumRetainedConfidence())
-            .toList();
+        long now = clock.get();
+        float minimum = decayPolicy.minimumRetainedConfidence();
+        List<Belief> live = new ArrayList<>(firstOrder.size());
+        for (StoredBelief stored : firstOrder.values()) {
+            if (!stored.isDead(now, minimum)) {
+                live.add(stored.at(now));
+            }
+        }
+        return List.copyOf(live);
+    }
+
+    /**
+     * The {@code k} most confident live beliefs, most confident first.
+     * Costs O(k) per distinct decay rate rather than a sort over every belief.
+     */
+    public List<Belief> topBeliefs(int k) {
+        long now = clock.get();
+        List<StoredBelief> top = collectTop(k, now);
+        List<Belief> beliefs = new ArrayList<>(top.size());
+        for (int i = 0, n = top.size(); i < n; i++) {
+            beliefs.add(top.get(i).at(now));
+        }
+        return List.copyOf(beliefs);
+    }
+
+    /**
+     * Appends the top {@code k} beliefs as {@code "\n- key: value [0.00]"} lines.
+     * Lines are cached per belief and re-rendered only when the rounded confidence changes.
+     *
+     * @return number of lines appended
+     */
+    int appendTopBeliefLines(int k, StringBuilder out) {
+        long now = clock.get();
+        List<StoredBelief> top = collectTop(k, now);
+        for (int i = 0, n = top.size(); i < n; i++) {
+            out.append('\n').append(top.get(i).line(now));
+        }
+        return top.size();
+    }
+
+    private List<StoredBelief> collectTop(int k, long now) {
+        if (k <= 0 || firstOrder.isEmpty()) {
+            return List.of();
+        }
+        float minimum = decayPolicy.minimumRetainedConfidence();
+        List<StoredBelief> early = aheadOf(now, minimum);
+        List<Iterator<StoredBelief>> lists = new ArrayList<>(ranked.size());
+        for (ConcurrentSkipListSet<StoredBelief> set : ranked.values()) {
+            lists.add(set.iterator());
+        }
+        int listCount = lists.size();
+        StoredBelief[] heads = new StoredBelief[listCount];
+        float[] headConfidence = new float[listCount];
+        for (int i = 0; i < listCount; i++) {
+            advanceHead(lists.get(i), heads, headConfidence, i, now, minimum);
+        }
+        List<StoredBelief> top = new ArrayList<>(Math.min(k, 64));
+        int nextEarly = 0;
+        while (top.size() < k) {
+            int best = -1;
+            for (int i = 0; i < listCount; i++) {
+                if (heads[i] != null && (best < 0 || headConfidence[i] > headConfidence[best])) {
+                    best = i;
+                }
+            }
+            if (nextEarly < early.size()
+                    && (best < 0 || early.get(nextEarly).base.confidence() > headConfidence[best])) {
+                top.add(early.get(nextEarly++));
+                continue;
+            }
+            if (best < 0) {
+                break;
+            }
+            top.add(heads[best]);
+            advanceHead(lists.get(best), heads, headConfidence, best, now, minimum);
+        }
+        return top;
+    }
+
+    /**
+     * Moves beliefs the clock has reached into their rate lists, then returns the live ones
+     * still ahead of {@code now}, most confident first. Their confidence is flat until then.
+     */
+    private List<StoredBelief> aheadOf(long now, float minimum) {
+        if (ahead.isEmpty()) {
+            return List.of();
+        }
+        promoteReached(now);
+        List<StoredBelief> early = new ArrayList<>();
+        for (StoredBelief stored : ahead) {
+            if (stored.base.lastReinforcedAtTick() > now && stored.base.confidence() >= minimum) {
+                early.add(stored);
+            }
+        }
+        early.sort(Comparator.comparingDouble((StoredBelief stored) -> stored.base.confidence()).reversed()
+            .thenComparingInt(stored -> stored.key.id()));
+        return early;
+    }
+
+    private void promoteReached(long now) {
+        for (StoredBelief stored : ahead) {
+            if (stored.base.lastReinforcedAtTick() <= now) {
+                promote(stored);
+            }
+        }
+    }
+
+    /** Re-indexes under the key's compute lock, so a concurrent reassertion wins. */
+    private void promote(StoredBelief stored) {
+        firstOrder.computeIfPresent(stored.key, (key, current) -> {
+            if (current == stored && ahead.remove(stored)) {
+                rankedFor(stored.decayRate).add(stored);
+            }
+            return current;
+        });
+    }
+
+    /**
+     * Moves a rate list's head to its next live entry. An entry stamped after {@code now} can
+     * only be here if another reader promoted it against a later clock; it is skipped, as the
+     * ahead set serves it. Among the rest confidence only falls down the list, so the first
+     * entry below the floor ends it.
+     */
+    private static void advanceHead(Iterator<StoredBelief> it, StoredBelief[] heads, float[] headConfidence,
+                                    int slot, long now, float minimum) {
+        heads[slot] = null;
+        while (it.hasNext()) {
+            StoredBelief next = it.next();
+            if (next.base.lastReinforcedAtTick() > now) {
+                continue;
+            }
+            float confidence = next.confidenceAt(now);
+            if (confidence >= minimum) {
+                heads[slot] = next;
+                headConfidence[slot] = confidence;
+            }
+            return;
+        }
     }
 
     public List<Belief> staleBeliefs(long currentTick) {
@@ -77,23 +296,94 @@ public final class BeliefModel {
         return Optional.ofNullable(map.get(key));
     }
 
+    /** Advances the decay clock — O(1); confidences are re-evaluated lazily on read. */
+    public void advanceTo(long tick) {
+        long now = clock.accumulateAndGet(tick, Math::max);
+        if (!ahead.isEmpty()) {
+            promoteReached(now);
+        }
+    }
+
+    /** Bumped on every assertion and eviction — decay alone does not change it. */
+    public long version() {
+        return version.get();
+    }
+
+    /** Current decay clock tick. */
+    public long currentTick() {
+        return clock.get();
+    }
+
+    /**
+     * Advances the clock to {@code currentTick} and evicts every belief that has decayed
+     * below the retention floor. Full pass — prefer {@link #sweep(int)} on hot paths.
+     */
     public void decay(long currentTick) {
-        List<String> toRemove = new ArrayList<>();
-        firstOrder.forEach((key, belief) -> {
-            if (belief.lastReinforcedAtTick() < currentTick) {
-                Belief decayed = belief.decayed(decayPolicy.decayPerTick());
-                if (decayed.confidence() < decayPolicy.minimumRetainedConfidence()) {
-                    toRemove.add(key);
-                } else {
-                    firstOrder.put(key, decayed);
-                }
+        advanceTo(currentTick);
+        evictDead(Integer.MAX_VALUE, firstOrder.entrySet().iterator());
+    }
+
+    /**
+     * Budgeted eviction pass — examines at most {@code maxExamined} beliefs, resuming
+     * where the previous sweep stopped.
+     *
+     * @return number of beliefs examined
+     */
+    public synchronized int sweep(int maxExamined) {
+        if (sweepCursor == null || !sweepCursor.hasNext()) {
+            sweepCursor = firstOrder.entrySet().iterator();
+        }
+        int examined = evictDead(maxExamined, sweepCursor);
+        if (!sweepCursor.hasNext()) {
+            sweepCursor = null;
+        }
+        return examined;
+    }
+
+    private int evictDead(int maxExamined, Iterator<Map.Entry<BeliefKey, StoredBelief>> it) {
+        long now = clock.get();
+        float minimum = decayPolicy.minimumRetainedConfidence();
+        int examined = 0;
+        while (examined < maxExamined && it.hasNext()) {
+            Map.Entry<BeliefKey, StoredBelief> entry = it.next();
+            examined++;
+            StoredBelief stored = entry.getValue();
+            // Conditional remove — a concurrent reinforcement wins over eviction.
+            if (stored.isDead(now, minimum) && firstOrder.remove(entry.getKey(), stored)) {
+                unindex(stored);
+                version.incrementAndGet();
             }
-        });
-        toRemove.forEach(firstOrder::remove);
+        }
+        return examined;
+    }
+
+    /**
+     * Typed ingestion path — one interned-key belief per visual or auditory stimulus.
+     * No reflection and no per-percept key strings.
+     */
+    public void updateFromPerception(PerceptionFrame frame, long tick) {
+        if (frame == null) {
+            return;
+        }
+        List<? extends PerceivedStimulus> percepts = frame.percepts();
+        for (int i = 0, n = percepts.size(); i < n; i++) {
+            PerceivedStimulus percept = percepts.get(i);
+            if (percept == null || percept.source() == null) {
+                continue;
+            }
+            BeliefKey key = switch (percept.channel()) {
+                case VISUAL -> BeliefKey.entityVisible(percept.source());
+                case AUDITORY -> BeliefKey.entityAudible(percept.source());
+                case OTHER -> null;
+            };
+            if (key != null) {
+                assertBelief(key, percept.location(), percept.rawIntensity(), tick, BeliefSource.PERCEPT);
+            }
+        }
     }
 
     /**
-     * Reflection bridge to avoid a module cycle (perception already requires cognition).
+     * Reflection bridge for snapshot types that do not implement {@link PerceptionFrame}.
      * Expected shape: snapshot.percepts() -> List of objects with source(), stimulusType(),
      * location(), rawIntensity().
      */
@@ -101,6 +391,10 @@ public final class BeliefModel {
         if (snapshot == null) {
             return;
         }
+        if (snapshot instanceof PerceptionFrame frame) {
+            updateFromPerception(frame, tick);
+            return;
+        }
         try {
             Method perceptsMethod = snapshot.getClass().getMethod("percepts");
             Object perceptsObj = perceptsMethod.invoke(snapshot);
@@ -121,14 +415,14 @@ public final class BeliefModel {
 
                 if ("VISUAL".equals(stimulus)) {
                     assertBelief(
-                        "entity." + source.id() + ".visible",
+                        BeliefKey.entityVisible(source),
                         location,
                         intensity,
                         tick,
                         BeliefSource.PERCEPT);
                 } else if ("AUDITORY".equals(stimulus)) {
                     assertBelief(
-                        "entity." + source.id() + ".audible",
+                        BeliefKey.entityAudible(source),
                         location,
                         intensity,
                         tick,
@@ -147,7 +441,8 @@ public final class BeliefModel {
      * @param percept the percept delivered from PerceptBus
      */
     public void updateFromPercept(Percept percept) {
-        String key = "percept." + percept.perceptType().toLowerCase().replace('.', '_');
+        BeliefKey key = PERCEPT_TYPE_KEYS.computeIfAbsent(percept.perceptType(),
+            type -> BeliefKey.of("percept." + type.toLowerCase().replace('.', '_')));
         assertBelief(
             key,
             percept.payload(),
@@ -183,7 +478,84 @@ public final class BeliefModel {
         return 0f;
     }
 
+    private ConcurrentSkipListSet<StoredBelief> rankedFor(float decayRate) {
+        return ranked.computeIfAbsent(decayRate, ignored -> new ConcurrentSkipListSet<>(BY_RANK_DESC));
+    }
+
+    private void unindex(StoredBelief stored) {
+        if (ahead.remove(stored)) {
+            return;
+        }
+        ConcurrentSkipListSet<StoredBelief> set = ranked.get(stored.decayRate);
+        if (set != null) {
+            set.remove(stored);
+        }
+    }
+
     private static float clamp01(float value) {
         return Math.max(0f, Math.min(1f, value));
     }
+
+    /** Belief as of its last reinforcement plus the rate it decays from there. */
+    private static final class StoredBelief {
+
+        final BeliefKey key;
+        final Belief base;
+        final float decayRate;
+        /**
+         * Decay-invariant ordering score once the clock has reached the belief's tick: log of
+         * the confidence extrapolated back to tick 0.
+         */
+        final double rank;
+        private String linePrefix;
+        private volatile RenderedLine rendered;
+
+        StoredBelief(BeliefKey key, Belief base, float decayRate) {
+            this.key = key;
+            this.base = base;
+            this.decayRate = decayRate;
+            this.rank = Math.log(base.confidence()) + (double) decayRate * base.lastReinforcedAtTick();
+        }
+
+        float confidenceAt(long tick) {
+            long elapsed = tick - base.lastReinforcedAtTick();
+            if (elapsed <= 0L || decayRate == 0f) {
+                return base.confidence();
+            }
+            return (float) (base.confidence() * Math.exp(-(double) decayRate * elapsed));
+        }
+
+        boolean isDead(long tick, float minimum) {
+            return confidenceAt(tick) < minimum;
+        }
+
+        Belief at(long tick) {
+            float confidence = confidenceAt(tick);
+            if (confidence == base.confidence()) {
+                return base;
+            }
+            return new Belief(base.key(), base.value(), confidence, base.formedAtTick(),
+                base.lastReinforcedAtTick(), base.source(), base.holder());
+        }
+
+        /** {@code "- key: value [0.00]"} at the given tick, cached per rounded confidence. */
+        String line(long tick) {
+            int hundredths = (int) Math.round(confidenceAt(tick) * 100.0);
+            RenderedLine cached = rendered;
+            if (cached == null || cached.hundredths() != hundredths) {
+                String prefix = linePrefix;
+                if (prefix == null) {
+                    prefix = "- " + base.key() + ": " + base.value() + " [";
+                    linePrefix = prefix;
+                }
+                StringBuilder line = new StringBuilder(prefix.length() + 6).append(prefix);
+                PromptContextCompiler.appendHundredths(line, hundredths);
+                cached = new RenderedLine(hundredths, line.append(']').toString());
+                rendered = cached;
+            }
+            return cached.line();
+        }
+    }
+
+    private record RenderedLine(int hundredths, String line) {}
 }
@@ -2,21 +2,29 @@ package org.dynamisengine.ai.cognition;
 
 import org.dynamisengine.core.entity.EntityId;
 
+import java.util.Iterator;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Owns per-entity belief models and the decay clock they share.
+ * Advancing the clock is O(1); eviction of dead beliefs runs in budgeted {@link #sweep} passes.
+ */
 public final class BeliefModelRegistry {
 
     private final BeliefDecayPolicy defaultPolicy;
     private final ConcurrentMap<EntityId, BeliefModel> models = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong(0L);
+    private Iterator<BeliefModel> sweepCursor;
 
     public BeliefModelRegistry(BeliefDecayPolicy defaultPolicy) {
         this.defaultPolicy = defaultPolicy;
     }
 
     public BeliefModel getOrCreate(EntityId entityId) {
-        return models.computeIfAbsent(entityId, id -> new BeliefModel(id, defaultPolicy));
+        return models.computeIfAbsent(entityId, id -> new BeliefModel(id, defaultPolicy, clock));
     }
 
     public Optional<BeliefModel> get(EntityId entityId) {
@@ -27,10 +35,48 @@ public final class BeliefModelRegistry {
         models.remove(entityId);
     }
 
+    /**
+     * Advances the shared decay clock — confidences are evaluated lazily on read. Drive it
+     * from canonical world time only; belief assertions never move it.
+     */
+    public void advanceTo(long tick) {
+        clock.accumulateAndGet(tick, Math::max);
+    }
+
+    public long currentTick() {
+        return clock.get();
+    }
+
+    /** Advances the clock and evicts dead beliefs from every model. Full pass — O(all beliefs). */
     public void decayAll(long currentTick) {
+        advanceTo(currentTick);
         models.values().forEach(model -> model.decay(currentTick));
     }
 
+    /**
+     * Budgeted background eviction — examines at most {@code maxExamined} beliefs across
+     * models, continuing round-robin from where the previous sweep stopped.
+     *
+     * @return number of beliefs examined
+     */
+    public synchronized int sweep(int maxExamined) {
+        int examined = 0;
+        int modelsVisited = 0;
+        int modelCount = models.size();
+        while (examined < maxExamined && modelsVisited <= modelCount) {
+            if (sweepCursor == null || !sweepCursor.hasNext()) {
+                sweepCursor = models.values().iterator();
+                if (!sweepCursor.hasNext()) {
+                    break;
+                }
+            }
+            BeliefModel model = sweepCursor.next();
+            modelsVisited++;
+            examined += model.sweep(maxExamined - examined);
+        }
+        return examined;
+    }
+
     public int registeredCount() {
         return models.size();
     }
@@ -3,6 +3,8 @@ package org.dynamisengine.ai.cognition;
 import org.dynamisengine.core.entity.EntityId;
 import org.dynamisengine.scripting.api.value.CanonTime;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
@@ -15,6 +17,41 @@ public interface CognitionService {
      */
     CompletableFuture<DialogueResponse> requestDialogue(DialogueRequest request);
 
+    /**
+     * Streaming variant — the listener receives dialogue fields as the model emits them,
+     * so voice synthesis can start before generation finishes. The returned future remains
+     * authoritative: it may still complete with a fallback after text has been streamed.
+     * The default implementation replays the completed response to the listener.
+     */
+    default CompletableFuture<DialogueResponse> requestDialogue(DialogueRequest request,
+                                                                DialogueStreamListener listener) {
+        return requestDialogue(request).thenApply(response -> {
+            listener.onTextDelta(response.text());
+            listener.onTextComplete(response.text());
+            listener.onAffectComplete(response.affect());
+            listener.onTagsComplete(response.nonverbalTags());
+            return response;
+        });
+    }
+
+    /**
+     * Group variant — one line per speaker for several NPCs reacting to the same input.
+     * The future always completes with an entry for every speaker, using fallbacks where
+     * no line was produced. The default implementation issues one request per speaker.
+     */
+    default CompletableFuture<Map<EntityId, DialogueResponse>> requestGroupDialogue(GroupDialogueRequest request) {
+        Map<EntityId, CompletableFuture<DialogueResponse>> futures = new LinkedHashMap<>();
+        for (EntityId speaker : request.speakers()) {
+            futures.put(speaker, requestDialogue(request.forSpeaker(speaker)));
+        }
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+            .thenApply(ignored -> {
+                Map<EntityId, DialogueResponse> responses = new LinkedHashMap<>();
+                futures.forEach((speaker, future) -> responses.put(speaker, future.join()));
+                return responses;
+            });
+    }
+
     /**
      * Deterministic variant of dialogue inference with explicit seed.
      */
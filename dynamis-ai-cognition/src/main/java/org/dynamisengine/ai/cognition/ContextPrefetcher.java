@@ -0,0 +1,153 @@
+package org.dynamisengine.ai.cognition;
+
+import org.dynamisengine.ai.core.Location;
+import org.dynamisengine.ai.core.LodTier;
+import org.dynamisengine.core.entity.EntityId;
+import org.dynamisengine.core.logging.DynamisLogger;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warms a {@link PromptContextCompiler}'s segment cache before an NPC is spoken to.
+ *
+ * Triggered when the NPC's LOD rises to {@link LodTier#TIER_0} or when the player's motion
+ * predicts an approach. Every section — beliefs, mood, memories, social standing — renders
+ * on a virtual thread, and the compiler's per-section versions decide what is still valid
+ * when the real request arrives. Sections that depend on the player's line, such as memory
+ * retrieval, are prefetched once per likely input as well as for the template's own line, so
+ * they only cost the request path when the player says something else. Wire the same
+ * compiler instance into the inference backend.
+ *
+ * At most one prefetch per NPC runs at a time; triggers arriving meanwhile share it.
+ */
+public final class ContextPrefetcher {
+
+    private static final DynamisLogger log = DynamisLogger.get(ContextPrefetcher.class);
+
+    /** Default distance within which an approaching player is expected to talk. */
+    public static final float DEFAULT_APPROACH_RADIUS = 6f;
+
+    /** Default look-ahead, in player position updates, for approach prediction. */
+    public static final float DEFAULT_APPROACH_HORIZON = 30f;
+
+    private final PromptContextCompiler compiler;
+    private final List<String> likelyInputs;
+    private final ExecutorService executor;
+    private final ConcurrentMap<EntityId, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong prefetches = new AtomicLong(0L);
+
+    /** Prefetches the template plus {@link SpeculativeDialogueStage#DEFAULT_OPENINGS}. */
+    public ContextPrefetcher(PromptContextCompiler compiler) {
+        this(compiler, SpeculativeDialogueStage.DEFAULT_OPENINGS);
+    }
+
+    /** @param likelyInputs player lines to prefetch besides the template's own */
+    public ContextPrefetcher(PromptContextCompiler compiler, Collection<String> likelyInputs) {
+        this.compiler = Objects.requireNonNull(compiler, "compiler");
+        this.likelyInputs = List.copyOf(likelyInputs);
+        this.executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("cognition-prefetch-", 0).factory());
+    }
+
+    /** Prefetches when the NPC's LOD rises to TIER_0; the future completes once it has run. */
+    public CompletableFuture<Void> onLodChanged(DialogueRequest template, LodTier previous, LodTier current) {
+        if (current == LodTier.TIER_0 && previous != LodTier.TIER_0) {
+            return prefetch(template);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Prefetches when the player's last movement, extrapolated over the default horizon,
+     * brings them within the default radius of the NPC.
+     */
+    public CompletableFuture<Void> onPlayerMoved(DialogueRequest template, Location previousPlayer,
+                                                 Location player, Location npc) {
+        if (predictsApproach(previousPlayer, player, npc, DEFAULT_APPROACH_RADIUS, DEFAULT_APPROACH_HORIZON)) {
+            return prefetch(template);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Whether the player is within {@code radius} of the NPC now, or will be within
+     * {@code horizon} more steps of the last displacement — closest point of approach
+     * on the XZ plane.
+     */
+    public static boolean predictsApproach(Location previousPlayer, Location player, Location npc,
+                                           float radius, float horizon) {
+        float dx = npc.x() - player.x();
+        float dz = npc.z() - player.z();
+        float radiusSq = radius * radius;
+        if (dx * dx + dz * dz <= radiusSq) {
+            return true;
+        }
+        float vx = player.x() - previousPlayer.x();
+        float vz = player.z() - previousPlayer.z();
+        float speedSq = vx * vx + vz * vz;
+        if (speedSq == 0f) {
+            return false;
+        }
+        float t = (dx * vx + dz * vz) / speedSq;
+        if (t <= 0f) {
+            return false;
+        }
+        t = Math.min(t, horizon);
+        float cx = dx - vx * t;
+        float cz = dz - vz * t;
+        return cx * cx + cz * cz <= radiusSq;
+    }
+
+    /**
+     * Renders the template's stale context sections in the background, once per likely
+     * input and finally for the template itself.
+     */
+    public CompletableFuture<Void> prefetch(DialogueRequest template) {
+        Objects.requireNonNull(template, "template");
+        EntityId npc = template.speaker();
+        if (npc == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        CompletableFuture<Void> running = inFlight.putIfAbsent(npc, started);
+        if (running != null) {
+            return running;
+        }
+        prefetches.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                for (String input : likelyInputs) {
+                    if (!input.equals(template.inputSpeech())) {
+                        compiler.prefetch(new DialogueRequest(npc, template.target(), input,
+                            template.context(), template.currentMood(), template.snapshot()));
+                    }
+                }
+                compiler.prefetch(template);
+                inFlight.remove(npc, started);
+                started.complete(null);
+            } catch (RuntimeException e) {
+                inFlight.remove(npc, started);
+                log.warn(String.format("Context prefetch failed for %s: %s", npc, e.getMessage()));
+                started.completeExceptionally(e);
+            }
+        });
+        return started;
+    }
+
+    /** Prefetches started, excluding triggers that joined one already running. */
+    public long prefetchCount() {
+        return prefetches.get();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -4,8 +4,11 @@ import org.dynamisengine.core.entity.EntityId;
 import org.dynamisengine.core.logging.DynamisLogger;
 import org.dynamisengine.scripting.api.value.CanonTime;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
@@ -23,20 +26,31 @@ public final class DefaultCognitionService implements CognitionService {
 
     private static final DynamisLogger log = DynamisLogger.get(DefaultCognitionService.class);
 
-    /** Hard deadline — LLM must respond within this window or fallback is served. */
+    /** Cold-start deadline — used until AdaptiveInferencePolicy has latency samples. */
     private static final int DEFAULT_DEADLINE_MS = 300;
 
     /** LLM results older than this many ticks are discarded as stale. */
     private static final long MAX_STALE_TICKS = 10L;
 
+    /** Dialogue requests between background belief eviction sweeps. */
+    private static final long BELIEF_SWEEP_INTERVAL = 60L;
+
+    /** Max beliefs examined per background eviction sweep. */
+    private static final int BELIEF_SWEEP_BUDGET = 4096;
+
     /** Max concurrent in-flight inference requests. */
     private static final int MAX_CONCURRENT = 16;
 
+    /** Belief tokens shared by all speakers of a group prompt. */
+    private static final int GROUP_BELIEF_TOKEN_BUDGET = 512;
+
+    /** Output tokens requested per speaker of a group generation. */
+    private static final int GROUP_TOKENS_PER_SPEAKER = 160;
+
     private final InferenceBackend backend;
     private final ResponseParser parser;
     private final ResponseCache cache;
     private final Map<EntityId, String> fallbackLines;
-    private final int inferenceDeadlineMs;
     private final ExecutorService executor;
     private final Semaphore concurrencyLimit;
     private final AtomicInteger queueDepth = new AtomicInteger(0);
@@ -45,6 +59,9 @@ public final class DefaultCognitionService implements CognitionService {
     private final BeliefModelRegistry beliefRegistry;
     private final AtomicLong deliberativeTickCounter = new AtomicLong(0L);
     private final AtomicReference<Supplier<CanonTime>> canonTimeSource;
+    private final InferenceTelemetry telemetry;
+    private final AdaptiveInferencePolicy inferencePolicy;
+    private volatile SpeculativeDialogueStage speculation;
 
     public DefaultCognitionService(InferenceBackend backend,
                                    ResponseParser parser,
@@ -71,13 +88,14 @@ public final class DefaultCognitionService implements CognitionService {
         this.parser = parser;
         this.cache = cache;
         this.fallbackLines = fallbackLines;
-        this.inferenceDeadlineMs = inferenceDeadlineMs;
         this.executor = Executors.newThreadPerTaskExecutor(
             Thread.ofVirtual().name("cognition-", 0).factory());
         this.concurrencyLimit = new Semaphore(MAX_CONCURRENT);
         this.beliefRegistry = new BeliefModelRegistry(BeliefDecayPolicy.defaultPolicy());
         this.canonTimeSource = new AtomicReference<>(
             Objects.requireNonNull(canonTimeSource, "canonTimeSource"));
+        this.telemetry = new InferenceTelemetry(backend == null ? "none" : backend.backendName());
+        this.inferencePolicy = new AdaptiveInferencePolicy(telemetry, inferenceDeadlineMs, MAX_STALE_TICKS);
     }
 
     /** Existing constructor — default deadline. */
@@ -107,54 +125,226 @@ public final class DefaultCognitionService implements CognitionService {
         long seed = request.snapshot() != null
             ? request.snapshot().seedFor(request.speaker())
             : 42L;
-        return runInference(request, seed, false);
+        return runInference(request, seed, false, null);
+    }
+
+    @Override
+    public CompletableFuture<DialogueResponse> requestDialogue(DialogueRequest request,
+                                                               DialogueStreamListener listener) {
+        Objects.requireNonNull(listener, "listener");
+        long seed = request.snapshot() != null
+            ? request.snapshot().seedFor(request.speaker())
+            : 42L;
+        return runInference(request, seed, false, listener);
+    }
+
+    /**
+     * Answers every speaker from one generation: beliefs are merged into a single prompt by
+     * {@link GroupPromptBuilder} and the output split by {@link GroupResponseParser} as it
+     * streams in. Takes one concurrency slot regardless of group size; speakers left without a
+     * line get their fallback. Planned and recorded as {@link InferenceRequestClass#GROUP}.
+     */
+    @Override
+    public CompletableFuture<Map<EntityId, DialogueResponse>> requestGroupDialogue(GroupDialogueRequest request) {
+        List<EntityId> speakers = request.speakers();
+        advanceBeliefs();
+        queueDepth.incrementAndGet();
+        final long submittedAt = System.nanoTime();
+
+        if (!concurrencyLimit.tryAcquire()) {
+            queueDepth.decrementAndGet();
+            telemetry.requestRejected();
+            log.debug(String.format("Concurrency limit reached for group of %d — serving fallbacks", speakers.size()));
+            return CompletableFuture.completedFuture(completeGroup(speakers, Map.of(), false));
+        }
+        telemetry.requestStarted();
+        SpeculativeDialogueStage stage = speculation;
+        if (stage != null) {
+            stage.yieldToRequest();
+        }
+        final long requestTick = currentTick();
+        inferencePolicy.observeTick(requestTick);
+        EntityId lead = speakers.getFirst();
+        long seed = request.snapshot() != null ? request.snapshot().seedFor(lead) : 42L;
+        GenerationConfig creative = GenerationConfig.creative(seed);
+        InferencePlan plan = inferencePolicy.plan(request.forSpeaker(lead), InferenceRequestClass.GROUP,
+            new GenerationConfig(Math.max(creative.maxTokens(), GROUP_TOKENS_PER_SPEAKER * speakers.size()),
+                creative.temperature(), seed, false));
+
+        AtomicBoolean released = new AtomicBoolean(false);
+        AtomicBoolean servedFallback = new AtomicBoolean(false);
+        AtomicBoolean timedOut = new AtomicBoolean(false);
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        GenerationClock clock = new GenerationClock(submittedAt);
+        CompletableFuture<Map<EntityId, DialogueResponse>> future = CompletableFuture
+            .supplyAsync(() -> {
+                Thread self = Thread.currentThread();
+                worker.set(self);
+                recordStart(InferenceRequestClass.GROUP, clock);
+                try {
+                    String prompt = GroupPromptBuilder.build(request, beliefRegistry, GROUP_BELIEF_TOKEN_BUDGET);
+                    GroupResponseParser parser = new GroupResponseParser(speakers);
+                    String json = backend.generate(prompt, plan.config(), chunk -> {
+                        clock.onChunk(chunk);
+                        parser.accept(chunk);
+                    });
+                    recordGeneration(InferenceRequestClass.GROUP, clock, json);
+                    return parser.finish();
+                } catch (InferenceException e) {
+                    log.warn(String.format("Group inference failed for %d speakers — serving fallbacks: %s", speakers.size(), e.getMessage()));
+                    return Map.<EntityId, DialogueResponse>of();
+                } finally {
+                    if (!worker.compareAndSet(self, null)) {
+                        Thread.interrupted();
+                    }
+                }
+            }, executor)
+            .orTimeout(plan.deadlineMs(), TimeUnit.MILLISECONDS)
+            .handle((lines, ex) -> {
+                completedCount.incrementAndGet();
+                if (ex != null) {
+                    if (isTimeout(ex)) {
+                        timeoutCount.incrementAndGet();
+                        timedOut.set(true);
+                        recordCensored(InferenceRequestClass.GROUP, clock);
+                        cancelWorker(worker);
+                    }
+                    log.warn(String.format("Group dialogue request failed for %d speakers — fallbacks", speakers.size()));
+                    lines = Map.of();
+                } else if (currentTick() - requestTick > MAX_STALE_TICKS) {
+                    log.debug(String.format("Stale group result discarded for %d speakers", speakers.size()));
+                    lines = Map.of();
+                }
+                servedFallback.set(lines.size() < speakers.size());
+                return completeGroup(speakers, lines, true);
+            });
+
+        return future.whenComplete((r, ex) -> {
+            if (released.compareAndSet(false, true)) {
+                concurrencyLimit.release();
+                queueDepth.decrementAndGet();
+                telemetry.recordStage(InferenceRequestClass.GROUP, InferenceStage.TOTAL, System.nanoTime() - submittedAt);
+                telemetry.requestFinished(timedOut.get(), servedFallback.get());
+                if (stage != null) {
+                    stage.resume();
+                }
+            }
+        });
+    }
+
+    /** Every speaker in request order — generated lines are cached, missing ones fall back. */
+    private Map<EntityId, DialogueResponse> completeGroup(List<EntityId> speakers,
+                                                          Map<EntityId, DialogueResponse> lines,
+                                                          boolean cacheLines) {
+        Map<EntityId, DialogueResponse> responses = new LinkedHashMap<>();
+        for (EntityId speaker : speakers) {
+            DialogueResponse line = lines.get(speaker);
+            if (line == null) {
+                responses.put(speaker, getFallback(speaker));
+            } else {
+                if (cacheLines) {
+                    cache.put(speaker, line);
+                }
+                responses.put(speaker, line);
+            }
+        }
+        return responses;
     }
 
     @Override
     public CompletableFuture<DialogueResponse> inferDeterministic(DialogueRequest request, long seed) {
-        return runInference(request, seed, true);
+        return runInference(request, seed, true, null);
     }
 
     private CompletableFuture<DialogueResponse> runInference(DialogueRequest request,
                                                              long seed,
-                                                             boolean deterministic) {
-        long tick = deliberativeTickCounter.incrementAndGet();
-        if (tick % 60L == 0L) {
-            beliefRegistry.decayAll(tick);
+                                                             boolean deterministic,
+                                                             DialogueStreamListener listener) {
+        advanceBeliefs();
+        SpeculativeDialogueStage stage = speculation;
+        if (stage != null && !deterministic) {
+            Optional<DialogueResponse> speculated = stage.take(request);
+            if (speculated.isPresent()) {
+                DialogueResponse response = speculated.get();
+                cache.put(request.speaker(), response);
+                if (listener != null) {
+                    replay(listener, response);
+                }
+                return CompletableFuture.completedFuture(response);
+            }
         }
         queueDepth.incrementAndGet();
+        InferenceRequestClass requestClass = listener != null
+            ? InferenceRequestClass.STREAMING
+            : deterministic ? InferenceRequestClass.DETERMINISTIC : InferenceRequestClass.INTERACTIVE;
+        final long submittedAt = System.nanoTime();
 
         if (!concurrencyLimit.tryAcquire()) {
             queueDepth.decrementAndGet();
+            telemetry.requestRejected();
             log.debug(String.format("Concurrency limit reached for %s — serving fallback", request.speaker()));
             return CompletableFuture.completedFuture(getFallback(request.speaker()));
         }
+        telemetry.requestStarted();
+        if (stage != null) {
+            stage.yieldToRequest();
+        }
         final long requestTick = currentTick();
+        inferencePolicy.observeTick(requestTick);
+        InferencePlan plan = inferencePolicy.plan(request, requestClass, deterministic
+            ? GenerationConfig.deterministic(seed)
+            : GenerationConfig.creative(seed));
 
         AtomicBoolean released = new AtomicBoolean(false);
+        AtomicBoolean servedFallback = new AtomicBoolean(false);
+        AtomicBoolean timedOut = new AtomicBoolean(false);
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        GenerationClock clock = new GenerationClock(submittedAt);
         CompletableFuture<DialogueResponse> future = CompletableFuture
             .supplyAsync(() -> {
+                Thread self = Thread.currentThread();
+                worker.set(self);
+                recordStart(requestClass, clock);
                 try {
                     InferenceRequest inferenceRequest = deterministic
                         ? InferenceRequest.seeded(request, seed)
                         : InferenceRequest.unseeded(request);
-                    GenerationConfig config = deterministic
-                        ? GenerationConfig.deterministic(seed)
-                        : GenerationConfig.creative(seed);
 
-                    String json = backend.generate(inferenceRequest, config);
-                    return parser.parse(json);
+                    StreamingResponseParser streaming = listener == null
+                        ? null
+                        : new StreamingResponseParser(listener);
+                    String json = backend.generate(inferenceRequest, plan.config(), chunk -> {
+                        clock.onChunk(chunk);
+                        if (streaming != null) {
+                            streaming.accept(chunk);
+                        }
+                    });
+                    recordGeneration(requestClass, clock, json);
+                    if (streaming == null) {
+                        return parser.parse(json);
+                    }
+                    return streaming.sawRoot() ? streaming.finish() : parser.parse(json);
                 } catch (InferenceException e) {
                     log.warn(String.format("Inference failed for %s — serving fallback: %s", request.speaker(), e.getMessage()));
+                    servedFallback.set(true);
                     return getFallback(request.speaker());
+                } finally {
+                    if (!worker.compareAndSet(self, null)) {
+                        // Cancelled at the deadline — clear the interrupt before the thread is reused.
+                        Thread.interrupted();
+                    }
                 }
             }, executor)
-            .orTimeout(inferenceDeadlineMs, TimeUnit.MILLISECONDS)
+            .orTimeout(plan.deadlineMs(), TimeUnit.MILLISECONDS)
             .handle((result, ex) -> {
                 completedCount.incrementAndGet();
                 if (ex != null) {
+                    servedFallback.set(true);
                     if (isTimeout(ex)) {
                         timeoutCount.incrementAndGet();
+                        timedOut.set(true);
+                        recordCensored(requestClass, clock);
+                        cancelWorker(worker);
                         log.warn(String.format("Dialogue request timed out for %s — fallback", request.speaker()));
                     } else {
                         Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
@@ -168,6 +358,7 @@ public final class DefaultCognitionService implements CognitionService {
                     log.debug(String.format(
                         "Stale LLM result discarded for %s — %d ticks elapsed (max %d)",
                         request.speaker(), elapsedTicks, MAX_STALE_TICKS));
+                    servedFallback.set(true);
                     return getFallback(request.speaker());
                 }
 
@@ -179,10 +370,94 @@ public final class DefaultCognitionService implements CognitionService {
             if (released.compareAndSet(false, true)) {
                 concurrencyLimit.release();
                 queueDepth.decrementAndGet();
+                telemetry.recordStage(requestClass, InferenceStage.TOTAL, System.nanoTime() - submittedAt);
+                telemetry.requestFinished(timedOut.get(), servedFallback.get());
+                if (stage != null) {
+                    stage.resume();
+                }
             }
         });
     }
 
+    /**
+     * Moves the belief decay clock to canonical world time — the only clock beliefs decay
+     * against — and schedules a budgeted eviction sweep every {@link #BELIEF_SWEEP_INTERVAL}
+     * requests.
+     */
+    private void advanceBeliefs() {
+        beliefRegistry.advanceTo(currentTick());
+        if (deliberativeTickCounter.incrementAndGet() % BELIEF_SWEEP_INTERVAL == 0L) {
+            executor.execute(() -> beliefRegistry.sweep(BELIEF_SWEEP_BUDGET));
+        }
+    }
+
+    private static void replay(DialogueStreamListener listener, DialogueResponse response) {
+        listener.onTextDelta(response.text());
+        listener.onTextComplete(response.text());
+        listener.onAffectComplete(response.affect());
+        listener.onTagsComplete(response.nonverbalTags());
+    }
+
+    /**
+     * Interrupts a generation that outlived its deadline so interruptible backends
+     * (streaming HTTP reads, simulated latency) stop spending capacity on a discarded result.
+     */
+    private static void cancelWorker(AtomicReference<Thread> worker) {
+        Thread thread = worker.getAndSet(null);
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void recordStart(InferenceRequestClass requestClass, GenerationClock clock) {
+        clock.startedAt = System.nanoTime();
+        if (!clock.recorded.get()) {
+            telemetry.recordStage(requestClass, InferenceStage.QUEUE_WAIT, clock.startedAt - clock.submittedAt);
+        }
+    }
+
+    /**
+     * Splits worker time at the first output chunk into prefill and decode. Throughput is
+     * only fed when the output arrived in several chunks — a single chunk leaves no decode
+     * stage to measure. Skipped if the request already timed out — its censored sample
+     * stands in for it.
+     */
+    private void recordGeneration(InferenceRequestClass requestClass, GenerationClock clock, String json) {
+        if (!clock.recorded.compareAndSet(false, true)) {
+            return;
+        }
+        long finishedAt = System.nanoTime();
+        long splitAt = clock.firstChunkAt == 0L ? finishedAt : clock.firstChunkAt;
+        telemetry.recordStage(requestClass, InferenceStage.PREFILL, splitAt - clock.startedAt);
+        telemetry.recordStage(requestClass, InferenceStage.DECODE, finishedAt - splitAt);
+        if (clock.streamed) {
+            telemetry.recordThroughput(PromptTokenEstimator.estimate(json) - clock.firstChunkTokens,
+                finishedAt - splitAt);
+        }
+    }
+
+    /**
+     * Records a timed-out request's elapsed time against the stage it was stuck in. Without
+     * these censored samples the histograms only see generations that beat the deadline, so
+     * p99 could never exceed it and the adaptive deadline could only shrink.
+     */
+    private void recordCensored(InferenceRequestClass requestClass, GenerationClock clock) {
+        if (!clock.recorded.compareAndSet(false, true)) {
+            return;
+        }
+        long now = System.nanoTime();
+        long startedAt = clock.startedAt;
+        long firstChunkAt = clock.firstChunkAt;
+        if (startedAt == 0L) {
+            telemetry.recordStage(requestClass, InferenceStage.QUEUE_WAIT, now - clock.submittedAt);
+        } else if (firstChunkAt == 0L) {
+            telemetry.recordStage(requestClass, InferenceStage.PREFILL, now - startedAt);
+        } else {
+            telemetry.recordStage(requestClass, InferenceStage.PREFILL, firstChunkAt - startedAt);
+            telemetry.recordStage(requestClass, InferenceStage.DECODE, now - firstChunkAt);
+        }
+    }
+
     private long currentTick() {
         CanonTime canonTime = canonTimeSource.get().get();
         return canonTime == null ? CanonTime.ZERO.tick() : canonTime.tick();
@@ -244,8 +519,31 @@ public final class DefaultCognitionService implements CognitionService {
     /** Total inference requests that timed out. */
     public long getTimeoutCount() { return timeoutCount.get(); }
 
+    /** Rolling latency distributions and outcome rates for this service's backend. */
+    public InferenceTelemetry telemetry() { return telemetry; }
+
+    /**
+     * Enables speculative pre-generation against this service's backend — consulted before
+     * inference for interactive and streaming requests. Returns the stage so callers can
+     * queue likely openings as NPCs reach TIER_0 or the player approaches. The stage stays
+     * inert on a backend that cannot abort a generation.
+     */
+    public synchronized SpeculativeDialogueStage enableSpeculation(int maxEntries) {
+        if (speculation == null) {
+            speculation = new SpeculativeDialogueStage(backend, parser, telemetry, beliefRegistry, maxEntries);
+        }
+        return speculation;
+    }
+
+    /** Per-request deadline and generation-length policy; set its LOD tier source here. */
+    public AdaptiveInferencePolicy inferencePolicy() { return inferencePolicy; }
+
     @Override
     public void shutdown() {
+        SpeculativeDialogueStage stage = speculation;
+        if (stage != null) {
+            stage.shutdown();
+        }
         executor.shutdown();
         try {
             if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
@@ -256,4 +554,29 @@ public final class DefaultCognitionService implements CognitionService {
             Thread.currentThread().interrupt();
         }
     }
+
+    /** Stage boundaries of one request, shared by its worker and its deadline handler. */
+    private static final class GenerationClock {
+        private final long submittedAt;
+        private volatile long startedAt;
+        private volatile long firstChunkAt;
+        /** Worker-written: estimated tokens in the first chunk, and whether more followed. */
+        private int firstChunkTokens;
+        private boolean streamed;
+        /** Set once the request's latency has been recorded, complete or censored. */
+        private final AtomicBoolean recorded = new AtomicBoolean(false);
+
+        private GenerationClock(long submittedAt) {
+            this.submittedAt = submittedAt;
+        }
+
+        private void onChunk(CharSequence chunk) {
+            if (firstChunkAt == 0L) {
+                firstChunkAt = System.nanoTime();
+                firstChunkTokens = PromptTokenEstimator.estimate(chunk);
+            } else {
+                streamed = true;
+            }
+        }
+    }
 }
@@ -0,0 +1,25 @@
+package org.dynamisengine.ai.cognition;
+
+import java.util.List;
+
+/**
+ * Field-level events raised by {@link StreamingResponseParser} while model output streams in.
+ * Lets voice synthesis start on dialogue text before generation finishes.
+ *
+ * Events are speculative: if the request later times out or is discarded as stale,
+ * the completed future still carries the fallback response.
+ */
+public interface DialogueStreamListener {
+
+    /** Newly decoded characters of the {@code text} field. */
+    default void onTextDelta(CharSequence delta) {}
+
+    /** The {@code text} field closed. */
+    default void onTextComplete(String text) {}
+
+    /** The {@code affect} object closed — values are already clamped to their ranges. */
+    default void onAffectComplete(AffectVector affect) {}
+
+    /** The {@code tags} array closed. */
+    default void onTagsComplete(List<String> tags) {}
+}
@@ -0,0 +1,44 @@
+package org.dynamisengine.ai.cognition;
+
+import org.dynamisengine.ai.core.WorldFacts;
+import org.dynamisengine.ai.core.WorldSnapshot;
+import org.dynamisengine.core.entity.EntityId;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Several NPCs reacting to the same input — answered by one inference whose output
+ * carries a line per speaker. Context, target and snapshot are shared; moods are per speaker.
+ *
+ * @param speakers distinct speakers, in the order their lines are requested
+ * @param moods    per-speaker mood; speakers without an entry are treated as neutral
+ */
+public record GroupDialogueRequest(
+    List<EntityId> speakers,
+    EntityId target,
+    String inputSpeech,
+    WorldFacts context,
+    Map<EntityId, AffectVector> moods,
+    WorldSnapshot snapshot
+) {
+    public GroupDialogueRequest {
+        if (speakers == null || speakers.isEmpty()) {
+            throw new IllegalArgumentException("speakers must not be empty");
+        }
+        speakers = List.copyOf(speakers);
+        if (speakers.stream().distinct().count() != speakers.size()) {
+            throw new IllegalArgumentException("speakers must be distinct");
+        }
+        moods = moods == null ? Map.of() : Map.copyOf(moods);
+    }
+
+    public AffectVector moodOf(EntityId speaker) {
+        return moods.getOrDefault(speaker, AffectVector.neutral());
+    }
+
+    /** The equivalent single-speaker request. */
+    public DialogueRequest forSpeaker(EntityId speaker) {
+        return new DialogueRequest(speaker, target, inputSpeech, context, moodOf(speaker), snapshot);
+    }
+}
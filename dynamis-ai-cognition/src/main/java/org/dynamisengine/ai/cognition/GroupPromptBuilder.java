@@ -0,0 +1,138 @@
+package org.dynamisengine.ai.cognition;
+
+import org.dynamisengine.core.entity.EntityId;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Assembles one prompt asking for a line from every speaker in a {@link GroupDialogueRequest}.
+ *
+ * Beliefs are merged across speakers before rendering: a belief two or more speakers hold
+ * with the same value is written once under "Shared beliefs", annotated with its holders
+ * unless everyone holds it. The belief token budget is spent on shared lines first, since
+ * each serves several speakers, then round-robin over each speaker's own beliefs by rank.
+ */
+final class GroupPromptBuilder {
+
+    static final String INSTRUCTIONS =
+        "You are voicing several NPCs reacting to the same moment. " +
+            "Respond as JSON: {\"lines\":[{\"speaker\":<id>,\"text\":\"...\",\"affect\":{\"valence\":0.0," +
+            "\"arousal\":0.3,\"dominance\":0.5,\"sarcasm\":0.0,\"intensity\":0.3}," +
+            "\"tags\":[],\"hints\":[]}]} with one entry per speaker listed below, in order.";
+
+    /** Conservative per-line estimate used to pick how many beliefs to fetch per speaker. */
+    private static final int TOKENS_PER_LINE = 8;
+
+    private GroupPromptBuilder() {}
+
+    static String build(GroupDialogueRequest request, BeliefModelRegistry registry, int beliefTokenBudget) {
+        List<EntityId> speakers = request.speakers();
+        int perSpeaker = Math.max(1, beliefTokenBudget / TOKENS_PER_LINE);
+
+        Map<Fact, Merged> merged = new LinkedHashMap<>();
+        List<List<Merged>> own = new ArrayList<>(speakers.size());
+        for (EntityId speaker : speakers) {
+            own.add(new ArrayList<>());
+            for (Belief belief : registry.getOrCreate(speaker).topBeliefs(perSpeaker)) {
+                merged.computeIfAbsent(new Fact(belief.key(), belief.value()), Merged::new).add(speaker, belief);
+            }
+        }
+        List<Merged> shared = new ArrayList<>();
+        for (Merged fact : merged.values()) {
+            if (fact.holders.size() > 1) {
+                shared.add(fact);
+            } else {
+                own.get(speakers.indexOf(fact.holders.getFirst())).add(fact);
+            }
+        }
+        shared.sort(Comparator.comparingInt((Merged m) -> m.holders.size()).reversed()
+            .thenComparing(Comparator.comparingDouble((Merged m) -> m.confidence).reversed()));
+
+        int remaining = beliefTokenBudget;
+        StringBuilder sharedLines = new StringBuilder();
+        for (Merged fact : shared) {
+            remaining = appendWithinBudget(fact, speakers.size(), sharedLines, remaining);
+        }
+
+        StringBuilder[] speakerLines = new StringBuilder[speakers.size()];
+        int[] cursor = new int[speakers.size()];
+        for (int i = 0; i < speakerLines.length; i++) {
+            speakerLines[i] = new StringBuilder();
+        }
+        boolean progressed = true;
+        while (progressed && remaining > 0) {
+            progressed = false;
+            for (int i = 0; i < speakerLines.length; i++) {
+                List<Merged> beliefs = own.get(i);
+                if (cursor[i] < beliefs.size()) {
+                    remaining = appendWithinBudget(beliefs.get(cursor[i]++), speakers.size(), speakerLines[i], remaining);
+                    progressed = true;
+                }
+            }
+        }
+
+        StringBuilder out = new StringBuilder(INSTRUCTIONS.length() + 256 * speakers.size());
+        out.append(INSTRUCTIONS);
+        if (!sharedLines.isEmpty()) {
+            out.append("\nShared beliefs:").append(sharedLines);
+        }
+        for (int i = 0; i < speakers.size(); i++) {
+            EntityId speaker = speakers.get(i);
+            AffectVector mood = request.moodOf(speaker);
+            out.append("\nSpeaker ").append(speaker.id()).append(" (mood: valence ");
+            PromptContextCompiler.appendHundredths(out, hundredths(mood.valence()));
+            out.append(", arousal ");
+            PromptContextCompiler.appendHundredths(out, hundredths(mood.arousal()));
+            out.append("):").append(speakerLines[i]);
+        }
+        out.append("\nPlayer says: \"").append(request.inputSpeech()).append('"');
+        return out.toString();
+    }
+
+    /** Appends the belief line if it fits, returning the tokens left. */
+    private static int appendWithinBudget(Merged fact, int groupSize, StringBuilder out, int remaining) {
+        int start = out.length();
+        out.append("\n- ").append(fact.fact.key()).append(": ").append(fact.fact.value()).append(" [");
+        PromptContextCompiler.appendHundredths(out, hundredths(fact.confidence));
+        out.append(']');
+        if (fact.holders.size() > 1 && fact.holders.size() < groupSize) {
+            out.append(" (speakers");
+            for (EntityId holder : fact.holders) {
+                out.append(' ').append(holder.id());
+            }
+            out.append(')');
+        }
+        int cost = PromptTokenEstimator.estimate(out, start, out.length());
+        if (cost > remaining) {
+            out.setLength(start);
+            return remaining;
+        }
+        return remaining - cost;
+    }
+
+    private static int hundredths(float value) {
+        return (int) Math.round(value * 100.0);
+    }
+
+    private record Fact(String key, Object value) {}
+
+    private static final class Merged {
+        private final Fact fact;
+        private final List<EntityId> holders = new ArrayList<>(2);
+        private float confidence;
+
+        Merged(Fact fact) {
+            this.fact = Objects.requireNonNull(fact);
+        }
+
+        void add(EntityId holder, Belief belief) {
+            holders.add(holder);
+            confidence = Math.max(confidence, belief.confidence());
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.dynamisengine.ai.cognition;
+
+import org.dynamisengine.core.entity.EntityId;
+import org.dynamisengine.core.logging.DynamisLogger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Splits group-dialogue output — {@code {"lines":[{"speaker":id, "text":...}, ...]}} —
+ * into one {@link DialogueResponse} per speaker.
+ *
+ * Output is consumed in a single pass as it streams in: every object directly inside an
+ * array is a line and goes character by character to a {@link StreamingResponseParser}, so
+ * the usual model quirks are tolerated. Lines are matched by their {@code speaker} id; a line
+ * without a recognisable id takes the next unanswered speaker in request order. A line cut
+ * off before its object closes is dropped, and speakers with no line are absent from the
+ * result so the caller can serve their fallback.
+ *
+ * Not thread-safe — one instance per in-flight generation.
+ */
+public final class GroupResponseParser {
+
+    private static final DynamisLogger log = DynamisLogger.get(GroupResponseParser.class);
+
+    private static final int MAX_DEPTH = 32;
+
+    private final List<EntityId> speakers;
+    /** Lines are located here, so an object without known fields is still a line. */
+    private final StreamingResponseParser line = new StreamingResponseParser(new DialogueStreamListener() {}, false);
+    private final Map<EntityId, DialogueResponse> responses = new LinkedHashMap<>();
+    private final List<DialogueResponse> unmatched = new ArrayList<>();
+    private final boolean[] arrayAt = new boolean[MAX_DEPTH];
+
+    private int depth;
+    private boolean inString;
+    private boolean escape;
+    private boolean inLine;
+    private int lineCount;
+
+    public GroupResponseParser(List<EntityId> speakers) {
+        this.speakers = List.copyOf(Objects.requireNonNull(speakers, "speakers"));
+    }
+
+    /** Parses a complete generation in one call. */
+    public static Map<EntityId, DialogueResponse> parse(String json, List<EntityId> speakers) {
+        GroupResponseParser parser = new GroupResponseParser(speakers);
+        parser.accept(json);
+        return parser.finish();
+    }
+
+    /** Feeds the next chunk of model output. */
+    public void accept(CharSequence chunk) {
+        if (chunk == null) {
+            return;
+        }
+        int i = 0;
+        int n = chunk.length();
+        while (i < n) {
+            if (inLine) {
+                i = line.accept(chunk, i);
+                if (line.isComplete()) {
+                    endLine();
+                }
+                continue;
+            }
+            char c = chunk.charAt(i);
+            if (inString) {
+                if (escape) {
+                    escape = false;
+                } else if (c == '\\') {
+                    escape = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '{' && depth > 0 && depth < MAX_DEPTH && arrayAt[depth]) {
+                // Hand the opening brace itself to the line parser.
+                inLine = true;
+                line.reset();
+                continue;
+            } else {
+                structural(c);
+            }
+            i++;
+        }
+    }
+
+    /** Lines by speaker, with unlabelled lines assigned — call once, after the last chunk. */
+    public Map<EntityId, DialogueResponse> finish() {
+        if (inLine) {
+            log.debug("GroupResponseParser dropped a line cut off before it closed");
+            inLine = false;
+        }
+        if (lineCount == 0) {
+            log.warn("GroupResponseParser found no lines array in LLM output");
+        }
+        for (EntityId speaker : speakers) {
+            if (unmatched.isEmpty()) {
+                break;
+            }
+            if (!responses.containsKey(speaker)) {
+                responses.put(speaker, unmatched.removeFirst());
+            }
+        }
+        return responses;
+    }
+
+    private void structural(char c) {
+        switch (c) {
+            case '"' -> inString = true;
+            case '{' -> push(false);
+            case '[' -> push(true);
+            case '}', ']' -> {
+                if (depth > 0) {
+                    depth--;
+                }
+            }
+            default -> { }
+        }
+    }
+
+    private void push(boolean array) {
+        depth++;
+        if (depth < MAX_DEPTH) {
+            arrayAt[depth] = array;
+        }
+    }
+
+    private void endLine() {
+        inLine = false;
+        lineCount++;
+        DialogueResponse response = line.finish();
+        EntityId speaker = speakerOf(line.speaker());
+        if (speaker != null && !responses.containsKey(speaker)) {
+            responses.put(speaker, response);
+        } else {
+            unmatched.add(response);
+        }
+    }
+
+    private EntityId speakerOf(long id) {
+        if (id < 0L) {
+            return null;
+        }
+        for (EntityId speaker : speakers) {
+            if (speaker.id() == id) {
+                return speaker;
+            }
+        }
+        return null;
+    }
+}
@@ -1,5 +1,7 @@
 package org.dynamisengine.ai.cognition;
 
+import java.util.function.Consumer;
+
 /**
  * Pluggable LLM inference backend.
  *
@@ -8,6 +10,9 @@ package org.dynamisengine.ai.cognition;
  */
 public interface InferenceBackend {
 
+    /** {@link #promptScheme()} of backends whose structured prompt is the player's line. */
+    String INPUT_LINE_PROMPT_SCHEME = "input-line";
+
     /**
      * Generate a response for a structured inference request.
      * Implementations that support deterministic seeding should prefer
@@ -18,6 +23,37 @@ public interface InferenceBackend {
         return generate(request.dialogue().inputSpeech(), config);
     }
 
+    /**
+     * Streaming variant — forwards decoded output chunks to the sink as they arrive.
+     * Backends without token streaming emit the complete response as a single chunk.
+     */
+    default String generate(InferenceRequest request,
+                            GenerationConfig config,
+                            Consumer<CharSequence> tokenSink) {
+        String result = generate(request, config);
+        tokenSink.accept(result);
+        return result;
+    }
+
+    /**
+     * The prompt text a structured request is generated from — what
+     * {@link #generate(InferenceRequest, GenerationConfig)} sends to the model. Backends that
+     * assemble their own prompt return it, so callers can key caches and recordings on the
+     * full context rather than the player's line.
+     */
+    default String promptFor(InferenceRequest request) {
+        return request.dialogue().inputSpeech();
+    }
+
+    /**
+     * Names how {@link #promptFor} builds prompts. Recordings keyed by prompt store it, so a
+     * replay that would key requests another way fails fast instead of missing every key.
+     * Backends that override promptFor override this too.
+     */
+    default String promptScheme() {
+        return INPUT_LINE_PROMPT_SCHEME;
+    }
+
     /**
      * Generate a response for the given prompt.
      * Must be thread-safe — called from virtual threads concurrently.
@@ -29,12 +65,32 @@ public interface InferenceBackend {
      */
     String generate(String prompt, GenerationConfig config);
 
+    /**
+     * Streaming variant for a fully-assembled prompt, e.g. a group-dialogue prompt.
+     * Backends without token streaming emit the complete response as a single chunk.
+     */
+    default String generate(String prompt,
+                            GenerationConfig config,
+                            Consumer<CharSequence> tokenSink) {
+        String result = generate(prompt, config);
+        tokenSink.accept(result);
+        return result;
+    }
+
     /** Whether this backend can currently accept requests. */
     boolean isAvailable();
 
     /** Whether this backend supports streaming token output. */
     boolean supportsStreaming();
 
+    /**
+     * Whether interrupting the calling thread aborts a running generation promptly.
+     * Callers that abandon work for a more urgent request, such as speculation, rely on it.
+     */
+    default boolean supportsCancellation() {
+        return false;
+    }
+
     /** Latest performance metrics — updated after each call. */
     InferenceBackendMetrics getMetrics();
 
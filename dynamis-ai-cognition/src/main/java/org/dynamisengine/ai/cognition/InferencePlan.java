@@ -0,0 +1,14 @@
+package org.dynamisengine.ai.cognition;
+
+/**
+ * Per-request inference budget chosen by {@link AdaptiveInferencePolicy}.
+ *
+ * @param deadlineMs hard deadline after which the fallback is served
+ * @param config     generation parameters, with maxTokens sized to fit the deadline
+ */
+public record InferencePlan(long deadlineMs, GenerationConfig config) {
+    public InferencePlan {
+        if (deadlineMs <= 0L) throw new IllegalArgumentException("deadlineMs must be > 0");
+        if (config == null) throw new IllegalArgumentException("config must not be null");
+    }
+}
@@ -0,0 +1,13 @@
+package org.dynamisengine.ai.cognition;
+
+/** Request classes tracked separately by {@link InferenceTelemetry}. */
+public enum InferenceRequestClass {
+    /** {@link CognitionService#requestDialogue(DialogueRequest)}. */
+    INTERACTIVE,
+    /** {@link CognitionService#requestDialogue(DialogueRequest, DialogueStreamListener)}. */
+    STREAMING,
+    /** {@link CognitionService#inferDeterministic(DialogueRequest, long)}. */
+    DETERMINISTIC,
+    /** {@link CognitionService#requestGroupDialogue(GroupDialogueRequest)} — one generation for several speakers. */
+    GROUP
+}
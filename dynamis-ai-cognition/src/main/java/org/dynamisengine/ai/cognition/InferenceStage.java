@@ -0,0 +1,13 @@
+package org.dynamisengine.ai.cognition;
+
+/** Phases of one inference request, as timed by {@link InferenceTelemetry}. */
+public enum InferenceStage {
+    /** Permit acquired until a worker thread starts the request. */
+    QUEUE_WAIT,
+    /** Worker start until the first output chunk — prompt assembly plus prompt evaluation. */
+    PREFILL,
+    /** First output chunk until generation returns. */
+    DECODE,
+    /** Request submitted until its future completes, including timeouts. */
+    TOTAL
+}
@@ -0,0 +1,204 @@
+package org.dynamisengine.ai.cognition;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-backend inference telemetry — rolling latency histograms for each
+ * {@link InferenceRequestClass} × {@link InferenceStage}, plus throughput, outcome rates
+ * and in-flight count.
+ *
+ * Outcome counts and throughput live in the same ring of time windows as the histograms,
+ * so a burst of timeouts stops counting once it ages out. Throughput is decode tokens over
+ * decode time only, since prefill cost does not grow with the tokens requested.
+ *
+ * Every recording method is lock-free, and {@link #snapshot()} only reads atomics,
+ * so telemetry can be polled at any rate without stalling inference workers.
+ */
+public final class InferenceTelemetry {
+
+    private static final int WINDOW_COUNT = 6;
+    private static final long WINDOW_NANOS = 10_000_000_000L;
+
+    private static final InferenceRequestClass[] CLASSES = InferenceRequestClass.values();
+    private static final InferenceStage[] STAGES = InferenceStage.values();
+
+    private final String backendName;
+    private final LatencyHistogram[][] histograms;
+    private final OutcomeWindow[] outcomes = new OutcomeWindow[WINDOW_COUNT];
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    public InferenceTelemetry(String backendName) {
+        this(backendName, System::nanoTime);
+    }
+
+    /** Test constructor — explicit clock for the rolling windows. */
+    public InferenceTelemetry(String backendName, LongSupplier nanoClock) {
+        this.backendName = Objects.requireNonNull(backendName, "backendName");
+        this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock");
+        this.histograms = new LatencyHistogram[CLASSES.length][STAGES.length];
+        for (InferenceRequestClass requestClass : CLASSES) {
+            for (InferenceStage stage : STAGES) {
+                histograms[requestClass.ordinal()][stage.ordinal()] =
+                    new LatencyHistogram(WINDOW_COUNT, WINDOW_NANOS, nanoClock);
+            }
+        }
+        for (int i = 0; i < WINDOW_COUNT; i++) {
+            outcomes[i] = new OutcomeWindow();
+        }
+    }
+
+    public void recordStage(InferenceRequestClass requestClass, InferenceStage stage, long nanos) {
+        histograms[requestClass.ordinal()][stage.ordinal()].recordNanos(nanos);
+    }
+
+    /** A request was admitted and is now in flight. */
+    public void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    /** An admitted request completed. */
+    public void requestFinished(boolean timedOut, boolean servedFallback) {
+        inFlight.decrementAndGet();
+        recordOutcome(timedOut, servedFallback);
+    }
+
+    /** A request was answered without being admitted, e.g. rejected at the concurrency limit. */
+    public void requestRejected() {
+        recordOutcome(false, true);
+    }
+
+    /**
+     * Adds one generation's decode stage to the rolling throughput — the tokens produced
+     * after the first chunk and the time spent producing them.
+     */
+    public void recordThroughput(int decodeTokens, long decodeNanos) {
+        if (decodeTokens <= 0 || decodeNanos <= 0L) {
+            return;
+        }
+        OutcomeWindow window = currentOutcomes();
+        window.tokens.addAndGet(decodeTokens);
+        window.decodeNanos.addAndGet(decodeNanos);
+    }
+
+    public LatencySnapshot latency(InferenceRequestClass requestClass, InferenceStage stage) {
+        return histograms[requestClass.ordinal()][stage.ordinal()].snapshot();
+    }
+
+    /** Distribution for one stage merged across all request classes. */
+    public LatencySnapshot latency(InferenceStage stage) {
+        long[] counts = new long[LatencyHistogram.BUCKET_COUNT];
+        long max = 0L;
+        for (InferenceRequestClass requestClass : CLASSES) {
+            max = Math.max(max, histograms[requestClass.ordinal()][stage.ordinal()].collect(counts));
+        }
+        return LatencyHistogram.summarize(counts, max);
+    }
+
+    /** Decode tokens per second over the rolling horizon; 0 until a decode stage is recorded. */
+    public double tokensPerSecond() {
+        long tokens = 0L;
+        long nanos = 0L;
+        long epoch = nanoClock.getAsLong() / WINDOW_NANOS;
+        for (OutcomeWindow window : outcomes) {
+            if (live(window, epoch)) {
+                tokens += window.tokens.get();
+                nanos += window.decodeNanos.get();
+            }
+        }
+        return nanos == 0L ? 0d : tokens / (nanos / 1_000_000_000d);
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public String backendName() {
+        return backendName;
+    }
+
+    public InferenceTelemetrySnapshot snapshot() {
+        Map<InferenceRequestClass, Map<InferenceStage, LatencySnapshot>> byClass =
+            new EnumMap<>(InferenceRequestClass.class);
+        for (InferenceRequestClass requestClass : CLASSES) {
+            Map<InferenceStage, LatencySnapshot> stages = new EnumMap<>(InferenceStage.class);
+            for (InferenceStage stage : STAGES) {
+                stages.put(stage, latency(requestClass, stage));
+            }
+            byClass.put(requestClass, stages);
+        }
+        Map<InferenceStage, LatencySnapshot> overall = new EnumMap<>(InferenceStage.class);
+        for (InferenceStage stage : STAGES) {
+            overall.put(stage, latency(stage));
+        }
+        long total = 0L;
+        long timedOut = 0L;
+        long fellBack = 0L;
+        long epoch = nanoClock.getAsLong() / WINDOW_NANOS;
+        for (OutcomeWindow window : outcomes) {
+            if (live(window, epoch)) {
+                total += window.requests.get();
+                timedOut += window.timeouts.get();
+                fellBack += window.fallbacks.get();
+            }
+        }
+        return new InferenceTelemetrySnapshot(
+            backendName,
+            byClass,
+            overall,
+            tokensPerSecond(),
+            rate(timedOut, total),
+            rate(fellBack, total),
+            inFlight.get(),
+            total);
+    }
+
+    private void recordOutcome(boolean timedOut, boolean servedFallback) {
+        OutcomeWindow window = currentOutcomes();
+        window.requests.incrementAndGet();
+        if (timedOut) {
+            window.timeouts.incrementAndGet();
+        }
+        if (servedFallback) {
+            window.fallbacks.incrementAndGet();
+        }
+    }
+
+    /** Same ring discipline as {@link LatencyHistogram}: the first recorder into an expired window clears it. */
+    private OutcomeWindow currentOutcomes() {
+        long epoch = nanoClock.getAsLong() / WINDOW_NANOS;
+        OutcomeWindow window = outcomes[(int) Math.floorMod(epoch, (long) WINDOW_COUNT)];
+        long seen = window.epoch.get();
+        if (seen < epoch && window.epoch.compareAndSet(seen, epoch)) {
+            window.requests.set(0L);
+            window.timeouts.set(0L);
+            window.fallbacks.set(0L);
+            window.tokens.set(0L);
+            window.decodeNanos.set(0L);
+        }
+        return window;
+    }
+
+    private static boolean live(OutcomeWindow window, long epoch) {
+        long windowEpoch = window.epoch.get();
+        return windowEpoch > epoch - WINDOW_COUNT && windowEpoch <= epoch;
+    }
+
+    private static double rate(long count, long total) {
+        return total == 0L ? 0d : (double) count / total;
+    }
+
+    private static final class OutcomeWindow {
+        final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+        final AtomicLong requests = new AtomicLong(0L);
+        final AtomicLong timeouts = new AtomicLong(0L);
+        final AtomicLong fallbacks = new AtomicLong(0L);
+        final AtomicLong tokens = new AtomicLong(0L);
+        final AtomicLong decodeNanos = new AtomicLong(0L);
+    }
+}
@@ -0,0 +1,34 @@
+package org.dynamisengine.ai.cognition;
+
+import java.util.Map;
+
+/**
+ * Point-in-time view of {@link InferenceTelemetry} — rolling latency distributions
+ * per request class and stage, plus throughput and outcome rates.
+ * Request count, timeout and fallback rates and throughput cover the same rolling horizon
+ * as the latency distributions.
+ */
+public record InferenceTelemetrySnapshot(
+    String backendName,
+    Map<InferenceRequestClass, Map<InferenceStage, LatencySnapshot>> byClass,
+    Map<InferenceStage, LatencySnapshot> overall,
+    double tokensPerSecond,
+    double timeoutRate,
+    double fallbackRate,
+    int inFlight,
+    long requestCount
+) {
+    public InferenceTelemetrySnapshot {
+        byClass = Map.copyOf(byClass);
+        overall = Map.copyOf(overall);
+    }
+
+    public LatencySnapshot latency(InferenceStage stage) {
+        return overall.getOrDefault(stage, LatencySnapshot.empty());
+    }
+
+    public LatencySnapshot latency(InferenceRequestClass requestClass, InferenceStage stage) {
+        Map<InferenceStage, LatencySnapshot> stages = byClass.get(requestClass);
+        return stages == null ? LatencySnapshot.empty() : stages.getOrDefault(stage, LatencySnapshot.empty());
+    }
+}
@@ -5,14 +5,18 @@ import com.github.tjake.jlama.model.ModelSupport;
 import com.github.tjake.jlama.model.functions.Generator;
 import com.github.tjake.jlama.safetensors.DType;
 import com.github.tjake.jlama.safetensors.prompt.PromptContext;
+import org.dynamisengine.core.entity.EntityId;
 import org.dynamisengine.core.logging.DynamisLogger;
 
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.charset.StandardCharsets;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Production LLM backend using Jlama — pure Java, in-process, offline-capable.
@@ -23,13 +27,26 @@ import java.util.concurrent.atomic.AtomicInteger;
  * Thread-safety: AbstractModel is NOT thread-safe. All generate() calls are
  * synchronized on this instance. For concurrent inference, create one
  * JlamaInferenceBackend per thread or use CognitionService's semaphore limit.
+ * Interrupting the generating thread aborts it at the next token and releases the lock.
+ *
+ * Prompts put the stable system/persona prefix first and the per-request context and
+ * player line after it. Jlama cannot fork or snapshot a session's KV state, so there is no
+ * prefix cache: every generation prefills the whole prompt.
  */
 public final class JlamaInferenceBackend implements InferenceBackend {
 
     private static final DynamisLogger log = DynamisLogger.get(JlamaInferenceBackend.class);
 
+    private static final String SYSTEM_PREAMBLE = "You are an NPC. ";
+
+    private static final String RESPONSE_SCHEMA =
+        "Respond as JSON: {\"text\":\"...\",\"affect\":{\"valence\":0.0," +
+            "\"arousal\":0.3,\"dominance\":0.5,\"sarcasm\":0.0,\"intensity\":0.3}," +
+            "\"tags\":[],\"hints\":[]} ";
+
     private final String modelPath;
     private final DType workingDType;
+    private final Object loadLock = new Object();
     private AbstractModel model;
 
     private final AtomicInteger callCount = new AtomicInteger(0);
@@ -38,6 +55,9 @@ public final class JlamaInferenceBackend implements InferenceBackend {
     private volatile float lastTokensPerSec = 0f;
     private volatile boolean initialized = false;
 
+    private volatile Function<EntityId, String> personaSource = speaker -> "";
+    private volatile PromptContextCompiler contextCompiler;
+
     /**
      * @param modelPath Path to model directory (safetensors) or GGUF file
      * @param workingDType Quantization type — F32 for quality, Q4 for speed
@@ -54,8 +74,18 @@ public final class JlamaInferenceBackend implements InferenceBackend {
     /**
      * Load model weights. Must be called before first generate().
      * Blocks until weights are mapped — typically 2-30s depending on model size.
+     *
+     * Loading holds its own lock rather than this instance's, so when it runs in the
+     * background (see BootstrapGraph) generate() fails fast and callers fall back
+     * instead of queueing behind the load.
      */
-    public synchronized void initialize() {
+    public void initialize() {
+        synchronized (loadLock) {
+            load();
+        }
+    }
+
+    private void load() {
         if (initialized) {
             return;
         }
@@ -79,16 +109,40 @@ public final class JlamaInferenceBackend implements InferenceBackend {
     @Override
     public synchronized String generate(InferenceRequest request,
                                         GenerationConfig config) {
+        return generate(request, config, token -> { });
+    }
+
+    @Override
+    public synchronized String generate(InferenceRequest request,
+                                        GenerationConfig config,
+                                        Consumer<CharSequence> tokenSink) {
         GenerationConfig effective = config;
         if (request.seedingEnabled()) {
             effective = GenerationConfig.deterministic(request.deterministicSeed());
         }
-        return generate(buildPrompt(request.dialogue()), effective);
+        return generate(buildPrompt(request.dialogue()), effective, tokenSink);
+    }
+
+    @Override
+    public String promptFor(InferenceRequest request) {
+        return buildPrompt(request.dialogue());
+    }
+
+    @Override
+    public String promptScheme() {
+        return "jlama-npc";
     }
 
     @Override
     public synchronized String generate(String prompt,
                                         GenerationConfig config) {
+        return generate(prompt, config, token -> { });
+    }
+
+    @Override
+    public synchronized String generate(String prompt,
+                                        GenerationConfig config,
+                                        Consumer<CharSequence> tokenSink) {
         if (!initialized || model == null) {
             throw new InferenceException(
                 "JlamaInferenceBackend not initialized — call initialize() first");
@@ -106,8 +160,14 @@ public final class JlamaInferenceBackend implements InferenceBackend {
                 config.temperature(),
                 config.maxTokens(),
                 (token, time) -> {
+                    // The model lock is held for the whole generation, so honour interrupts
+                    // between tokens rather than making the next caller wait it out.
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InferenceException("Jlama generation interrupted");
+                    }
                     if (token != null) {
                         streamed.append(token);
+                        tokenSink.accept(token);
                     }
                     if (time != null && time > 0f) {
                         lastTokensPerSec = 1_000_000_000f / time;
@@ -146,6 +206,11 @@ public final class JlamaInferenceBackend implements InferenceBackend {
         return true;
     }
 
+    @Override
+    public boolean supportsCancellation() {
+        return true;
+    }
+
     @Override
     public String backendName() {
         return "JlamaBackend[" + Path.of(modelPath).getFileName() + "]";
@@ -162,8 +227,27 @@ public final class JlamaInferenceBackend implements InferenceBackend {
         );
     }
 
+    /** Sets the persona text provider used to build each speaker's prompt prefix. */
+    public void setPersonaSource(Function<EntityId, String> personaSource) {
+        this.personaSource = Objects.requireNonNull(personaSource, "personaSource");
+    }
+
+    /**
+     * Sets the compiler for the per-request context block placed between the system/persona
+     * prefix and the player's line; {@code null} sends no context.
+     */
+    public void setContextCompiler(PromptContextCompiler contextCompiler) {
+        this.contextCompiler = contextCompiler;
+    }
+
     /** Release model resources. Call on engine shutdown. */
     public synchronized void close() {
+        synchronized (loadLock) {
+            release();
+        }
+    }
+
+    private void release() {
         if (model != null) {
             try {
                 model.close();
@@ -183,13 +267,19 @@ public final class JlamaInferenceBackend implements InferenceBackend {
         return new UUID(ThreadLocalRandom.current().nextLong(), ThreadLocalRandom.current().nextLong());
     }
 
-    private static String buildPrompt(DialogueRequest request) {
-        return String.format(
-            "You are an NPC. Player says: \"%s\". " +
-                "Respond as JSON: {\"text\":\"...\",\"affect\":{\"valence\":0.0," +
-                "\"arousal\":0.3,\"dominance\":0.5,\"sarcasm\":0.0,\"intensity\":0.3}," +
-                "\"tags\":[],\"hints\":[]}",
-            request.inputSpeech()
-        );
+    private String buildPrompt(DialogueRequest request) {
+        String prefix = prefixFor(request.speaker());
+        String suffix = "Player says: \"" + request.inputSpeech() + "\"";
+        PromptContextCompiler compiler = contextCompiler;
+        return compiler == null
+            ? prefix + suffix
+            : compiler.compile(request, prefix, suffix);
+    }
+
+    private String prefixFor(EntityId speaker) {
+        String persona = speaker == null ? "" : personaSource.apply(speaker);
+        return persona == null || persona.isBlank()
+            ? SYSTEM_PREAMBLE + RESPONSE_SCHEMA
+            : SYSTEM_PREAMBLE + persona.strip() + " " + RESPONSE_SCHEMA;
     }
 }
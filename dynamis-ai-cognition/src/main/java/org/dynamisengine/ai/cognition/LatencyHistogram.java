@@ -0,0 +1,159 @@
+package org.dynamisengine.ai.cognition;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free rolling latency histogram.
+ *
+ * Samples are recorded in microseconds into log-linear buckets (exact below 16µs, then
+ * eight sub-buckets per power of two, so a bucket is at most 12.5% wide). Buckets live in
+ * a ring of time windows; a snapshot sums the windows still inside the rolling horizon,
+ * so old load stops influencing percentiles once it ages out.
+ *
+ * Recording is a handful of atomic increments. A window is cleared by the first
+ * recorder to reach it after it expires; samples racing that clear may be dropped.
+ */
+public final class LatencyHistogram {
+
+    private static final int LINEAR_LIMIT = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKET_COUNT = LINEAR_LIMIT + (MAX_EXPONENT - 4 + 1) * SUB_BUCKETS;
+
+    /** Default horizon: six 10-second windows. */
+    private static final int DEFAULT_WINDOWS = 6;
+    private static final long DEFAULT_WINDOW_NANOS = 10_000_000_000L;
+
+    private final Window[] windows;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+
+    public LatencyHistogram() {
+        this(DEFAULT_WINDOWS, DEFAULT_WINDOW_NANOS, System::nanoTime);
+    }
+
+    public LatencyHistogram(int windowCount, long windowNanos, LongSupplier nanoClock) {
+        if (windowCount <= 0) {
+            throw new IllegalArgumentException("windowCount must be > 0");
+        }
+        if (windowNanos <= 0L) {
+            throw new IllegalArgumentException("windowNanos must be > 0");
+        }
+        this.windowNanos = windowNanos;
+        this.nanoClock = Objects.requireNonNull(nanoClock);
+        this.windows = new Window[windowCount];
+        for (int i = 0; i < windowCount; i++) {
+            windows[i] = new Window();
+        }
+    }
+
+    public void recordNanos(long nanos) {
+        recordMicros(Math.max(0L, nanos) / 1_000L);
+    }
+
+    public void recordMicros(long micros) {
+        long value = Math.max(0L, micros);
+        Window window = current(nanoClock.getAsLong() / windowNanos);
+        window.counts.incrementAndGet(bucketOf(value));
+        window.max.accumulateAndGet(value, Math::max);
+    }
+
+    public LatencySnapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        return summarize(counts, collect(counts));
+    }
+
+    /**
+     * Adds the live windows' bucket counts into {@code counts}.
+     *
+     * @return the largest sample in those windows, in microseconds
+     */
+    long collect(long[] counts) {
+        long epoch = nanoClock.getAsLong() / windowNanos;
+        long max = 0L;
+        for (Window window : windows) {
+            long windowEpoch = window.epoch.get();
+            if (windowEpoch > epoch - windows.length && windowEpoch <= epoch) {
+                for (int i = 0; i < BUCKET_COUNT; i++) {
+                    counts[i] += window.counts.get(i);
+                }
+                max = Math.max(max, window.max.get());
+            }
+        }
+        return max;
+    }
+
+    /** Summarizes merged bucket counts — lets callers combine several histograms. */
+    static LatencySnapshot summarize(long[] counts, long maxMicros) {
+        long total = 0L;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0L) {
+            return LatencySnapshot.empty();
+        }
+        return new LatencySnapshot(
+            total,
+            percentileMs(counts, total, 0.50, maxMicros),
+            percentileMs(counts, total, 0.90, maxMicros),
+            percentileMs(counts, total, 0.99, maxMicros),
+            maxMicros / 1_000d);
+    }
+
+    private static double percentileMs(long[] counts, long total, double quantile, long maxMicros) {
+        long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0L;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketMidpoint(i), maxMicros) / 1_000d;
+            }
+        }
+        return maxMicros / 1_000d;
+    }
+
+    static int bucketOf(long micros) {
+        if (micros < LINEAR_LIMIT) {
+            return (int) micros;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(micros), MAX_EXPONENT);
+        if (exponent == MAX_EXPONENT && micros >= 1L << (MAX_EXPONENT + 1)) {
+            return BUCKET_COUNT - 1;
+        }
+        int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    static double bucketMidpoint(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + 4;
+        int sub = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (long) (SUB_BUCKETS + sub) * width;
+        return lower + width / 2d;
+    }
+
+    private Window current(long epoch) {
+        Window window = windows[(int) Math.floorMod(epoch, (long) windows.length)];
+        long seen = window.epoch.get();
+        if (seen < epoch && window.epoch.compareAndSet(seen, epoch)) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                window.counts.set(i, 0L);
+            }
+            window.max.set(0L);
+        }
+        return window;
+    }
+
+    private static final class Window {
+        final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+        final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+        final AtomicLong max = new AtomicLong(0L);
+    }
+}
@@ -0,0 +1,17 @@
+package org.dynamisengine.ai.cognition;
+
+/**
+ * Latency distribution summary in milliseconds. Percentiles are bucket midpoints
+ * with at most 6.25% relative error; {@code maxMs} is exact.
+ */
+public record LatencySnapshot(
+    long count,
+    double p50Ms,
+    double p90Ms,
+    double p99Ms,
+    double maxMs
+) {
+    public static LatencySnapshot empty() {
+        return new LatencySnapshot(0L, 0d, 0d, 0d, 0d);
+    }
+}
@@ -55,6 +55,7 @@ public final class MockInferenceBackend implements InferenceBackend {
 
     @Override public boolean isAvailable() { return !shouldFail; }
     @Override public boolean supportsStreaming() { return false; }
+    @Override public boolean supportsCancellation() { return true; }
     @Override public String backendName() { return "MockInferenceBackend"; }
 
     @Override
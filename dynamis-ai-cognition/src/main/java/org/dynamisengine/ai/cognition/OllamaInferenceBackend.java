@@ -2,35 +2,82 @@ package org.dynamisengine.ai.cognition;
 
 import org.dynamisengine.core.logging.DynamisLogger;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Development backend using a locally-running Ollama server.
  * Not for shipped product — for faster dev iteration without loading Jlama weights.
  *
+ * Generations are consumed as Ollama's NDJSON stream, forwarding each chunk as it
+ * arrives. A watchdog closes the stream once the generation timeout passes, and the
+ * read also aborts when the calling thread is interrupted, so abandoned requests stop
+ * costing server time. Concurrent connections to the server are bounded; the HTTP/1.1
+ * client keeps those connections alive between requests.
+ *
  * Requires: Ollama running at http://localhost:11434
  */
 public final class OllamaInferenceBackend implements InferenceBackend {
 
     private static final DynamisLogger log = DynamisLogger.get(OllamaInferenceBackend.class);
 
+    private static final String INSTRUCTIONS =
+        "You are an NPC. " +
+            "Respond as JSON: {\"text\":\"...\",\"affect\":{\"valence\":0.0," +
+            "\"arousal\":0.3,\"dominance\":0.5,\"sarcasm\":0.0,\"intensity\":0.3}," +
+            "\"tags\":[],\"hints\":[]} ";
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 4;
+    private static final Duration DEFAULT_GENERATION_TIMEOUT = Duration.ofSeconds(30);
+
     private final String baseUrl;
     private final String model;
     private final HttpClient httpClient;
+    private final Semaphore connections;
+    private final long generationTimeoutNanos;
     private final AtomicInteger callCount = new AtomicInteger(0);
     private final AtomicInteger failCount = new AtomicInteger(0);
     private volatile long lastLatencyMs = 0;
+    private volatile float lastTokensPerSec = 0f;
+    private volatile PromptContextCompiler contextCompiler;
 
     public OllamaInferenceBackend(String baseUrl, String model) {
-        this.baseUrl = baseUrl;
-        this.model = model;
+        this(baseUrl, model, DEFAULT_MAX_CONNECTIONS, DEFAULT_GENERATION_TIMEOUT);
+    }
+
+    /**
+     * @param maxConnections    upper bound on concurrent requests to the server
+     * @param generationTimeout per-generation budget, including time waiting for a connection
+     */
+    public OllamaInferenceBackend(String baseUrl, String model, int maxConnections, Duration generationTimeout) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("maxConnections must be > 0");
+        }
+        if (generationTimeout.isNegative() || generationTimeout.isZero()) {
+            throw new IllegalArgumentException("generationTimeout must be > 0");
+        }
+        this.baseUrl = Objects.requireNonNull(baseUrl, "baseUrl");
+        this.model = Objects.requireNonNull(model, "model");
+        this.connections = new Semaphore(maxConnections, true);
+        this.generationTimeoutNanos = generationTimeout.toNanos();
         this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
             .connectTimeout(Duration.ofSeconds(5))
             .build();
     }
@@ -41,44 +88,132 @@ public final class OllamaInferenceBackend implements InferenceBackend {
 
     @Override
     public String generate(InferenceRequest request, GenerationConfig config) {
+        return generate(request, config, chunk -> { });
+    }
+
+    @Override
+    public String generate(InferenceRequest request,
+                           GenerationConfig config,
+                           Consumer<CharSequence> tokenSink) {
         GenerationConfig effective = config;
         if (request.seedingEnabled()) {
             effective = GenerationConfig.deterministic(request.deterministicSeed());
         }
-        return generate(buildPrompt(request.dialogue()), effective);
+        return stream(buildPrompt(request.dialogue()), effective, tokenSink);
+    }
+
+    @Override
+    public String promptFor(InferenceRequest request) {
+        return buildPrompt(request.dialogue());
+    }
+
+    @Override
+    public String promptScheme() {
+        return "ollama-npc";
+    }
+
+    /** Sets the compiler for the context block placed after the stable instructions. */
+    public void setContextCompiler(PromptContextCompiler contextCompiler) {
+        this.contextCompiler = contextCompiler;
     }
 
     @Override
     public String generate(String prompt, GenerationConfig config) {
-        callCount.incrementAndGet();
-        long start = System.currentTimeMillis();
+        return stream(prompt, config, chunk -> { });
+    }
 
-        String body = buildRequestBody(prompt, config);
+    @Override
+    public String generate(String prompt, GenerationConfig config, Consumer<CharSequence> tokenSink) {
+        return stream(prompt, config, tokenSink);
+    }
+
+    private String stream(String prompt, GenerationConfig config, Consumer<CharSequence> tokenSink) {
+        callCount.incrementAndGet();
+        long start = System.nanoTime();
+        long deadline = start + generationTimeoutNanos;
+        boolean permitted = false;
+        try {
+            permitted = connections.tryAcquire(generationTimeoutNanos, TimeUnit.NANOSECONDS);
+            if (!permitted) {
+                throw new InferenceException("Ollama connection limit reached — no connection within timeout");
+            }
+            return readStream(prompt, config, tokenSink, deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failCount.incrementAndGet();
+            throw new InferenceException("Ollama request interrupted", e);
+        } catch (InferenceException e) {
+            failCount.incrementAndGet();
+            throw e;
+        } finally {
+            if (permitted) {
+                connections.release();
+            }
+            lastLatencyMs = (System.nanoTime() - start) / 1_000_000L;
+        }
+    }
 
+    private String readStream(String prompt, GenerationConfig config,
+                              Consumer<CharSequence> tokenSink, long deadline) throws InterruptedException {
         HttpRequest request = HttpRequest.newBuilder()
             .uri(URI.create(baseUrl + "/api/generate"))
             .header("Content-Type", "application/json")
-            .POST(HttpRequest.BodyPublishers.ofString(body))
-            .timeout(Duration.ofSeconds(30))
+            .POST(HttpRequest.BodyPublishers.ofString(buildRequestBody(prompt, config)))
+            .timeout(Duration.ofNanos(Math.max(1L, deadline - System.nanoTime())))
             .build();
 
+        HttpResponse<InputStream> response;
         try {
-            HttpResponse<String> response = httpClient.send(
-                request, HttpResponse.BodyHandlers.ofString());
-            lastLatencyMs = System.currentTimeMillis() - start;
-
-            if (response.statusCode() != 200) {
-                failCount.incrementAndGet();
-                throw new InferenceException(
-                    "Ollama returned HTTP " + response.statusCode());
-            }
-            return extractResponse(response.body());
-        } catch (IOException | InterruptedException e) {
-            failCount.incrementAndGet();
-            lastLatencyMs = System.currentTimeMillis() - start;
-            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (IOException e) {
             throw new InferenceException("Ollama request failed: " + e.getMessage(), e);
         }
+        InputStream body = response.body();
+        if (response.statusCode() != 200) {
+            closeQuietly(body);
+            throw new InferenceException("Ollama returned HTTP " + response.statusCode());
+        }
+
+        AtomicBoolean expired = new AtomicBoolean(false);
+        CompletableFuture<Void> watchdog = CompletableFuture.runAsync(() -> {
+            expired.set(true);
+            closeQuietly(body);
+        }, CompletableFuture.delayedExecutor(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+
+        StringBuilder output = new StringBuilder(256);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String error = stringField(line, "\"error\":");
+                if (error != null) {
+                    throw new InferenceException("Ollama error: " + error);
+                }
+                int before = output.length();
+                appendStringField(line, "\"response\":", output);
+                if (output.length() > before) {
+                    tokenSink.accept(output.subSequence(before, output.length()));
+                }
+                if (line.contains("\"done\":true")) {
+                    recordThroughput(line);
+                    return output.toString();
+                }
+            }
+            throw new InferenceException(expired.get()
+                ? "Ollama generation cancelled at deadline"
+                : "Ollama stream ended before completion");
+        } catch (IOException e) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException("Ollama stream read interrupted");
+            }
+            throw new InferenceException(expired.get()
+                ? "Ollama generation cancelled at deadline"
+                : "Ollama stream failed: " + e.getMessage(), e);
+        } finally {
+            watchdog.cancel(false);
+        }
     }
 
     @Override
@@ -96,19 +231,25 @@ public final class OllamaInferenceBackend implements InferenceBackend {
     }
 
     @Override public boolean supportsStreaming() { return true; }
+    @Override public boolean supportsCancellation() { return true; }
     @Override public String backendName() { return "OllamaBackend[" + model + "]"; }
 
     @Override
     public InferenceBackendMetrics getMetrics() {
         return new InferenceBackendMetrics(
-            lastLatencyMs, 0f,
+            lastLatencyMs, lastTokensPerSec,
             callCount.get(), failCount.get(), true
         );
     }
 
+    /** Connections currently free under the configured bound. */
+    public int availableConnections() {
+        return connections.availablePermits();
+    }
+
     private String buildRequestBody(String prompt, GenerationConfig config) {
-        return String.format(
-            "{\"model\":\"%s\",\"prompt\":%s,\"stream\":false,\"options\":" +
+        return String.format(Locale.ROOT,
+            "{\"model\":\"%s\",\"prompt\":%s,\"stream\":true,\"options\":" +
             "{\"temperature\":%.2f,\"num_predict\":%d,\"seed\":%d}}",
             model,
             jsonString(prompt),
@@ -118,15 +259,87 @@ public final class OllamaInferenceBackend implements InferenceBackend {
         );
     }
 
-    private String extractResponse(String body) {
-        int idx = body.indexOf("\"response\":");
-        if (idx < 0) return body;
-        int start = body.indexOf('"', idx + 11) + 1;
-        int end = body.indexOf('"', start);
-        while (end > 0 && body.charAt(end - 1) == '\\') {
-            end = body.indexOf('"', end + 1);
+    /** Final stream line carries eval_count and eval_duration (ns) for the decode phase. */
+    private void recordThroughput(String line) {
+        long evalCount = longField(line, "\"eval_count\":");
+        long evalDurationNs = longField(line, "\"eval_duration\":");
+        if (evalCount > 0L && evalDurationNs > 0L) {
+            lastTokensPerSec = (float) (evalCount * 1_000_000_000d / evalDurationNs);
+        }
+    }
+
+    private static String stringField(String line, String key) {
+        int idx = line.indexOf(key);
+        if (idx < 0) {
+            return null;
+        }
+        StringBuilder value = new StringBuilder();
+        appendStringField(line, key, value);
+        return value.toString();
+    }
+
+    /** Decodes the JSON string value following {@code key}, resolving escapes. */
+    private static void appendStringField(String line, String key, StringBuilder out) {
+        int idx = line.indexOf(key);
+        if (idx < 0) {
+            return;
+        }
+        int i = line.indexOf('"', idx + key.length());
+        if (i < 0) {
+            return;
+        }
+        for (i++; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                return;
+            }
+            if (c != '\\' || i + 1 >= line.length()) {
+                out.append(c);
+                continue;
+            }
+            char escaped = line.charAt(++i);
+            switch (escaped) {
+                case 'n' -> out.append('\n');
+                case 't' -> out.append('\t');
+                case 'r' -> out.append('\r');
+                case 'b' -> out.append('\b');
+                case 'f' -> out.append('\f');
+                case 'u' -> {
+                    if (i + 4 < line.length()) {
+                        out.append((char) Integer.parseInt(line, i + 1, i + 5, 16));
+                        i += 4;
+                    }
+                }
+                default -> out.append(escaped);
+            }
+        }
+    }
+
+    private static long longField(String line, String key) {
+        int idx = line.indexOf(key);
+        if (idx < 0) {
+            return -1L;
+        }
+        long value = 0L;
+        boolean digits = false;
+        for (int i = idx + key.length(); i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10L + (c - '0');
+                digits = true;
+            } else if (digits || c != ' ') {
+                break;
+            }
+        }
+        return digits ? value : -1L;
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            log.debug("Closing Ollama stream failed", e);
         }
-        return end > start ? body.substring(start, end) : body;
     }
 
     private String jsonString(String s) {
@@ -136,13 +349,12 @@ public final class OllamaInferenceBackend implements InferenceBackend {
                        .replace("\r", "\\r") + "\"";
     }
 
-    private static String buildPrompt(DialogueRequest request) {
-        return String.format(
-            "You are an NPC. Player says: \"%s\". " +
-                "Respond as JSON: {\"text\":\"...\",\"affect\":{\"valence\":0.0," +
-                "\"arousal\":0.3,\"dominance\":0.5,\"sarcasm\":0.0,\"intensity\":0.3}," +
-                "\"tags\":[],\"hints\":[]}",
-            request.inputSpeech()
-        );
+    /** Stable instructions first so the server can reuse its KV cache for the shared prefix. */
+    private String buildPrompt(DialogueRequest request) {
+        String suffix = "Player says: \"" + request.inputSpeech() + "\"";
+        PromptContextCompiler compiler = contextCompiler;
+        return compiler == null
+            ? INSTRUCTIONS + suffix
+            : compiler.compile(request, INSTRUCTIONS, suffix);
     }
 }
@@ -0,0 +1,25 @@
+package org.dynamisengine.ai.cognition;
+
+import org.dynamisengine.core.entity.EntityId;
+
+/**
+ * Typed percept SPI consumed by {@link BeliefModel#updateFromPerception(PerceptionFrame, long)}.
+ * Implemented by the perception module's percept type — cognition cannot depend on perception
+ * without a module cycle, so the contract lives here.
+ */
+public interface PerceivedStimulus {
+
+    /** Sensory channels that produce entity beliefs. */
+    enum Channel { VISUAL, AUDITORY, OTHER }
+
+    /** Entity that produced the stimulus, or null if unattributed. */
+    EntityId source();
+
+    Channel channel();
+
+    /** Where the stimulus was perceived — stored as the belief value. */
+    Object location();
+
+    /** Stimulus strength in [0,1] — used as belief confidence. */
+    float rawIntensity();
+}
@@ -0,0 +1,9 @@
+package org.dynamisengine.ai.cognition;
+
+import java.util.List;
+
+/** One observer's sensory frame, as seen by belief ingestion. */
+public interface PerceptionFrame {
+
+    List<? extends PerceivedStimulus> percepts();
+}
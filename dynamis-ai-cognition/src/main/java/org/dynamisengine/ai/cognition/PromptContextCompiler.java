@@ -0,0 +1,255 @@
+package org.dynamisengine.ai.cognition;
+
+import org.dynamisengine.core.entity.EntityId;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Assembles the per-request context block of an NPC prompt under a token budget.
+ *
+ * Each {@link PromptContextSection} gets its own token budget, capped by what the
+ * overall budget has left, in registration order. Rendered segments are cached per NPC
+ * and reused while the section's version and granted budget are unchanged, so an NPC
+ * with a stable mood and belief set pays only for the final copy. Prompts are assembled
+ * in pooled buffers.
+ *
+ * Segment caches are kept for the most recently compiled NPCs, least recently used
+ * evicted first, so NPCs that despawn without {@link #invalidate(EntityId)} age out.
+ */
+public final class PromptContextCompiler {
+
+    private static final int POOL_SIZE = 16;
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+    private static final int INITIAL_BUFFER_CAPACITY = 2048;
+    private static final int DEFAULT_MAX_CACHED_NPCS = 1024;
+
+    private final int totalTokenBudget;
+    private volatile Slot[] slots = new Slot[0];
+    /** Access-ordered; guarded by itself. */
+    private final Map<EntityId, Segment[]> segments;
+    private final ConcurrentLinkedQueue<StringBuilder> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger(0);
+    private final AtomicLong hits = new AtomicLong(0L);
+    private final AtomicLong misses = new AtomicLong(0L);
+    private final AtomicLong prefetched = new AtomicLong(0L);
+
+    /** @param totalTokenBudget upper bound on estimated context tokens across all sections */
+    public PromptContextCompiler(int totalTokenBudget) {
+        this(totalTokenBudget, DEFAULT_MAX_CACHED_NPCS);
+    }
+
+    /** @param maxCachedNpcs NPCs whose segments are kept; the least recently compiled is evicted */
+    public PromptContextCompiler(int totalTokenBudget, int maxCachedNpcs) {
+        if (totalTokenBudget <= 0) {
+            throw new IllegalArgumentException("totalTokenBudget must be > 0");
+        }
+        if (maxCachedNpcs <= 0) {
+            throw new IllegalArgumentException("maxCachedNpcs must be > 0");
+        }
+        this.totalTokenBudget = totalTokenBudget;
+        this.segments = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<EntityId, Segment[]> eldest) {
+                return size() > maxCachedNpcs;
+            }
+        };
+    }
+
+    /** Appends a section; earlier sections take precedence when the total budget runs out. */
+    public synchronized PromptContextCompiler addSection(PromptContextSection section, int tokenBudget) {
+        Objects.requireNonNull(section, "section");
+        if (tokenBudget <= 0) {
+            throw new IllegalArgumentException("tokenBudget must be > 0");
+        }
+        Slot[] next = Arrays.copyOf(slots, slots.length + 1);
+        next[slots.length] = new Slot(section, tokenBudget);
+        slots = next;
+        return this;
+    }
+
+    /** Context block only. */
+    public String compile(DialogueRequest request) {
+        return compile(request, "", "");
+    }
+
+    /** {@code head}, then the context block, then {@code tail} — one copy out of a pooled buffer. */
+    public String compile(DialogueRequest request, String head, String tail) {
+        StringBuilder out = borrow();
+        try {
+            out.append(head);
+            compileInto(request, out);
+            out.append(tail);
+            return out.toString();
+        } finally {
+            release(out);
+        }
+    }
+
+    /**
+     * Appends the context block — each non-empty section followed by a newline.
+     *
+     * @return estimated tokens appended
+     */
+    public int compileInto(DialogueRequest request, StringBuilder out) {
+        Objects.requireNonNull(request, "request");
+        return assemble(request, out);
+    }
+
+    /**
+     * Re-renders every stale section for the request's speaker into the segment cache
+     * without assembling a prompt, so retrieval and rendering happen before the dialogue
+     * request rather than on its critical path. No-op for requests without a speaker.
+     */
+    public void prefetch(DialogueRequest request) {
+        Objects.requireNonNull(request, "request");
+        if (request.speaker() != null) {
+            assemble(request, null);
+        }
+    }
+
+    /** Walks the sections under the budget; {@code out == null} only refreshes the cache. */
+    private int assemble(DialogueRequest request, StringBuilder out) {
+        Slot[] current = slots;
+        Segment[] cached = cacheFor(request.speaker(), current.length);
+        int remaining = totalTokenBudget;
+        int used = 0;
+        for (int i = 0; i < current.length && remaining > 0; i++) {
+            Slot slot = current[i];
+            int budget = Math.min(slot.tokenBudget(), remaining);
+            long version = slot.section().version(request);
+            Segment segment = cached == null ? null : cached[i];
+            if (segment != null && segment.version() == version && segment.budget() == budget) {
+                if (out != null) {
+                    hits.incrementAndGet();
+                }
+            } else {
+                if (out == null) {
+                    prefetched.incrementAndGet();
+                } else {
+                    misses.incrementAndGet();
+                }
+                segment = render(slot.section(), request, version, budget);
+                if (cached != null) {
+                    cached[i] = segment;
+                }
+            }
+            if (!segment.text().isEmpty()) {
+                if (out != null) {
+                    out.append(segment.text()).append('\n');
+                }
+                remaining -= segment.tokens();
+                used += segment.tokens();
+            }
+        }
+        return used;
+    }
+
+    /** Drops every cached segment for an NPC. */
+    public void invalidate(EntityId npc) {
+        synchronized (segments) {
+            segments.remove(npc);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (segments) {
+            segments.clear();
+        }
+    }
+
+    /** NPCs with cached segments. */
+    public int cachedNpcCount() {
+        synchronized (segments) {
+            return segments.size();
+        }
+    }
+
+    public int totalTokenBudget() {
+        return totalTokenBudget;
+    }
+
+    public long segmentHitCount() {
+        return hits.get();
+    }
+
+    public long segmentMissCount() {
+        return misses.get();
+    }
+
+    /** Segments rendered ahead of time by {@link #prefetch}. */
+    public long segmentPrefetchCount() {
+        return prefetched.get();
+    }
+
+    /** Appends {@code hundredths / 100} with exactly two decimals, e.g. 75 → "0.75", -5 → "-0.05". */
+    static void appendHundredths(StringBuilder out, int hundredths) {
+        if (hundredths < 0) {
+            out.append('-');
+            hundredths = -hundredths;
+        }
+        out.append(hundredths / 100).append('.');
+        int fraction = hundredths % 100;
+        if (fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+
+    private Segment render(PromptContextSection section, DialogueRequest request, long version, int budget) {
+        StringBuilder scratch = borrow();
+        try {
+            section.render(request, budget, scratch);
+            int tokens = PromptTokenEstimator.truncateToBudget(scratch, budget);
+            return new Segment(version, budget, scratch.toString(), tokens);
+        } finally {
+            release(scratch);
+        }
+    }
+
+    private Segment[] cacheFor(EntityId npc, int slotCount) {
+        if (npc == null) {
+            return null;
+        }
+        synchronized (segments) {
+            Segment[] cached = segments.get(npc);
+            if (cached == null || cached.length < slotCount) {
+                Segment[] grown = cached == null ? new Segment[slotCount] : Arrays.copyOf(cached, slotCount);
+                segments.put(npc, grown);
+                cached = grown;
+            }
+            return cached;
+        }
+    }
+
+    private StringBuilder borrow() {
+        StringBuilder buffer = pool.poll();
+        if (buffer == null) {
+            return new StringBuilder(INITIAL_BUFFER_CAPACITY);
+        }
+        pooled.decrementAndGet();
+        buffer.setLength(0);
+        return buffer;
+    }
+
+    private void release(StringBuilder buffer) {
+        if (buffer.capacity() > MAX_POOLED_CAPACITY) {
+            return;
+        }
+        if (pooled.incrementAndGet() <= POOL_SIZE) {
+            pool.offer(buffer);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+
+    private record Slot(PromptContextSection section, int tokenBudget) {}
+
+    /** Rendered section text; immutable so concurrent compiles for one NPC can share it. */
+    private record Segment(long version, int budget, String text, int tokens) {}
+}
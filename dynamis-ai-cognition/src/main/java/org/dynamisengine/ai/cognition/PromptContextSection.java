@@ -0,0 +1,33 @@
+package org.dynamisengine.ai.cognition;
+
+/**
+ * One source of NPC prompt context — beliefs, mood, memories, social standing.
+ *
+ * {@link PromptContextCompiler} reuses a section's last rendering for an NPC until
+ * {@link #version} changes, so the version must change whenever the rendered text would.
+ */
+public interface PromptContextSection {
+
+    /** Stable name for diagnostics. */
+    String name();
+
+    /** Content version for this request's speaker. */
+    long version(DialogueRequest request);
+
+    /**
+     * Appends this section's text, aiming to stay within {@code tokenBudget} as measured by
+     * {@link PromptTokenEstimator}. The compiler trims whole trailing lines that overflow.
+     * Appending nothing omits the section.
+     */
+    void render(DialogueRequest request, int tokenBudget, StringBuilder out);
+
+    /** The speaker's most confident beliefs, in {@link BeliefContextBuilder} format. */
+    static PromptContextSection beliefs(BeliefModelRegistry registry) {
+        return new BeliefContextSection(registry);
+    }
+
+    /** The request's current mood as one line. */
+    static PromptContextSection affect() {
+        return AffectContextSection.INSTANCE;
+    }
+}
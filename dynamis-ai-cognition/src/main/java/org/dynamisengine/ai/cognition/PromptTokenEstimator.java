@@ -0,0 +1,68 @@
+package org.dynamisengine.ai.cognition;
+
+/**
+ * Fast local token-count estimate for prompt budgeting — no tokenizer vocabulary needed.
+ *
+ * Each run of letters or digits counts one token per four characters (rounded up) and
+ * every other non-whitespace character counts one token. This tracks BPE tokenizers
+ * closely on English prose and errs on the high side for code-like text.
+ */
+public final class PromptTokenEstimator {
+
+    private PromptTokenEstimator() {}
+
+    public static int estimate(CharSequence text) {
+        return text == null ? 0 : estimate(text, 0, text.length());
+    }
+
+    /** Estimate for {@code text[start, end)} — single pass, no allocation. */
+    public static int estimate(CharSequence text, int start, int end) {
+        int tokens = 0;
+        int run = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                run++;
+                continue;
+            }
+            if (run > 0) {
+                tokens += (run + 3) >> 2;
+                run = 0;
+            }
+            if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        if (run > 0) {
+            tokens += (run + 3) >> 2;
+        }
+        return tokens;
+    }
+
+    /**
+     * Truncates {@code text} to whole lines whose combined estimate fits {@code tokenBudget}.
+     *
+     * @return estimated tokens of the retained text
+     */
+    public static int truncateToBudget(StringBuilder text, int tokenBudget) {
+        int total = 0;
+        int keepEnd = 0;
+        int lineStart = 0;
+        int length = text.length();
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && text.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int lineTokens = estimate(text, lineStart, lineEnd);
+            if (total + lineTokens > tokenBudget) {
+                break;
+            }
+            total += lineTokens;
+            keepEnd = lineEnd;
+            lineStart = lineEnd + 1;
+        }
+        text.setLength(keepEnd);
+        return total;
+    }
+}
@@ -0,0 +1,370 @@
+package org.dynamisengine.ai.cognition;
+
+import org.dynamisengine.core.logging.DynamisLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Record/replay backend for simulation bakes — reproduces LLM-driven runs without model cost.
+ *
+ * Recording wraps a real backend and captures each generation as
+ * {@code (prompt hash, temperature, seed) → (response, latency)}. {@link #close()} writes the
+ * capture to a gzip-compressed binary file. Replaying answers from that file, either
+ * instantly or after the recorded latency, so bakes see real dialogue timing.
+ *
+ * Structured requests are keyed by the full prompt the recording backend builds — see
+ * {@link InferenceBackend#promptFor} — so requests differing only in world facts or compiled
+ * context never share a recording. Replaying them without the backend needs the same prompt
+ * builder, passed to {@link #replaying(Path, Timing, InferenceBackend)}. The file header
+ * names the recording backend's {@link InferenceBackend#promptScheme}, and opening a file
+ * with a prompt source of another scheme fails at once. maxTokens is left out of the key
+ * because the adaptive policy varies it from run to run.
+ *
+ * A key generated more than once keeps every response in order, and replay walks them in
+ * the same order, so a bake that issues requests in a stable order replays exactly. In
+ * {@link Mode#REPLAY} a key with no recording raises {@link InferenceException} and the
+ * service serves its fallback; {@link Mode#REPLAY_OR_RECORD} generates and records it.
+ */
+public final class ReplayInferenceBackend implements InferenceBackend, AutoCloseable {
+
+    private static final DynamisLogger log = DynamisLogger.get(ReplayInferenceBackend.class);
+
+    private static final int MAGIC = 0x44524C59; // "DRLY"
+    private static final int FORMAT_VERSION = 2;
+
+    public enum Mode { RECORD, REPLAY, REPLAY_OR_RECORD }
+
+    public enum Timing {
+        /** Sleep the recorded latency before answering. */
+        RECORDED,
+        /** Answer immediately. */
+        INSTANT
+    }
+
+    /** Everything that selects a response: prompt content, sampling temperature and seed. */
+    record Key(long promptHash, int temperatureBits, long seed, boolean deterministic) {
+
+        static Key of(String prompt, GenerationConfig config) {
+            return new Key(hash(prompt), Float.floatToIntBits(config.temperature()),
+                config.seed(), config.deterministicMode());
+        }
+    }
+
+    record Recording(String response, long latencyNanos) {}
+
+    private final Mode mode;
+    private final Timing timing;
+    private final InferenceBackend delegate;
+    private final Function<InferenceRequest, String> prompts;
+    private final String promptScheme;
+    /** Whether the recordings include structured requests, keyed by {@link #promptScheme}. */
+    private volatile boolean schemeKeyed;
+    private final Path file;
+    private final Map<Key, List<Recording>> recordings = new ConcurrentHashMap<>();
+    private final Map<Key, AtomicInteger> cursors = new ConcurrentHashMap<>();
+    private final AtomicLong replayed = new AtomicLong(0L);
+    private final AtomicLong recorded = new AtomicLong(0L);
+    private final AtomicLong misses = new AtomicLong(0L);
+    private volatile long lastLatencyMs = 0L;
+
+    private ReplayInferenceBackend(Mode mode, Timing timing, InferenceBackend delegate,
+                                   InferenceBackend promptSource, Path file) {
+        this.mode = mode;
+        this.timing = Objects.requireNonNull(timing, "timing");
+        this.delegate = delegate;
+        this.prompts = promptSource::promptFor;
+        this.promptScheme = Objects.requireNonNull(promptSource.promptScheme(), "promptScheme");
+        this.file = Objects.requireNonNull(file, "file");
+        if (mode != Mode.RECORD && Files.exists(file)) {
+            String recordedScheme = load(file, recordings);
+            if (!recordedScheme.isEmpty() && !recordedScheme.equals(promptScheme)) {
+                throw new IllegalArgumentException(String.format(
+                    "Replay file %s was keyed by %s prompts; replay it with a prompt source of that scheme, not %s",
+                    file, recordedScheme, promptScheme));
+            }
+            schemeKeyed = !recordedScheme.isEmpty();
+        }
+    }
+
+    /** Records every generation from {@code delegate}; written to {@code file} on close. */
+    public static ReplayInferenceBackend recording(InferenceBackend delegate, Path file) {
+        Objects.requireNonNull(delegate, "delegate");
+        return new ReplayInferenceBackend(Mode.RECORD, Timing.INSTANT, delegate, delegate, file);
+    }
+
+    /**
+     * Answers only from {@code file}. Structured requests are keyed by the input line, which
+     * matches recordings of backends that generate from it directly.
+     *
+     * @throws IllegalArgumentException if the file's structured requests were keyed otherwise
+     */
+    public static ReplayInferenceBackend replaying(Path file, Timing timing) {
+        return replaying(file, timing, InputLinePrompts.INSTANCE);
+    }
+
+    /**
+     * Answers only from {@code file}, keying structured requests by {@code promptSource}'s
+     * {@link InferenceBackend#promptFor} — a backend of the recording's kind, configured as it
+     * was then. It is never asked to generate.
+     *
+     * @throws IllegalArgumentException if its prompt scheme is not the recording's
+     */
+    public static ReplayInferenceBackend replaying(Path file, Timing timing, InferenceBackend promptSource) {
+        Objects.requireNonNull(promptSource, "promptSource");
+        if (!Files.exists(file)) {
+            throw new UncheckedIOException(new IOException("No replay file at " + file));
+        }
+        return new ReplayInferenceBackend(Mode.REPLAY, timing, null, promptSource, file);
+    }
+
+    /** Answers from {@code file} where possible and records the rest; written on close. */
+    public static ReplayInferenceBackend replayingOrRecording(InferenceBackend delegate, Path file, Timing timing) {
+        Objects.requireNonNull(delegate, "delegate");
+        return new ReplayInferenceBackend(Mode.REPLAY_OR_RECORD, timing, delegate, delegate, file);
+    }
+
+    @Override
+    public String generate(InferenceRequest request, GenerationConfig config) {
+        return generate(request, config, chunk -> { });
+    }
+
+    @Override
+    public String generate(InferenceRequest request, GenerationConfig config, Consumer<CharSequence> tokenSink) {
+        GenerationConfig effective = request.seedingEnabled()
+            ? new GenerationConfig(config.maxTokens(), config.temperature(), request.deterministicSeed(), true)
+            : config;
+        Key key = Key.of(prompts.apply(request), effective);
+        if (mode != Mode.REPLAY) {
+            schemeKeyed = true;
+        }
+        return serve(key, tokenSink, () -> delegate.generate(request, config, tokenSink));
+    }
+
+    @Override
+    public String generate(String prompt, GenerationConfig config) {
+        return serve(Key.of(prompt, config), chunk -> { }, () -> delegate.generate(prompt, config));
+    }
+
+    @Override
+    public String generate(String prompt, GenerationConfig config, Consumer<CharSequence> tokenSink) {
+        return serve(Key.of(prompt, config), tokenSink, () -> delegate.generate(prompt, config, tokenSink));
+    }
+
+    private String serve(Key key, Consumer<CharSequence> tokenSink, Supplier<String> generation) {
+        if (mode != Mode.RECORD) {
+            Recording hit = next(key);
+            if (hit != null) {
+                replayed.incrementAndGet();
+                if (timing == Timing.RECORDED && hit.latencyNanos() > 0L) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(hit.latencyNanos());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InferenceException("Replay interrupted", e);
+                    }
+                }
+                lastLatencyMs = TimeUnit.NANOSECONDS.toMillis(hit.latencyNanos());
+                tokenSink.accept(hit.response());
+                return hit.response();
+            }
+            if (mode == Mode.REPLAY) {
+                misses.incrementAndGet();
+                throw new InferenceException("No recorded response for prompt hash "
+                    + Long.toHexString(key.promptHash()));
+            }
+        }
+        long start = System.nanoTime();
+        String response = generation.get();
+        long latency = System.nanoTime() - start;
+        lastLatencyMs = TimeUnit.NANOSECONDS.toMillis(latency);
+        List<Recording> list = recordings.computeIfAbsent(key, k -> new ArrayList<>());
+        synchronized (list) {
+            list.add(new Recording(response, latency));
+        }
+        recorded.incrementAndGet();
+        return response;
+    }
+
+    /** The next unreplayed recording for this key, or {@code null} once they are used up. */
+    private Recording next(Key key) {
+        List<Recording> list = recordings.get(key);
+        if (list == null) {
+            return null;
+        }
+        int index = cursors.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+        synchronized (list) {
+            return index < list.size() ? list.get(index) : null;
+        }
+    }
+
+    /** Writes all recordings, including replayed ones, to the file. No-op in pure replay mode. */
+    @Override
+    public void close() {
+        if (mode == Mode.REPLAY) {
+            return;
+        }
+        try {
+            save(file, schemeKeyed ? promptScheme : "", recordings);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Writing replay file " + file + " failed", e);
+        }
+    }
+
+    public long replayedCount() { return replayed.get(); }
+
+    public long recordedCount() { return recorded.get(); }
+
+    public long missCount() { return misses.get(); }
+
+    @Override
+    public boolean isAvailable() {
+        return delegate == null || delegate.isAvailable();
+    }
+
+    @Override public boolean supportsStreaming() { return delegate != null && delegate.supportsStreaming(); }
+
+    @Override
+    public boolean supportsCancellation() {
+        return delegate == null || delegate.supportsCancellation();
+    }
+
+    @Override
+    public String backendName() {
+        return delegate == null ? "ReplayBackend" : "ReplayBackend[" + delegate.backendName() + "]";
+    }
+
+    @Override
+    public InferenceBackendMetrics getMetrics() {
+        int calls = (int) (replayed.get() + recorded.get() + misses.get());
+        return new InferenceBackendMetrics(lastLatencyMs, 0f, calls, (int) misses.get(), isAvailable());
+    }
+
+    @Override
+    public String promptFor(InferenceRequest request) {
+        return prompts.apply(request);
+    }
+
+    @Override
+    public String promptScheme() {
+        return promptScheme;
+    }
+
+    /** 64-bit FNV-1a over UTF-16 code units — stable across JVMs, unlike String.hashCode widening. */
+    static long hash(String text) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            h ^= text.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    /**
+     * @param promptScheme scheme structured requests were keyed by, or empty when the file
+     *                     holds only raw-prompt generations
+     */
+    static void save(Path file, String promptScheme, Map<Key, List<Recording>> recordings) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(temp))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(promptScheme);
+            out.writeInt(recordings.size());
+            for (Map.Entry<Key, List<Recording>> entry : recordings.entrySet()) {
+                Key key = entry.getKey();
+                out.writeLong(key.promptHash());
+                out.writeInt(key.temperatureBits());
+                out.writeLong(key.seed());
+                out.writeBoolean(key.deterministic());
+                List<Recording> list = entry.getValue();
+                synchronized (list) {
+                    out.writeInt(list.size());
+                    for (Recording recording : list) {
+                        byte[] response = recording.response().getBytes(StandardCharsets.UTF_8);
+                        out.writeLong(recording.latencyNanos());
+                        out.writeInt(response.length);
+                        out.write(response);
+                    }
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info(String.format("Wrote %d replay keys to %s", recordings.size(), file));
+    }
+
+    /** @return the prompt scheme in the file header, empty if it holds no structured requests */
+    static String load(Path file, Map<Key, List<Recording>> into) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a replay file");
+            }
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported replay format version " + version);
+            }
+            String promptScheme = in.readUTF();
+            int keys = in.readInt();
+            for (int k = 0; k < keys; k++) {
+                Key key = new Key(in.readLong(), in.readInt(), in.readLong(), in.readBoolean());
+                int count = in.readInt();
+                List<Recording> list = new ArrayList<>(count);
+                for (int r = 0; r < count; r++) {
+                    long latency = in.readLong();
+                    byte[] response = in.readNBytes(in.readInt());
+                    list.add(new Recording(new String(response, StandardCharsets.UTF_8), latency));
+                }
+                into.put(key, list);
+            }
+            return promptScheme;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading replay file " + file + " failed", e);
+        }
+    }
+
+    /** Prompt source for replays of backends that generate from the player's line. */
+    private static final class InputLinePrompts implements InferenceBackend {
+
+        static final InputLinePrompts INSTANCE = new InputLinePrompts();
+
+        @Override
+        public String generate(String prompt, GenerationConfig config) {
+            throw new InferenceException("Prompt source only");
+        }
+
+        @Override public boolean isAvailable() { return false; }
+
+        @Override public boolean supportsStreaming() { return false; }
+
+        @Override public InferenceBackendMetrics getMetrics() { return InferenceBackendMetrics.unavailable(); }
+
+        @Override public String backendName() { return "InputLinePrompts"; }
+    }
+}
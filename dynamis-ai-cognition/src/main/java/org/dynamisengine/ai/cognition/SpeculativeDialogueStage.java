@@ -0,0 +1,314 @@
+package org.dynamisengine.ai.cognition;
+
+import org.dynamisengine.ai.core.LodTier;
+import org.dynamisengine.core.entity.EntityId;
+import org.dynamisengine.core.logging.DynamisLogger;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Optional stage that pre-generates likely opening lines while the backend is idle.
+ *
+ * When an NPC becomes conversation-relevant — its LOD rises to {@link LodTier#TIER_0} or the
+ * player approaches — the caller queues likely player inputs: greetings by default, plus
+ * lines about recent world events the game offers. A single background worker generates them
+ * only while no real request is in flight, and {@link DefaultCognitionService} consults the
+ * results before running inference.
+ *
+ * Speculation always yields: a real request interrupts the running speculative generation
+ * and the item goes back to the front of the queue. A backend that cannot abort on interrupt
+ * (see {@link InferenceBackend#supportsCancellation()}) would make that request wait out the
+ * speculative line, so the stage stays inert on one.
+ *
+ * A speculated response is used at most once. Entries whose speaker's beliefs changed, or
+ * older than the maximum age, are purged before each generation; when the stage is still
+ * full the oldest entry makes way, so unused lines never stall speculation. The queue holds
+ * at most {@code maxEntries} items and drops the oldest first.
+ */
+public final class SpeculativeDialogueStage {
+
+    private static final DynamisLogger log = DynamisLogger.get(SpeculativeDialogueStage.class);
+
+    /** Openings queued by {@link #speculate(DialogueRequest)}. */
+    public static final List<String> DEFAULT_OPENINGS = List.of("Hello", "Hi", "Greetings");
+
+    /** Default age after which an unused speculated line is discarded. */
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(2);
+
+    private final InferenceBackend backend;
+    private final ResponseParser parser;
+    private final InferenceTelemetry telemetry;
+    private final BeliefModelRegistry beliefs;
+    private final int maxEntries;
+    private final long maxAgeNanos;
+    private final boolean enabled;
+    private final ExecutorService executor;
+    private final Map<Key, Speculated> speculated = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<DialogueRequest> pending = new ConcurrentLinkedDeque<>();
+    private final Set<Key> queued = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final AtomicReference<Thread> worker = new AtomicReference<>();
+    private final AtomicLong hits = new AtomicLong(0L);
+    private final AtomicLong yields = new AtomicLong(0L);
+
+    /**
+     * @param telemetry  the serving telemetry — its in-flight count defines idle capacity
+     * @param maxEntries upper bound on speculated responses held at once
+     */
+    public SpeculativeDialogueStage(InferenceBackend backend,
+                                    ResponseParser parser,
+                                    InferenceTelemetry telemetry,
+                                    BeliefModelRegistry beliefs,
+                                    int maxEntries) {
+        this(backend, parser, telemetry, beliefs, maxEntries, DEFAULT_MAX_AGE);
+    }
+
+    /**
+     * @param maxAge how long an unused speculated response stays eligible
+     */
+    public SpeculativeDialogueStage(InferenceBackend backend,
+                                    ResponseParser parser,
+                                    InferenceTelemetry telemetry,
+                                    BeliefModelRegistry beliefs,
+                                    int maxEntries,
+                                    Duration maxAge) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be > 0");
+        }
+        if (maxAge == null || maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("maxAge must be > 0");
+        }
+        this.backend = Objects.requireNonNull(backend, "backend");
+        this.parser = Objects.requireNonNull(parser, "parser");
+        this.telemetry = Objects.requireNonNull(telemetry, "telemetry");
+        this.beliefs = Objects.requireNonNull(beliefs, "beliefs");
+        this.maxEntries = maxEntries;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.enabled = backend.supportsCancellation();
+        if (!enabled) {
+            log.info(String.format("Speculation disabled: %s cannot abort a running generation",
+                backend.backendName()));
+        }
+        this.executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("cognition-speculative-", 0).factory());
+    }
+
+    /** Queues the default openings when an NPC's LOD rises to TIER_0. */
+    public void onLodChanged(DialogueRequest template, LodTier previous, LodTier current) {
+        if (current == LodTier.TIER_0 && previous != LodTier.TIER_0) {
+            speculate(template);
+        }
+    }
+
+    /** Queues the default openings for the template's speaker and target. */
+    public void speculate(DialogueRequest template) {
+        speculate(template, DEFAULT_OPENINGS);
+    }
+
+    /**
+     * Queues one speculative generation per likely input, each using the template's
+     * context and mood. Inputs already queued or still validly speculated are skipped.
+     */
+    public void speculate(DialogueRequest template, Collection<String> likelyInputs) {
+        Objects.requireNonNull(template, "template");
+        if (!enabled) {
+            return;
+        }
+        evictStale();
+        for (String input : likelyInputs) {
+            DialogueRequest likely = new DialogueRequest(template.speaker(), template.target(), input,
+                template.context(), template.currentMood(), template.snapshot());
+            Key key = Key.of(likely);
+            if (!speculated.containsKey(key) && queued.add(key)) {
+                pending.addLast(likely);
+            }
+        }
+        while (pending.size() > maxEntries) {
+            DialogueRequest dropped = pending.pollFirst();
+            if (dropped == null) {
+                break;
+            }
+            queued.remove(Key.of(dropped));
+        }
+        resume();
+    }
+
+    /**
+     * Removes and returns the speculated response matching this request, if it is still
+     * valid for the speaker's current beliefs.
+     */
+    public Optional<DialogueResponse> take(DialogueRequest request) {
+        if (speculated.isEmpty()) {
+            return Optional.empty();
+        }
+        Speculated entry = speculated.remove(Key.of(request));
+        if (entry == null || entry.beliefVersion() != beliefVersion(request.speaker())
+                || System.nanoTime() - entry.createdAtNanos() > maxAgeNanos) {
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(entry.response());
+    }
+
+    /** Interrupts the running speculative generation — called as a real request starts. */
+    public void yieldToRequest() {
+        Thread thread = worker.get();
+        if (thread != null && worker.compareAndSet(thread, null)) {
+            yields.incrementAndGet();
+            thread.interrupt();
+        }
+    }
+
+    /** Restarts speculation if work is queued and the backend is idle. */
+    public void resume() {
+        if (enabled && !pending.isEmpty() && telemetry.inFlight() == 0 && draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /** Drops every speculated and queued line for the speaker, e.g. after a scene change. */
+    public void invalidate(EntityId speaker) {
+        speculated.keySet().removeIf(key -> Objects.equals(key.speaker(), speaker));
+        pending.removeIf(request -> Objects.equals(request.speaker(), speaker)
+            && queued.remove(Key.of(request)));
+    }
+
+    public int size() { return speculated.size(); }
+
+    public int pendingCount() { return pending.size(); }
+
+    /** False when the backend cannot abort a generation, so nothing is ever speculated. */
+    public boolean isEnabled() { return enabled; }
+
+    /** Real requests answered from speculation. */
+    public long hitCount() { return hits.get(); }
+
+    /** Speculative generations abandoned for a real request. */
+    public long yieldCount() { return yields.get(); }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void drain() {
+        Thread self = Thread.currentThread();
+        try {
+            DialogueRequest next;
+            while ((next = pending.pollFirst()) != null) {
+                // Publish the worker before checking idleness so a starting request either
+                // sees it and interrupts, or is already counted in flight here.
+                worker.set(self);
+                if (telemetry.inFlight() > 0) {
+                    pending.addFirst(next);
+                    break;
+                }
+                makeRoom();
+                if (!generate(next)) {
+                    pending.addFirst(next);
+                    break;
+                }
+                queued.remove(Key.of(next));
+            }
+        } finally {
+            worker.compareAndSet(self, null);
+            Thread.interrupted();
+            draining.set(false);
+        }
+        resume();
+    }
+
+    /** Purges stale entries, then evicts the oldest until a new one fits. */
+    private void makeRoom() {
+        evictStale();
+        while (speculated.size() >= maxEntries) {
+            Map.Entry<Key, Speculated> oldest = null;
+            for (Map.Entry<Key, Speculated> entry : speculated.entrySet()) {
+                if (oldest == null || entry.getValue().createdAtNanos() < oldest.getValue().createdAtNanos()) {
+                    oldest = entry;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            speculated.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+
+    /** Drops entries generated against older beliefs or past the maximum age. */
+    private void evictStale() {
+        if (speculated.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        speculated.entrySet().removeIf(entry -> now - entry.getValue().createdAtNanos() > maxAgeNanos
+            || entry.getValue().beliefVersion() != beliefVersion(entry.getKey().speaker()));
+    }
+
+    /** @return false when interrupted by a real request and the item should be retried */
+    private boolean generate(DialogueRequest request) {
+        long version = beliefVersion(request.speaker());
+        long seed = request.snapshot() != null
+            ? request.snapshot().seedFor(request.speaker())
+            : 42L;
+        try {
+            String json = backend.generate(InferenceRequest.unseeded(request), GenerationConfig.creative(seed));
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            speculated.put(Key.of(request), new Speculated(parser.parse(json), version, System.nanoTime()));
+        } catch (InferenceException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            log.debug(String.format("Speculative generation failed for %s: %s", request.speaker(), e.getMessage()));
+        }
+        return true;
+    }
+
+    private long beliefVersion(EntityId speaker) {
+        return beliefs.get(speaker).map(BeliefModel::version).orElse(-1L);
+    }
+
+    private record Speculated(DialogueResponse response, long beliefVersion, long createdAtNanos) {}
+
+    /** Player input is matched case- and punctuation-insensitively. */
+    private record Key(EntityId speaker, EntityId target, String input) {
+        static Key of(DialogueRequest request) {
+            return new Key(request.speaker(), request.target(), normalize(request.inputSpeech()));
+        }
+
+        private static String normalize(String input) {
+            if (input == null) {
+                return "";
+            }
+            StringBuilder out = new StringBuilder(input.length());
+            boolean space = false;
+            for (int i = 0; i < input.length(); i++) {
+                char c = input.charAt(i);
+                if (Character.isLetterOrDigit(c)) {
+                    if (space && !out.isEmpty()) {
+                        out.append(' ');
+                    }
+                    out.append(Character.toLowerCase(c));
+                    space = false;
+                } else if (Character.isWhitespace(c)) {
+                    space = true;
+                }
+            }
+            return out.toString();
+        }
+    }
+}
@@ -0,0 +1,487 @@
+package org.dynamisengine.ai.cognition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Incremental single-pass parser for DialogueResponse JSON arriving in token chunks.
+ *
+ * Consumes each character exactly once — no backtracking over the buffer and no
+ * substring extraction. Recognizes the {@code text}, {@code affect} and {@code tags}
+ * fields, plus the numeric {@code speaker} id of group-dialogue lines, decodes escapes
+ * including {@code \\uXXXX}, and fires
+ * {@link DialogueStreamListener} events as each field completes.
+ *
+ * Tolerates the usual model quirks: prose or code fences before the root object,
+ * trailing commas, missing colons and trailing output after the root closes. Prose may
+ * itself contain braces, e.g. {@code Sure {laughs}: {...}} — a candidate root that closes
+ * without any known field is dropped and the search for the root resumes.
+ * Not thread-safe — one instance per in-flight generation; {@link #reset()} to reuse.
+ */
+public final class StreamingResponseParser {
+
+    private static final int MAX_DEPTH = 32;
+    private static final int MAX_LITERAL = 32;
+
+    private static final int KEY_NONE = 0;
+    private static final int KEY_TEXT = 1;
+    private static final int KEY_AFFECT = 2;
+    private static final int KEY_TAGS = 3;
+    private static final int KEY_VALENCE = 4;
+    private static final int KEY_AROUSAL = 5;
+    private static final int KEY_DOMINANCE = 6;
+    private static final int KEY_SARCASM = 7;
+    private static final int KEY_INTENSITY = 8;
+    private static final int KEY_SPEAKER = 9;
+
+    private enum State { SEEK_ROOT, VALUE, STRING, ESCAPE, UNICODE, LITERAL, DONE }
+
+    private enum Capture { NONE, KEY, TEXT, TAG, SPEAKER }
+
+    private static final DialogueStreamListener NO_OP = new DialogueStreamListener() {};
+
+    private final DialogueStreamListener listener;
+    private final boolean skipUnknownRoots;
+    private final boolean[] arrayAt = new boolean[MAX_DEPTH];
+    private final boolean[] expectKey = new boolean[MAX_DEPTH];
+    private final int[] keyAt = new int[MAX_DEPTH];
+    private final StringBuilder keyBuf = new StringBuilder(16);
+    private final StringBuilder textBuf = new StringBuilder(128);
+    private final StringBuilder tagBuf = new StringBuilder(16);
+    private final char[] literal = new char[MAX_LITERAL];
+    private final List<String> tags = new ArrayList<>();
+
+    private State state;
+    private Capture capture;
+    private int depth;
+    private int literalLen;
+    private int unicodeValue;
+    private int unicodeDigits;
+    private int textDeltaMark;
+    private boolean sawRoot;
+    /** Whether the current root candidate has shown a known top-level key. */
+    private boolean rootKnown;
+    private String text;
+    private boolean affectSeen;
+    private float valence;
+    private float arousal;
+    private float dominance;
+    private float sarcasm;
+    private float intensity;
+    private long speaker;
+
+    public StreamingResponseParser() {
+        this(NO_OP);
+    }
+
+    public StreamingResponseParser(DialogueStreamListener listener) {
+        this(listener, true);
+    }
+
+    /**
+     * @param skipUnknownRoots whether a root closing without a known field resumes the root
+     *                         search; off when the caller has already located the object
+     */
+    StreamingResponseParser(DialogueStreamListener listener, boolean skipUnknownRoots) {
+        this.listener = Objects.requireNonNull(listener);
+        this.skipUnknownRoots = skipUnknownRoots;
+        reset();
+    }
+
+    /** Clears all parse state so the instance can consume a new generation. */
+    public void reset() {
+        state = State.SEEK_ROOT;
+        capture = Capture.NONE;
+        depth = 0;
+        literalLen = 0;
+        unicodeValue = 0;
+        unicodeDigits = 0;
+        textDeltaMark = 0;
+        sawRoot = false;
+        rootKnown = false;
+        text = null;
+        affectSeen = false;
+        valence = 0f;
+        arousal = 0.3f;
+        dominance = 0.5f;
+        sarcasm = 0f;
+        intensity = 0.3f;
+        speaker = -1L;
+        keyBuf.setLength(0);
+        textBuf.setLength(0);
+        tagBuf.setLength(0);
+        tags.clear();
+    }
+
+    /** Feeds the next chunk of model output. */
+    public void accept(CharSequence chunk) {
+        if (chunk != null) {
+            accept(chunk, 0);
+        }
+    }
+
+    /**
+     * Feeds {@code chunk} from index {@code from} until the root object closes.
+     *
+     * @return the index just past the last character consumed
+     */
+    public int accept(CharSequence chunk, int from) {
+        int i = from;
+        for (int n = chunk.length(); i < n && state != State.DONE; i++) {
+            step(chunk.charAt(i));
+        }
+        flushTextDelta();
+        return i;
+    }
+
+    /** Whether the root object has closed — later input is ignored. */
+    public boolean isComplete() {
+        return state == State.DONE;
+    }
+
+    /** Whether a root object was found in the input so far. */
+    public boolean sawRoot() {
+        return sawRoot;
+    }
+
+    /** The root object's {@code speaker} id, or -1 when absent or not a number. */
+    public long speaker() {
+        return speaker;
+    }
+
+    /**
+     * Builds the response from everything parsed so far.
+     * Missing fields take the same defaults as {@link ResponseParser}.
+     */
+    public DialogueResponse finish() {
+        AffectVector affect = affectSeen ? buildAffect() : AffectVector.neutral();
+        return new DialogueResponse(
+            text != null ? text : "...",
+            affect,
+            List.copyOf(tags),
+            List.of(),
+            false);
+    }
+
+    private void step(char c) {
+        switch (state) {
+            case SEEK_ROOT -> {
+                if (c == '{') {
+                    sawRoot = true;
+                    rootKnown = false;
+                    state = State.VALUE;
+                    push(false);
+                }
+            }
+            case VALUE -> structural(c);
+            case STRING -> {
+                if (c == '\\') {
+                    state = State.ESCAPE;
+                } else if (c == '"') {
+                    endString();
+                } else {
+                    append(c);
+                }
+            }
+            case ESCAPE -> escape(c);
+            case UNICODE -> unicode(c);
+            case LITERAL -> {
+                if (isDelimiter(c)) {
+                    endLiteral();
+                    state = State.VALUE;
+                    structural(c);
+                } else if (literalLen < MAX_LITERAL) {
+                    literal[literalLen++] = c;
+                }
+            }
+            case DONE -> { }
+        }
+    }
+
+    private void structural(char c) {
+        switch (c) {
+            case '{' -> push(false);
+            case '[' -> push(true);
+            case '}', ']' -> pop();
+            case ',' -> {
+                if (inObject()) {
+                    expectKey[depth] = true;
+                    keyAt[depth] = KEY_NONE;
+                }
+            }
+            case '"' -> beginString();
+            case ':' -> { }
+            default -> {
+                if (!Character.isWhitespace(c)) {
+                    literalLen = 0;
+                    literal[literalLen++] = c;
+                    state = State.LITERAL;
+                }
+            }
+        }
+    }
+
+    private void escape(char c) {
+        state = State.STRING;
+        switch (c) {
+            case 'n' -> append('\n');
+            case 't' -> append('\t');
+            case 'r' -> append('\r');
+            case 'b' -> append('\b');
+            case 'f' -> append('\f');
+            case 'u' -> {
+                unicodeValue = 0;
+                unicodeDigits = 0;
+                state = State.UNICODE;
+            }
+            default -> append(c);
+        }
+    }
+
+    private void unicode(char c) {
+        int digit = Character.digit(c, 16);
+        if (digit < 0) {
+            // Malformed escape — keep what we have and treat this char as string content.
+            state = State.STRING;
+            step(c);
+            return;
+        }
+        unicodeValue = (unicodeValue << 4) | digit;
+        if (++unicodeDigits == 4) {
+            append((char) unicodeValue);
+            state = State.STRING;
+        }
+    }
+
+    private void push(boolean array) {
+        depth++;
+        if (depth < MAX_DEPTH) {
+            arrayAt[depth] = array;
+            expectKey[depth] = !array;
+            keyAt[depth] = KEY_NONE;
+        }
+    }
+
+    private void pop() {
+        if (depth == 2) {
+            int parentKey = parentKey();
+            if (!arrayAt[2] && parentKey == KEY_AFFECT) {
+                affectSeen = true;
+                listener.onAffectComplete(buildAffect());
+            } else if (arrayAt[2] && parentKey == KEY_TAGS) {
+                listener.onTagsComplete(List.copyOf(tags));
+            }
+        }
+        depth--;
+        if (depth <= 0) {
+            depth = 0;
+            if (rootKnown || !skipUnknownRoots) {
+                state = State.DONE;
+            } else {
+                // Braces in prose, not the response — keep looking for the root.
+                sawRoot = false;
+                state = State.SEEK_ROOT;
+            }
+        } else if (inObject()) {
+            expectKey[depth] = false;
+        }
+    }
+
+    private void beginString() {
+        state = State.STRING;
+        if (inObject() && expectKey[depth]) {
+            capture = Capture.KEY;
+            keyBuf.setLength(0);
+        } else if (depth == 1 && keyAt[1] == KEY_TEXT) {
+            capture = Capture.TEXT;
+            textBuf.setLength(0);
+            textDeltaMark = 0;
+        } else if (depth == 2 && arrayAt[2] && parentKey() == KEY_TAGS) {
+            capture = Capture.TAG;
+            tagBuf.setLength(0);
+        } else if (depth == 1 && keyAt[1] == KEY_SPEAKER) {
+            capture = Capture.SPEAKER;
+            literalLen = 0;
+        } else {
+            capture = Capture.NONE;
+        }
+    }
+
+    private void endString() {
+        state = State.VALUE;
+        switch (capture) {
+            case KEY -> {
+                keyAt[depth] = keyCode();
+                expectKey[depth] = false;
+                if (depth == 1 && keyAt[1] != KEY_NONE) {
+                    rootKnown = true;
+                }
+            }
+            case TEXT -> {
+                flushTextDelta();
+                text = textBuf.toString();
+                listener.onTextComplete(text);
+            }
+            case TAG -> {
+                String tag = tagBuf.toString().strip();
+                if (!tag.isEmpty()) {
+                    tags.add(tag);
+                }
+            }
+            case SPEAKER -> speaker = parseLiteralId();
+            case NONE -> { }
+        }
+        capture = Capture.NONE;
+    }
+
+    private void endLiteral() {
+        if (depth == 1 && keyAt[1] == KEY_SPEAKER) {
+            speaker = parseLiteralId();
+            return;
+        }
+        if (depth != 2 || arrayAt[2] || parentKey() != KEY_AFFECT) {
+            return;
+        }
+        float value = parseLiteralNumber();
+        if (Float.isNaN(value)) {
+            return;
+        }
+        switch (keyAt[2]) {
+            case KEY_VALENCE -> valence = value;
+            case KEY_AROUSAL -> arousal = value;
+            case KEY_DOMINANCE -> dominance = value;
+            case KEY_SARCASM -> sarcasm = value;
+            case KEY_INTENSITY -> intensity = value;
+            default -> { }
+        }
+    }
+
+    private void append(char c) {
+        switch (capture) {
+            case KEY -> keyBuf.append(c);
+            case TEXT -> textBuf.append(c);
+            case TAG -> tagBuf.append(c);
+            case SPEAKER -> {
+                if (literalLen < MAX_LITERAL) {
+                    literal[literalLen++] = c;
+                }
+            }
+            case NONE -> { }
+        }
+    }
+
+    private void flushTextDelta() {
+        if (capture == Capture.TEXT && textBuf.length() > textDeltaMark) {
+            listener.onTextDelta(textBuf.subSequence(textDeltaMark, textBuf.length()));
+            textDeltaMark = textBuf.length();
+        }
+    }
+
+    private boolean inObject() {
+        return depth > 0 && depth < MAX_DEPTH && !arrayAt[depth];
+    }
+
+    private int parentKey() {
+        return arrayAt[depth - 1] ? KEY_NONE : keyAt[depth - 1];
+    }
+
+    private int keyCode() {
+        if (depth == 1) {
+            if ("text".contentEquals(keyBuf)) return KEY_TEXT;
+            if ("affect".contentEquals(keyBuf)) return KEY_AFFECT;
+            if ("tags".contentEquals(keyBuf)) return KEY_TAGS;
+            if ("speaker".contentEquals(keyBuf)) return KEY_SPEAKER;
+        } else if (depth == 2) {
+            if ("valence".contentEquals(keyBuf)) return KEY_VALENCE;
+            if ("arousal".contentEquals(keyBuf)) return KEY_AROUSAL;
+            if ("dominance".contentEquals(keyBuf)) return KEY_DOMINANCE;
+            if ("sarcasm".contentEquals(keyBuf)) return KEY_SARCASM;
+            if ("intensity".contentEquals(keyBuf)) return KEY_INTENSITY;
+        }
+        return KEY_NONE;
+    }
+
+    /** Parses the buffered literal as a decimal number without allocating; NaN if not numeric. */
+    private float parseLiteralNumber() {
+        int i = 0;
+        boolean negative = false;
+        if (i < literalLen && (literal[i] == '-' || literal[i] == '+')) {
+            negative = literal[i] == '-';
+            i++;
+        }
+        double value = 0d;
+        boolean digits = false;
+        while (i < literalLen && isDigit(literal[i])) {
+            value = value * 10d + (literal[i] - '0');
+            digits = true;
+            i++;
+        }
+        if (i < literalLen && literal[i] == '.') {
+            i++;
+            double scale = 0.1d;
+            while (i < literalLen && isDigit(literal[i])) {
+                value += (literal[i] - '0') * scale;
+                scale *= 0.1d;
+                digits = true;
+                i++;
+            }
+        }
+        if (!digits) {
+            return Float.NaN;
+        }
+        if (i < literalLen && (literal[i] == 'e' || literal[i] == 'E')) {
+            i++;
+            boolean negativeExp = false;
+            if (i < literalLen && (literal[i] == '-' || literal[i] == '+')) {
+                negativeExp = literal[i] == '-';
+                i++;
+            }
+            int exp = 0;
+            while (i < literalLen && isDigit(literal[i]) && exp < 100) {
+                exp = exp * 10 + (literal[i] - '0');
+                i++;
+            }
+            value *= Math.pow(10d, negativeExp ? -exp : exp);
+        }
+        return (float) (negative ? -value : value);
+    }
+
+    /** Parses the buffered literal as a non-negative id, ignoring surrounding spaces; -1 if not one. */
+    private long parseLiteralId() {
+        long id = 0L;
+        boolean digits = false;
+        for (int i = 0; i < literalLen; i++) {
+            char c = literal[i];
+            if (isDigit(c) && id < Long.MAX_VALUE / 10L) {
+                id = id * 10L + (c - '0');
+                digits = true;
+            } else if (c != ' ') {
+                return -1L;
+            }
+        }
+        return digits ? id : -1L;
+    }
+
+    private AffectVector buildAffect() {
+        return new AffectVector(
+            clamp(valence, -1f, 1f),
+            clamp(arousal, 0f, 1f),
+            clamp(dominance, 0f, 1f),
+            clamp(sarcasm, 0f, 1f),
+            clamp(intensity, 0f, 1f));
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c == ',' || c == '}' || c == ']' || c == ':' || c == '"'
+            || c == '{' || c == '[' || Character.isWhitespace(c);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static float clamp(float v, float min, float max) {
+        return Math.max(min, Math.min(max, v));
+    }
+}
@@ -0,0 +1,328 @@
+package org.dynamisengine.ai.cognition;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Latency-modelled backend for load and soak tests — behaves like a real inference server
+ * without loading a model.
+ *
+ * Each call queues for one of {@code maxConcurrent} slots (rejected once {@code maxQueued}
+ * callers are already waiting), sleeps a sampled prefill latency, then streams the response
+ * in per-token chunks at the configured decode rate. A configurable fraction of calls fail.
+ * Sleeps are interruptible, so deadline cancellation in {@link DefaultCognitionService}
+ * frees the slot just as it would against a streaming server. Tests can swap the clock and
+ * sleeper through {@link Builder#clock} to run on simulated time.
+ *
+ * Responses are deterministic: the canned response is picked by hashing the prompt and seed,
+ * and latency and failure draws come from a generator seeded by the same hash plus a call
+ * sequence number. Decode time covers {@code min(response tokens, maxTokens)} tokens; the
+ * response itself is never truncated.
+ */
+public final class SyntheticInferenceBackend implements InferenceBackend {
+
+    /** Samples a latency in nanoseconds. */
+    @FunctionalInterface
+    public interface LatencyModel {
+
+        long sampleNanos(SplittableRandom random);
+
+        static LatencyModel constant(long millis) {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(millis);
+            return random -> nanos;
+        }
+
+        static LatencyModel uniform(long minMillis, long maxMillis) {
+            if (maxMillis < minMillis) {
+                throw new IllegalArgumentException("maxMillis must be >= minMillis");
+            }
+            long min = TimeUnit.MILLISECONDS.toNanos(minMillis);
+            long span = TimeUnit.MILLISECONDS.toNanos(maxMillis) - min;
+            return random -> min + (span == 0L ? 0L : random.nextLong(span + 1L));
+        }
+
+        /** Right-skewed like real prefill times: median {@code medianMillis}, shape {@code sigma}. */
+        static LatencyModel logNormal(long medianMillis, double sigma) {
+            double median = TimeUnit.MILLISECONDS.toNanos(medianMillis);
+            return random -> (long) (median * Math.exp(sigma * gaussian(random)));
+        }
+
+        private static double gaussian(SplittableRandom random) {
+            // Box–Muller; SplittableRandom has no nextGaussian.
+            double u = 1.0d - random.nextDouble();
+            return Math.sqrt(-2.0d * Math.log(u)) * Math.cos(2.0d * Math.PI * random.nextDouble());
+        }
+    }
+
+    /** Waits out a simulated latency; must throw if the thread is interrupted. */
+    @FunctionalInterface
+    public interface Sleeper {
+
+        void sleepNanos(long nanos) throws InterruptedException;
+    }
+
+    private static final String DEFAULT_RESPONSE_TEMPLATE =
+        "{\"text\":\"Synthetic line %d.\",\"affect\":{\"valence\":0.0,\"arousal\":0.3," +
+        "\"dominance\":0.5,\"sarcasm\":0.0,\"intensity\":0.3}," +
+        "\"tags\":[],\"hints\":[]}";
+
+    private final List<String> responses;
+    private final LatencyModel prefill;
+    private final double decodeTokensPerSecond;
+    private final Semaphore slots;
+    private final int maxQueued;
+    private final double failureRate;
+    private final LongSupplier nanoClock;
+    private final Sleeper sleeper;
+    private final AtomicInteger queued = new AtomicInteger(0);
+    private final AtomicInteger active = new AtomicInteger(0);
+    private final AtomicInteger peakActive = new AtomicInteger(0);
+    private final AtomicInteger peakQueued = new AtomicInteger(0);
+    private final AtomicLong sequence = new AtomicLong(0L);
+    private final AtomicInteger callCount = new AtomicInteger(0);
+    private final AtomicInteger failCount = new AtomicInteger(0);
+    private final AtomicInteger rejectCount = new AtomicInteger(0);
+    private volatile long lastLatencyMs = 0L;
+
+    private SyntheticInferenceBackend(Builder builder) {
+        this.responses = List.copyOf(builder.responses);
+        this.prefill = builder.prefill;
+        this.decodeTokensPerSecond = builder.decodeTokensPerSecond;
+        this.slots = new Semaphore(builder.maxConcurrent, true);
+        this.maxQueued = builder.maxQueued;
+        this.failureRate = builder.failureRate;
+        this.nanoClock = builder.nanoClock;
+        this.sleeper = builder.sleeper;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String generate(InferenceRequest request, GenerationConfig config) {
+        return generate(request, config, chunk -> { });
+    }
+
+    @Override
+    public String generate(InferenceRequest request, GenerationConfig config, Consumer<CharSequence> tokenSink) {
+        GenerationConfig effective = request.seedingEnabled()
+            ? GenerationConfig.deterministic(request.deterministicSeed())
+            : config;
+        return run(promptFor(request), effective, tokenSink);
+    }
+
+    @Override
+    public String promptFor(InferenceRequest request) {
+        return request.dialogue().speaker() + "|" + request.dialogue().inputSpeech();
+    }
+
+    @Override
+    public String promptScheme() {
+        return "synthetic-speaker-line";
+    }
+
+    @Override
+    public String generate(String prompt, GenerationConfig config) {
+        return run(prompt, config, chunk -> { });
+    }
+
+    @Override
+    public String generate(String prompt, GenerationConfig config, Consumer<CharSequence> tokenSink) {
+        return run(prompt, config, tokenSink);
+    }
+
+    private String run(String prompt, GenerationConfig config, Consumer<CharSequence> tokenSink) {
+        callCount.incrementAndGet();
+        long start = nanoClock.getAsLong();
+        long key = mix(prompt.hashCode() * 0x9E3779B97F4A7C15L ^ config.seed());
+        SplittableRandom random = new SplittableRandom(key ^ mix(sequence.incrementAndGet()));
+        String response = responses.get(Math.floorMod(key, responses.size()));
+
+        int waiting = queued.incrementAndGet();
+        peakQueued.accumulateAndGet(waiting, Math::max);
+        boolean permitted = false;
+        try {
+            try {
+                if (waiting <= maxQueued) {
+                    slots.acquire();
+                } else if (!slots.tryAcquire()) {
+                    rejectCount.incrementAndGet();
+                    throw new InferenceException("Synthetic backend queue full — " + maxQueued + " callers waiting");
+                }
+                permitted = true;
+            } finally {
+                queued.decrementAndGet();
+            }
+            peakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                sleeper.sleepNanos(prefill.sampleNanos(random));
+                if (random.nextDouble() < failureRate) {
+                    throw new InferenceException("Synthetic backend injected failure");
+                }
+                decode(response, config, tokenSink);
+                return response;
+            } finally {
+                active.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failCount.incrementAndGet();
+            throw new InferenceException("Synthetic generation interrupted", e);
+        } catch (InferenceException e) {
+            failCount.incrementAndGet();
+            throw e;
+        } finally {
+            if (permitted) {
+                slots.release();
+            }
+            lastLatencyMs = (nanoClock.getAsLong() - start) / 1_000_000L;
+        }
+    }
+
+    /**
+     * Streams the response as evenly sized chunks, one per simulated token. Each chunk is
+     * paced against the decode start so sleep overshoot does not accumulate.
+     */
+    private void decode(String response, GenerationConfig config, Consumer<CharSequence> tokenSink)
+            throws InterruptedException {
+        int tokens = Math.max(1, Math.min(PromptTokenEstimator.estimate(response), config.maxTokens()));
+        long perTokenNanos = (long) (1_000_000_000d / decodeTokensPerSecond);
+        int length = response.length();
+        int emitted = 0;
+        long decodeStart = nanoClock.getAsLong();
+        for (int t = 1; t <= tokens; t++) {
+            long wait = decodeStart + perTokenNanos * t - nanoClock.getAsLong();
+            if (wait > 0L) {
+                sleeper.sleepNanos(wait);
+            } else if (Thread.interrupted()) {
+                throw new InterruptedException("Synthetic decode interrupted");
+            }
+            int end = (int) ((long) length * t / tokens);
+            if (end > emitted) {
+                tokenSink.accept(response.subSequence(emitted, end));
+                emitted = end;
+            }
+        }
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    @Override public boolean isAvailable() { return true; }
+    @Override public boolean supportsStreaming() { return true; }
+    @Override public boolean supportsCancellation() { return true; }
+    @Override public String backendName() { return "SyntheticInferenceBackend"; }
+
+    @Override
+    public InferenceBackendMetrics getMetrics() {
+        return new InferenceBackendMetrics(
+            lastLatencyMs, (float) decodeTokensPerSecond,
+            callCount.get(), failCount.get(), true
+        );
+    }
+
+    /** Generations holding a slot right now. */
+    public int activeCount() { return active.get(); }
+
+    /** Highest number of generations observed running at once. */
+    public int peakConcurrency() { return peakActive.get(); }
+
+    /** Highest number of callers observed waiting for a slot, including the arriving one. */
+    public int peakQueueDepth() { return peakQueued.get(); }
+
+    /** Calls turned away because the queue was full. */
+    public int rejectedCount() { return rejectCount.get(); }
+
+    public int getCallCount() { return callCount.get(); }
+
+    public static final class Builder {
+        private List<String> responses = defaultResponses();
+        private LatencyModel prefill = LatencyModel.constant(0L);
+        private double decodeTokensPerSecond = 1_000d;
+        private int maxConcurrent = 4;
+        private int maxQueued = Integer.MAX_VALUE;
+        private double failureRate = 0d;
+        private LongSupplier nanoClock = System::nanoTime;
+        private Sleeper sleeper = TimeUnit.NANOSECONDS::sleep;
+
+        private Builder() {}
+
+        /** Canned JSON responses; each prompt deterministically maps to one. */
+        public Builder responses(List<String> responses) {
+            if (responses == null || responses.isEmpty()) {
+                throw new IllegalArgumentException("responses must not be empty");
+            }
+            this.responses = responses;
+            return this;
+        }
+
+        public Builder prefillLatency(LatencyModel prefill) {
+            this.prefill = Objects.requireNonNull(prefill, "prefill");
+            return this;
+        }
+
+        public Builder decodeTokensPerSecond(double tokensPerSecond) {
+            if (!(tokensPerSecond > 0d)) {
+                throw new IllegalArgumentException("tokensPerSecond must be > 0");
+            }
+            this.decodeTokensPerSecond = tokensPerSecond;
+            return this;
+        }
+
+        public Builder maxConcurrent(int maxConcurrent) {
+            if (maxConcurrent <= 0) {
+                throw new IllegalArgumentException("maxConcurrent must be > 0");
+            }
+            this.maxConcurrent = maxConcurrent;
+            return this;
+        }
+
+        /** Callers allowed to wait for a slot before further calls fail immediately. */
+        public Builder maxQueued(int maxQueued) {
+            if (maxQueued < 0) {
+                throw new IllegalArgumentException("maxQueued must be >= 0");
+            }
+            this.maxQueued = maxQueued;
+            return this;
+        }
+
+        /** Fraction of admitted calls that fail after prefill, in [0, 1]. */
+        public Builder failureRate(double failureRate) {
+            if (failureRate < 0d || failureRate > 1d) {
+                throw new IllegalArgumentException("failureRate must be [0,1]");
+            }
+            this.failureRate = failureRate;
+            return this;
+        }
+
+        /** Time source for latency pacing and {@link #getMetrics()}; defaults to wall time. */
+        public Builder clock(LongSupplier nanoClock, Sleeper sleeper) {
+            this.nanoClock = Objects.requireNonNull(nanoClock, "nanoClock");
+            this.sleeper = Objects.requireNonNull(sleeper, "sleeper");
+            return this;
+        }
+
+        public SyntheticInferenceBackend build() {
+            return new SyntheticInferenceBackend(this);
+        }
+
+        private static List<String> defaultResponses() {
+            return List.of(
+                String.format(DEFAULT_RESPONSE_TEMPLATE, 1),
+                String.format(DEFAULT_RESPONSE_TEMPLATE, 2),
+                String.format(DEFAULT_RESPONSE_TEMPLATE, 3),
+                String.format(DEFAULT_RESPONSE_TEMPLATE, 4));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.dynamisengine.ai.cognition;
+
+import org.dynamisengine.ai.core.Location;
+import org.dynamisengine.ai.core.LodTier;
+import org.dynamisengine.ai.core.ThreatLevel;
+import org.dynamisengine.ai.core.WorldFacts;
+import org.dynamisengine.core.entity.EntityId;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveInferencePolicyTest {
+
+    private static final long MS = 1_000_000L;
+
+    private long now;
+    private final InferenceTelemetry telemetry = new InferenceTelemetry("test", () -> now);
+
+    private static DialogueRequest request() {
+        return new DialogueRequest(EntityId.of(1L), EntityId.of(2L), "Hello",
+            new WorldFacts(Map.of(), List.of(), ThreatLevel.NONE, new Location(0, 0, 0), null),
+            AffectVector.neutral(), null);
+    }
+
+    private void warmUp(long queueMs, long prefillMs, long decodeMs, int tokens) {
+        for (int i = 0; i < 32; i++) {
+            telemetry.recordStage(InferenceRequestClass.INTERACTIVE, InferenceStage.QUEUE_WAIT, queueMs * MS);
+            telemetry.recordStage(InferenceRequestClass.INTERACTIVE, InferenceStage.PREFILL, prefillMs * MS);
+            telemetry.recordStage(InferenceRequestClass.INTERACTIVE, InferenceStage.DECODE, decodeMs * MS);
+            telemetry.recordThroughput(tokens, decodeMs * MS);
+        }
+    }
+
+    /** Advances canon time at a fixed wall-clock rate so the policy learns the tick duration. */
+    private void learnTicks(AdaptiveInferencePolicy policy, long tickMs) {
+        for (long tick = 0; tick < 5; tick++) {
+            policy.observeTick(tick);
+            now += tickMs * MS;
+        }
+    }
+
+    @Test
+    void coldStartUsesConfiguredDeadlineAndTierScaledTokens() {
+        AdaptiveInferencePolicy policy = new AdaptiveInferencePolicy(telemetry, 300, 10, () -> now);
+        policy.setLodTierSource(speaker -> LodTier.TIER_2);
+
+        InferencePlan plan = policy.plan(request(), InferenceRequestClass.INTERACTIVE, GenerationConfig.creative(7L));
+
+        assertEquals(300L, plan.deadlineMs());
+        assertEquals(256, plan.config().maxTokens());
+        assertEquals(7L, plan.config().seed());
+    }
+
+    @Test
+    void deadlineTracksObservedLatencyWithinStalenessWindow() {
+        AdaptiveInferencePolicy policy = new AdaptiveInferencePolicy(telemetry, 300, 10, () -> now);
+        learnTicks(policy, 100);
+        warmUp(10, 200, 300, 400);
+
+        InferencePlan plan = policy.plan(request(), InferenceRequestClass.INTERACTIVE, GenerationConfig.creative(1L));
+
+        assertEquals(100d, policy.tickMillis(), 0.01d);
+        assertTrue(plan.deadlineMs() > 300L, "slow backend should get more than the cold-start deadline");
+        assertTrue(plan.deadlineMs() <= 1_000L, "deadline must stay inside the staleness window");
+    }
+
+    @Test
+    void slowBackendShrinksMaxTokensToFitWindow() {
+        AdaptiveInferencePolicy policy = new AdaptiveInferencePolicy(telemetry, 300, 10, () -> now);
+        learnTicks(policy, 50);
+        // ~55 decode tokens/s with a 500ms window leaves room for far fewer than 512 tokens.
+        warmUp(5, 100, 900, 50);
+
+        InferencePlan plan = policy.plan(request(), InferenceRequestClass.INTERACTIVE, GenerationConfig.creative(1L));
+
+        assertTrue(plan.config().maxTokens() < 512, "maxTokens " + plan.config().maxTokens());
+        assertTrue(plan.config().maxTokens() >= 32);
+        assertEquals(500L, plan.deadlineMs());
+    }
+
+    @Test
+    void deterministicRequestsKeepGenerationConfig() {
+        AdaptiveInferencePolicy policy = new AdaptiveInferencePolicy(telemetry, 300, 10, () -> now);
+        policy.setLodTierSource(speaker -> LodTier.TIER_3);
+        learnTicks(policy, 50);
+        warmUp(5, 100, 900, 50);
+        GenerationConfig base = GenerationConfig.deterministic(9L);
+
+        InferencePlan plan = policy.plan(request(), InferenceRequestClass.DETERMINISTIC, base);
+
+        assertSame(base, plan.config());
+    }
+
+    @Test
+    void unknownTickRateNeverExtendsConfiguredDeadline() {
+        AdaptiveInferencePolicy policy = new AdaptiveInferencePolicy(telemetry, 20, 10, () -> now);
+        warmUp(10, 200, 300, 400);
+
+        InferencePlan plan = policy.plan(request(), InferenceRequestClass.INTERACTIVE, GenerationConfig.creative(1L));
+
+        assertEquals(20L, plan.deadlineMs());
+    }
+
+    @Test
+    void groupRequestsIgnoreSingleLineLatencyAndKeepTheirTokens() {
+        AdaptiveInferencePolicy policy = new AdaptiveInferencePolicy(telemetry, 300, 10, () -> now);
+        policy.setLodTierSource(speaker -> LodTier.TIER_3);
+        learnTicks(policy, 50);
+        warmUp(5, 100, 900, 50);
+        GenerationConfig base = new GenerationConfig(1_024, 0.7f, 1L, false);
+
+        InferencePlan plan = policy.plan(request(), InferenceRequestClass.GROUP, base);
+
+        assertEquals(600L, plan.deadlineMs(), "cold-start deadline scaled by requested tokens");
+        assertSame(base, plan.config());
+    }
+}
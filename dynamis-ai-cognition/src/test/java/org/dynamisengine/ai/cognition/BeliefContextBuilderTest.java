@@ -44,4 +44,15 @@ class BeliefContextBuilderTest {
         String text = BeliefContextBuilder.buildContext(model, 1);
         assertTrue(text.contains("[0.75]"));
     }
+
+    @Test
+    void cachedLinesFollowDecayedConfidence() {
+        BeliefModel model = new BeliefModel(EntityId.of(1L), BeliefDecayPolicy.defaultPolicy());
+        model.assertBelief("k", "v", 0.75f, 1L);
+        assertEquals("Known facts (NPC beliefs, confidence in brackets):\n- k: v [0.75]",
+            BeliefContextBuilder.buildContext(model, 1));
+
+        model.advanceTo(1_001L);
+        assertTrue(BeliefContextBuilder.buildContext(model, 1).endsWith("- k: v [0.28]"));
+    }
 }
@@ -40,4 +40,36 @@ class BeliefModelRegistryTest {
         registry.getOrCreate(EntityId.of(2L));
         assertEquals(2, registry.registeredCount());
     }
+
+    @Test
+    void advanceToDecaysSharedClockLazily() {
+        BeliefModelRegistry registry = new BeliefModelRegistry(BeliefDecayPolicy.fastDecay());
+        BeliefModel a = registry.getOrCreate(EntityId.of(4L));
+        BeliefModel b = registry.getOrCreate(EntityId.of(5L));
+        a.assertBelief("k", "v", 0.5f, 1L);
+        b.assertBelief("k", "v", 0.5f, 1L);
+
+        registry.advanceTo(11L);
+
+        assertEquals(a.getBelief("k").orElseThrow().confidence(),
+            b.getBelief("k").orElseThrow().confidence(), 1e-6f);
+        assertTrue(a.getBelief("k").orElseThrow().confidence() < 0.5f);
+    }
+
+    @Test
+    void sweepRespectsBudgetAcrossModels() {
+        BeliefModelRegistry registry = new BeliefModelRegistry(BeliefDecayPolicy.fastDecay());
+        for (long id = 1; id <= 3; id++) {
+            BeliefModel model = registry.getOrCreate(EntityId.of(id));
+            model.assertBelief("a", "v", 0.5f, 1L);
+            model.assertBelief("b", "v", 0.5f, 1L);
+        }
+        registry.advanceTo(1_000L);
+
+        assertTrue(registry.sweep(3) <= 3);
+        registry.sweep(100);
+        for (long id = 1; id <= 3; id++) {
+            assertEquals(0, registry.getOrCreate(EntityId.of(id)).beliefCount());
+        }
+    }
 }
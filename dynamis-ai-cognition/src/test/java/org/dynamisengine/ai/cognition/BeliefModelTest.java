@@ -1,10 +1,12 @@
 package org.dynamisengine.ai.cognition;
 
 import org.dynamisengine.core.entity.EntityId;
+import org.dynamisengine.ai.core.BeliefSource;
 import org.dynamisengine.ai.core.Location;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.ref.WeakReference;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -48,6 +50,100 @@ class BeliefModelTest {
         assertTrue(fast.getBelief("k").isEmpty());
     }
 
+    @Test
+    void confidenceDecaysExponentiallyOnRead() {
+        model.assertBelief("k", "v", 0.8f, 10L);
+        model.advanceTo(110L);
+        float expected = (float) (0.8 * Math.exp(-0.001 * 100));
+        assertEquals(expected, model.getBelief("k").orElseThrow().confidence(), 1e-6f);
+    }
+
+    @Test
+    void reinforcementResetsDecayBase() {
+        model.assertBelief("k", "v", 0.8f, 10L);
+        model.advanceTo(500L);
+        model.assertBelief("k", "v", 0.8f, 500L);
+        assertEquals(0.8f, model.getBelief("k").orElseThrow().confidence(), 1e-6f);
+    }
+
+    @Test
+    void budgetedSweepEvictsDeadBeliefsIncrementally() {
+        BeliefModel fast = new BeliefModel(EntityId.of(1L), BeliefDecayPolicy.fastDecay());
+        for (int i = 0; i < 10; i++) {
+            fast.assertBelief("k" + i, "v", 0.5f, 1L);
+        }
+        fast.advanceTo(1_000L);
+
+        assertEquals(4, fast.sweep(4));
+        assertEquals(6, fast.sweep(100));
+        assertEquals(0, fast.beliefCount());
+    }
+
+    @Test
+    void topBeliefsOrdersAcrossDecayRates() {
+        model.updateBelief("fast", "v", 0.9f, 1L, BeliefSource.INFERRED, 0.1f);
+        model.assertBelief("slow", "v", 0.6f, 1L);
+        model.assertBelief("low", "v", 0.3f, 1L);
+
+        assertEquals(List.of("fast", "slow", "low"),
+            model.topBeliefs(3).stream().map(Belief::key).toList());
+
+        model.advanceTo(11L);
+        assertEquals(List.of("slow", "fast"),
+            model.topBeliefs(2).stream().map(Belief::key).toList());
+    }
+
+    @Test
+    void beliefStampedAheadOfTheClockRanksByItsCurrentConfidence() {
+        BeliefModel fast = new BeliefModel(EntityId.of(1L), BeliefDecayPolicy.fastDecay());
+        fast.assertBelief("current", "v", 0.9f, 0L);
+        fast.assertBelief("ahead", "v", 0.5f, 100L);
+
+        assertEquals(List.of("current", "ahead"),
+            fast.topBeliefs(2).stream().map(Belief::key).toList());
+
+        // At tick 100 "current" has decayed to 0.9 * e^-1 while "ahead" starts decaying.
+        fast.advanceTo(100L);
+        assertEquals(List.of("ahead", "current"),
+            fast.topBeliefs(2).stream().map(Belief::key).toList());
+        fast.advanceTo(200L);
+        assertEquals(List.of("ahead", "current"),
+            fast.topBeliefs(2).stream().map(Belief::key).toList());
+    }
+
+    @Test
+    void deadBeliefStampedAheadDoesNotHideLiveBeliefs() {
+        BeliefModel fast = new BeliefModel(EntityId.of(1L), BeliefDecayPolicy.fastDecay());
+        fast.assertBelief("live", "v", 0.8f, 0L);
+        fast.assertBelief("weak", "v", 0.4f, 0L);
+        fast.assertBelief("faint", "v", 0.05f, 1_000L);
+
+        assertEquals(List.of("live", "weak"),
+            fast.topBeliefs(3).stream().map(Belief::key).toList());
+        StringBuilder lines = new StringBuilder();
+        assertEquals(2, fast.appendTopBeliefLines(3, lines));
+
+        // Once reached, the faint belief sorts to the top of the rate list yet is below the floor.
+        fast.advanceTo(1_000L);
+        fast.assertBelief("recent", "v", 0.9f, 1_000L);
+        assertEquals(List.of("recent"),
+            fast.topBeliefs(3).stream().map(Belief::key).toList());
+    }
+
+    @Test
+    void topBeliefsTracksReinforcementAndEviction() {
+        BeliefModel fast = new BeliefModel(EntityId.of(1L), BeliefDecayPolicy.fastDecay());
+        fast.assertBelief("a", "v", 0.9f, 1L);
+        fast.assertBelief("b", "v", 0.5f, 1L);
+        fast.assertBelief("b", "v", 1.0f, 2L);
+        assertEquals("b", fast.topBeliefs(1).get(0).key());
+
+        fast.advanceTo(1_000L);
+        assertTrue(fast.topBeliefs(5).isEmpty());
+        fast.decay(1_000L);
+        assertEquals(0, fast.beliefCount());
+    }
+
     @Test
     void staleBeliefsReturnsOnlyStale() {
         model.assertBelief("a", "v", 0.8f, 1L);
@@ -75,6 +171,53 @@ class BeliefModelTest {
         assertEquals(11L, model.getBelief("entity.2.visible").orElseThrow().lastReinforcedAtTick());
     }
 
+    @Test
+    void typedFrameIngestionUsesInternedEntityKeys() {
+        TypedFrame frame = new TypedFrame(List.of(
+            new TypedPercept(EntityId.of(3L), PerceivedStimulus.Channel.VISUAL, new Location(1f, 0f, 2f), 0.6f),
+            new TypedPercept(EntityId.of(3L), PerceivedStimulus.Channel.AUDITORY, new Location(1f, 0f, 2f), 0.4f),
+            new TypedPercept(EntityId.of(4L), PerceivedStimulus.Channel.OTHER, new Location(0f, 0f, 0f), 0.9f)
+        ));
+        model.updateFromPerception(frame, 10L);
+
+        assertEquals(2, model.beliefCount());
+        assertSame(BeliefKey.entityVisible(EntityId.of(3L)), BeliefKey.of("entity.3.visible"));
+        assertEquals(0.6f, model.getBelief(BeliefKey.entityVisible(EntityId.of(3L)))
+            .orElseThrow().confidence(), 1e-6f);
+        assertTrue(model.getBelief("entity.3.audible").isPresent());
+    }
+
+    @Test
+    void stringAndTypedPathsShareOneBelief() {
+        model.assertBelief("entity.5.visible", "old", 0.3f, 1L);
+        model.updateFromPerception(new TypedFrame(List.of(
+            new TypedPercept(EntityId.of(5L), PerceivedStimulus.Channel.VISUAL, new Location(0f, 0f, 0f), 0.9f)
+        )), 2L);
+        assertEquals(1, model.beliefCount());
+        assertEquals(2L, model.getBelief("entity.5.visible").orElseThrow().lastReinforcedAtTick());
+    }
+
+    @Test
+    void keysOfEvictedBeliefsAreReleased() throws InterruptedException {
+        BeliefModel fast = new BeliefModel(EntityId.of(1L), BeliefDecayPolicy.fastDecay());
+        fast.updateFromPerception(new TypedFrame(List.of(
+            new TypedPercept(EntityId.of(7_001L), PerceivedStimulus.Channel.VISUAL, new Location(0f, 0f, 0f), 0.5f)
+        )), 1L);
+        WeakReference<BeliefKey> key = new WeakReference<>(BeliefKey.lookup("entity.7001.visible"));
+        assertNotNull(key.get());
+
+        fast.decay(1_000L);
+        for (int i = 0; i < 50 && key.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10L);
+        }
+
+        assertNull(key.get());
+        assertNull(BeliefKey.lookup("entity.7001.visible"));
+        BeliefKey fresh = BeliefKey.entityVisible(EntityId.of(7_001L));
+        assertSame(fresh, BeliefKey.of("entity.7001.visible"));
+    }
+
     @Test
     void beliefCountReflectsAddsAndPruning() {
         BeliefModel fast = new BeliefModel(EntityId.of(1L), BeliefDecayPolicy.fastDecay());
@@ -93,6 +236,11 @@ class BeliefModelTest {
         assertEquals(0.7f, b.estimatedConfidence(), 0.0001f);
     }
 
+    record TypedFrame(List<TypedPercept> percepts) implements PerceptionFrame {}
+
+    record TypedPercept(EntityId source, PerceivedStimulus.Channel channel, Location location, float rawIntensity)
+        implements PerceivedStimulus {}
+
     record FakePerceptionSnapshot(List<FakePercept> percepts) {}
 
     record FakePercept(EntityId source, String stimulusType, Location location, float rawIntensity) {}
@@ -6,6 +6,8 @@ import org.dynamisengine.ai.core.Location;
 import org.dynamisengine.ai.core.ThreatLevel;
 import org.dynamisengine.ai.core.WorldFacts;
 import org.dynamisengine.ai.core.WorldSnapshot;
+import org.dynamisengine.scripting.api.value.CanonTime;
+import org.dynamisengine.scripting.api.value.Percept;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,7 +15,9 @@ import org.junit.jupiter.api.Test;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -154,14 +158,160 @@ class CognitionServiceTest {
 
     @Test
     void beliefRegistryDecaysOnDeliberativeCadence() throws Exception {
+        AtomicReference<CanonTime> now = new AtomicReference<>(CanonTime.of(1L, 0L));
+        service.setCanonTimeSource(now::get);
         EntityId id = EntityId.of(13L);
         BeliefModel model = service.beliefsFor(id);
         model.assertBelief("k", "v", 1.0f, 1L);
 
         for (int i = 0; i < 60; i++) {
+            now.set(CanonTime.of(2L + i, 0L));
             service.requestDialogue(request(id, "tick " + i)).get(2, TimeUnit.SECONDS);
         }
 
         assertTrue(model.getBelief("k").orElseThrow().confidence() < 1.0f);
     }
+
+    @Test
+    void requestAndPerceptTicksDoNotDriveDecay() throws Exception {
+        AtomicReference<CanonTime> now = new AtomicReference<>(CanonTime.of(100L, 0L));
+        service.setCanonTimeSource(now::get);
+        EntityId id = EntityId.of(15L);
+        BeliefModel model = service.beliefsFor(id);
+        model.assertBelief("spoken", "v", 1.0f, 100L);
+        // A percept stamped with a commit id far ahead of world time.
+        model.updateFromPercept(Percept.of(id, "SIGHT.ENTITY", "guard", 1.0, 5_000L));
+
+        for (int i = 0; i < 120; i++) {
+            service.requestDialogue(request(id, "idle " + i)).get(2, TimeUnit.SECONDS);
+        }
+        assertEquals(1.0f, model.getBelief("spoken").orElseThrow().confidence());
+
+        now.set(CanonTime.of(200L, 0L));
+        service.requestDialogue(request(id, "later")).get(2, TimeUnit.SECONDS);
+
+        assertEquals((float) Math.exp(-0.001 * 100), model.getBelief("spoken").orElseThrow().confidence(), 1e-6f);
+        assertEquals(1.0f, model.getBelief("percept.sight_entity").orElseThrow().confidence());
+        assertEquals(200L, service.beliefRegistry().currentTick());
+    }
+
+    @Test
+    void streamingRequestDeliversFieldsToListener() throws Exception {
+        StringBuilder streamed = new StringBuilder();
+        DialogueResponse response = service.requestDialogue(request(EntityId.of(14L), "stream"),
+                new DialogueStreamListener() {
+                    @Override public void onTextDelta(CharSequence delta) { streamed.append(delta); }
+                })
+            .get(2, TimeUnit.SECONDS);
+        assertEquals(response.text(), streamed.toString());
+    }
+
+    @Test
+    void telemetryRecordsStagesAndOutcomes() throws Exception {
+        service.requestDialogue(request(EntityId.of(7L), "Hello")).get(2, TimeUnit.SECONDS);
+        service.inferDeterministic(request(EntityId.of(8L), "Hello"), 5L).get(2, TimeUnit.SECONDS);
+
+        InferenceTelemetrySnapshot snapshot = service.telemetry().snapshot();
+        assertEquals(2L, snapshot.requestCount());
+        assertEquals(0, snapshot.inFlight());
+        assertEquals(0d, snapshot.timeoutRate());
+        assertEquals(2L, snapshot.latency(InferenceStage.TOTAL).count());
+        assertEquals(1L, snapshot.latency(InferenceRequestClass.DETERMINISTIC, InferenceStage.PREFILL).count());
+        // The mock answers in a single chunk, which leaves no decode stage to measure.
+        assertEquals(0d, snapshot.tokensPerSecond());
+    }
+
+    @Test
+    void telemetryCountsTimeoutsAsFallbacks() throws Exception {
+        mockBackend.setSimulatedLatencyMs(200);
+        DefaultCognitionService slow = new DefaultCognitionService(mockBackend, new ResponseParser(), 20);
+        try {
+            slow.requestDialogue(request(EntityId.of(9L), "Hi")).get(2, TimeUnit.SECONDS);
+            InferenceTelemetrySnapshot snapshot = slow.telemetry().snapshot();
+            assertEquals(1d, snapshot.timeoutRate());
+            assertEquals(1d, snapshot.fallbackRate());
+        } finally {
+            slow.shutdown();
+        }
+    }
+
+    @Test
+    void timeoutInterruptsInFlightGeneration() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        InferenceBackend blocking = new InferenceBackend() {
+            @Override
+            public String generate(String prompt, GenerationConfig config) {
+                try {
+                    Thread.sleep(5_000L);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw new InferenceException("interrupted", e);
+                }
+                return "{}";
+            }
+            @Override public boolean isAvailable() { return true; }
+            @Override public boolean supportsStreaming() { return false; }
+            @Override public InferenceBackendMetrics getMetrics() { return InferenceBackendMetrics.unavailable(); }
+            @Override public String backendName() { return "blocking"; }
+        };
+        DefaultCognitionService slow = new DefaultCognitionService(blocking, new ResponseParser(), 30);
+        try {
+            DialogueResponse response = slow.requestDialogue(request(EntityId.of(10L), "Hi"))
+                .get(2, TimeUnit.SECONDS);
+            assertEquals("...", response.text());
+            assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+        } finally {
+            slow.shutdown();
+        }
+    }
+
+    @Test
+    void timeoutsRecordCensoredLatencyOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch returned = new CountDownLatch(1);
+        InferenceBackend stubborn = new InferenceBackend() {
+            @Override
+            public String generate(String prompt, GenerationConfig config) {
+                // Ignores interrupts, like a backend that cannot abort mid-generation.
+                boolean interrupted = false;
+                try {
+                    while (true) {
+                        try {
+                            release.await();
+                            return "{\"text\":\"late\"}";
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                } finally {
+                    returned.countDown();
+                    if (interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+            @Override public boolean isAvailable() { return true; }
+            @Override public boolean supportsStreaming() { return false; }
+            @Override public InferenceBackendMetrics getMetrics() { return InferenceBackendMetrics.unavailable(); }
+            @Override public String backendName() { return "stubborn"; }
+        };
+        DefaultCognitionService slow = new DefaultCognitionService(stubborn, new ResponseParser(), 40);
+        try {
+            assertEquals("...", slow.requestDialogue(request(EntityId.of(16L), "Hi")).get(2, TimeUnit.SECONDS).text());
+            LatencySnapshot censored = slow.telemetry().latency(InferenceRequestClass.INTERACTIVE, InferenceStage.PREFILL);
+            assertEquals(1L, censored.count());
+            assertTrue(censored.maxMs() >= 30d, "censored at the deadline: " + censored.maxMs());
+
+            // The generation finishing late must not record a second sample.
+            release.countDown();
+            assertTrue(returned.await(2, TimeUnit.SECONDS));
+            Thread.sleep(50L);
+
+            LatencySnapshot prefill = slow.telemetry().latency(InferenceRequestClass.INTERACTIVE, InferenceStage.PREFILL);
+            assertEquals(1L, prefill.count());
+            assertEquals(censored.maxMs(), prefill.maxMs());
+        } finally {
+            slow.shutdown();
+        }
+    }
 }
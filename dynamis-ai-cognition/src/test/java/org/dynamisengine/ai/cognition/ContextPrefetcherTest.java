@@ -0,0 +1,140 @@
+package org.dynamisengine.ai.cognition;
+
+import org.dynamisengine.ai.core.Location;
+import org.dynamisengine.ai.core.LodTier;
+import org.dynamisengine.ai.core.ThreatLevel;
+import org.dynamisengine.ai.core.WorldFacts;
+import org.dynamisengine.core.entity.EntityId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContextPrefetcherTest {
+
+    private static final EntityId NPC = EntityId.of(1L);
+
+    private final BeliefModelRegistry registry = new BeliefModelRegistry(BeliefDecayPolicy.persistent());
+    private final PromptContextCompiler compiler = new PromptContextCompiler(512)
+        .addSection(PromptContextSection.affect(), 64)
+        .addSection(PromptContextSection.beliefs(registry), 128);
+    private final ContextPrefetcher prefetcher = new ContextPrefetcher(compiler);
+
+    @AfterEach
+    void tearDown() {
+        prefetcher.shutdown();
+    }
+
+    private static DialogueRequest request() {
+        return new DialogueRequest(NPC, EntityId.of(2L), "Hello",
+            new WorldFacts(Map.of(), List.of(), ThreatLevel.NONE, new Location(0, 0, 0), null),
+            AffectVector.neutral(), null);
+    }
+
+    @Test
+    void prefetchedSectionsAreServedFromCache() throws Exception {
+        registry.getOrCreate(NPC).assertBelief("gate", "open", 0.9f, 1L);
+
+        prefetcher.onLodChanged(request(), LodTier.TIER_1, LodTier.TIER_0).get(2, TimeUnit.SECONDS);
+        String context = compiler.compile(request());
+
+        assertEquals(2L, compiler.segmentPrefetchCount());
+        assertEquals(0L, compiler.segmentMissCount());
+        assertEquals(2L, compiler.segmentHitCount());
+        assertTrue(context.contains("- gate: open [0.90]"));
+    }
+
+    @Test
+    void beliefChangeAfterPrefetchReRendersOnlyThatSection() throws Exception {
+        prefetcher.prefetch(request()).get(2, TimeUnit.SECONDS);
+        registry.getOrCreate(NPC).assertBelief("gate", "closed", 0.8f, 2L);
+
+        String context = compiler.compile(request());
+
+        assertEquals(1L, compiler.segmentMissCount());
+        assertTrue(context.contains("- gate: closed [0.80]"));
+    }
+
+    @Test
+    void inputDependentSectionsArePrefetchedForEachLikelyInput() throws Exception {
+        List<String> rendered = new CopyOnWriteArrayList<>();
+        PromptContextCompiler echo = new PromptContextCompiler(64).addSection(new PromptContextSection() {
+            @Override public String name() { return "echo"; }
+            @Override public long version(DialogueRequest request) { return request.inputSpeech().hashCode(); }
+            @Override public void render(DialogueRequest request, int tokenBudget, StringBuilder out) {
+                rendered.add(request.inputSpeech());
+            }
+        }, 32);
+        ContextPrefetcher likely = new ContextPrefetcher(echo, List.of("Hi", "Hello"));
+        try {
+            likely.prefetch(request()).get(2, TimeUnit.SECONDS);
+        } finally {
+            likely.shutdown();
+        }
+
+        assertEquals(List.of("Hi", "Hello"), rendered);
+    }
+
+    @Test
+    void lodChangesBelowTierZeroDoNotPrefetch() {
+        prefetcher.onLodChanged(request(), LodTier.TIER_0, LodTier.TIER_1).join();
+        prefetcher.onLodChanged(request(), LodTier.TIER_3, LodTier.TIER_2).join();
+
+        assertEquals(0L, prefetcher.prefetchCount());
+    }
+
+    @Test
+    void concurrentTriggersShareOnePrefetch() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger renders = new AtomicInteger();
+        PromptContextCompiler slow = new PromptContextCompiler(64).addSection(new PromptContextSection() {
+            @Override public String name() { return "slow"; }
+            @Override public long version(DialogueRequest request) { return 1L; }
+            @Override public void render(DialogueRequest request, int tokenBudget, StringBuilder out) {
+                renders.incrementAndGet();
+                try {
+                    release.await(2, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                out.append("slow");
+            }
+        }, 16);
+        ContextPrefetcher shared = new ContextPrefetcher(slow);
+        try {
+            var first = shared.prefetch(request());
+            var second = shared.prefetch(request());
+            release.countDown();
+
+            assertSame(first, second);
+            first.get(2, TimeUnit.SECONDS);
+            assertEquals(1, renders.get());
+            assertEquals(1L, shared.prefetchCount());
+        } finally {
+            shared.shutdown();
+        }
+    }
+
+    @Test
+    void approachPredictionUsesClosestPointOfApproach() {
+        Location npc = new Location(20f, 0f, 0f);
+
+        assertTrue(ContextPrefetcher.predictsApproach(
+            new Location(0f, 0f, 0f), new Location(1f, 0f, 0f), npc, 3f, 30f), "walking straight at the NPC");
+        assertFalse(ContextPrefetcher.predictsApproach(
+            new Location(1f, 0f, 0f), new Location(0f, 0f, 0f), npc, 3f, 30f), "walking away");
+        assertFalse(ContextPrefetcher.predictsApproach(
+            new Location(0f, 0f, 0f), new Location(0f, 0f, 1f), npc, 3f, 30f), "walking past");
+        assertFalse(ContextPrefetcher.predictsApproach(
+            new Location(0f, 0f, 0f), new Location(0.1f, 0f, 0f), npc, 3f, 30f), "too slow for the horizon");
+        assertTrue(ContextPrefetcher.predictsApproach(
+            new Location(19f, 0f, 0f), new Location(19f, 0f, 0f), npc, 3f, 30f), "already within range");
+    }
+}
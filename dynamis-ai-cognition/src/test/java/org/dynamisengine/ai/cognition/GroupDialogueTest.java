@@ -0,0 +1,133 @@
+package org.dynamisengine.ai.cognition;
+
+import org.dynamisengine.ai.core.Location;
+import org.dynamisengine.ai.core.ThreatLevel;
+import org.dynamisengine.ai.core.WorldFacts;
+import org.dynamisengine.core.entity.EntityId;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupDialogueTest {
+
+    private static final EntityId A = EntityId.of(11L);
+    private static final EntityId B = EntityId.of(12L);
+    private static final EntityId C = EntityId.of(13L);
+
+    private static final String GROUP_JSON = """
+        Sure! {"lines":[
+          {"speaker":12,"text":"Not again, {sigh}","affect":{"valence":-0.4},"tags":["frown"]},
+          {"speaker":11,"text":"Everyone stay calm.","tags":[]},
+        ]}""";
+
+    private static GroupDialogueRequest group(List<EntityId> speakers) {
+        return new GroupDialogueRequest(speakers, EntityId.of(99L), "The bandits are back!",
+            new WorldFacts(Map.of(), List.of(), ThreatLevel.NONE, new Location(0, 0, 0), null),
+            Map.of(), null);
+    }
+
+    @Test
+    void parserSplitsLinesBySpeakerId() {
+        Map<EntityId, DialogueResponse> lines = GroupResponseParser.parse(GROUP_JSON, List.of(A, B));
+
+        assertEquals("Everyone stay calm.", lines.get(A).text());
+        assertEquals("Not again, {sigh}", lines.get(B).text());
+        assertEquals(-0.4f, lines.get(B).affect().valence(), 1e-6f);
+        assertEquals(List.of("frown"), lines.get(B).nonverbalTags());
+    }
+
+    @Test
+    void parserAssignsUnlabelledLinesInRequestOrderAndOmitsMissingSpeakers() {
+        String json = "{\"lines\":[{\"text\":\"first\"},{\"speaker\":13,\"text\":\"third\"}]}";
+
+        Map<EntityId, DialogueResponse> lines = GroupResponseParser.parse(json, List.of(A, B, C));
+
+        assertEquals("first", lines.get(A).text());
+        assertEquals("third", lines.get(C).text());
+        assertFalse(lines.containsKey(B));
+    }
+
+    @Test
+    void lineWithoutKnownFieldsStaysOneLine() {
+        String json = "{\"lines\":[{\"mood\":\"tense\"},{\"speaker\":12,\"text\":\"second\"}]}";
+
+        Map<EntityId, DialogueResponse> lines = GroupResponseParser.parse(json, List.of(A, B));
+
+        assertEquals("...", lines.get(A).text());
+        assertEquals("second", lines.get(B).text());
+    }
+
+    @Test
+    void parserAcceptsStreamedChunksAndDropsTruncatedLine() {
+        GroupResponseParser parser = new GroupResponseParser(List.of(A, B, C));
+        String json = GROUP_JSON.substring(0, GROUP_JSON.lastIndexOf("]}")) + "{\"speaker\":13,\"text\":\"cut o";
+        for (int i = 0; i < json.length(); i += 3) {
+            parser.accept(json.subSequence(i, Math.min(json.length(), i + 3)));
+        }
+
+        Map<EntityId, DialogueResponse> lines = parser.finish();
+
+        assertEquals("Everyone stay calm.", lines.get(A).text());
+        assertEquals("Not again, {sigh}", lines.get(B).text());
+        assertEquals(List.of("frown"), lines.get(B).nonverbalTags());
+        assertFalse(lines.containsKey(C));
+    }
+
+    @Test
+    void promptMergesSharedBeliefsOnce() {
+        BeliefModelRegistry registry = new BeliefModelRegistry(BeliefDecayPolicy.defaultPolicy());
+        registry.getOrCreate(A).assertBelief("bandits.camp", "north", 0.9f, 1L);
+        registry.getOrCreate(B).assertBelief("bandits.camp", "north", 0.7f, 1L);
+        registry.getOrCreate(C).assertBelief("bandits.camp", "north", 0.6f, 1L);
+        registry.getOrCreate(A).assertBelief("guard.shift", "night", 0.8f, 1L);
+        registry.getOrCreate(B).assertBelief("ale.price", "high", 0.5f, 1L);
+
+        String prompt = GroupPromptBuilder.build(group(List.of(A, B, C)), registry, 256);
+
+        assertEquals(prompt.indexOf("bandits.camp"), prompt.lastIndexOf("bandits.camp"));
+        assertTrue(prompt.contains("Shared beliefs:\n- bandits.camp: north [0.90]"), prompt);
+        assertTrue(prompt.contains("Speaker 11 (mood: valence 0.00, arousal 0.30):\n- guard.shift: night"), prompt);
+        assertTrue(prompt.contains("\n- ale.price: high"), prompt);
+        assertTrue(prompt.endsWith("Player says: \"The bandits are back!\""));
+    }
+
+    @Test
+    void promptRespectsBeliefTokenBudget() {
+        BeliefModelRegistry registry = new BeliefModelRegistry(BeliefDecayPolicy.defaultPolicy());
+        for (int i = 0; i < 40; i++) {
+            registry.getOrCreate(A).assertBelief("fact.a" + i, "value", 0.9f, 1L);
+            registry.getOrCreate(B).assertBelief("fact.b" + i, "value", 0.9f, 1L);
+        }
+        String unbudgeted = GroupPromptBuilder.build(group(List.of(A, B)), registry, 0);
+        String prompt = GroupPromptBuilder.build(group(List.of(A, B)), registry, 64);
+
+        int beliefTokens = PromptTokenEstimator.estimate(prompt) - PromptTokenEstimator.estimate(unbudgeted);
+        assertTrue(beliefTokens > 0 && beliefTokens <= 64, "belief tokens " + beliefTokens);
+        assertTrue(prompt.contains("fact.a0") && prompt.contains("fact.b0"), "budget shared round-robin");
+    }
+
+    @Test
+    void serviceAnswersWholeGroupWithOneGeneration() throws Exception {
+        MockInferenceBackend backend = new MockInferenceBackend(GROUP_JSON, false);
+        DefaultCognitionService service = new DefaultCognitionService(backend);
+        try {
+            Map<EntityId, DialogueResponse> responses =
+                service.requestGroupDialogue(group(List.of(A, B, C))).get(2, TimeUnit.SECONDS);
+
+            assertEquals(List.of(A, B, C), List.copyOf(responses.keySet()));
+            assertEquals("Everyone stay calm.", responses.get(A).text());
+            assertEquals("Not again, {sigh}", responses.get(B).text());
+            assertEquals(service.getFallback(C).text(), responses.get(C).text());
+            assertEquals(1, backend.getCallCount());
+            assertTrue(service.getFallback(A).fromCache());
+            assertEquals(1L, service.telemetry().latency(InferenceRequestClass.GROUP, InferenceStage.PREFILL).count());
+            assertEquals(0L, service.telemetry().latency(InferenceRequestClass.INTERACTIVE, InferenceStage.PREFILL).count());
+        } finally {
+            service.shutdown();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.dynamisengine.ai.cognition;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InferenceTelemetryTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private long now;
+    private final InferenceTelemetry telemetry = new InferenceTelemetry("test", () -> now);
+
+    @Test
+    void outcomeRatesAgeOutWithTheLatencyWindows() {
+        telemetry.requestStarted();
+        telemetry.requestFinished(true, true);
+        telemetry.requestRejected();
+
+        InferenceTelemetrySnapshot burst = telemetry.snapshot();
+        assertEquals(2L, burst.requestCount());
+        assertEquals(0.5d, burst.timeoutRate());
+        assertEquals(1d, burst.fallbackRate());
+
+        now += 120 * SECOND;
+        for (int i = 0; i < 4; i++) {
+            telemetry.requestStarted();
+            telemetry.requestFinished(false, false);
+        }
+
+        InferenceTelemetrySnapshot recovered = telemetry.snapshot();
+        assertEquals(4L, recovered.requestCount());
+        assertEquals(0d, recovered.timeoutRate());
+        assertEquals(0d, recovered.fallbackRate());
+        assertEquals(0, recovered.inFlight());
+    }
+
+    @Test
+    void throughputCountsDecodeTimeOnly() {
+        telemetry.recordStage(InferenceRequestClass.INTERACTIVE, InferenceStage.PREFILL, 2 * SECOND);
+        telemetry.recordThroughput(100, SECOND);
+        telemetry.recordThroughput(300, SECOND);
+
+        assertEquals(200d, telemetry.tokensPerSecond(), 1e-9);
+
+        now += 120 * SECOND;
+        assertEquals(0d, telemetry.tokensPerSecond());
+    }
+}
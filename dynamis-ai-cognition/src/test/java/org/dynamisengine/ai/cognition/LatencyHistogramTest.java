@@ -0,0 +1,61 @@
+package org.dynamisengine.ai.cognition;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    @Test
+    void emptyHistogramReportsZeroes() {
+        LatencySnapshot snapshot = new LatencyHistogram().snapshot();
+        assertEquals(0L, snapshot.count());
+        assertEquals(0d, snapshot.p99Ms());
+    }
+
+    @Test
+    void percentilesWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int ms = 1; ms <= 1000; ms++) {
+            histogram.recordMicros(ms * 1_000L);
+        }
+        LatencySnapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000L, snapshot.count());
+        assertEquals(500d, snapshot.p50Ms(), 500d * 0.0625);
+        assertEquals(900d, snapshot.p90Ms(), 900d * 0.0625);
+        assertEquals(990d, snapshot.p99Ms(), 990d * 0.0625);
+        assertEquals(1000d, snapshot.maxMs());
+    }
+
+    @Test
+    void bucketsAreMonotonicAndCoverLargeValues() {
+        int previous = -1;
+        for (long micros = 0; micros < 1L << 20; micros += 7) {
+            int bucket = LatencyHistogram.bucketOf(micros);
+            assertTrue(bucket >= previous);
+            previous = bucket;
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    void samplesAgeOutOfRollingHorizon() {
+        AtomicLong clock = new AtomicLong(0L);
+        LatencyHistogram histogram = new LatencyHistogram(3, WINDOW_NANOS, clock::get);
+        histogram.recordMicros(500_000L);
+
+        clock.set(2 * WINDOW_NANOS);
+        histogram.recordMicros(1_000L);
+        assertEquals(2L, histogram.snapshot().count());
+
+        clock.set(3 * WINDOW_NANOS);
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertEquals(1L, snapshot.count());
+        assertEquals(1d, snapshot.maxMs());
+    }
+}
@@ -0,0 +1,165 @@
+package org.dynamisengine.ai.cognition;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.dynamisengine.core.entity.EntityId;
+import org.dynamisengine.ai.core.Location;
+import org.dynamisengine.ai.core.ThreatLevel;
+import org.dynamisengine.ai.core.WorldFacts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OllamaInferenceBackendTest {
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private volatile List<String> chunks = List.of();
+    private volatile long chunkDelayMs;
+    private volatile int status = 200;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final CountDownLatch clientClosed = new CountDownLatch(1);
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.createContext("/api/generate", this::streamGeneration);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    /** Emulates Ollama's NDJSON stream: one line per chunk, then a done line with eval stats. */
+    private void streamGeneration(HttpExchange exchange) throws IOException {
+        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            if (status != 200) {
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            try {
+                for (String chunk : chunks) {
+                    Thread.sleep(chunkDelayMs);
+                    write(out, "{\"model\":\"stub\",\"response\":\"" + chunk + "\",\"done\":false}\n");
+                }
+                write(out, "{\"model\":\"stub\",\"response\":\"\",\"done\":true,"
+                    + "\"eval_count\":50,\"eval_duration\":1000000000}\n");
+            } catch (IOException e) {
+                clientClosed.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    private static void write(OutputStream out, String line) throws IOException {
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static DialogueRequest dialogue() {
+        return new DialogueRequest(EntityId.of(1L), EntityId.of(2L), "Hello",
+            new WorldFacts(Map.of(), List.of(), ThreatLevel.NONE, new Location(0, 0, 0), null),
+            AffectVector.neutral(), null);
+    }
+
+    private OllamaInferenceBackend backend(int maxConnections, Duration timeout) {
+        return new OllamaInferenceBackend(
+            "http://127.0.0.1:" + server.getAddress().getPort(), "stub", maxConnections, timeout);
+    }
+
+    @Test
+    void streamsDecodedChunksToSink() {
+        chunks = List.of("{\\\"text\\\":", "\\\"Hi\\n\\u00e9\\\"", "}");
+        OllamaInferenceBackend backend = backend(2, Duration.ofSeconds(5));
+        StringBuilder streamed = new StringBuilder();
+        List<String> deltas = new ArrayList<>();
+
+        String result = backend.generate(InferenceRequest.unseeded(dialogue()), GenerationConfig.minimal(1L),
+            chunk -> {
+                deltas.add(chunk.toString());
+                streamed.append(chunk);
+            });
+
+        assertEquals("{\"text\":\"Hi\n\u00e9\"}", result);
+        assertEquals(result, streamed.toString());
+        assertEquals(3, deltas.size());
+        assertEquals(50f, backend.getMetrics().tokensPerSecond(), 0.01f);
+        assertEquals(1, backend.getMetrics().totalCallCount());
+    }
+
+    @Test
+    void cancelsStreamAtDeadline() throws Exception {
+        chunks = List.of("a", "b", "c", "d", "e", "f", "g", "h");
+        chunkDelayMs = 100L;
+        OllamaInferenceBackend backend = backend(2, Duration.ofMillis(250));
+
+        long start = System.nanoTime();
+        InferenceException e = assertThrows(InferenceException.class,
+            () -> backend.generate("prompt", GenerationConfig.minimal(1L)));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+
+        assertTrue(e.getMessage().contains("deadline"), e.getMessage());
+        assertTrue(elapsedMs < 700L, "took " + elapsedMs + "ms");
+        assertTrue(clientClosed.await(2, TimeUnit.SECONDS));
+        assertEquals(1, backend.getMetrics().failedCallCount());
+        assertEquals(2, backend.availableConnections());
+    }
+
+    @Test
+    void boundsConcurrentConnections() throws Exception {
+        chunks = List.of("x", "y");
+        chunkDelayMs = 50L;
+        OllamaInferenceBackend backend = backend(1, Duration.ofSeconds(5));
+
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            calls.add(CompletableFuture.supplyAsync(
+                () -> backend.generate("prompt", GenerationConfig.minimal(1L))));
+        }
+        for (CompletableFuture<String> call : calls) {
+            assertEquals("xy", call.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, maxActive.get());
+    }
+
+    @Test
+    void httpErrorRaisesInferenceException() {
+        status = 500;
+        OllamaInferenceBackend backend = backend(1, Duration.ofSeconds(5));
+        assertThrows(InferenceException.class,
+            () -> backend.generate("prompt", GenerationConfig.minimal(1L)));
+        assertEquals(1, backend.availableConnections());
+    }
+}
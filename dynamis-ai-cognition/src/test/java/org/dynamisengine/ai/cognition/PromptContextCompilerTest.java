@@ -0,0 +1,138 @@
+package org.dynamisengine.ai.cognition;
+
+import org.dynamisengine.core.entity.EntityId;
+import org.dynamisengine.ai.core.Location;
+import org.dynamisengine.ai.core.ThreatLevel;
+import org.dynamisengine.ai.core.WorldFacts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptContextCompilerTest {
+
+    private static final EntityId NPC = EntityId.of(1L);
+
+    private BeliefModelRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new BeliefModelRegistry(BeliefDecayPolicy.persistent());
+    }
+
+    private static DialogueRequest request(AffectVector mood) {
+        return request(NPC, mood);
+    }
+
+    private static DialogueRequest request(EntityId speaker, AffectVector mood) {
+        return new DialogueRequest(
+            speaker,
+            EntityId.of(2L),
+            "Hello",
+            new WorldFacts(Map.of(), List.of(), ThreatLevel.NONE, new Location(0, 0, 0), null),
+            mood,
+            null
+        );
+    }
+
+    @Test
+    void estimatorCountsWordChunksAndPunctuation() {
+        assertEquals(2, PromptTokenEstimator.estimate("the cat"));
+        assertEquals(4, PromptTokenEstimator.estimate("hello world"));
+        assertEquals(5, PromptTokenEstimator.estimate("internationalization"));
+        assertEquals(4, PromptTokenEstimator.estimate("a, b."));
+        assertEquals(0, PromptTokenEstimator.estimate("   "));
+    }
+
+    @Test
+    void sectionsWrapBetweenHeadAndTail() {
+        registry.getOrCreate(NPC).assertBelief("gate", "open", 0.9f, 1L);
+        PromptContextCompiler compiler = new PromptContextCompiler(512)
+            .addSection(PromptContextSection.affect(), 64)
+            .addSection(PromptContextSection.beliefs(registry), 128);
+
+        String prompt = compiler.compile(request(AffectVector.neutral()), "HEAD ", "TAIL");
+
+        assertEquals("HEAD Current mood: valence 0.00, arousal 0.30, dominance 0.50, sarcasm 0.00, intensity 0.30\n"
+            + BeliefContextBuilder.HEADER + "\n- gate: open [0.90]\nTAIL", prompt);
+    }
+
+    @Test
+    void sectionBudgetKeepsWholeLines() {
+        BeliefModel model = registry.getOrCreate(NPC);
+        for (int i = 0; i < 20; i++) {
+            model.assertBelief("k" + i, "v", 0.5f + i * 0.02f, 1L);
+        }
+        int headerTokens = PromptTokenEstimator.estimate(BeliefContextBuilder.HEADER);
+        int lineTokens = PromptTokenEstimator.estimate("- k19: v [0.88]");
+        PromptContextCompiler compiler = new PromptContextCompiler(512)
+            .addSection(PromptContextSection.beliefs(registry), headerTokens + 2 * lineTokens);
+
+        String context = compiler.compile(request(AffectVector.neutral()));
+
+        assertEquals(2, context.lines().filter(l -> l.startsWith("- ")).count());
+        assertTrue(context.contains("- k19: v [0.88]"));
+    }
+
+    @Test
+    void totalBudgetStarvesLaterSections() {
+        registry.getOrCreate(NPC).assertBelief("gate", "open", 0.9f, 1L);
+        int moodTokens = PromptTokenEstimator.estimate(
+            "Current mood: valence 0.00, arousal 0.30, dominance 0.50, sarcasm 0.00, intensity 0.30");
+        PromptContextCompiler compiler = new PromptContextCompiler(moodTokens)
+            .addSection(PromptContextSection.affect(), 64)
+            .addSection(PromptContextSection.beliefs(registry), 128);
+
+        String context = compiler.compile(request(AffectVector.neutral()));
+
+        assertTrue(context.startsWith("Current mood"));
+        assertFalse(context.contains("Known facts"));
+    }
+
+    @Test
+    void unchangedSectionsAreReusedUntilVersionChanges() {
+        BeliefModel model = registry.getOrCreate(NPC);
+        model.assertBelief("gate", "open", 0.9f, 1L);
+        PromptContextCompiler compiler = new PromptContextCompiler(512)
+            .addSection(PromptContextSection.affect(), 64)
+            .addSection(PromptContextSection.beliefs(registry), 128);
+
+        compiler.compile(request(AffectVector.neutral()));
+        String second = compiler.compile(request(AffectVector.neutral()));
+        assertEquals(2, compiler.segmentMissCount());
+        assertEquals(2, compiler.segmentHitCount());
+
+        model.assertBelief("bridge", "down", 0.8f, 2L);
+        String third = compiler.compile(request(AffectVector.neutral()));
+        assertEquals(3, compiler.segmentMissCount());
+        assertFalse(second.contains("bridge"));
+        assertTrue(third.contains("- bridge: down [0.80]"));
+
+        compiler.compile(request(AffectVector.angry()));
+        assertEquals(4, compiler.segmentMissCount());
+    }
+
+    @Test
+    void leastRecentlyCompiledNpcIsEvictedPastTheCap() {
+        PromptContextCompiler compiler = new PromptContextCompiler(512, 2)
+            .addSection(PromptContextSection.affect(), 64);
+        EntityId second = EntityId.of(3L);
+        EntityId third = EntityId.of(4L);
+
+        compiler.compile(request(NPC, AffectVector.neutral()));
+        compiler.compile(request(second, AffectVector.neutral()));
+        compiler.compile(request(NPC, AffectVector.neutral()));
+        compiler.compile(request(third, AffectVector.neutral()));
+        assertEquals(2, compiler.cachedNpcCount());
+        assertEquals(3, compiler.segmentMissCount());
+
+        compiler.compile(request(NPC, AffectVector.neutral()));
+        assertEquals(3, compiler.segmentMissCount());
+        compiler.compile(request(second, AffectVector.neutral()));
+        assertEquals(4, compiler.segmentMissCount());
+        assertEquals(2, compiler.cachedNpcCount());
+    }
+}
@@ -0,0 +1,216 @@
+package org.dynamisengine.ai.cognition;
+
+import org.dynamisengine.ai.core.Location;
+import org.dynamisengine.ai.core.ThreatLevel;
+import org.dynamisengine.ai.core.WorldFacts;
+import org.dynamisengine.core.entity.EntityId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayInferenceBackendTest {
+
+    private final Path dir = createDir();
+    private final Path file = dir.resolve("bake.replay");
+
+    private static Path createDir() {
+        try {
+            return Files.createTempDirectory("replay-test");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static InferenceRequest request(String speech) {
+        return request(speech, ThreatLevel.NONE);
+    }
+
+    private static InferenceRequest request(String speech, ThreatLevel threat) {
+        return InferenceRequest.seeded(new DialogueRequest(EntityId.of(1L), EntityId.of(2L), speech,
+            new WorldFacts(Map.of(), List.of(), threat, new Location(0, 0, 0), null),
+            AffectVector.neutral(), null), 7L);
+    }
+
+    private static SyntheticInferenceBackend slowBackend() {
+        return SyntheticInferenceBackend.builder()
+            .prefillLatency(SyntheticInferenceBackend.LatencyModel.constant(60L))
+            .build();
+    }
+
+    @Test
+    void replayReturnsRecordedResponsesWithoutTheModel() {
+        SyntheticInferenceBackend model = slowBackend();
+        String hello;
+        String prompt;
+        try (ReplayInferenceBackend recorder = ReplayInferenceBackend.recording(model, file)) {
+            hello = recorder.generate(request("Hello"), GenerationConfig.creative(1L));
+            prompt = recorder.generate("raw prompt", GenerationConfig.minimal(3L));
+            assertEquals(2L, recorder.recordedCount());
+        }
+        assertTrue(Files.exists(file));
+
+        try (ReplayInferenceBackend replay = ReplayInferenceBackend.replaying(
+                file, ReplayInferenceBackend.Timing.INSTANT, model)) {
+            long start = System.nanoTime();
+            assertEquals(hello, replay.generate(request("Hello"), GenerationConfig.creative(1L)));
+            assertEquals(prompt, replay.generate("raw prompt", GenerationConfig.minimal(3L)));
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+
+            assertTrue(elapsedMs < 60L, "instant replay took " + elapsedMs + "ms");
+            assertEquals(2L, replay.replayedCount());
+        }
+        assertEquals(2, model.getCallCount());
+    }
+
+    @Test
+    void recordedTimingReproducesLatency() {
+        try (ReplayInferenceBackend recorder = ReplayInferenceBackend.recording(slowBackend(), file)) {
+            recorder.generate("p", GenerationConfig.creative(1L));
+        }
+        ReplayInferenceBackend replay = ReplayInferenceBackend.replaying(file, ReplayInferenceBackend.Timing.RECORDED);
+
+        long start = System.nanoTime();
+        replay.generate("p", GenerationConfig.creative(1L));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+
+        assertTrue(elapsedMs >= 60L, "replay took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void differentConfigOrSeedMisses() {
+        try (ReplayInferenceBackend recorder = ReplayInferenceBackend.recording(slowBackend(), file)) {
+            recorder.generate("p", GenerationConfig.creative(1L));
+        }
+        ReplayInferenceBackend replay = ReplayInferenceBackend.replaying(file, ReplayInferenceBackend.Timing.INSTANT);
+
+        assertThrows(InferenceException.class, () -> replay.generate("p", GenerationConfig.creative(2L)));
+        assertThrows(InferenceException.class, () -> replay.generate("p", GenerationConfig.minimal(1L)));
+        assertThrows(InferenceException.class, () -> replay.generate("q", GenerationConfig.creative(1L)));
+        assertEquals(3L, replay.missCount());
+    }
+
+    @Test
+    void repeatedKeysReplayInRecordedOrder() {
+        List<String> answers = List.of("first", "second");
+        AtomicInteger calls = new AtomicInteger();
+        InferenceBackend model = new InferenceBackend() {
+            @Override public String generate(String prompt, GenerationConfig config) {
+                return answers.get(calls.getAndIncrement());
+            }
+            @Override public boolean isAvailable() { return true; }
+            @Override public boolean supportsStreaming() { return false; }
+            @Override public InferenceBackendMetrics getMetrics() { return InferenceBackendMetrics.unavailable(); }
+            @Override public String backendName() { return "sequence"; }
+        };
+        try (ReplayInferenceBackend recorder = ReplayInferenceBackend.recording(model, file)) {
+            recorder.generate("p", GenerationConfig.creative(1L));
+            recorder.generate("p", GenerationConfig.creative(1L));
+        }
+        ReplayInferenceBackend replay = ReplayInferenceBackend.replaying(file, ReplayInferenceBackend.Timing.INSTANT);
+
+        assertEquals("first", replay.generate("p", GenerationConfig.creative(1L)));
+        assertEquals("second", replay.generate("p", GenerationConfig.creative(1L)));
+        assertThrows(InferenceException.class, () -> replay.generate("p", GenerationConfig.creative(1L)));
+    }
+
+    @Test
+    void replayOrRecordFillsGapsAndKeepsExistingEntries() {
+        SyntheticInferenceBackend model = slowBackend();
+        try (ReplayInferenceBackend recorder = ReplayInferenceBackend.recording(model, file)) {
+            recorder.generate("a", GenerationConfig.creative(1L));
+        }
+        try (ReplayInferenceBackend mixed = ReplayInferenceBackend.replayingOrRecording(
+                model, file, ReplayInferenceBackend.Timing.INSTANT)) {
+            mixed.generate("a", GenerationConfig.creative(1L));
+            mixed.generate("b", GenerationConfig.creative(1L));
+            assertEquals(1L, mixed.replayedCount());
+            assertEquals(1L, mixed.recordedCount());
+        }
+        assertEquals(2, model.getCallCount());
+
+        ReplayInferenceBackend replay = ReplayInferenceBackend.replaying(file, ReplayInferenceBackend.Timing.INSTANT);
+        replay.generate("a", GenerationConfig.creative(1L));
+        replay.generate("b", GenerationConfig.creative(1L));
+        assertEquals(0L, replay.missCount());
+    }
+
+    @Test
+    void adaptiveMaxTokensStillReplays() {
+        try (ReplayInferenceBackend recorder = ReplayInferenceBackend.recording(slowBackend(), file)) {
+            recorder.generate("p", GenerationConfig.creative(1L));
+        }
+        ReplayInferenceBackend replay = ReplayInferenceBackend.replaying(file, ReplayInferenceBackend.Timing.INSTANT);
+
+        replay.generate("p", new GenerationConfig(96, 0.7f, 1L, false));
+
+        assertEquals(0L, replay.missCount());
+    }
+
+    @Test
+    void requestsDifferingOnlyInContextKeepSeparateRecordings() {
+        InferenceBackend model = new InferenceBackend() {
+            @Override public String generate(InferenceRequest request, GenerationConfig config) {
+                return generate(promptFor(request), config);
+            }
+            @Override public String promptFor(InferenceRequest request) {
+                return "threat " + request.dialogue().context().currentThreat()
+                    + " | " + request.dialogue().inputSpeech();
+            }
+            @Override public String promptScheme() {
+                return "threat-line";
+            }
+            @Override public String generate(String prompt, GenerationConfig config) {
+                return "answer to " + prompt;
+            }
+            @Override public boolean isAvailable() { return true; }
+            @Override public boolean supportsStreaming() { return false; }
+            @Override public InferenceBackendMetrics getMetrics() { return InferenceBackendMetrics.unavailable(); }
+            @Override public String backendName() { return "context"; }
+        };
+        try (ReplayInferenceBackend recorder = ReplayInferenceBackend.recording(model, file)) {
+            recorder.generate(request("Hello", ThreatLevel.NONE), GenerationConfig.creative(1L));
+            recorder.generate(request("Hello", ThreatLevel.HIGH), GenerationConfig.creative(1L));
+        }
+        ReplayInferenceBackend replay = ReplayInferenceBackend.replaying(
+            file, ReplayInferenceBackend.Timing.INSTANT, model);
+
+        assertEquals("answer to threat HIGH | Hello",
+            replay.generate(request("Hello", ThreatLevel.HIGH), GenerationConfig.creative(1L)));
+        assertEquals("answer to threat NONE | Hello",
+            replay.generate(request("Hello", ThreatLevel.NONE), GenerationConfig.creative(1L)));
+    }
+
+    @Test
+    void replayWithAnotherPromptSchemeFailsFast() {
+        try (ReplayInferenceBackend recorder = ReplayInferenceBackend.recording(slowBackend(), file)) {
+            recorder.generate(request("Hello"), GenerationConfig.creative(1L));
+        }
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> ReplayInferenceBackend.replaying(file, ReplayInferenceBackend.Timing.INSTANT));
+        assertTrue(error.getMessage().contains("synthetic-speaker-line"), error.getMessage());
+        ReplayInferenceBackend replay = ReplayInferenceBackend.replaying(
+            file, ReplayInferenceBackend.Timing.INSTANT, slowBackend());
+        replay.generate(request("Hello"), GenerationConfig.creative(1L));
+        assertEquals(0L, replay.missCount());
+    }
+}
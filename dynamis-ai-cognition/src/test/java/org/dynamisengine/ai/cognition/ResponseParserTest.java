@@ -2,6 +2,8 @@ package org.dynamisengine.ai.cognition;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class ResponseParserTest {
@@ -32,6 +34,12 @@ class ResponseParserTest {
         assertEquals("...", parser.parse(null).text());
     }
 
+    @Test
+    void outputWithoutAnObjectKeepsTheDefaultResponse() {
+        DialogueResponse r = parser.parse("I'd rather not say.");
+        assertEquals(new DialogueResponse("...", AffectVector.neutral(), List.of(), List.of(), false), r);
+    }
+
     @Test
     void returnsEllipsisForMalformedJson() {
         assertEquals("...", parser.parse("{broken json {{").text());
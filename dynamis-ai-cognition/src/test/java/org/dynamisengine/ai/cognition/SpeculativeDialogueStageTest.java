@@ -0,0 +1,183 @@
+package org.dynamisengine.ai.cognition;
+
+import org.dynamisengine.ai.core.DefaultWorldStateStore;
+import org.dynamisengine.ai.core.Location;
+import org.dynamisengine.ai.core.LodTier;
+import org.dynamisengine.ai.core.ThreatLevel;
+import org.dynamisengine.ai.core.WorldFacts;
+import org.dynamisengine.ai.core.WorldSnapshot;
+import org.dynamisengine.core.entity.EntityId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpeculativeDialogueStageTest {
+
+    private static final EntityId NPC = EntityId.of(1L);
+
+    private MockInferenceBackend mockBackend;
+    private DefaultCognitionService service;
+    private SpeculativeDialogueStage stage;
+    private WorldSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        mockBackend = new MockInferenceBackend();
+        service = new DefaultCognitionService(mockBackend, new ResponseParser(), 2_000);
+        stage = service.enableSpeculation(8);
+        snapshot = new DefaultWorldStateStore().getCurrentSnapshot();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private DialogueRequest request(String speech) {
+        return new DialogueRequest(NPC, EntityId.of(99L), speech,
+            new WorldFacts(Map.of(), List.of(), ThreatLevel.NONE, new Location(0, 0, 0), null),
+            AffectVector.neutral(), snapshot);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached");
+            Thread.sleep(5L);
+        }
+    }
+
+    @Test
+    void lodRiseSpeculatesOpeningsServedWithoutInference() throws Exception {
+        stage.onLodChanged(request("ignored"), LodTier.TIER_1, LodTier.TIER_0);
+        awaitTrue(() -> stage.size() == SpeculativeDialogueStage.DEFAULT_OPENINGS.size());
+        int callsBefore = mockBackend.getCallCount();
+
+        CompletableFuture<DialogueResponse> future = service.requestDialogue(request("  hello!"));
+
+        assertTrue(future.isDone(), "speculated response should complete synchronously");
+        assertNotNull(future.get().text());
+        assertEquals(callsBefore, mockBackend.getCallCount());
+        assertEquals(1L, stage.hitCount());
+        assertEquals(SpeculativeDialogueStage.DEFAULT_OPENINGS.size() - 1, stage.size());
+    }
+
+    @Test
+    void realRequestInterruptsSpeculationWhichResumesAfterwards() throws Exception {
+        mockBackend.setSimulatedLatencyMs(300L);
+        stage.speculate(request("x"), List.of("Any news?"));
+        awaitTrue(() -> mockBackend.getCallCount() == 1);
+
+        mockBackend.setSimulatedLatencyMs(10L);
+        service.requestDialogue(request("Where is the smith?")).get(2, TimeUnit.SECONDS);
+
+        assertEquals(1L, stage.yieldCount());
+        awaitTrue(() -> stage.size() == 1);
+        assertEquals(0, stage.pendingCount());
+    }
+
+    @Test
+    void beliefChangeInvalidatesSpeculatedResponse() throws Exception {
+        service.beliefsFor(NPC).assertBelief("bandits.nearby", true, 0.9f, 1L);
+        stage.speculate(request("x"));
+        awaitTrue(() -> stage.size() == SpeculativeDialogueStage.DEFAULT_OPENINGS.size());
+
+        service.beliefsFor(NPC).assertBelief("bandits.nearby", false, 0.9f, 2L);
+
+        assertTrue(stage.take(request("Hello")).isEmpty());
+        assertEquals(0L, stage.hitCount());
+    }
+
+    @Test
+    void deterministicRequestsBypassSpeculation() throws Exception {
+        stage.speculate(request("x"));
+        awaitTrue(() -> stage.size() == SpeculativeDialogueStage.DEFAULT_OPENINGS.size());
+
+        service.inferDeterministic(request("Hello"), 7L).get(2, TimeUnit.SECONDS);
+
+        assertEquals(0L, stage.hitCount());
+        assertTrue(stage.take(request("Hello")).isPresent());
+    }
+
+    @Test
+    void fullStageEvictsOldestLineSoSpeculationContinues() throws Exception {
+        SpeculativeDialogueStage small = new SpeculativeDialogueStage(mockBackend, new ResponseParser(),
+            service.telemetry(), service.beliefRegistry(), 2);
+        try {
+            small.speculate(request("x"), List.of("Hello", "Any news?"));
+            awaitTrue(() -> small.size() == 2);
+
+            small.speculate(request("x"), List.of("Farewell"));
+            awaitTrue(() -> mockBackend.getCallCount() == 3 && small.pendingCount() == 0);
+
+            assertEquals(2, small.size());
+            assertTrue(small.take(request("Hello")).isEmpty());
+            assertTrue(small.take(request("Farewell")).isPresent());
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    @Test
+    void staleBeliefLinesArePurgedAndSpeculatedAgain() throws Exception {
+        service.beliefsFor(NPC).assertBelief("bandits.nearby", true, 0.9f, 1L);
+        stage.speculate(request("x"));
+        awaitTrue(() -> stage.size() == SpeculativeDialogueStage.DEFAULT_OPENINGS.size());
+
+        service.beliefsFor(NPC).assertBelief("bandits.nearby", false, 0.9f, 2L);
+        stage.speculate(request("x"));
+        awaitTrue(() -> mockBackend.getCallCount() == 2 * SpeculativeDialogueStage.DEFAULT_OPENINGS.size()
+            && stage.pendingCount() == 0);
+
+        assertTrue(stage.take(request("Hello")).isPresent());
+    }
+
+    @Test
+    void linesOlderThanMaxAgeAreNotServed() throws Exception {
+        SpeculativeDialogueStage shortLived = new SpeculativeDialogueStage(mockBackend, new ResponseParser(),
+            service.telemetry(), service.beliefRegistry(), 8, Duration.ofMillis(20));
+        try {
+            shortLived.speculate(request("x"));
+            awaitTrue(() -> shortLived.size() == SpeculativeDialogueStage.DEFAULT_OPENINGS.size());
+            Thread.sleep(40L);
+
+            assertTrue(shortLived.take(request("Hello")).isEmpty());
+        } finally {
+            shortLived.shutdown();
+        }
+    }
+
+    @Test
+    void backendThatCannotAbortIsNeverSpeculatedOn() throws Exception {
+        InferenceBackend uninterruptible = new InferenceBackend() {
+            @Override public String generate(String prompt, GenerationConfig config) {
+                return mockBackend.generate(prompt, config);
+            }
+            @Override public boolean isAvailable() { return true; }
+            @Override public boolean supportsStreaming() { return false; }
+            @Override public InferenceBackendMetrics getMetrics() { return mockBackend.getMetrics(); }
+            @Override public String backendName() { return "uninterruptible"; }
+        };
+        SpeculativeDialogueStage inert = new SpeculativeDialogueStage(uninterruptible, new ResponseParser(),
+            service.telemetry(), service.beliefRegistry(), 8);
+        try {
+            inert.speculate(request("x"));
+            Thread.sleep(30L);
+
+            assertFalse(inert.isEnabled());
+            assertEquals(0, inert.pendingCount());
+            assertEquals(0, mockBackend.getCallCount());
+        } finally {
+            inert.shutdown();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.dynamisengine.ai.cognition;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingResponseParserTest {
+
+    private static final String JSON = "{\"text\":\"Hello there.\",\"affect\":{\"valence\":0.5," +
+        "\"arousal\":0.4,\"dominance\":0.6,\"sarcasm\":0.0,\"intensity\":0.5}," +
+        "\"tags\":[\"sigh\",\"whisper\"],\"hints\":[]}";
+
+    @Test
+    void chunkedInputMatchesWholeInput() {
+        StreamingResponseParser whole = new StreamingResponseParser();
+        whole.accept(JSON);
+
+        StreamingResponseParser chunked = new StreamingResponseParser();
+        for (int i = 0; i < JSON.length(); i += 3) {
+            chunked.accept(JSON.substring(i, Math.min(JSON.length(), i + 3)));
+        }
+
+        assertEquals(whole.finish(), chunked.finish());
+        assertEquals("Hello there.", chunked.finish().text());
+        assertEquals(0.6f, chunked.finish().affect().dominance(), 0.0001f);
+        assertEquals(List.of("sigh", "whisper"), chunked.finish().nonverbalTags());
+        assertTrue(chunked.isComplete());
+    }
+
+    @Test
+    void toleratesLeadingProseAndTrailingCommas() {
+        StreamingResponseParser parser = new StreamingResponseParser();
+        parser.accept("Sure! Here is my reply:\n```json\n{ \"text\" : \"Aye.\", " +
+            "\"affect\": {\"valence\": -0.2, \"arousal\": 0.7,}, \"tags\": [\"nod\",], }\n```");
+
+        DialogueResponse r = parser.finish();
+        assertEquals("Aye.", r.text());
+        assertEquals(-0.2f, r.affect().valence(), 0.0001f);
+        assertEquals(0.7f, r.affect().arousal(), 0.0001f);
+        assertEquals(List.of("nod"), r.nonverbalTags());
+    }
+
+    @Test
+    void bracedProseBeforeTheRootIsSkipped() {
+        String output = "Sure {laughs}: {\"text\":\"Ha!\",\"tags\":[\"grin\"]}";
+        StreamingResponseParser whole = new StreamingResponseParser();
+        whole.accept(output);
+        StreamingResponseParser chunked = new StreamingResponseParser();
+        for (int i = 0; i < output.length(); i += 3) {
+            chunked.accept(output.substring(i, Math.min(output.length(), i + 3)));
+        }
+
+        assertTrue(whole.isComplete());
+        assertEquals("Ha!", whole.finish().text());
+        assertEquals(List.of("grin"), whole.finish().nonverbalTags());
+        assertEquals(whole.finish(), chunked.finish());
+    }
+
+    @Test
+    void bracedProseAloneIsNotARoot() {
+        StreamingResponseParser parser = new StreamingResponseParser();
+        parser.accept("Well {sighs} {\"mood\": \"tired\"} fine.");
+
+        assertFalse(parser.sawRoot());
+        assertFalse(parser.isComplete());
+        assertEquals("...", parser.finish().text());
+    }
+
+    @Test
+    void decodesEscapesAndUnicodeSplitAcrossChunks() {
+        StreamingResponseParser parser = new StreamingResponseParser();
+        parser.accept("{\"text\":\"Say \\\"hi\\\"\\n caf\\u0");
+        parser.accept("0e9\"}");
+        assertEquals("Say \"hi\"\n café", parser.finish().text());
+    }
+
+    @Test
+    void firesTextDeltasBeforeFieldCompletes() {
+        List<String> deltas = new ArrayList<>();
+        List<String> completed = new ArrayList<>();
+        StreamingResponseParser parser = new StreamingResponseParser(new DialogueStreamListener() {
+            @Override public void onTextDelta(CharSequence delta) { deltas.add(delta.toString()); }
+            @Override public void onTextComplete(String text) { completed.add(text); }
+        });
+
+        parser.accept("{\"text\":\"Hold");
+        assertEquals(List.of("Hold"), deltas);
+        assertTrue(completed.isEmpty());
+
+        parser.accept(" there\",\"tags\":[]}");
+        assertEquals(List.of("Hold", " there"), deltas);
+        assertEquals(List.of("Hold there"), completed);
+    }
+
+    @Test
+    void affectEventIsClamped() {
+        List<AffectVector> affects = new ArrayList<>();
+        StreamingResponseParser parser = new StreamingResponseParser(new DialogueStreamListener() {
+            @Override public void onAffectComplete(AffectVector affect) { affects.add(affect); }
+        });
+        parser.accept("{\"affect\":{\"valence\":5.0,\"arousal\":-2e0}}");
+        assertEquals(1, affects.size());
+        assertEquals(1f, affects.get(0).valence(), 0.0001f);
+        assertEquals(0f, affects.get(0).arousal(), 0.0001f);
+    }
+
+    @Test
+    void missingFieldsUseParserDefaults() {
+        StreamingResponseParser parser = new StreamingResponseParser();
+        parser.accept("no json here");
+        assertFalse(parser.sawRoot());
+        assertEquals(DialogueResponse.fallback("..."), parser.finish());
+    }
+}
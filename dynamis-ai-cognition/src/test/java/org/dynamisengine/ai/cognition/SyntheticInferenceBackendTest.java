@@ -0,0 +1,184 @@
+package org.dynamisengine.ai.cognition;
+
+import org.dynamisengine.ai.core.Location;
+import org.dynamisengine.ai.core.ThreatLevel;
+import org.dynamisengine.ai.core.WorldFacts;
+import org.dynamisengine.core.entity.EntityId;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticInferenceBackendTest {
+
+    private static final long MS = 1_000_000L;
+
+    /** Sleeps advance a counter instead of waiting, so latency is asserted exactly. */
+    private static final class SimulatedTime implements SyntheticInferenceBackend.Sleeper {
+        final AtomicLong now = new AtomicLong(0L);
+
+        @Override
+        public void sleepNanos(long nanos) throws InterruptedException {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            now.addAndGet(nanos);
+        }
+    }
+
+    private static DialogueRequest dialogue(long speaker, String speech) {
+        return new DialogueRequest(EntityId.of(speaker), EntityId.of(99L), speech,
+            new WorldFacts(Map.of(), List.of(), ThreatLevel.NONE, new Location(0, 0, 0), null),
+            AffectVector.neutral(), null);
+    }
+
+    @Test
+    void responsesAreDeterministicPerPromptAndSeed() {
+        SyntheticInferenceBackend backend = SyntheticInferenceBackend.builder().build();
+        Set<String> distinct = new HashSet<>();
+        for (int i = 0; i < 16; i++) {
+            String first = backend.generate("prompt " + i, GenerationConfig.creative(3L));
+            assertEquals(first, backend.generate("prompt " + i, GenerationConfig.creative(3L)));
+            distinct.add(first);
+        }
+        assertTrue(distinct.size() > 1, "prompts should spread over the canned responses");
+        assertNotNull(new ResponseParser().parse(distinct.iterator().next()).text());
+    }
+
+    @Test
+    void latencyFollowsPrefillAndDecodeRate() {
+        String response = "{\"text\":\"one two three four five six seven eight\"}";
+        SimulatedTime time = new SimulatedTime();
+        SyntheticInferenceBackend backend = SyntheticInferenceBackend.builder()
+            .responses(List.of(response))
+            .prefillLatency(SyntheticInferenceBackend.LatencyModel.constant(40L))
+            .decodeTokensPerSecond(200d)
+            .clock(time.now::get, time)
+            .build();
+        int tokens = PromptTokenEstimator.estimate(response);
+
+        backend.generate("p", GenerationConfig.creative(1L));
+
+        assertEquals((40L + tokens * 5L) * MS, time.now.get());
+        assertEquals(40L + tokens * 5L, backend.getMetrics().lastCallLatencyMs());
+    }
+
+    @Test
+    void maxTokensCapsDecodeTimeButNotResponse() {
+        String response = "{\"text\":\"" + "word ".repeat(200) + "\"}";
+        SimulatedTime time = new SimulatedTime();
+        SyntheticInferenceBackend backend = SyntheticInferenceBackend.builder()
+            .responses(List.of(response))
+            .decodeTokensPerSecond(100d)
+            .clock(time.now::get, time)
+            .build();
+
+        String result = backend.generate("p", new GenerationConfig(5, 0.7f, 1L, false));
+
+        assertEquals(response, result);
+        assertEquals(5L * 10L * MS, time.now.get());
+    }
+
+    @Test
+    void streamsChunksThatReassembleTheResponse() {
+        SyntheticInferenceBackend backend = SyntheticInferenceBackend.builder().build();
+        StringBuilder streamed = new StringBuilder();
+        List<String> chunks = new ArrayList<>();
+
+        String result = backend.generate(InferenceRequest.unseeded(dialogue(1L, "Hello")),
+            GenerationConfig.creative(1L), chunk -> {
+                chunks.add(chunk.toString());
+                streamed.append(chunk);
+            });
+
+        assertEquals(result, streamed.toString());
+        assertTrue(chunks.size() > 1);
+    }
+
+    @Test
+    void concurrencyLimitQueuesCallers() throws Exception {
+        SyntheticInferenceBackend backend = SyntheticInferenceBackend.builder()
+            .prefillLatency(SyntheticInferenceBackend.LatencyModel.uniform(20L, 40L))
+            .maxConcurrent(2)
+            .build();
+
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            String prompt = "p" + i;
+            calls.add(CompletableFuture.supplyAsync(() -> backend.generate(prompt, GenerationConfig.creative(1L))));
+        }
+        for (CompletableFuture<String> call : calls) {
+            assertNotNull(call.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, backend.peakConcurrency());
+        assertTrue(backend.peakQueueDepth() >= 2, "queue depth " + backend.peakQueueDepth());
+    }
+
+    @Test
+    void fullQueueRejectsImmediately() throws Exception {
+        SyntheticInferenceBackend backend = SyntheticInferenceBackend.builder()
+            .prefillLatency(SyntheticInferenceBackend.LatencyModel.constant(300L))
+            .maxConcurrent(1)
+            .maxQueued(0)
+            .build();
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(
+            () -> backend.generate("a", GenerationConfig.creative(1L)));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (backend.peakConcurrency() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(2L);
+        }
+
+        assertThrows(InferenceException.class, () -> backend.generate("b", GenerationConfig.creative(1L)));
+        assertEquals(1, backend.rejectedCount());
+        assertNotNull(first.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void injectedFailuresRaiseInferenceException() {
+        SyntheticInferenceBackend backend = SyntheticInferenceBackend.builder().failureRate(1d).build();
+
+        assertThrows(InferenceException.class, () -> backend.generate("p", GenerationConfig.creative(1L)));
+        assertEquals(1, backend.getMetrics().failedCallCount());
+    }
+
+    @Test
+    void overloadedServiceTimesOutAndFreesBackendSlots() throws Exception {
+        SyntheticInferenceBackend backend = SyntheticInferenceBackend.builder()
+            .prefillLatency(SyntheticInferenceBackend.LatencyModel.constant(40L))
+            .maxConcurrent(2)
+            .build();
+        // Twelve waves of 40ms overrun the 400ms deadline, while the first waves finish well inside it.
+        DefaultCognitionService service = new DefaultCognitionService(backend, new ResponseParser(), 400);
+        try {
+            List<CompletableFuture<DialogueResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 24; i++) {
+                futures.add(service.requestDialogue(dialogue(i + 1L, "Hello")));
+            }
+            for (CompletableFuture<DialogueResponse> future : futures) {
+                assertNotNull(future.get(2, TimeUnit.SECONDS));
+            }
+
+            // Real sleeps never undershoot, so the later waves cannot make the deadline.
+            assertTrue(service.getTimeoutCount() > 0L, "queued requests should exceed the deadline");
+            assertEquals(2, backend.peakConcurrency());
+
+            // Timed-out generations were interrupted rather than run to completion.
+            long drainBy = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (backend.activeCount() > 0 && System.nanoTime() < drainBy) {
+                Thread.sleep(2L);
+            }
+            assertEquals(0, backend.activeCount());
+            assertTrue(backend.getMetrics().failedCallCount() > 0, "no generation was interrupted");
+        } finally {
+            service.shutdown();
+        }
+    }
+}
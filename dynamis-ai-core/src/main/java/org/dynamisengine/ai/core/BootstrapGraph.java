@@ -0,0 +1,161 @@
+package org.dynamisengine.ai.core;
+
+import org.dynamisengine.core.logging.DynamisLogger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Startup stage graph — loads models and other slow resources concurrently.
+ *
+ * Each stage is a loader plus the stages it depends on. {@link #start()} runs every stage on
+ * its own virtual thread as soon as its dependencies are ready and returns immediately, so
+ * the engine can tick while loading continues. Callers hold the readiness future returned by
+ * {@link #stage} and keep using their fallback until it completes.
+ *
+ * A failed stage completes its future exceptionally, and so does every stage depending on
+ * it. The failure is logged, never thrown from {@link #start()}: a missing model is a
+ * degraded start, not a failed one.
+ */
+public final class BootstrapGraph {
+
+    private static final DynamisLogger log = DynamisLogger.get(BootstrapGraph.class);
+
+    private record Stage(String name, Runnable loader, List<String> dependsOn, CompletableFuture<Void> ready) {}
+
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+    private final Map<String, Long> loadMillis = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    /**
+     * Registers a stage. Dependencies must already be registered, which also rules out cycles.
+     *
+     * @return completes once the loader has run
+     */
+    public synchronized CompletableFuture<Void> stage(String name, Runnable loader, String... dependsOn) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(loader, "loader");
+        if (executor != null) {
+            throw new IllegalStateException("BootstrapGraph already started — cannot add stage " + name);
+        }
+        if (stages.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate bootstrap stage: " + name);
+        }
+        for (String dependency : dependsOn) {
+            if (!stages.containsKey(dependency)) {
+                throw new IllegalArgumentException(
+                    "Bootstrap stage " + name + " depends on unknown stage " + dependency);
+            }
+        }
+        Stage stage = new Stage(name, loader, List.of(dependsOn), new CompletableFuture<>());
+        stages.put(name, stage);
+        return stage.ready();
+    }
+
+    /** Launches every stage; returns without waiting for any of them. */
+    public synchronized void start() {
+        if (executor != null) {
+            throw new IllegalStateException("BootstrapGraph already started");
+        }
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("bootstrap-", 0).factory());
+        for (Stage stage : stages.values()) {
+            CompletableFuture<?>[] dependencies = stage.dependsOn().stream()
+                .map(dependency -> stages.get(dependency).ready())
+                .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(dependencies).whenComplete((ignored, failure) -> {
+                if (failure != null) {
+                    stage.ready().completeExceptionally(new CompletionException(
+                        "Bootstrap stage " + stage.name() + " skipped — dependency failed", unwrap(failure)));
+                    return;
+                }
+                executor.execute(() -> run(stage));
+            });
+        }
+    }
+
+    private void run(Stage stage) {
+        long start = System.nanoTime();
+        try {
+            stage.loader().run();
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            loadMillis.put(stage.name(), elapsed);
+            log.info(String.format("Bootstrap stage %s ready in %dms", stage.name(), elapsed));
+            stage.ready().complete(null);
+        } catch (RuntimeException e) {
+            log.warn(String.format("Bootstrap stage %s failed — callers keep their fallback: %s",
+                stage.name(), e.getMessage()));
+            stage.ready().completeExceptionally(e);
+        }
+    }
+
+    /** Readiness future of a registered stage. */
+    public synchronized CompletableFuture<Void> readiness(String name) {
+        Stage stage = stages.get(name);
+        if (stage == null) {
+            throw new IllegalArgumentException("Unknown bootstrap stage: " + name);
+        }
+        return stage.ready();
+    }
+
+    /** Whether the stage has loaded successfully. */
+    public boolean isReady(String name) {
+        CompletableFuture<Void> ready = readiness(name);
+        return ready.isDone() && !ready.isCompletedExceptionally();
+    }
+
+    /** Completes once every stage has finished, successfully or not. */
+    public synchronized CompletableFuture<Void> allSettled() {
+        List<CompletableFuture<Void>> settled = new ArrayList<>();
+        for (Stage stage : stages.values()) {
+            settled.add(stage.ready().handle((ignored, failure) -> null));
+        }
+        return CompletableFuture.allOf(settled.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Blocks until every stage has settled — for tools and bakes that want full models.
+     *
+     * @return false if the timeout elapsed first
+     */
+    public boolean awaitSettled(Duration timeout) {
+        try {
+            allSettled().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        }
+    }
+
+    /** Load time of a successful stage, or -1 while it is pending or after it failed. */
+    public long loadMillis(String name) {
+        return loadMillis.getOrDefault(name, -1L);
+    }
+
+    /** Stops stages still loading; their futures stay incomplete. */
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+}
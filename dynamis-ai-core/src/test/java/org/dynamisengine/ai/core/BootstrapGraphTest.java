@@ -0,0 +1,111 @@
+package org.dynamisengine.ai.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BootstrapGraphTest {
+
+    private final BootstrapGraph graph = new BootstrapGraph();
+
+    @AfterEach
+    void tearDown() {
+        graph.shutdown();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void independentStagesLoadConcurrently() {
+        graph.stage("llm", () -> sleep(150));
+        graph.stage("tts", () -> sleep(150));
+        graph.stage("visemes", () -> sleep(150));
+
+        long start = System.nanoTime();
+        graph.start();
+        assertTrue(graph.awaitSettled(Duration.ofSeconds(2)));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000L;
+
+        assertTrue(elapsedMs < 400L, "serial load would take 450ms, took " + elapsedMs + "ms");
+        assertTrue(graph.isReady("llm") && graph.isReady("tts") && graph.isReady("visemes"));
+        assertTrue(graph.loadMillis("llm") >= 150L);
+    }
+
+    @Test
+    void startReturnsBeforeStagesFinish() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> ready = graph.stage("llm", () -> {
+            try {
+                release.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        graph.start();
+
+        assertFalse(ready.isDone());
+        assertFalse(graph.isReady("llm"));
+        assertEquals(-1L, graph.loadMillis("llm"));
+        release.countDown();
+        ready.get(2, TimeUnit.SECONDS);
+        assertTrue(graph.isReady("llm"));
+    }
+
+    @Test
+    void dependentStageWaitsForItsDependency() throws Exception {
+        AtomicBoolean encoderLoaded = new AtomicBoolean(false);
+        AtomicBoolean sawEncoder = new AtomicBoolean(false);
+        graph.stage("encoder", () -> {
+            sleep(50);
+            encoderLoaded.set(true);
+        });
+        CompletableFuture<Void> index = graph.stage("index", () -> sawEncoder.set(encoderLoaded.get()), "encoder");
+
+        graph.start();
+        index.get(2, TimeUnit.SECONDS);
+
+        assertTrue(sawEncoder.get());
+    }
+
+    @Test
+    void failureSkipsDependentsButNotSiblings() {
+        graph.stage("tts", () -> {
+            throw new IllegalStateException("model missing");
+        });
+        graph.stage("visemes", () -> { }, "tts");
+        graph.stage("llm", () -> { });
+
+        graph.start();
+        assertTrue(graph.awaitSettled(Duration.ofSeconds(2)));
+
+        assertTrue(graph.readiness("tts").isCompletedExceptionally());
+        assertTrue(graph.readiness("visemes").isCompletedExceptionally());
+        assertTrue(graph.isReady("llm"));
+    }
+
+    @Test
+    void rejectsUnknownDependenciesAndLateStages() {
+        assertThrows(IllegalArgumentException.class, () -> graph.stage("visemes", () -> { }, "tts"));
+        graph.stage("tts", () -> { });
+        assertThrows(IllegalArgumentException.class, () -> graph.stage("tts", () -> { }));
+
+        graph.start();
+
+        assertThrows(IllegalStateException.class, () -> graph.stage("llm", () -> { }));
+        assertThrows(IllegalStateException.class, graph::start);
+    }
+}
@@ -20,6 +20,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public final class DemoVectorMemoryStore implements VectorMemoryStore {
 
     private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<EntityId, Long> versions = new ConcurrentHashMap<>();
 
     @Override
     /**
@@ -30,7 +31,11 @@ public final class DemoVectorMemoryStore implements VectorMemoryStore {
      * @param vector The vector embedding representing the record.
      */
     public void store(MemoryRecord record, EmbeddingVector vector) {
-        entries.put(record.id(), new Entry(record, vector.normalize()));
+        Entry replaced = entries.put(record.id(), new Entry(record, vector.normalize()));
+        if (replaced != null && !replaced.record.owner().equals(record.owner())) {
+            bumpVersion(replaced.record.owner());
+        }
+        bumpVersion(record.owner());
     }
 
     @Override
@@ -40,7 +45,10 @@ public final class DemoVectorMemoryStore implements VectorMemoryStore {
      * @param id The UUID of the record to remove.
      */
     public void remove(UUID id) {
-        entries.remove(id);
+        Entry removed = entries.remove(id);
+        if (removed != null) {
+            bumpVersion(removed.record.owner());
+        }
     }
 
     @Override
@@ -77,6 +85,9 @@ public final class DemoVectorMemoryStore implements VectorMemoryStore {
      * Clears all entries from the store.
      */
     public void close() {
+        for (Entry e : entries.values()) {
+            bumpVersion(e.record.owner());
+        }
         entries.clear();
     }
 
@@ -122,6 +133,21 @@ public final class DemoVectorMemoryStore implements VectorMemoryStore {
         return entry == null ? java.util.Optional.empty() : java.util.Optional.of(entry.record);
     }
 
+    @Override
+    /**
+     * Returns the change counter for an owner's records.
+     *
+     * @param owner The entity ID of the owner.
+     * @return A value that advances whenever the owner's records change.
+     */
+    public long version(EntityId owner) {
+        return versions.getOrDefault(owner, 0L);
+    }
+
+    private void bumpVersion(EntityId owner) {
+        versions.merge(owner, 1L, Long::sum);
+    }
+
     private record Entry(MemoryRecord record, EmbeddingVector vector) {
     }
 }
@@ -15,6 +15,7 @@ import org.dynamisengine.ai.cognition.JlamaInferenceBackend;
 import org.dynamisengine.ai.cognition.MockInferenceBackend;
 import org.dynamisengine.ai.cognition.ResponseParser;
 import org.dynamisengine.ai.core.AITaskNode;
+import org.dynamisengine.ai.core.BootstrapGraph;
 import org.dynamisengine.ai.core.DefaultBudgetGovernor;
 import org.dynamisengine.ai.core.DefaultWorldStateStore;
 import org.dynamisengine.ai.core.DegradeMode;
@@ -76,6 +77,7 @@ public final class DemoWorld {
     private final DefaultPerceptionSystem perception;
     private final DefaultCognitionService cognition;
     private final InferenceBackend inferenceBackend;
+    private final BootstrapGraph bootstrap = new BootstrapGraph();
     private final int inferenceDeadlineMs;
     private final DefaultMemoryLifecycleManager memory;
     private final DefaultNavigationSystem navigation;
@@ -128,7 +130,7 @@ public final class DemoWorld {
         navigation = new DefaultNavigationSystem(mesh);
 
         perception = new DefaultPerceptionSystem();
-        inferenceBackend = createBestAvailableBackend();
+        inferenceBackend = createBestAvailableBackend(bootstrap);
         ResponseParser parser = new ResponseParser();
         inferenceDeadlineMs = (inferenceBackend instanceof JlamaInferenceBackend) ? 8000 : 300;
         cognition = new DefaultCognitionService(inferenceBackend, parser, inferenceDeadlineMs);
@@ -150,6 +152,7 @@ public final class DemoWorld {
         eventQueue = new AcousticEventQueueImpl();
         mixSnapshotManager = new MixSnapshotManager();
         wireAudioHardware();
+        bootstrap.start();
 
         governor.register(new AITaskNode(
             "crowd-tick", 3, Priority.NORMAL, DegradeMode.DEFER,
@@ -382,6 +385,7 @@ public final class DemoWorld {
         if (audioOutputNode != null) {
             audioOutputNode.close();
         }
+        bootstrap.shutdown();
         cognition.shutdown();
         if (inferenceBackend instanceof JlamaInferenceBackend jlama) {
             jlama.close();
@@ -389,19 +393,19 @@ public final class DemoWorld {
         navigation.shutdown();
     }
 
-    private static InferenceBackend createBestAvailableBackend() {
+    /**
+     * Jlama weights load as a bootstrap stage, so the demo ticks immediately and guards
+     * speak their fallback lines until the model is ready.
+     */
+    private static InferenceBackend createBestAvailableBackend(BootstrapGraph bootstrap) {
         Path modelCache = Path.of(System.getProperty("user.home"), ".jlama", "models");
         Path modelDir = modelCache.resolve("meta-llama_Llama-3.2-3B-Instruct");
 
         if (Files.exists(modelDir)) {
-            try {
-                log.info(String.format("Jlama model found at %s - using live inference", modelDir));
-                JlamaInferenceBackend jlama = new JlamaInferenceBackend(modelDir.toString());
-                jlama.initialize();
-                return jlama;
-            } catch (Exception e) {
-                log.warn(String.format("Jlama init failed (%s), falling back to Mock", e.getMessage()));
-            }
+            log.info(String.format("Jlama model found at %s - loading for live inference", modelDir));
+            JlamaInferenceBackend jlama = new JlamaInferenceBackend(modelDir.toString());
+            bootstrap.stage("jlama", jlama::initialize);
+            return jlama;
         } else {
             log.info(String.format("No Jlama model found at %s - using MockInferenceBackend", modelDir));
             log.info("Run scripts/setup-models.sh to enable live inference");
@@ -1,6 +1,7 @@
 module org.dynamisengine.ai.memory {
     requires org.dynamisengine.core;
     requires org.dynamisengine.ai.core;
+    requires org.dynamisengine.ai.cognition;
     requires jdk.incubator.vector;
     exports org.dynamisengine.ai.memory;
 }
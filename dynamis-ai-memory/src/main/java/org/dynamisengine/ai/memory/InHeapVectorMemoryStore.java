@@ -86,6 +86,11 @@ public final class InHeapVectorMemoryStore implements VectorMemoryStore {
         return delegate.countForOwner(owner);
     }
 
+    @Override
+    public long version(EntityId owner) {
+        return delegate.version(owner);
+    }
+
     @Override
     public int size() {
         return delegate.size();
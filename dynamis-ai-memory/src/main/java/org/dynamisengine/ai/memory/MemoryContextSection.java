@@ -0,0 +1,139 @@
+package org.dynamisengine.ai.memory;
+
+import org.dynamisengine.ai.cognition.DialogueRequest;
+import org.dynamisengine.ai.cognition.PromptContextSection;
+import org.dynamisengine.ai.cognition.PromptTokenEstimator;
+import org.dynamisengine.core.entity.EntityId;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Prompt context section listing the speaker's memories most similar to the request.
+ *
+ * Versioned by the owner's {@link VectorMemoryStore#version} and the query text. Retrievals
+ * are cached per (speaker, query) until the owner's version moves, and query embeddings are
+ * cached by text. Prefetching a request for each likely input (see
+ * {@code ContextPrefetcher}) therefore leaves only formatting on the request path when the
+ * player says one of them; any other line is retrieved when it arrives.
+ */
+public final class MemoryContextSection implements PromptContextSection {
+
+    private static final int MAX_CACHED_EMBEDDINGS = 512;
+    private static final int MAX_CACHED_RETRIEVALS = 1024;
+
+    private final VectorMemoryStore store;
+    private final SentenceEncoder encoder;
+    private final int topK;
+    private final Function<DialogueRequest, String> queryText;
+    private final ConcurrentMap<String, EmbeddingVector> embeddings = new ConcurrentHashMap<>();
+    private final ConcurrentMap<RetrievalKey, Retrieval> retrievals = new ConcurrentHashMap<>();
+    private final AtomicLong encodeCount = new AtomicLong(0L);
+    private final AtomicLong retrievalCount = new AtomicLong(0L);
+
+    /** Queries with the player's line. */
+    public MemoryContextSection(VectorMemoryStore store, SentenceEncoder encoder, int topK) {
+        this(store, encoder, topK, DialogueRequest::inputSpeech);
+    }
+
+    /** @param queryText derives the retrieval query from a request, e.g. a situation summary */
+    public MemoryContextSection(VectorMemoryStore store, SentenceEncoder encoder, int topK,
+                                Function<DialogueRequest, String> queryText) {
+        if (topK <= 0) {
+            throw new IllegalArgumentException("topK must be > 0");
+        }
+        this.store = Objects.requireNonNull(store);
+        this.encoder = Objects.requireNonNull(encoder);
+        this.topK = topK;
+        this.queryText = Objects.requireNonNull(queryText);
+    }
+
+    @Override
+    public String name() {
+        return "memories";
+    }
+
+    @Override
+    public long version(DialogueRequest request) {
+        if (request.speaker() == null) {
+            return 0L;
+        }
+        return store.version(request.speaker()) * 31L + Objects.hashCode(queryText.apply(request));
+    }
+
+    @Override
+    public void render(DialogueRequest request, int tokenBudget, StringBuilder out) {
+        String query = queryText.apply(request);
+        if (request.speaker() == null || query == null || query.isBlank()) {
+            return;
+        }
+        List<MemoryRecord> records = retrieve(request.speaker(), query);
+        if (records.isEmpty()) {
+            return;
+        }
+        int start = out.length();
+        out.append("Relevant memories:");
+        for (MemoryRecord record : records) {
+            int lineStart = out.length();
+            out.append("\n- ").append(record.summary());
+            if (PromptTokenEstimator.estimate(out, start, out.length()) > tokenBudget) {
+                out.setLength(lineStart);
+                break;
+            }
+        }
+        if (out.indexOf("\n", start) < 0) {
+            out.setLength(start);
+        }
+    }
+
+    /** Encoder calls made — cached query texts are not re-encoded. */
+    public long encodeCount() {
+        return encodeCount.get();
+    }
+
+    /** Similarity searches run — cached (speaker, query) retrievals are not repeated. */
+    public long retrievalCount() {
+        return retrievalCount.get();
+    }
+
+    private List<MemoryRecord> retrieve(EntityId speaker, String query) {
+        RetrievalKey key = new RetrievalKey(speaker, query);
+        // Read the version first so a change racing the search leaves the entry stale.
+        long version = store.version(speaker);
+        Retrieval cached = retrievals.get(key);
+        if (cached != null && cached.version() == version) {
+            return cached.records();
+        }
+        retrievalCount.incrementAndGet();
+        List<MemoryRecord> records = store.findSimilar(embedding(query), speaker, topK).join().stream()
+            .map(SimilarityResult::record)
+            .toList();
+        if (retrievals.size() >= MAX_CACHED_RETRIEVALS) {
+            retrievals.clear();
+        }
+        retrievals.put(key, new Retrieval(version, records));
+        return records;
+    }
+
+    private EmbeddingVector embedding(String query) {
+        EmbeddingVector cached = embeddings.get(query);
+        if (cached != null) {
+            return cached;
+        }
+        if (embeddings.size() >= MAX_CACHED_EMBEDDINGS) {
+            embeddings.clear();
+        }
+        encodeCount.incrementAndGet();
+        EmbeddingVector encoded = encoder.encode(query);
+        embeddings.put(query, encoded);
+        return encoded;
+    }
+
+    private record RetrievalKey(EntityId speaker, String query) {}
+
+    private record Retrieval(long version, List<MemoryRecord> records) {}
+}
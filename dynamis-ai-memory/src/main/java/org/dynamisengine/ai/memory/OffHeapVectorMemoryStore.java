@@ -17,10 +17,13 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.PriorityQueue;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -46,6 +49,7 @@ public final class OffHeapVectorMemoryStore implements VectorMemoryStore {
 
     private final Map<UUID, Integer> idToSlot = new LinkedHashMap<>();
     private final Map<Integer, MemoryRecord> slotToRecord = new HashMap<>();
+    private final ConcurrentMap<EntityId, Long> ownerVersions = new ConcurrentHashMap<>();
     private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
 
     private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
@@ -93,7 +97,11 @@ public final class OffHeapVectorMemoryStore implements VectorMemoryStore {
         try {
             int slot = acquireSlot(record.id());
             writeVectorToSlot(slot, floats);
-            slotToRecord.put(slot, record);
+            MemoryRecord replaced = slotToRecord.put(slot, record);
+            if (replaced != null && !Objects.equals(replaced.owner(), record.owner())) {
+                bumpVersion(replaced.owner());
+            }
+            bumpVersion(record.owner());
             count.set(idToSlot.size());
         } finally {
             rwLock.writeLock().unlock();
@@ -112,7 +120,10 @@ public final class OffHeapVectorMemoryStore implements VectorMemoryStore {
         try {
             Integer slot = idToSlot.remove(id);
             if (slot != null) {
-                slotToRecord.remove(slot);
+                MemoryRecord removed = slotToRecord.remove(slot);
+                if (removed != null) {
+                    bumpVersion(removed.owner());
+                }
                 freeSlots.push(slot);
                 zeroSlot(slot);
                 count.set(idToSlot.size());
@@ -196,6 +207,15 @@ public final class OffHeapVectorMemoryStore implements VectorMemoryStore {
         }
     }
 
+    @Override
+    public long version(EntityId owner) {
+        return ownerVersions.getOrDefault(owner, 0L);
+    }
+
+    private void bumpVersion(EntityId owner) {
+        ownerVersions.merge(owner, 1L, Long::sum);
+    }
+
     @Override
     public int size() {
         return count.get();
@@ -0,0 +1,16 @@
+package org.dynamisengine.ai.memory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Source of the never-repeating versions reported by stores that do not track changes. */
+final class UntrackedVersions {
+
+    private static final AtomicLong NEXT = new AtomicLong(Long.MIN_VALUE);
+
+    private UntrackedVersions() {
+    }
+
+    static long next() {
+        return NEXT.getAndIncrement();
+    }
+}
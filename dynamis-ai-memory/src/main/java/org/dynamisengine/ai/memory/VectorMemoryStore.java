@@ -71,6 +71,16 @@ public interface VectorMemoryStore {
         throw new UnsupportedOperationException("countForOwner not implemented");
     }
 
+    /**
+     * Change counter for one owner's records — advances on every store() or remove()
+     * touching that owner, so retrieval results can be cached until it moves.
+     * Stores that do not track changes report a new value on every call, which disables
+     * such caching rather than serving stale results.
+     */
+    default long version(EntityId owner) {
+        return UntrackedVersions.next();
+    }
+
     /** Total records in the store across all owners. */
     int size();
 
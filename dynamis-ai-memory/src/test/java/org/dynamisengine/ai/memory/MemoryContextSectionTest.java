@@ -0,0 +1,136 @@
+package org.dynamisengine.ai.memory;
+
+import org.dynamisengine.ai.cognition.AffectVector;
+import org.dynamisengine.ai.cognition.ContextPrefetcher;
+import org.dynamisengine.ai.cognition.DialogueRequest;
+import org.dynamisengine.ai.cognition.PromptContextCompiler;
+import org.dynamisengine.ai.core.Location;
+import org.dynamisengine.ai.core.ThreatLevel;
+import org.dynamisengine.ai.core.WorldFacts;
+import org.dynamisengine.core.entity.EntityId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryContextSectionTest {
+
+    private static final EntityId OWNER = EntityId.of(1L);
+
+    private final InHeapVectorMemoryStore store = new InHeapVectorMemoryStore();
+    private final MemoryContextSection section = new MemoryContextSection(store, new MockSentenceEncoder(), 2);
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    private static DialogueRequest request(String speech) {
+        return new DialogueRequest(OWNER, EntityId.of(2L), speech,
+            new WorldFacts(Map.of(), List.of(), ThreatLevel.NONE, new Location(0, 0, 0), null),
+            AffectVector.neutral(), null);
+    }
+
+    @Test
+    void rendersMostSimilarMemoriesWithinTopK() {
+        store.store(MemoryRecord.rawEvent(OWNER, "the smith sold me a sword", null, 0.5f));
+        store.store(MemoryRecord.rawEvent(OWNER, "bandits raided the mill", null, 0.5f));
+        store.store(MemoryRecord.rawEvent(OWNER, "it rained all week", null, 0.5f));
+        StringBuilder out = new StringBuilder();
+
+        section.render(request("where is the smith"), 256, out);
+
+        assertTrue(out.toString().startsWith("Relevant memories:\n- "), out.toString());
+        assertEquals(2, out.toString().lines().filter(l -> l.startsWith("- ")).count());
+    }
+
+    @Test
+    void versionMovesWithOwnerMemoriesAndQuery() {
+        long initial = section.version(request("hello"));
+        MemoryRecord record = MemoryRecord.rawEvent(OWNER, "met the player", null, 0.5f);
+
+        store.store(record);
+        long stored = section.version(request("hello"));
+        store.store(MemoryRecord.rawEvent(EntityId.of(7L), "unrelated", null, 0.5f));
+
+        assertNotEquals(initial, stored);
+        assertEquals(stored, section.version(request("hello")));
+        assertNotEquals(stored, section.version(request("goodbye")));
+        store.remove(record.id());
+        assertNotEquals(stored, section.version(request("hello")));
+    }
+
+    @Test
+    void prefetchedLikelyInputsAreNotRetrievedAgain() throws Exception {
+        store.store(MemoryRecord.rawEvent(OWNER, "the player saved my daughter", null, 0.9f));
+        PromptContextCompiler compiler = new PromptContextCompiler(256).addSection(section, 128);
+        ContextPrefetcher prefetcher = new ContextPrefetcher(compiler, List.of("hello", "any news?"));
+        try {
+            prefetcher.prefetch(request("")).get(2, TimeUnit.SECONDS);
+            assertEquals(2L, section.retrievalCount());
+
+            String context = compiler.compile(request("any news?"));
+            assertTrue(context.contains("- the player saved my daughter"), context);
+            assertEquals(2L, section.retrievalCount());
+            assertEquals(2L, section.encodeCount());
+
+            compiler.compile(request("where is the smith?"));
+            assertEquals(3L, section.retrievalCount());
+        } finally {
+            prefetcher.shutdown();
+        }
+    }
+
+    @Test
+    void storeChangeInvalidatesPrefetchedRetrieval() {
+        store.store(MemoryRecord.rawEvent(OWNER, "the player saved my daughter", null, 0.9f));
+        PromptContextCompiler compiler = new PromptContextCompiler(256).addSection(section, 128);
+        compiler.prefetch(request("hello"));
+
+        store.store(MemoryRecord.rawEvent(OWNER, "the player stole my horse", null, 0.9f));
+        String context = compiler.compile(request("hello"));
+
+        assertTrue(context.contains("- the player stole my horse"), context);
+        assertEquals(2L, section.retrievalCount());
+        assertEquals(1L, section.encodeCount());
+    }
+
+    @Test
+    void storeWithoutVersionTrackingIsRenderedOnEveryRequest() {
+        store.store(MemoryRecord.rawEvent(OWNER, "the player saved my daughter", null, 0.9f));
+        PromptContextCompiler compiler = new PromptContextCompiler(256)
+            .addSection(new MemoryContextSection(new UntrackedStore(store), new MockSentenceEncoder(), 2), 128);
+
+        compiler.prefetch(request("hello"));
+        String context = compiler.compile(request("hello"));
+
+        assertTrue(context.contains("- the player saved my daughter"), context);
+        assertEquals(0L, compiler.segmentHitCount());
+        assertEquals(1L, compiler.segmentMissCount());
+    }
+
+    @Test
+    void emptyResultsRenderNothing() {
+        StringBuilder out = new StringBuilder();
+        section.render(request("hello"), 256, out);
+        assertEquals("", out.toString());
+    }
+
+    /** Third-party style store relying on the default {@link VectorMemoryStore#version}. */
+    private record UntrackedStore(VectorMemoryStore delegate) implements VectorMemoryStore {
+        @Override public void store(MemoryRecord record, EmbeddingVector vector) { delegate.store(record, vector); }
+        @Override public void remove(UUID id) { delegate.remove(id); }
+        @Override public CompletableFuture<List<SimilarityResult>> findSimilar(EmbeddingVector query, EntityId owner, int topK) {
+            return delegate.findSimilar(query, owner, topK);
+        }
+        @Override public List<MemoryRecord> getAllForOwner(EntityId owner) { return delegate.getAllForOwner(owner); }
+        @Override public int size() { return delegate.size(); }
+        @Override public void close() { delegate.close(); }
+    }
+}
@@ -1,12 +1,14 @@
 package org.dynamisengine.ai.navigation;
 
 import org.dynamisengine.ai.core.Location;
+import org.dynamisengine.ai.perception.OccupancyGrid;
 
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -17,6 +19,13 @@ import java.util.Optional;
  */
 public final class NavMesh {
 
+    /** Decides whether a point off the walkable area blocks sight. */
+    @FunctionalInterface
+    public interface SightBlocker {
+
+        boolean blocksSight(float x, float z);
+    }
+
     private final Map<Integer, NavPoly> polys;
     private final int clusterCount;
 
@@ -65,4 +74,102 @@ public final class NavMesh {
             .filter(p -> p.clusterId() == clusterId)
             .toList();
     }
+
+    /**
+     * Rasterises the walkable area into an occupancy grid covering the mesh bounds.
+     * A cell is open when its centre lies inside some poly (on the XZ plane) and blocked
+     * otherwise, so gaps between polys — walls, pillars — block sight.
+     *
+     * This is an approximation: the mesh only knows where agents can walk, not what is
+     * solid, so chasms, water and low ledges block sight here too, while everything outside
+     * the mesh bounds is see-through (see {@link OccupancyGrid}). Use
+     * {@link #toOccupancyGrid(float, SightBlocker)} when the level knows better.
+     *
+     * @throws IllegalStateException if the mesh is empty
+     */
+    public OccupancyGrid toOccupancyGrid(float cellSize) {
+        return toOccupancyGrid(cellSize, (x, z) -> true);
+    }
+
+    /**
+     * Rasterises the walkable area as {@link #toOccupancyGrid(float)} does, but a cell outside
+     * every poly is blocked only when {@code obstacles} says its centre blocks sight.
+     *
+     * @throws IllegalStateException if the mesh is empty
+     */
+    public OccupancyGrid toOccupancyGrid(float cellSize, SightBlocker obstacles) {
+        Objects.requireNonNull(obstacles, "obstacles");
+        if (polys.isEmpty()) {
+            throw new IllegalStateException("Cannot rasterise an empty NavMesh");
+        }
+        float minX = Float.POSITIVE_INFINITY;
+        float minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY;
+        float maxZ = Float.NEGATIVE_INFINITY;
+        for (NavPoly poly : polys.values()) {
+            for (NavPoint v : poly.vertices()) {
+                minX = Math.min(minX, v.x());
+                minZ = Math.min(minZ, v.z());
+                maxX = Math.max(maxX, v.x());
+                maxZ = Math.max(maxZ, v.z());
+            }
+        }
+        int cols = Math.max(1, (int) Math.ceil((maxX - minX) / cellSize));
+        int rows = Math.max(1, (int) Math.ceil((maxZ - minZ) / cellSize));
+        OccupancyGrid grid = new OccupancyGrid(cols, rows, cellSize, minX, minZ);
+        boolean[] open = new boolean[cols * rows];
+        for (NavPoly poly : polys.values()) {
+            float pMinX = Float.POSITIVE_INFINITY;
+            float pMinZ = Float.POSITIVE_INFINITY;
+            float pMaxX = Float.NEGATIVE_INFINITY;
+            float pMaxZ = Float.NEGATIVE_INFINITY;
+            for (NavPoint v : poly.vertices()) {
+                pMinX = Math.min(pMinX, v.x());
+                pMinZ = Math.min(pMinZ, v.z());
+                pMaxX = Math.max(pMaxX, v.x());
+                pMaxZ = Math.max(pMaxZ, v.z());
+            }
+            int c0 = Math.max(0, grid.colOf(pMinX));
+            int c1 = Math.min(cols - 1, grid.colOf(pMaxX));
+            int r0 = Math.max(0, grid.rowOf(pMinZ));
+            int r1 = Math.min(rows - 1, grid.rowOf(pMaxZ));
+            for (int row = r0; row <= r1; row++) {
+                for (int col = c0; col <= c1; col++) {
+                    float cx = minX + (col + 0.5f) * cellSize;
+                    float cz = minZ + (row + 0.5f) * cellSize;
+                    if (!open[row * cols + col] && containsXZ(poly, cx, cz)) {
+                        open[row * cols + col] = true;
+                    }
+                }
+            }
+        }
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (!open[row * cols + col]
+                        && obstacles.blocksSight(minX + (col + 0.5f) * cellSize, minZ + (row + 0.5f) * cellSize)) {
+                    grid.setBlocked(col, row, true);
+                }
+            }
+        }
+        return grid;
+    }
+
+    /** Convex point-in-polygon on XZ, accepting either winding; edges count as inside. */
+    private static boolean containsXZ(NavPoly poly, float x, float z) {
+        List<NavPoint> verts = poly.vertices();
+        int sign = 0;
+        for (int i = 0; i < verts.size(); i++) {
+            NavPoint a = verts.get(i);
+            NavPoint b = verts.get((i + 1) % verts.size());
+            float cross = (b.x() - a.x()) * (z - a.z()) - (b.z() - a.z()) * (x - a.x());
+            if (cross != 0f) {
+                int s = cross > 0f ? 1 : -1;
+                if (sign != 0 && s != sign) {
+                    return false;
+                }
+                sign = s;
+            }
+        }
+        return true;
+    }
 }
@@ -5,6 +5,8 @@ import org.dynamisengine.ai.core.EntityState;
 import org.dynamisengine.ai.core.Location;
 import org.dynamisengine.ai.core.DefaultWorldStateStore;
 import org.dynamisengine.ai.core.SteeringOutput;
+import org.dynamisengine.ai.perception.LineOfSight;
+import org.dynamisengine.ai.perception.OccupancyGrid;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -356,6 +358,60 @@ class NavigationSystemTest {
         assertEquals(5L, store.getCurrentTick());
     }
 
+    // ── Occupancy ───────────────────────────────────────────────────────────
+
+    @Test
+    void gridMeshRasterisesFullyOpen() {
+        OccupancyGrid grid = mesh.toOccupancyGrid(2f);
+
+        assertEquals(8, grid.cols());
+        assertEquals(8, grid.rows());
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                assertFalse(grid.isBlocked(col, row));
+            }
+        }
+    }
+
+    @Test
+    void gapsBetweenPolysAreBlocked() {
+        // Two 4x4 rooms with a 2m wall-gap between them along X.
+        NavMesh rooms = new NavMeshBuilder()
+            .addPoly(List.of(NavPoint.of(0, 0, 0), NavPoint.of(4, 0, 0),
+                NavPoint.of(4, 0, 4), NavPoint.of(0, 0, 4)), List.of(), 1f, 0)
+            .addPoly(List.of(NavPoint.of(6, 0, 0), NavPoint.of(10, 0, 0),
+                NavPoint.of(10, 0, 4), NavPoint.of(6, 0, 4)), List.of(), 1f, 0)
+            .build(1);
+
+        OccupancyGrid grid = rooms.toOccupancyGrid(1f);
+        LineOfSight sight = new LineOfSight(grid);
+
+        assertTrue(grid.isBlocked(4, 2));
+        assertTrue(grid.isBlocked(5, 2));
+        assertFalse(grid.isBlocked(3, 2));
+        assertFalse(sight.visible(1f, 2f, 8f, 2f));
+        assertTrue(sight.visible(1f, 1f, 3f, 3f));
+    }
+
+    @Test
+    void nonWalkableGapStaysVisibleWhenObstaclesSaySo() {
+        // Two 4x4 ledges either side of a 2m chasm: not walkable, but nothing in the way.
+        NavMesh ledges = new NavMeshBuilder()
+            .addPoly(List.of(NavPoint.of(0, 0, 0), NavPoint.of(4, 0, 0),
+                NavPoint.of(4, 0, 4), NavPoint.of(0, 0, 4)), List.of(), 1f, 0)
+            .addPoly(List.of(NavPoint.of(6, 0, 0), NavPoint.of(10, 0, 0),
+                NavPoint.of(10, 0, 4), NavPoint.of(6, 0, 4)), List.of(), 1f, 0)
+            .build(1);
+
+        OccupancyGrid grid = ledges.toOccupancyGrid(1f, (x, z) -> x < 4f || x > 6f);
+        LineOfSight sight = new LineOfSight(grid);
+
+        assertFalse(grid.isBlocked(4, 2));
+        assertFalse(grid.isBlocked(5, 2));
+        assertTrue(sight.visible(1f, 2f, 8f, 2f));
+        assertFalse(new LineOfSight(ledges.toOccupancyGrid(1f)).visible(1f, 2f, 8f, 2f));
+    }
+
     private static Object fakeSnapshot(String lod, FakeAgent... agents) {
         return new FakeSnapshot(Map.of("g", new FakeGroup(lod, List.of(agents))));
     }
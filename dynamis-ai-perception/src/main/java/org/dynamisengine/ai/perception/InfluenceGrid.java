@@ -5,20 +5,85 @@ import jdk.incubator.vector.VectorOperators;
 import jdk.incubator.vector.VectorSpecies;
 import org.dynamisengine.ai.core.Location;
 
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Objects;
-
-/** One influence layer stored as a flat grid with SIMD-accelerated bulk operations. */
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * One influence layer stored as a flat grid with SIMD-accelerated bulk operations.
+ *
+ * The grid is divided into {@value #TILE_SIZE}x{@value #TILE_SIZE} tiles, each with an upper
+ * bound on the magnitude of its cells. A tile whose bound is zero is dormant: every cell in
+ * it is zero, so {@link #decayAll} skips it and {@link #propagate} skips it unless a
+ * neighbouring tile is awake. Stamping or setting a value wakes the tiles it touches, and
+ * propagation wakes their neighbours as influence spreads. Once decay brings every cell of a
+ * tile below {@link #DORMANT_EPSILON} the tile is zeroed and goes back to sleep. Grids whose
+ * range excludes zero have no dormant state and always process every tile.
+ *
+ * Propagation ping-pongs between the live buffer and a back buffer, so it never copies or
+ * allocates. Snapshots share the live buffer through {@link #pin()} instead of copying it;
+ * the next write to a pinned buffer first moves the grid onto a fresh one, taking a buffer
+ * released by an earlier snapshot when there is one and allocating only when every spare is
+ * still held.
+ */
 public final class InfluenceGrid {
 
+    static final int TILE_SIZE = 16;
+
+    /** Tiles decayed entirely below this magnitude are zeroed and put to sleep. */
+    static final float DORMANT_EPSILON = 1e-5f;
+
     private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
 
+    /** Radial kernels are cached at this fraction of a cell. */
+    static final int KERNEL_STEPS_PER_CELL = 8;
+
+    /** Widest kernel cached, in cells from the centre; wider stamps are evaluated in place. */
+    private static final int MAX_KERNEL_REACH = 32;
+
+    private static final Map<Integer, float[]> KERNELS = new ConcurrentHashMap<>();
+
+    /** Released snapshot buffers kept for reuse; more than two are never needed at once. */
+    private static final int MAX_SPARE_BUFFERS = 2;
+
+    /** Work over the tile rows {@code [fromTileRow, toTileRow)}. */
+    private interface TileRowTask {
+        void run(int fromTileRow, int toTileRow);
+    }
+
     private final int width;
     private final int height;
     private final float cellSizeMetres;
     private final float minValue;
     private final float maxValue;
-    private final float[] cells;
+    /** Live values. Replaced, never written, while a snapshot has it pinned. */
+    private float[] cells;
+    /** Propagation target, swapped with {@link #cells} after every pass; never pinned. */
+    private float[] back;
+    /** Tiles of {@link #back} that may hold leftover non-zero values. */
+    private boolean[] backStale;
+    /** Tiles that were awake going into the current propagation pass. */
+    private boolean[] awakeBefore;
+    private final Map<float[], Integer> pins = new IdentityHashMap<>();
+    private final Deque<float[]> spares = new ArrayDeque<>();
+    private volatile boolean cellsPinned;
+    private final int tilesX;
+    private final int tilesZ;
+    private final boolean sparse;
+    /** Upper bound on {@code |value|} per tile; zero means dormant. */
+    private final float[] tileBound;
+    /** Tiles the current propagation pass visits, reused across ticks. */
+    private final boolean[] processTile;
+    /** Tiles stamped since their bounds were last refreshed, within [touchedMin, touchedMax]. */
+    private final boolean[] touchedTile;
+    private int touchedMin = Integer.MAX_VALUE;
+    private int touchedMax = -1;
 
     public InfluenceGrid(int width, int height, float cellSizeMetres) {
         this(width, height, cellSizeMetres, 0f, 1f);
@@ -40,13 +105,27 @@ public final class InfluenceGrid {
         this.minValue = minValue;
         this.maxValue = maxValue;
         this.cells = new float[width * height];
+        this.tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+        this.tilesZ = (height + TILE_SIZE - 1) / TILE_SIZE;
+        this.sparse = minValue <= 0f && maxValue >= 0f;
+        this.tileBound = new float[tilesX * tilesZ];
+        this.processTile = new boolean[tilesX * tilesZ];
+        this.touchedTile = new boolean[tilesX * tilesZ];
+        if (!sparse) {
+            // Zero lies outside the range, so no tile can ever be dormant.
+            Arrays.fill(tileBound, Float.POSITIVE_INFINITY);
+        }
     }
 
     public void set(int x, int z, float value) {
         if (!inBounds(x, z)) {
             return;
         }
-        cells[index(x, z)] = clamp(value);
+        float clamped = clamp(value);
+        beforeWrite();
+        cells[index(x, z)] = clamped;
+        int tile = (z / TILE_SIZE) * tilesX + x / TILE_SIZE;
+        tileBound[tile] = Math.max(tileBound[tile], Math.abs(clamped));
     }
 
     public float get(int x, int z) {
@@ -92,132 +171,421 @@ public final class InfluenceGrid {
     }
 
     public void decayAll(float decayFactor) {
+        beforeWrite();
         FloatVector factor = FloatVector.broadcast(SPECIES, decayFactor);
         FloatVector min = FloatVector.broadcast(SPECIES, minValue);
         FloatVector max = FloatVector.broadcast(SPECIES, maxValue);
 
-        int i = 0;
-        int upper = SPECIES.loopBound(cells.length);
-        for (; i < upper; i += SPECIES.length()) {
-            FloatVector v = FloatVector.fromArray(SPECIES, cells, i)
-                .mul(factor)
-                .max(min)
-                .min(max);
-            v.intoArray(cells, i);
-        }
-        for (; i < cells.length; i++) {
-            cells[i] = clamp(cells[i] * decayFactor);
+        for (int tile = 0; tile < tileBound.length; tile++) {
+            if (tileBound[tile] == 0f) {
+                continue;
+            }
+            int x0 = (tile % tilesX) * TILE_SIZE;
+            int z0 = (tile / tilesX) * TILE_SIZE;
+            int x1 = Math.min(width, x0 + TILE_SIZE);
+            int z1 = Math.min(height, z0 + TILE_SIZE);
+            int upper = x0 + SPECIES.loopBound(x1 - x0);
+
+            FloatVector peakV = FloatVector.zero(SPECIES);
+            float peak = 0f;
+            for (int z = z0; z < z1; z++) {
+                int rowStart = z * width;
+                int x = x0;
+                for (; x < upper; x += SPECIES.length()) {
+                    FloatVector v = FloatVector.fromArray(SPECIES, cells, rowStart + x)
+                        .mul(factor)
+                        .max(min)
+                        .min(max);
+                    v.intoArray(cells, rowStart + x);
+                    peakV = peakV.max(v.abs());
+                }
+                for (; x < x1; x++) {
+                    float v = clamp(cells[rowStart + x] * decayFactor);
+                    cells[rowStart + x] = v;
+                    peak = Math.max(peak, Math.abs(v));
+                }
+            }
+            peak = Math.max(peak, peakV.reduceLanes(VectorOperators.MAX));
+
+            if (sparse && peak < DORMANT_EPSILON) {
+                for (int z = z0; z < z1; z++) {
+                    Arrays.fill(cells, z * width + x0, z * width + x1, 0f);
+                }
+                peak = 0f;
+            }
+            tileBound[tile] = sparse ? peak : Float.POSITIVE_INFINITY;
         }
     }
 
+    /**
+     * Adds {@code peakValue} at the cell under {@code centre}, falling off linearly to zero at
+     * {@code radius}. The falloff comes from a cached kernel: the source snaps to its cell
+     * centre and the radius is quantized to {@value #KERNEL_STEPS_PER_CELL}ths of a cell.
+     */
     public void addRadialInfluence(Location centre, float radius, float peakValue) {
         Objects.requireNonNull(centre);
-        if (radius <= 0f || peakValue == 0f) {
+        if (!(radius > 0f) || peakValue == 0f) {
             return;
         }
+        beforeWrite();
+        stamp(centre.x(), centre.z(), radius, peakValue);
+        refreshTouchedTiles();
+    }
 
-        int[] c = worldToCell(centre);
-        int centreX = c[0];
-        int centreZ = c[1];
-        int radiusCells = (int) Math.ceil(radius / cellSizeMetres);
-
-        float[] xWorld = new float[SPECIES.length()];
-        float[] zWorld = new float[SPECIES.length()];
+    /**
+     * Batch form of {@link #addRadialInfluence} for the first {@code count} sources, stamped
+     * in order. Equivalent to calling it once per source.
+     */
+    public void addRadialInfluences(float[] xs, float[] zs, float[] radii, float[] peaks, int count) {
+        Objects.checkFromIndexSize(0, count, xs.length);
+        Objects.checkFromIndexSize(0, count, zs.length);
+        Objects.checkFromIndexSize(0, count, radii.length);
+        Objects.checkFromIndexSize(0, count, peaks.length);
+        beforeWrite();
+        for (int i = 0; i < count; i++) {
+            if (radii[i] > 0f && peaks[i] != 0f) {
+                stamp(xs[i], zs[i], radii[i], peaks[i]);
+            }
+        }
+        refreshTouchedTiles();
+    }
 
-        FloatVector centreXv = FloatVector.broadcast(SPECIES, centre.x());
-        FloatVector centreZv = FloatVector.broadcast(SPECIES, centre.z());
-        FloatVector radiusV = FloatVector.broadcast(SPECIES, radius);
-        FloatVector peakV = FloatVector.broadcast(SPECIES, peakValue);
-        FloatVector oneV = FloatVector.broadcast(SPECIES, 1f);
-        FloatVector zeroV = FloatVector.broadcast(SPECIES, 0f);
-        FloatVector minV = FloatVector.broadcast(SPECIES, minValue);
-        FloatVector maxV = FloatVector.broadcast(SPECIES, maxValue);
+    /** Adds one kernel, clipped to the grid, and notes the tiles it touched. */
+    private void stamp(float x, float z, float radius, float peakValue) {
+        int steps = (int) Math.min(Integer.MAX_VALUE, Math.max(1L,
+            Math.round((double) radius / cellSizeMetres * KERNEL_STEPS_PER_CELL)));
+        int reach = (steps + KERNEL_STEPS_PER_CELL - 1) / KERNEL_STEPS_PER_CELL;
+        // Clamped just past the grid so far-off sources cannot overflow the bounds below.
+        long centreX = Math.clamp(Math.round((double) x / cellSizeMetres - 0.5), -reach - 1L, width + (long) reach);
+        long centreZ = Math.clamp(Math.round((double) z / cellSizeMetres - 0.5), -reach - 1L, height + (long) reach);
+        int minX = (int) Math.max(0L, centreX - reach);
+        int maxX = (int) Math.min(width - 1L, centreX + reach);
+        int minZ = (int) Math.max(0L, centreZ - reach);
+        int maxZ = (int) Math.min(height - 1L, centreZ + reach);
+        if (minX > maxX || minZ > maxZ) {
+            return;
+        }
 
-        for (int z = Math.max(0, centreZ - radiusCells); z <= Math.min(height - 1, centreZ + radiusCells); z++) {
-            int minX = Math.max(0, centreX - radiusCells);
-            int maxX = Math.min(width - 1, centreX + radiusCells);
+        if (reach > MAX_KERNEL_REACH) {
+            // Too wide to cache; same falloff, evaluated in place.
+            float radiusCells = (float) steps / KERNEL_STEPS_PER_CELL;
+            for (int cz = minZ; cz <= maxZ; cz++) {
+                for (int cx = minX; cx <= maxX; cx++) {
+                    int idx = index(cx, cz);
+                    cells[idx] = clamp(cells[idx] + falloff(cx - centreX, cz - centreZ, radiusCells) * peakValue);
+                }
+            }
+        } else {
+            float[] kernel = kernel(steps);
+            int size = 2 * reach + 1;
+            int kernelX = (int) (minX - (centreX - reach));
+            FloatVector peakV = FloatVector.broadcast(SPECIES, peakValue);
+            FloatVector minV = FloatVector.broadcast(SPECIES, minValue);
+            FloatVector maxV = FloatVector.broadcast(SPECIES, maxValue);
+            int span = maxX - minX + 1;
+            int upper = SPECIES.loopBound(span);
+            for (int cz = minZ; cz <= maxZ; cz++) {
+                int row = cz * width + minX;
+                int kernelRow = (int) (cz - (centreZ - reach)) * size + kernelX;
+                int i = 0;
+                for (; i < upper; i += SPECIES.length()) {
+                    FloatVector delta = FloatVector.fromArray(SPECIES, kernel, kernelRow + i).mul(peakV);
+                    FloatVector.fromArray(SPECIES, cells, row + i)
+                        .add(delta).max(minV).min(maxV)
+                        .intoArray(cells, row + i);
+                }
+                for (; i < span; i++) {
+                    cells[row + i] = clamp(cells[row + i] + kernel[kernelRow + i] * peakValue);
+                }
+            }
+        }
 
-            int x = minX;
-            int vecMax = maxX - SPECIES.length() + 1;
-            for (; x <= vecMax; x += SPECIES.length()) {
-                for (int lane = 0; lane < SPECIES.length(); lane++) {
-                    xWorld[lane] = ((x + lane) + 0.5f) * cellSizeMetres;
-                    zWorld[lane] = (z + 0.5f) * cellSizeMetres;
+        if (sparse) {
+            for (int tz = minZ / TILE_SIZE; tz <= maxZ / TILE_SIZE; tz++) {
+                for (int tx = minX / TILE_SIZE; tx <= maxX / TILE_SIZE; tx++) {
+                    touchedTile[tz * tilesX + tx] = true;
                 }
+            }
+            touchedMin = Math.min(touchedMin, (minZ / TILE_SIZE) * tilesX);
+            touchedMax = Math.max(touchedMax, (maxZ / TILE_SIZE) * tilesX + tilesX - 1);
+        }
+    }
 
-                FloatVector xV = FloatVector.fromArray(SPECIES, xWorld, 0);
-                FloatVector zV = FloatVector.fromArray(SPECIES, zWorld, 0);
-                FloatVector dxV = xV.sub(centreXv);
-                FloatVector dzV = zV.sub(centreZv);
-                FloatVector distSq = dxV.mul(dxV).add(dzV.mul(dzV));
-                FloatVector dist = distSq.lanewise(VectorOperators.SQRT);
-                FloatVector norm = oneV.sub(dist.div(radiusV));
-                FloatVector falloff = norm.max(zeroV);
-                FloatVector delta = falloff.mul(peakV);
-
-                int idx = index(x, z);
-                FloatVector current = FloatVector.fromArray(SPECIES, cells, idx);
-                current.add(delta).max(minV).min(maxV).intoArray(cells, idx);
+    private void refreshTouchedTiles() {
+        for (int tile = touchedMin; tile <= touchedMax; tile++) {
+            if (touchedTile[tile]) {
+                touchedTile[tile] = false;
+                refreshBound(cells, tile);
             }
+        }
+        touchedMin = Integer.MAX_VALUE;
+        touchedMax = -1;
+    }
 
-            for (; x <= maxX; x++) {
-                Location cellPos = cellCentre(x, z);
-                float dist = centre.distanceTo(cellPos);
-                if (dist > radius) {
-                    continue;
-                }
-                float falloff = 1f - (dist / radius);
-                float delta = peakValue * Math.max(0f, falloff);
-                int idx = index(x, z);
-                cells[idx] = clamp(cells[idx] + delta);
+    /**
+     * Linear falloff kernel spanning {@code steps} kernel steps, shared by every grid: it is
+     * in cell units, so it does not depend on the cell size.
+     */
+    private static float[] kernel(int steps) {
+        float[] kernel = KERNELS.get(steps);
+        if (kernel != null) {
+            return kernel;
+        }
+        int reach = (steps + KERNEL_STEPS_PER_CELL - 1) / KERNEL_STEPS_PER_CELL;
+        int size = 2 * reach + 1;
+        float radiusCells = (float) steps / KERNEL_STEPS_PER_CELL;
+        kernel = new float[size * size];
+        for (int dz = -reach; dz <= reach; dz++) {
+            for (int dx = -reach; dx <= reach; dx++) {
+                kernel[(dz + reach) * size + dx + reach] = falloff(dx, dz, radiusCells);
             }
         }
+        KERNELS.putIfAbsent(steps, kernel);
+        return kernel;
+    }
+
+    private static float falloff(long dx, long dz, float radiusCells) {
+        float dist = (float) Math.sqrt((double) (dx * dx + dz * dz));
+        return Math.max(0f, 1f - dist / radiusCells);
     }
 
     public void propagate(float selfWeight, float neighbourWeight) {
-        float[] prev = Arrays.copyOf(cells, cells.length);
+        propagate(selfWeight, neighbourWeight, 1, null);
+    }
+
+    /**
+     * {@link #propagate(float, float)} split into {@code bands} horizontal bands of tile rows
+     * run on {@code executor}. Every band reads the live buffer, including one halo row of
+     * its neighbours' tiles, and writes only its own tiles into the back buffer, which then
+     * becomes live. Bands never race, and the result is bit-identical to the single-band pass.
+     */
+    void propagate(float selfWeight, float neighbourWeight, int bands, Executor executor) {
+        if (back == null) {
+            back = new float[cells.length];
+            backStale = new boolean[tileBound.length];
+            awakeBefore = new boolean[tileBound.length];
+        }
+        float[] src = cells;
+        float[] dst = back;
+        markTilesToProcess();
+
+        int bandCount = Math.max(1, Math.min(bands, tilesZ));
+        if (bandCount == 1 || executor == null) {
+            propagateTiles(src, dst, 0, tilesZ, selfWeight, neighbourWeight);
+        } else {
+            runBands(bandCount, executor,
+                (from, to) -> propagateTiles(src, dst, from, to, selfWeight, neighbourWeight));
+        }
+        swapBuffers();
+    }
+
+    /**
+     * Shares the live buffer with a snapshot. The grid will not write to it again until every
+     * pin on it is {@link #release released} — by the snapshot's close, or by its cleaner if
+     * the snapshot is collected unclosed.
+     */
+    synchronized float[] pin() {
+        pins.merge(cells, 1, Integer::sum);
+        cellsPinned = true;
+        return cells;
+    }
+
+    /** Drops one pin taken by {@link #pin()}; the last one hands the buffer back for reuse. */
+    synchronized void release(float[] buffer) {
+        Integer count = pins.get(buffer);
+        if (count == null) {
+            throw new IllegalArgumentException("buffer is not pinned");
+        }
+        if (count > 1) {
+            pins.put(buffer, count - 1);
+            return;
+        }
+        pins.remove(buffer);
+        if (buffer == cells) {
+            cellsPinned = false;
+        } else if (spares.size() < MAX_SPARE_BUFFERS) {
+            spares.push(buffer);
+        }
+    }
+
+    /** Moves a pinned live buffer aside so the coming write cannot reach a snapshot. */
+    private void beforeWrite() {
+        if (!cellsPinned) {
+            return;
+        }
+        synchronized (this) {
+            if (pins.containsKey(cells)) {
+                float[] fresh = takeBuffer();
+                System.arraycopy(cells, 0, fresh, 0, cells.length);
+                cells = fresh;
+            }
+            cellsPinned = false;
+        }
+    }
+
+    private synchronized void swapBuffers() {
+        float[] previousCells = cells;
+        cells = back;
+        if (pins.containsKey(previousCells)) {
+            back = takeBuffer();
+            Arrays.fill(backStale, true);
+        } else {
+            back = previousCells;
+            System.arraycopy(awakeBefore, 0, backStale, 0, backStale.length);
+        }
+        cellsPinned = false;
+    }
 
+    private float[] takeBuffer() {
+        float[] spare = spares.poll();
+        return spare != null ? spare : new float[width * height];
+    }
+
+    /** Buffers currently held by snapshots. */
+    synchronized int pinnedBufferCount() {
+        return pins.size();
+    }
+
+    /** Number of tiles that are not dormant. */
+    int activeTileCount() {
+        int count = 0;
+        for (float bound : tileBound) {
+            if (bound != 0f) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void runBands(int bandCount, Executor executor, TileRowTask task) {
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[bandCount];
+        for (int band = 0; band < bandCount; band++) {
+            int fromTileRow = (int) ((long) tilesZ * band / bandCount);
+            int toTileRow = (int) ((long) tilesZ * (band + 1) / bandCount);
+            tasks[band] = CompletableFuture.runAsync(() -> task.run(fromTileRow, toTileRow), executor);
+        }
+        CompletableFuture.allOf(tasks).join();
+    }
+
+    /**
+     * Marks the tiles propagation must visit: every awake tile and its four neighbours.
+     * Any other tile and all the cells it reads are zero, so it would stay zero.
+     */
+    private void markTilesToProcess() {
+        Arrays.fill(processTile, false);
+        for (int tz = 0; tz < tilesZ; tz++) {
+            for (int tx = 0; tx < tilesX; tx++) {
+                int tile = tz * tilesX + tx;
+                awakeBefore[tile] = tileBound[tile] != 0f;
+                if (!awakeBefore[tile]) {
+                    continue;
+                }
+                processTile[tile] = true;
+                if (tx > 0) {
+                    processTile[tile - 1] = true;
+                }
+                if (tx < tilesX - 1) {
+                    processTile[tile + 1] = true;
+                }
+                if (tz > 0) {
+                    processTile[tile - tilesX] = true;
+                }
+                if (tz < tilesZ - 1) {
+                    processTile[tile + tilesX] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Blends the visited tiles in the given tile rows from {@code prev} into {@code next}, and
+     * zeroes any skipped tile of {@code next} left over from an older pass.
+     */
+    private void propagateTiles(float[] prev, float[] next, int fromTileRow, int toTileRow,
+                                float selfWeight, float neighbourWeight) {
         FloatVector selfW = FloatVector.broadcast(SPECIES, selfWeight);
         FloatVector neighbourW = FloatVector.broadcast(SPECIES, neighbourWeight);
         FloatVector minV = FloatVector.broadcast(SPECIES, minValue);
         FloatVector maxV = FloatVector.broadcast(SPECIES, maxValue);
 
-        for (int z = 1; z < height - 1; z++) {
-            int rowStart = z * width;
-            int x = 1;
-            int vecEnd = (width - 1) - SPECIES.length();
-            for (; x <= vecEnd; x += SPECIES.length()) {
-                int idx = rowStart + x;
-                FloatVector self = FloatVector.fromArray(SPECIES, prev, idx);
-                FloatVector left = FloatVector.fromArray(SPECIES, prev, idx - 1);
-                FloatVector right = FloatVector.fromArray(SPECIES, prev, idx + 1);
-                FloatVector up = FloatVector.fromArray(SPECIES, prev, idx - width);
-                FloatVector down = FloatVector.fromArray(SPECIES, prev, idx + width);
-
-                FloatVector blended = self.mul(selfW)
-                    .add(left.add(right).add(up).add(down).mul(neighbourW))
-                    .max(minV)
-                    .min(maxV);
-                blended.intoArray(cells, idx);
-            }
+        for (int tz = fromTileRow; tz < toTileRow; tz++) {
+            for (int tx = 0; tx < tilesX; tx++) {
+                int tile = tz * tilesX + tx;
+                int x0 = tx * TILE_SIZE;
+                int x1 = Math.min(width, x0 + TILE_SIZE);
+                int z0 = tz * TILE_SIZE;
+                int z1 = Math.min(height, z0 + TILE_SIZE);
+                if (!processTile[tile]) {
+                    if (backStale[tile]) {
+                        for (int z = z0; z < z1; z++) {
+                            Arrays.fill(next, z * width + x0, z * width + x1, 0f);
+                        }
+                    }
+                    continue;
+                }
 
-            for (; x < width - 1; x++) {
-                int idx = rowStart + x;
-                float blended = prev[idx] * selfWeight
-                    + (prev[idx - 1] + prev[idx + 1] + prev[idx - width] + prev[idx + width])
-                    * neighbourWeight;
-                cells[idx] = clamp(blended);
+                for (int z = z0; z < z1; z++) {
+                    if (z == 0 || z == height - 1) {
+                        for (int x = x0; x < x1; x++) {
+                            next[index(x, z)] = clamp(edgeBlend(prev, x, z, selfWeight, neighbourWeight));
+                        }
+                        continue;
+                    }
+
+                    int rowStart = z * width;
+                    int x = Math.max(1, x0);
+                    int end = Math.min(x1, width - 1);
+                    int vecEnd = end - SPECIES.length();
+                    for (; x <= vecEnd; x += SPECIES.length()) {
+                        int idx = rowStart + x;
+                        FloatVector self = FloatVector.fromArray(SPECIES, prev, idx);
+                        FloatVector left = FloatVector.fromArray(SPECIES, prev, idx - 1);
+                        FloatVector right = FloatVector.fromArray(SPECIES, prev, idx + 1);
+                        FloatVector up = FloatVector.fromArray(SPECIES, prev, idx - width);
+                        FloatVector down = FloatVector.fromArray(SPECIES, prev, idx + width);
+
+                        FloatVector blended = self.mul(selfW)
+                            .add(left.add(right).add(up).add(down).mul(neighbourW))
+                            .max(minV)
+                            .min(maxV);
+                        blended.intoArray(next, idx);
+                    }
+
+                    for (; x < end; x++) {
+                        int idx = rowStart + x;
+                        float blended = prev[idx] * selfWeight
+                            + (prev[idx - 1] + prev[idx + 1] + prev[idx - width] + prev[idx + width])
+                            * neighbourWeight;
+                        next[idx] = clamp(blended);
+                    }
+
+                    if (x0 == 0) {
+                        next[index(0, z)] = clamp(edgeBlend(prev, 0, z, selfWeight, neighbourWeight));
+                    }
+                    if (x1 == width) {
+                        next[index(width - 1, z)] = clamp(edgeBlend(prev, width - 1, z, selfWeight, neighbourWeight));
+                    }
+                }
+                if (sparse) {
+                    refreshBound(next, tile);
+                }
             }
         }
+    }
 
-        for (int x = 0; x < width; x++) {
-            cells[index(x, 0)] = clamp(edgeBlend(prev, x, 0, selfWeight, neighbourWeight));
-            cells[index(x, height - 1)] = clamp(edgeBlend(prev, x, height - 1, selfWeight, neighbourWeight));
-        }
-        for (int z = 1; z < height - 1; z++) {
-            cells[index(0, z)] = clamp(edgeBlend(prev, 0, z, selfWeight, neighbourWeight));
-            cells[index(width - 1, z)] = clamp(edgeBlend(prev, width - 1, z, selfWeight, neighbourWeight));
+    /** Recomputes a tile's bound exactly from its cells in {@code data}. */
+    private void refreshBound(float[] data, int tile) {
+        int x0 = (tile % tilesX) * TILE_SIZE;
+        int z0 = (tile / tilesX) * TILE_SIZE;
+        int x1 = Math.min(width, x0 + TILE_SIZE);
+        int z1 = Math.min(height, z0 + TILE_SIZE);
+        float peak = 0f;
+        for (int z = z0; z < z1; z++) {
+            for (int i = z * width + x0; i < z * width + x1; i++) {
+                peak = Math.max(peak, Math.abs(data[i]));
+            }
         }
+        tileBound[tile] = peak;
     }
 
     public int width() {
@@ -7,36 +7,100 @@ import org.dynamisengine.ai.core.Location;
 import org.dynamisengine.ai.core.ThreatLevel;
 import org.dynamisengine.ai.core.WorldSnapshot;
 
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Tactical-rate multi-layer influence-map engine.
  * Owns mutable grids and produces immutable snapshots for planning reads.
+ *
+ * Updates run on the calling thread unless parallelism is asked for through
+ * {@link #InfluenceMapEngine(int, int, float, Location, int)}. Then, on large grids,
+ * {@link #update} runs the THREAT, SOUND and TERRITORIAL layers concurrently and splits SOUND
+ * propagation into row bands; call {@link #shutdown()} when done with such an engine. Each
+ * layer still sees its decay, stamps and propagation in the same order as a serial update,
+ * so the results are bit-identical.
  */
 public final class InfluenceMapEngine {
 
+    /** Grids smaller than this update on the calling thread — fan-out would cost more than it saves. */
+    static final int PARALLEL_MIN_CELLS = 128 * 128;
+
+    /** Fewest rows worth handing to one propagation band. */
+    private static final int MIN_BAND_ROWS = 32;
+
+    /** Radial stamps for one layer, in the primitive form {@link InfluenceGrid#addRadialInfluences} takes. */
+    private static final class StampBatch {
+        float[] xs = new float[16];
+        float[] zs = new float[16];
+        float[] radii = new float[16];
+        float[] peaks = new float[16];
+        int size;
+
+        void add(Location centre, float radius, float peak) {
+            if (size == xs.length) {
+                xs = Arrays.copyOf(xs, size * 2);
+                zs = Arrays.copyOf(zs, size * 2);
+                radii = Arrays.copyOf(radii, size * 2);
+                peaks = Arrays.copyOf(peaks, size * 2);
+            }
+            xs[size] = centre.x();
+            zs[size] = centre.z();
+            radii[size] = radius;
+            peaks[size] = peak;
+            size++;
+        }
+    }
+
     private final int gridWidth;
     private final int gridHeight;
     private final float cellSizeMetres;
     private final Location gridOrigin;
     private final EnumMap<InfluenceLayer, InfluenceGrid> grids = new EnumMap<>(InfluenceLayer.class);
+    private final int propagationBands;
+    private final ExecutorService executor;
+    private long epoch = 0L;
 
+    /** Serial engine — every update runs on the calling thread. */
     public InfluenceMapEngine(int gridWidth, int gridHeight,
                               float cellSizeMetres, Location gridOrigin) {
+        this(gridWidth, gridHeight, cellSizeMetres, gridOrigin, 1);
+    }
+
+    /**
+     * @param parallelism most threads one update may use, e.g.
+     *                    {@code Runtime.getRuntime().availableProcessors()}; {@code 1} keeps
+     *                    every update on the calling thread. A parallel engine owns worker
+     *                    threads until {@link #shutdown()}.
+     */
+    public InfluenceMapEngine(int gridWidth, int gridHeight,
+                              float cellSizeMetres, Location gridOrigin, int parallelism) {
         if (gridWidth <= 0 || gridHeight <= 0) {
             throw new IllegalArgumentException("grid dimensions must be > 0");
         }
         if (cellSizeMetres <= 0f) {
             throw new IllegalArgumentException("cellSizeMetres must be > 0");
         }
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be > 0");
+        }
         this.gridWidth = gridWidth;
         this.gridHeight = gridHeight;
         this.cellSizeMetres = cellSizeMetres;
         this.gridOrigin = Objects.requireNonNull(gridOrigin);
 
+        boolean parallel = parallelism > 1 && (long) gridWidth * gridHeight >= PARALLEL_MIN_CELLS;
+        this.propagationBands = parallel ? Math.max(1, Math.min(parallelism, gridHeight / MIN_BAND_ROWS)) : 1;
+        this.executor = parallel
+            ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("influence-", 0).factory())
+            : null;
+
         grids.put(InfluenceLayer.THREAT, new InfluenceGrid(gridWidth, gridHeight, cellSizeMetres));
         grids.put(InfluenceLayer.COVER, new InfluenceGrid(gridWidth, gridHeight, cellSizeMetres));
         grids.put(InfluenceLayer.SOUND, new InfluenceGrid(gridWidth, gridHeight, cellSizeMetres));
@@ -49,47 +113,85 @@ public final class InfluenceMapEngine {
         Objects.requireNonNull(snapshot);
         List<SoundEvent> sounds = recentSoundEvents == null ? List.of() : recentSoundEvents;
 
-        InfluenceGrid threat = grids.get(InfluenceLayer.THREAT);
-        InfluenceGrid sound = grids.get(InfluenceLayer.SOUND);
-        InfluenceGrid territorial = grids.get(InfluenceLayer.TERRITORIAL);
-
-        threat.decayAll(0.85f);
-        sound.decayAll(0.7f);
-        territorial.decayAll(0.95f);
-
+        // Resolve every stamp up front so the per-layer work touches nothing shared.
+        StampBatch threatStamps = new StampBatch();
+        StampBatch territorialStamps = new StampBatch();
         for (Map.Entry<EntityId, EntityState> entry : toJavaMap(snapshot.entities()).entrySet()) {
             EntityState state = entry.getValue();
             Location localPos = toLocal(state.position());
 
             ThreatLevel level = threatOf(state);
             if (level == ThreatLevel.CRITICAL) {
-                threat.addRadialInfluence(localPos, 20f, 1.0f);
+                threatStamps.add(localPos, 20f, 1.0f);
             } else if (level == ThreatLevel.HIGH) {
-                threat.addRadialInfluence(localPos, 20f, 0.6f);
+                threatStamps.add(localPos, 20f, 0.6f);
             }
 
             float territorialPeak = territorialPeak(state, level);
             if (territorialPeak != 0f) {
-                territorial.addRadialInfluence(localPos, 10f, territorialPeak);
+                territorialStamps.add(localPos, 10f, territorialPeak);
             }
         }
 
+        StampBatch soundStamps = new StampBatch();
         for (SoundEvent event : sounds) {
             float intensity = clamp01(event.intensity());
             if (intensity <= 0f) {
                 continue;
             }
-            sound.addRadialInfluence(toLocal(event.position()), intensity * 30f, intensity);
+            soundStamps.add(toLocal(event.position()), intensity * 30f, intensity);
         }
-        sound.propagate(0.6f, 0.1f);
+
+        InfluenceGrid threat = grids.get(InfluenceLayer.THREAT);
+        InfluenceGrid sound = grids.get(InfluenceLayer.SOUND);
+        InfluenceGrid territorial = grids.get(InfluenceLayer.TERRITORIAL);
+
+        Runnable threatUpdate = () -> decayAndStamp(threat, 0.85f, threatStamps);
+        Runnable territorialUpdate = () -> decayAndStamp(territorial, 0.95f, territorialStamps);
+        Runnable soundUpdate = () -> {
+            decayAndStamp(sound, 0.7f, soundStamps);
+            sound.propagate(0.6f, 0.1f, propagationBands, executor);
+        };
+
+        epoch++;
+        if (executor == null) {
+            threatUpdate.run();
+            territorialUpdate.run();
+            soundUpdate.run();
+            return;
+        }
+        // SOUND runs here, since its propagation fans out again on its own.
+        CompletableFuture<Void> threatDone = CompletableFuture.runAsync(threatUpdate, executor);
+        CompletableFuture<Void> territorialDone = CompletableFuture.runAsync(territorialUpdate, executor);
+        soundUpdate.run();
+        CompletableFuture.allOf(threatDone, territorialDone).join();
+    }
+
+    private static void decayAndStamp(InfluenceGrid grid, float decayFactor, StampBatch stamps) {
+        grid.decayAll(decayFactor);
+        grid.addRadialInfluences(stamps.xs, stamps.zs, stamps.radii, stamps.peaks, stamps.size);
     }
 
+    /**
+     * Read-only view of the current layers. Shares the grid buffers instead of copying them;
+     * close it once planning is done so the buffers can be reused. An unclosed snapshot holds
+     * its buffers until it is garbage collected.
+     */
     public InfluenceMapSnapshot snapshot(long tick) {
-        EnumMap<InfluenceLayer, float[]> copied = new EnumMap<>(InfluenceLayer.class);
+        EnumMap<InfluenceLayer, float[]> pinned = new EnumMap<>(InfluenceLayer.class);
         for (InfluenceLayer layer : InfluenceLayer.values()) {
-            copied.put(layer, grid(layer).rawSnapshot());
+            pinned.put(layer, grid(layer).pin());
         }
-        return new InfluenceMapSnapshot(copied, gridWidth, gridHeight, cellSizeMetres, tick);
+        return new InfluenceMapSnapshot(pinned, gridWidth, gridHeight, cellSizeMetres, tick, epoch, () -> {
+            for (Map.Entry<InfluenceLayer, float[]> entry : pinned.entrySet()) {
+                grids.get(entry.getKey()).release(entry.getValue());
+            }
+        });
+    }
+
+    /** Counts engine-driven changes to the layers; carried by every snapshot. */
+    public long epoch() {
+        return epoch;
     }
 
     public InfluenceGrid grid(InfluenceLayer layer) {
@@ -101,13 +203,27 @@ public final class InfluenceMapEngine {
     }
 
     public void addCoverAt(Location position, float quality) {
+        epoch++;
         grids.get(InfluenceLayer.COVER).addRadialInfluence(toLocal(position), cellSizeMetres, clamp01(quality));
     }
 
     public void addMovementCost(Location position, float cost) {
+        epoch++;
         grids.get(InfluenceLayer.MOVEMENT).addRadialInfluence(toLocal(position), cellSizeMetres, clamp01(cost));
     }
 
+    /** Whether updates fan out to worker threads. */
+    boolean isParallel() {
+        return executor != null;
+    }
+
+    /** Stops the update workers; a serial engine has none. */
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private static Map<EntityId, EntityState> toJavaMap(HashMap<EntityId, EntityState> entities) {
         return entities.toJavaMap();
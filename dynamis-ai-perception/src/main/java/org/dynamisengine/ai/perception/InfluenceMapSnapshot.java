@@ -1,21 +1,75 @@
 package org.dynamisengine.ai.perception;
 
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
 import org.dynamisengine.ai.core.Location;
 
+import java.lang.ref.Cleaner;
 import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
-/** Immutable influence-map view consumed by planning systems. */
-public record InfluenceMapSnapshot(
-    Map<InfluenceLayer, float[]> layers,
-    int width,
-    int height,
-    float cellSizeMetres,
-    long tick
-) {
-    public InfluenceMapSnapshot {
+/**
+ * Immutable influence-map view consumed by planning systems.
+ *
+ * Snapshots from {@link InfluenceMapEngine#snapshot} share the engine's layer buffers rather
+ * than copying them; the engine moves on to other buffers before its next write. {@link #epoch}
+ * identifies the engine state captured, so two snapshots with the same epoch hold the same
+ * data. Close a snapshot once planning is done: that hands its buffers back to the engine for
+ * reuse. Until then every write the engine makes to a layer first moves it onto another buffer,
+ * allocating one when no released buffer is spare. A snapshot dropped without closing releases
+ * its buffers only once it is garbage collected, so the engine keeps allocating meanwhile.
+ * A closed snapshot must not be read.
+ *
+ * Region sums and extremum searches go through an {@link InfluencePyramid}, built for a layer
+ * on its first such query and shared by every later one: sums are O(1), and searches only
+ * visit pyramid blocks that overlap the query and could hold a better cell.
+ */
+public final class InfluenceMapSnapshot implements AutoCloseable {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final InfluenceLayer[] LAYERS = InfluenceLayer.values();
+
+    /** Releases the buffers of snapshots dropped without being closed. */
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final Map<InfluenceLayer, float[]> layers;
+    private final int width;
+    private final int height;
+    private final float cellSizeMetres;
+    private final long tick;
+    private final long epoch;
+    private final Cleaner.Cleanable release;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final AtomicReferenceArray<InfluencePyramid> pyramids =
+        new AtomicReferenceArray<>(InfluenceLayer.values().length);
+
+    /** Snapshot over copies of {@code layers}; missing layers read as zero. */
+    public InfluenceMapSnapshot(Map<InfluenceLayer, float[]> layers, int width, int height,
+                                float cellSizeMetres, long tick) {
+        this(copyOf(layers, width, height, cellSizeMetres), width, height, cellSizeMetres, tick, 0L, null);
+    }
+
+    /**
+     * Snapshot sharing {@code layers}, which must hold every layer. {@code release} runs once,
+     * on close or after the snapshot becomes unreachable, and must not reference the snapshot.
+     */
+    InfluenceMapSnapshot(EnumMap<InfluenceLayer, float[]> layers, int width, int height,
+                         float cellSizeMetres, long tick, long epoch, Runnable release) {
+        this.layers = layers;
+        this.width = width;
+        this.height = height;
+        this.cellSizeMetres = cellSizeMetres;
+        this.tick = tick;
+        this.epoch = epoch;
+        this.release = release == null ? null : CLEANER.register(this, release);
+    }
+
+    private static EnumMap<InfluenceLayer, float[]> copyOf(Map<InfluenceLayer, float[]> layers,
+                                                         int width, int height, float cellSizeMetres) {
         Objects.requireNonNull(layers);
         if (width <= 0 || height <= 0) {
             throw new IllegalArgumentException("width and height must be > 0");
@@ -35,12 +89,65 @@ public record InfluenceMapSnapshot(
             }
             copy.put(layer, Arrays.copyOf(src, src.length));
         }
-        layers = Map.copyOf(copy);
+        return copy;
+    }
+
+    /**
+     * Copies of every layer — allocates and copies width × height floats per layer on each
+     * call. Prefer the query methods, which read the shared buffers in place.
+     */
+    public Map<InfluenceLayer, float[]> layers() {
+        ensureOpen();
+        EnumMap<InfluenceLayer, float[]> copy = new EnumMap<>(InfluenceLayer.class);
+        for (Map.Entry<InfluenceLayer, float[]> entry : layers.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().clone());
+        }
+        return Map.copyOf(copy);
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int height() {
+        return height;
+    }
+
+    public float cellSizeMetres() {
+        return cellSizeMetres;
+    }
+
+    public long tick() {
+        return tick;
+    }
+
+    /** Engine state this snapshot captured; 0 for snapshots built from arrays. */
+    public long epoch() {
+        return epoch;
+    }
+
+    /** Releases the shared buffers; idempotent. */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true) && release != null) {
+            release.clean();
+        }
+    }
+
+    /**
+     * Runs the release action as the cleaner does once an unclosed snapshot is unreachable,
+     * without marking it closed — lets tests check that path without waiting on GC.
+     */
+    void runCleanerAction() {
+        if (release != null) {
+            release.clean();
+        }
     }
 
     public float sample(InfluenceLayer layer, Location worldPos) {
         Objects.requireNonNull(layer);
         Objects.requireNonNull(worldPos);
+        ensureOpen();
         float[] data = layers.get(layer);
         if (data == null || data.length == 0) {
             return 0f;
@@ -67,29 +174,129 @@ public record InfluenceMapSnapshot(
         return lerp(i0, i1, tz);
     }
 
+    /**
+     * Scores positions against several layers at once: {@code out[i]} becomes the sum over
+     * layers of {@code layerWeights[layer.ordinal()] * sample(layer, (xs[i], zs[i]))}, added in
+     * layer order and matching {@link #sample} exactly. Layers with weight 0 are skipped.
+     *
+     * The bilinear cell indices and fractions are worked out once per position and shared by
+     * every layer; the four corner reads are vector gathers, a lane per position.
+     */
+    public void sampleWeighted(float[] xs, float[] zs, int count, float[] layerWeights, float[] out) {
+        Objects.checkFromIndexSize(0, count, xs.length);
+        Objects.checkFromIndexSize(0, count, zs.length);
+        Objects.checkFromIndexSize(0, count, out.length);
+        if (layerWeights.length != LAYERS.length) {
+            throw new IllegalArgumentException(
+                "layerWeights needs one weight per layer, got " + layerWeights.length);
+        }
+        ensureOpen();
+
+        int lanes = SPECIES.length();
+        int[] i00 = new int[lanes];
+        int[] i10 = new int[lanes];
+        int[] i01 = new int[lanes];
+        int[] i11 = new int[lanes];
+        float[] txs = new float[lanes];
+        float[] tzs = new float[lanes];
+
+        int upper = SPECIES.loopBound(count);
+        int i = 0;
+        for (; i < upper; i += lanes) {
+            for (int lane = 0; lane < lanes; lane++) {
+                float fx = (xs[i + lane] / cellSizeMetres) - 0.5f;
+                float fz = (zs[i + lane] / cellSizeMetres) - 0.5f;
+                int x0 = clampIndex((int) Math.floor(fx), width);
+                int z0 = clampIndex((int) Math.floor(fz), height);
+                int x1 = clampIndex(x0 + 1, width);
+                int z1 = clampIndex(z0 + 1, height);
+                i00[lane] = z0 * width + x0;
+                i10[lane] = z0 * width + x1;
+                i01[lane] = z1 * width + x0;
+                i11[lane] = z1 * width + x1;
+                txs[lane] = clamp01(fx - x0);
+                tzs[lane] = clamp01(fz - z0);
+            }
+            FloatVector tx = FloatVector.fromArray(SPECIES, txs, 0);
+            FloatVector tz = FloatVector.fromArray(SPECIES, tzs, 0);
+            FloatVector score = FloatVector.zero(SPECIES);
+            for (InfluenceLayer layer : LAYERS) {
+                float weight = layerWeights[layer.ordinal()];
+                if (weight == 0f) {
+                    continue;
+                }
+                float[] data = layers.get(layer);
+                FloatVector v00 = FloatVector.fromArray(SPECIES, data, 0, i00, 0);
+                FloatVector v10 = FloatVector.fromArray(SPECIES, data, 0, i10, 0);
+                FloatVector v01 = FloatVector.fromArray(SPECIES, data, 0, i01, 0);
+                FloatVector v11 = FloatVector.fromArray(SPECIES, data, 0, i11, 0);
+                FloatVector top = v10.sub(v00).mul(tx).add(v00);
+                FloatVector bottom = v11.sub(v01).mul(tx).add(v01);
+                FloatVector value = bottom.sub(top).mul(tz).add(top);
+                score = score.add(value.mul(weight));
+            }
+            score.intoArray(out, i);
+        }
+        for (; i < count; i++) {
+            Location position = new Location(xs[i], 0f, zs[i]);
+            float score = 0f;
+            for (InfluenceLayer layer : LAYERS) {
+                float weight = layerWeights[layer.ordinal()];
+                if (weight != 0f) {
+                    score += sample(layer, position) * weight;
+                }
+            }
+            out[i] = score;
+        }
+    }
+
     public Location highestCell(InfluenceLayer layer) {
         Objects.requireNonNull(layer);
+        ensureOpen();
         float[] data = layers.get(layer);
         if (data == null || data.length == 0) {
             return new Location(0f, 0f, 0f);
         }
-
-        int bestIdx = 0;
-        float best = Float.NEGATIVE_INFINITY;
-        for (int i = 0; i < data.length; i++) {
-            if (data[i] > best) {
-                best = data[i];
-                bestIdx = i;
-            }
-        }
-        int x = bestIdx % width;
-        int z = bestIdx / width;
-        return new Location((x + 0.5f) * cellSizeMetres, 0f, (z + 0.5f) * cellSizeMetres);
+        return cellCentre(pyramid(layer).highestIndex());
     }
 
+    /**
+     * Centre of the lowest cell whose centre lies within {@code radiusMetres} of {@code centre}.
+     * Falls back to the cell under {@code centre} unless some cell in range is strictly lower.
+     */
     public Location lowestCellNear(InfluenceLayer layer, Location centre, float radiusMetres) {
+        return extremeCellNear(layer, centre, radiusMetres, false);
+    }
+
+    /** Counterpart of {@link #lowestCellNear} for the highest cell in range. */
+    public Location highestCellNear(InfluenceLayer layer, Location centre, float radiusMetres) {
+        return extremeCellNear(layer, centre, radiusMetres, true);
+    }
+
+    /** Sum of the layer over the inclusive cell rectangle, clipped to the grid. */
+    public float regionSum(InfluenceLayer layer, int minX, int minZ, int maxX, int maxZ) {
+        Objects.requireNonNull(layer);
+        ensureOpen();
+        return (float) pyramid(layer).regionSum(minX, minZ, maxX, maxZ);
+    }
+
+    /** Sum of the layer over the cells whose centres lie in the world-space box. */
+    public float regionSum(InfluenceLayer layer, Location corner, Location oppositeCorner) {
+        Objects.requireNonNull(corner);
+        Objects.requireNonNull(oppositeCorner);
+        float minX = Math.min(corner.x(), oppositeCorner.x());
+        float maxX = Math.max(corner.x(), oppositeCorner.x());
+        float minZ = Math.min(corner.z(), oppositeCorner.z());
+        float maxZ = Math.max(corner.z(), oppositeCorner.z());
+        return regionSum(layer,
+            (int) Math.ceil(minX / cellSizeMetres - 0.5f), (int) Math.ceil(minZ / cellSizeMetres - 0.5f),
+            (int) Math.floor(maxX / cellSizeMetres - 0.5f), (int) Math.floor(maxZ / cellSizeMetres - 0.5f));
+    }
+
+    private Location extremeCellNear(InfluenceLayer layer, Location centre, float radiusMetres, boolean highest) {
         Objects.requireNonNull(layer);
         Objects.requireNonNull(centre);
+        ensureOpen();
 
         float[] data = layers.get(layer);
         if (data == null || data.length == 0) {
@@ -98,31 +305,36 @@ public record InfluenceMapSnapshot(
 
         int centreX = clampIndex(Math.round((centre.x() / cellSizeMetres) - 0.5f), width);
         int centreZ = clampIndex(Math.round((centre.z() / cellSizeMetres) - 0.5f), height);
-
         int bestIdx = centreZ * width + centreX;
-        float best = data[bestIdx];
-
-        float radiusSq = radiusMetres * radiusMetres;
-        for (int z = 0; z < height; z++) {
-            for (int x = 0; x < width; x++) {
-                float cx = (x + 0.5f) * cellSizeMetres;
-                float cz = (z + 0.5f) * cellSizeMetres;
-                float dx = cx - centre.x();
-                float dz = cz - centre.z();
-                if ((dx * dx + dz * dz) > radiusSq) {
-                    continue;
-                }
-                float value = data[z * width + x];
-                if (value < best) {
-                    best = value;
-                    bestIdx = z * width + x;
-                }
-            }
+
+        int found = pyramid(layer).extremeInDisc(highest, centre.x(), centre.z(),
+            radiusMetres * radiusMetres, cellSizeMetres);
+        if (found >= 0 && (highest ? data[found] > data[bestIdx] : data[found] < data[bestIdx])) {
+            bestIdx = found;
         }
+        return cellCentre(bestIdx);
+    }
+
+    private InfluencePyramid pyramid(InfluenceLayer layer) {
+        InfluencePyramid pyramid = pyramids.get(layer.ordinal());
+        if (pyramid == null) {
+            // Racing readers may both build; either result is identical.
+            pyramids.compareAndSet(layer.ordinal(), null, InfluencePyramid.of(layers.get(layer), width, height));
+            pyramid = pyramids.get(layer.ordinal());
+        }
+        return pyramid;
+    }
 
-        int bx = bestIdx % width;
-        int bz = bestIdx / width;
-        return new Location((bx + 0.5f) * cellSizeMetres, 0f, (bz + 0.5f) * cellSizeMetres);
+    private Location cellCentre(int index) {
+        int x = index % width;
+        int z = index / width;
+        return new Location((x + 0.5f) * cellSizeMetres, 0f, (z + 0.5f) * cellSizeMetres);
+    }
+
+    private void ensureOpen() {
+        if (closed.get()) {
+            throw new IllegalStateException("InfluenceMapSnapshot for tick " + tick + " is closed");
+        }
     }
 
     private static float valueAt(float[] data, int x, int z, int width, int height) {
@@ -0,0 +1,218 @@
+package org.dynamisengine.ai.perception;
+
+/**
+ * Query structures over one snapshot layer: a summed-area table and min/max mip pyramids.
+ *
+ * The summed-area table answers rectangle sums in O(1). Each pyramid level halves the
+ * resolution of the one below, keeping the min or max of each 2x2 block, so an extremum
+ * search descends from the root and skips every block that cannot beat the best cell found
+ * so far or lies outside the query disc. Results match a row-major scan exactly, including
+ * which cell wins a tie: the one with the lowest index.
+ */
+final class InfluencePyramid {
+
+    private final float[] data;
+    private final int width;
+    private final int height;
+    /** Level 0 is {@link #data}; the last level is a single cell. */
+    private final float[][] mins;
+    private final float[][] maxs;
+    private final int[] levelWidths;
+    private final int[] levelHeights;
+    /** Summed-area table with a zero first row and column; {@code (width + 1) x (height + 1)}. */
+    private final double[] sums;
+    private final int highestIndex;
+
+    private InfluencePyramid(float[] data, int width, int height) {
+        this.data = data;
+        this.width = width;
+        this.height = height;
+
+        int levels = 1;
+        while ((width - 1) >> (levels - 1) > 0 || (height - 1) >> (levels - 1) > 0) {
+            levels++;
+        }
+        mins = new float[levels][];
+        maxs = new float[levels][];
+        levelWidths = new int[levels];
+        levelHeights = new int[levels];
+        mins[0] = data;
+        maxs[0] = data;
+        levelWidths[0] = width;
+        levelHeights[0] = height;
+        for (int level = 1; level < levels; level++) {
+            int belowW = levelWidths[level - 1];
+            int belowH = levelHeights[level - 1];
+            int w = (belowW + 1) / 2;
+            int h = (belowH + 1) / 2;
+            float[] levelMin = new float[w * h];
+            float[] levelMax = new float[w * h];
+            for (int z = 0; z < h; z++) {
+                for (int x = 0; x < w; x++) {
+                    float lo = Float.POSITIVE_INFINITY;
+                    float hi = Float.NEGATIVE_INFINITY;
+                    for (int bz = 2 * z; bz <= Math.min(2 * z + 1, belowH - 1); bz++) {
+                        for (int bx = 2 * x; bx <= Math.min(2 * x + 1, belowW - 1); bx++) {
+                            lo = Math.min(lo, mins[level - 1][bz * belowW + bx]);
+                            hi = Math.max(hi, maxs[level - 1][bz * belowW + bx]);
+                        }
+                    }
+                    levelMin[z * w + x] = lo;
+                    levelMax[z * w + x] = hi;
+                }
+            }
+            mins[level] = levelMin;
+            maxs[level] = levelMax;
+            levelWidths[level] = w;
+            levelHeights[level] = h;
+        }
+
+        sums = new double[(width + 1) * (height + 1)];
+        int best = 0;
+        float bestValue = Float.NEGATIVE_INFINITY;
+        for (int z = 0; z < height; z++) {
+            double row = 0.0;
+            for (int x = 0; x < width; x++) {
+                float value = data[z * width + x];
+                row += value;
+                sums[(z + 1) * (width + 1) + x + 1] = sums[z * (width + 1) + x + 1] + row;
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = z * width + x;
+                }
+            }
+        }
+        highestIndex = best;
+    }
+
+    static InfluencePyramid of(float[] data, int width, int height) {
+        return new InfluencePyramid(data, width, height);
+    }
+
+    /** First row-major index holding the layer's maximum. */
+    int highestIndex() {
+        return highestIndex;
+    }
+
+    /** Sum over the inclusive cell rectangle, clipped to the grid; 0 when nothing is left. */
+    double regionSum(int minX, int minZ, int maxX, int maxZ) {
+        int x0 = Math.max(0, minX);
+        int z0 = Math.max(0, minZ);
+        int x1 = Math.min(width - 1, maxX);
+        int z1 = Math.min(height - 1, maxZ);
+        if (x0 > x1 || z0 > z1) {
+            return 0.0;
+        }
+        int stride = width + 1;
+        return sums[(z1 + 1) * stride + x1 + 1]
+            - sums[z0 * stride + x1 + 1]
+            - sums[(z1 + 1) * stride + x0]
+            + sums[z0 * stride + x0];
+    }
+
+    /**
+     * Index of the lowest (or highest) cell whose centre lies within {@code radiusSq} of
+     * ({@code centreX}, {@code centreZ}), ties going to the lowest index; -1 if none qualifies.
+     * The disc test uses the same float arithmetic as a full scan would.
+     */
+    int extremeInDisc(boolean highest, float centreX, float centreZ, float radiusSq, float cellSize) {
+        Search search = new Search(highest, centreX, centreZ, radiusSq, cellSize);
+        float reach = (float) Math.sqrt(radiusSq);
+        if (Float.isFinite(reach)) {
+            // Cell centres sit at (i + 0.5) * cellSize; one cell of slack absorbs rounding.
+            search.minX = Math.max(0, (int) Math.floor((centreX - reach) / cellSize - 0.5f) - 1);
+            search.maxX = Math.min(width - 1, (int) Math.ceil((centreX + reach) / cellSize - 0.5f) + 1);
+            search.minZ = Math.max(0, (int) Math.floor((centreZ - reach) / cellSize - 0.5f) - 1);
+            search.maxZ = Math.min(height - 1, (int) Math.ceil((centreZ + reach) / cellSize - 0.5f) + 1);
+        } else {
+            search.minX = 0;
+            search.maxX = width - 1;
+            search.minZ = 0;
+            search.maxZ = height - 1;
+        }
+        if (search.minX <= search.maxX && search.minZ <= search.maxZ) {
+            search.visit(mins.length - 1, 0, 0);
+        }
+        return search.bestIndex;
+    }
+
+    /** Branch-and-bound state for one disc query. */
+    private final class Search {
+        private final boolean highest;
+        private final float centreX;
+        private final float centreZ;
+        private final float radiusSq;
+        private final float cellSize;
+        private int minX;
+        private int maxX;
+        private int minZ;
+        private int maxZ;
+        private float bestValue;
+        private int bestIndex = -1;
+
+        private Search(boolean highest, float centreX, float centreZ, float radiusSq, float cellSize) {
+            this.highest = highest;
+            this.centreX = centreX;
+            this.centreZ = centreZ;
+            this.radiusSq = radiusSq;
+            this.cellSize = cellSize;
+            this.bestValue = highest ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+        }
+
+        private void visit(int level, int nodeX, int nodeZ) {
+            int x0 = nodeX << level;
+            int z0 = nodeZ << level;
+            int x1 = Math.min(width, (nodeX + 1) << level) - 1;
+            int z1 = Math.min(height, (nodeZ + 1) << level) - 1;
+            if (x1 < minX || x0 > maxX || z1 < minZ || z0 > maxZ) {
+                return;
+            }
+
+            int node = nodeZ * levelWidths[level] + nodeX;
+            float bound = highest ? maxs[level][node] : mins[level][node];
+            // Nothing in here can beat the best so far, even on a tie broken by index.
+            if (highest ? bound < bestValue : bound > bestValue) {
+                return;
+            }
+            if (bound == bestValue && z0 * width + x0 >= bestIndex) {
+                return;
+            }
+
+            if (level == 0) {
+                float dx = (x0 + 0.5f) * cellSize - centreX;
+                float dz = (z0 + 0.5f) * cellSize - centreZ;
+                if ((dx * dx + dz * dz) > radiusSq) {
+                    return;
+                }
+                int index = z0 * width + x0;
+                float value = data[index];
+                boolean better = highest ? value > bestValue : value < bestValue;
+                if (better || (value == bestValue && index < bestIndex)) {
+                    bestValue = value;
+                    bestIndex = index;
+                }
+                return;
+            }
+            if (outsideDisc(x0, z0, x1, z1)) {
+                return;
+            }
+
+            int childW = levelWidths[level - 1];
+            int childH = levelHeights[level - 1];
+            for (int cz = 2 * nodeZ; cz <= Math.min(2 * nodeZ + 1, childH - 1); cz++) {
+                for (int cx = 2 * nodeX; cx <= Math.min(2 * nodeX + 1, childW - 1); cx++) {
+                    visit(level - 1, cx, cz);
+                }
+            }
+        }
+
+        /** Conservative: true only if every cell centre in the block is clearly beyond the radius. */
+        private boolean outsideDisc(int x0, int z0, int x1, int z1) {
+            double nearestX = Math.clamp(centreX, (x0 + 0.5) * cellSize, (x1 + 0.5) * cellSize);
+            double nearestZ = Math.clamp(centreZ, (z0 + 0.5) * cellSize, (z1 + 0.5) * cellSize);
+            double dx = nearestX - centreX;
+            double dz = nearestZ - centreZ;
+            return dx * dx + dz * dz > radiusSq * (1.0 + 1e-5) + 1e-6;
+        }
+    }
+}
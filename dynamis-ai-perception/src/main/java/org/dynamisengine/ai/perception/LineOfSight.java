@@ -0,0 +1,129 @@
+package org.dynamisengine.ai.perception;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cached line-of-sight tests over an {@link OccupancyGrid}.
+ *
+ * A ray runs from the centre of the observer's cell to the centre of the target's cell and
+ * walks the cells between them with integer DDA. It is blocked if any intermediate cell is
+ * blocked, or if it passes exactly through a corner between two blocked cells. Results
+ * depend only on the unordered cell pair, so each pair is traced at most once per grid
+ * version and the answer is shared both ways. Entries are stamped with the grid version
+ * they were traced against, so a change to the grid invalidates them on the next lookup
+ * without a stop-the-world clear.
+ */
+public final class LineOfSight {
+
+    /** Cached pairs before the cache is dropped and rebuilt. */
+    private static final int MAX_CACHED_PAIRS = 1 << 20;
+
+    private final OccupancyGrid grid;
+    private final ConcurrentMap<Long, Long> cache = new ConcurrentHashMap<>();
+    private final AtomicLong traces = new AtomicLong(0L);
+    private final AtomicLong hits = new AtomicLong(0L);
+
+    public LineOfSight(OccupancyGrid grid) {
+        this.grid = Objects.requireNonNull(grid, "grid");
+    }
+
+    public OccupancyGrid grid() {
+        return grid;
+    }
+
+    /** Whether a target at (tx, tz) is visible from (ox, oz). */
+    public boolean visible(float ox, float oz, float tx, float tz) {
+        return visible(grid.version(), grid.colOf(ox), grid.rowOf(oz), grid.colOf(tx), grid.rowOf(tz));
+    }
+
+    /**
+     * Batch form for one observer — resolves the observer's cell and the grid version once.
+     * Writes whether {@code (xs[indices[i]], zs[indices[i]])} is visible into {@code out[i]}.
+     */
+    public void visible(float ox, float oz, float[] xs, float[] zs, int[] indices, int count, boolean[] out) {
+        long version = grid.version();
+        int col = grid.colOf(ox);
+        int row = grid.rowOf(oz);
+        for (int i = 0; i < count; i++) {
+            int target = indices[i];
+            out[i] = visible(version, col, row, grid.colOf(xs[target]), grid.rowOf(zs[target]));
+        }
+    }
+
+    private boolean visible(long version, int col0, int row0, int col1, int row1) {
+        if (Math.abs(col1 - col0) + Math.abs(row1 - row0) <= 1) {
+            return true;
+        }
+        if (!grid.inBounds(col0, row0) || !grid.inBounds(col1, row1)) {
+            traces.incrementAndGet();
+            return trace(col0, row0, col1, row1);
+        }
+        int a = row0 * grid.cols() + col0;
+        int b = row1 * grid.cols() + col1;
+        long key = (long) Math.min(a, b) * grid.cols() * grid.rows() + Math.max(a, b);
+        Long cached = cache.get(key);
+        if (cached != null && (cached >>> 1) == version) {
+            hits.incrementAndGet();
+            return (cached & 1L) != 0L;
+        }
+        traces.incrementAndGet();
+        // Trace from the lower cell index so both directions share one canonical ray.
+        boolean clear = a <= b ? trace(col0, row0, col1, row1) : trace(col1, row1, col0, row0);
+        if (cache.size() >= MAX_CACHED_PAIRS) {
+            cache.clear();
+        }
+        cache.put(key, (version << 1) | (clear ? 1L : 0L));
+        return clear;
+    }
+
+    /** Integer DDA between cell centres; the end cells themselves never block. */
+    private boolean trace(int col0, int row0, int col1, int row1) {
+        int nx = Math.abs(col1 - col0);
+        int nz = Math.abs(row1 - row0);
+        int sx = Integer.signum(col1 - col0);
+        int sz = Integer.signum(row1 - row0);
+        int col = col0;
+        int row = row0;
+        int ix = 0;
+        int iz = 0;
+        while (ix < nx || iz < nz) {
+            // Compare where the ray next crosses a vertical vs a horizontal cell edge.
+            long crossX = (1L + 2L * ix) * nz;
+            long crossZ = (1L + 2L * iz) * nx;
+            if (crossX == crossZ) {
+                if (grid.isBlocked(col + sx, row) && grid.isBlocked(col, row + sz)) {
+                    return false;
+                }
+                col += sx;
+                row += sz;
+                ix++;
+                iz++;
+            } else if (crossX < crossZ) {
+                col += sx;
+                ix++;
+            } else {
+                row += sz;
+                iz++;
+            }
+            if (col == col1 && row == row1) {
+                return true;
+            }
+            if (grid.isBlocked(col, row)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Rays actually walked — cache misses plus out-of-grid rays. */
+    public long traceCount() {
+        return traces.get();
+    }
+
+    public long cacheHitCount() {
+        return hits.get();
+    }
+}
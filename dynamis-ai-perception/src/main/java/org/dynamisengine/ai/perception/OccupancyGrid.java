@@ -0,0 +1,83 @@
+package org.dynamisengine.ai.perception;
+
+/**
+ * 2D occupancy grid on the XZ plane — which cells block sight.
+ *
+ * Cells outside the grid are open. Every change bumps {@link #version()}, which is how
+ * {@link LineOfSight} knows its cached results are stale. Derive one from a NavMesh with
+ * {@code NavMesh.toOccupancyGrid}, or build it by hand; mutate it for doors and destruction.
+ */
+public final class OccupancyGrid {
+
+    private final int cols;
+    private final int rows;
+    private final float cellSize;
+    private final float originX;
+    private final float originZ;
+    private final long[] blocked;
+    private volatile long version = 0L;
+
+    /** All-open grid whose cell (0, 0) starts at ({@code originX}, {@code originZ}). */
+    public OccupancyGrid(int cols, int rows, float cellSize, float originX, float originZ) {
+        if (cols <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("grid must have at least one cell");
+        }
+        if (!(cellSize > 0f)) {
+            throw new IllegalArgumentException("cellSize must be > 0");
+        }
+        this.cols = cols;
+        this.rows = rows;
+        this.cellSize = cellSize;
+        this.originX = originX;
+        this.originZ = originZ;
+        this.blocked = new long[(cols * rows + 63) >>> 6];
+    }
+
+    public int cols() { return cols; }
+
+    public int rows() { return rows; }
+
+    public float cellSize() { return cellSize; }
+
+    public float originX() { return originX; }
+
+    public float originZ() { return originZ; }
+
+    /** Incremented on every change to a cell. */
+    public long version() {
+        return version;
+    }
+
+    public int colOf(float x) {
+        return (int) Math.floor((x - originX) / cellSize);
+    }
+
+    public int rowOf(float z) {
+        return (int) Math.floor((z - originZ) / cellSize);
+    }
+
+    public boolean inBounds(int col, int row) {
+        return col >= 0 && col < cols && row >= 0 && row < rows;
+    }
+
+    /** Whether the cell blocks sight; cells outside the grid never do. */
+    public boolean isBlocked(int col, int row) {
+        if (!inBounds(col, row)) {
+            return false;
+        }
+        int index = row * cols + col;
+        return (blocked[index >>> 6] & (1L << index)) != 0L;
+    }
+
+    public synchronized void setBlocked(int col, int row, boolean isBlocked) {
+        if (!inBounds(col, row)) {
+            throw new IndexOutOfBoundsException("cell (" + col + ", " + row + ") outside " + cols + "x" + rows + " grid");
+        }
+        if (isBlocked(col, row) == isBlocked) {
+            return;
+        }
+        int index = row * cols + col;
+        blocked[index >>> 6] ^= 1L << index;
+        version++;
+    }
+}
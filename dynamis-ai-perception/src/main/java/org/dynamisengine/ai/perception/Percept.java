@@ -1,5 +1,6 @@
 package org.dynamisengine.ai.perception;
 
+import org.dynamisengine.ai.cognition.PerceivedStimulus;
 import org.dynamisengine.core.entity.EntityId;
 import org.dynamisengine.ai.core.Location;
 import org.dynamisengine.ai.core.ThreatLevel;
@@ -16,11 +17,20 @@ public record Percept(
     float salienceScore,
     ThreatLevel perceivedThreat,
     boolean isNovel
-) {
+) implements PerceivedStimulus {
     public Percept {
         if (rawIntensity < 0f || rawIntensity > 1f)
             throw new IllegalArgumentException("rawIntensity must be in [0,1]");
         if (salienceScore < 0f || salienceScore > 1f)
             throw new IllegalArgumentException("salienceScore must be in [0,1]");
     }
+
+    @Override
+    public Channel channel() {
+        return switch (stimulusType) {
+            case VISUAL -> Channel.VISUAL;
+            case AUDITORY -> Channel.AUDITORY;
+            default -> Channel.OTHER;
+        };
+    }
 }
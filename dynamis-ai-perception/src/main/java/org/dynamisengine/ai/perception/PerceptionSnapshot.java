@@ -1,5 +1,6 @@
 package org.dynamisengine.ai.perception;
 
+import org.dynamisengine.ai.cognition.PerceptionFrame;
 import org.dynamisengine.core.entity.EntityId;
 import org.dynamisengine.ai.core.Location;
 import org.dynamisengine.ai.core.ThreatLevel;
@@ -19,7 +20,7 @@ public record PerceptionSnapshot(
     ThreatLevel aggregateThreat,
     Location ownerLocation,
     int totalEntitiesInRange
-) {
+) implements PerceptionFrame {
     /** Convenience factory used by sense simulation pipelines. */
     public static PerceptionSnapshot of(EntityId owner, List<Percept> percepts, long tick) {
         Optional<Percept> mostSalient = percepts.stream()
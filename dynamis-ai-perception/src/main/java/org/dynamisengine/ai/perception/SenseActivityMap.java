@@ -0,0 +1,165 @@
+package org.dynamisengine.ai.perception;
+
+import io.vavr.Tuple2;
+import org.dynamisengine.core.entity.EntityId;
+import org.dynamisengine.ai.core.EntityState;
+import org.dynamisengine.ai.core.Location;
+import org.dynamisengine.ai.core.WorldSnapshot;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-cell "last activity" ticks on the XZ plane, used to skip re-sensing static scenes.
+ *
+ * Each tick, {@link #advance} diffs the committed snapshot against the one it saw before.
+ * Every entity that appeared, vanished, moved or changed state stamps its old and new cells
+ * with the tick, and so does every sound of the tick. An observer whose sensing range holds no
+ * stamp newer than its last sense would perceive exactly what it did then, apart from sounds,
+ * which only last one tick.
+ *
+ * A commit without entity changes keeps the same entity map, so advancing over it is O(1).
+ * Stamps no remembered sense is older than are dropped by {@link #compact}, so the map holds
+ * only recently active cells rather than every cell ever stamped.
+ */
+public final class SenseActivityMap {
+
+    /** Default cell size — a few cells across a typical sensing radius. */
+    public static final float DEFAULT_CELL_SIZE_METRES = 16f;
+
+    private final float cellSize;
+    private final Map<Long, Long> lastActive = new ConcurrentHashMap<>();
+    private WorldSnapshot baseline;
+    private volatile long advancedTick = Long.MIN_VALUE;
+    /** Earliest tick whose senses the stamps can vouch for. */
+    private volatile long knownFrom = Long.MAX_VALUE;
+
+    public SenseActivityMap() {
+        this(DEFAULT_CELL_SIZE_METRES);
+    }
+
+    public SenseActivityMap(float cellSizeMetres) {
+        if (!(cellSizeMetres > 0f)) {
+            throw new IllegalArgumentException("cellSizeMetres must be > 0");
+        }
+        this.cellSize = cellSizeMetres;
+    }
+
+    public float cellSizeMetres() {
+        return cellSize;
+    }
+
+    /**
+     * Stamps the changes between the last snapshot seen and {@code snapshot}, plus the tick's
+     * sounds. Only the first call for a tick does any work. A snapshot older than the last
+     * one seen restarts tracking from it, since the history in between is unknown.
+     *
+     * @return true for the call that advanced to the tick
+     */
+    synchronized boolean advance(WorldSnapshot snapshot, SoundField sounds) {
+        long tick = snapshot.tick();
+        if (tick == advancedTick) {
+            return false;
+        }
+        if (baseline == null) {
+            knownFrom = tick;
+        } else if (tick < advancedTick) {
+            // Anything sensed at or before this tick may have seen a different world.
+            lastActive.clear();
+            knownFrom = tick + 1;
+        } else if (snapshot.entities() != baseline.entities()) {
+            stampEntityChanges(baseline, snapshot, tick);
+        }
+        for (SoundEvent sound : sounds.events()) {
+            stamp(sound.position(), tick);
+        }
+        baseline = snapshot;
+        advancedTick = tick;
+        return true;
+    }
+
+    /**
+     * Drops every stamp at or before {@code tick}, the oldest tick any remembered sense was
+     * taken at. Queries since an earlier tick then report activity, as for ticks before
+     * tracking began.
+     */
+    synchronized void compact(long tick) {
+        if (baseline == null) {
+            return;
+        }
+        long upTo = Math.min(tick, advancedTick);
+        lastActive.values().removeIf(stamped -> stamped <= upTo);
+        if (upTo > knownFrom) {
+            knownFrom = upTo;
+        }
+    }
+
+    /** Cells currently holding a stamp. */
+    int activeCellCount() {
+        return lastActive.size();
+    }
+
+    /**
+     * Whether anything happened after {@code sinceTick} in a cell within {@code radius} of
+     * (x, z). Also true when {@code sinceTick} predates what the map knows about.
+     */
+    public boolean activeSince(float x, float z, float radius, long sinceTick) {
+        if (sinceTick < knownFrom) {
+            return true;
+        }
+        int minX = cell(x - radius);
+        int maxX = cell(x + radius);
+        int minZ = cell(z - radius);
+        int maxZ = cell(z + radius);
+        long span = (long) (maxX - minX + 1) * (maxZ - minZ + 1);
+        if (span > lastActive.size()) {
+            // Range covers more cells than have ever been active — walk those instead.
+            for (Map.Entry<Long, Long> entry : lastActive.entrySet()) {
+                long key = entry.getKey();
+                int cellX = (int) (key >> 32);
+                int cellZ = (int) key;
+                if (entry.getValue() > sinceTick
+                        && cellX >= minX && cellX <= maxX && cellZ >= minZ && cellZ <= maxZ) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (int cellX = minX; cellX <= maxX; cellX++) {
+            for (int cellZ = minZ; cellZ <= maxZ; cellZ++) {
+                Long stamped = lastActive.get(SpatialHash.key(cellX, cellZ));
+                if (stamped != null && stamped > sinceTick) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void stampEntityChanges(WorldSnapshot before, WorldSnapshot after, long tick) {
+        for (Tuple2<EntityId, EntityState> entry : after.entities()) {
+            EntityState previous = before.entities().get(entry._1()).getOrNull();
+            EntityState current = entry._2();
+            if (previous == current || current.equals(previous)) {
+                continue;
+            }
+            stamp(current.position(), tick);
+            if (previous != null) {
+                stamp(previous.position(), tick);
+            }
+        }
+        for (Tuple2<EntityId, EntityState> entry : before.entities()) {
+            if (!after.entities().containsKey(entry._1())) {
+                stamp(entry._2().position(), tick);
+            }
+        }
+    }
+
+    private void stamp(Location position, long tick) {
+        lastActive.put(SpatialHash.key(cell(position.x()), cell(position.z())), tick);
+    }
+
+    private int cell(float coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+}
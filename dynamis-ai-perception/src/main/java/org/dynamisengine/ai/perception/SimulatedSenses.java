@@ -1,6 +1,6 @@
 package org.dynamisengine.ai.perception;
 
-import io.vavr.collection.HashMap;
+import io.vavr.Tuple2;
 import org.dynamisengine.core.entity.EntityId;
 import org.dynamisengine.ai.core.EntityState;
 import org.dynamisengine.ai.core.Location;
@@ -8,15 +8,50 @@ import org.dynamisengine.ai.core.ThreatLevel;
 import org.dynamisengine.ai.core.WorldSnapshot;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
-/** Approximate vision/hearing model over snapshot entity positions and queued sounds. */
+/**
+ * Approximate vision/hearing model over snapshot entity positions and queued sounds.
+ *
+ * {@link #sense} scans every entity for one observer. {@link #senseAll} senses many
+ * observers against one spatial hash built per tick, testing only the entities within each
+ * observer's vision radius, and produces the same percepts in the same order.
+ *
+ * With a {@link LineOfSight} set, vision is occluded by its occupancy grid; hearing is not.
+ *
+ * Sounds come from {@link SoundEventQueue#binnedForTick}. They are drained once per tick, so
+ * every observer sensing that tick hears them, whether through {@link #sense} or
+ * {@link #senseAll}.
+ *
+ * With a {@link SenseActivityMap} set, an observer that has not moved, whose profile and
+ * line of sight are unchanged, and whose sensing range has seen no activity since its last
+ * sense gets that snapshot back, aged to the current tick instead of re-sensed. Aging keeps
+ * the visual percepts and drops the auditory ones, which only last the tick they were heard.
+ * Observers missing from a snapshot are forgotten, and every
+ * {@value #MAINTENANCE_INTERVAL_TICKS} ticks the map is compacted to the oldest sense still
+ * remembered.
+ */
 public final class SimulatedSenses {
 
+    /** Smallest broadphase cell, so short-sighted profiles do not explode the cell count. */
+    private static final float MIN_CELL_SIZE = 4f;
+
+    private static final float NOT_SENSED = -1f;
+
+    /** Ticks between sweeps for despawned observers and activity map compactions. */
+    static final long MAINTENANCE_INTERVAL_TICKS = 32L;
+
     private final SensorProfileRegistry profileRegistry;
     private final SoundEventQueue soundEventQueue;
+    private volatile LineOfSight lineOfSight;
+    private volatile SenseActivityMap activity;
+    private final Map<EntityId, Sensed> lastSensed = new ConcurrentHashMap<>();
+    private volatile long maintainedAt = Long.MIN_VALUE;
 
     public SimulatedSenses(SensorProfileRegistry profileRegistry,
                            SoundEventQueue soundEventQueue) {
@@ -24,62 +59,298 @@ public final class SimulatedSenses {
         this.soundEventQueue = Objects.requireNonNull(soundEventQueue);
     }
 
+    /**
+     * Enables occlusion for vision: targets in range and in the field of view must also be
+     * in line of sight. {@code null} (the default) sees through everything.
+     */
+    public void setLineOfSight(LineOfSight lineOfSight) {
+        this.lineOfSight = lineOfSight;
+    }
+
+    /**
+     * Enables change-driven skipping: observers whose surroundings show no activity since
+     * their last sense reuse that snapshot. {@code null} (the default) senses every call.
+     * Snapshots to sense should be passed in tick order; the map is advanced by them.
+     */
+    public void setActivityMap(SenseActivityMap activity) {
+        this.activity = activity;
+        lastSensed.clear();
+    }
+
+    /** Drops the observer's remembered sense, e.g. when it despawns. */
+    public void forget(EntityId observer) {
+        lastSensed.remove(Objects.requireNonNull(observer));
+    }
+
+    /** Observers with a remembered sense. */
+    int rememberedCount() {
+        return lastSensed.size();
+    }
+
     public PerceptionSnapshot sense(EntityId observer, WorldSnapshot snapshot) {
         Objects.requireNonNull(observer);
         Objects.requireNonNull(snapshot);
 
         EntityState observerState = snapshot.entities().get(observer).getOrNull();
         if (observerState == null) {
+            lastSensed.remove(observer);
             return PerceptionSnapshot.empty(observer, snapshot.tick(), new Location(0f, 0f, 0f));
         }
 
         SensorProfile profile = profileRegistry.getOrDefault(observer);
         Location observerPos = observerState.position();
+        LineOfSight occlusion = lineOfSight;
+        SoundField sounds = soundEventQueue.binnedForTick(snapshot.tick());
+        SenseActivityMap changes = activity;
+        if (changes != null) {
+            if (changes.advance(snapshot, sounds)) {
+                maintain(changes, snapshot);
+            }
+            PerceptionSnapshot reused = reuse(changes, observer, profile, observerPos, occlusion, snapshot.tick());
+            if (reused != null) {
+                return reused;
+            }
+        }
+        long losVersion = occlusion == null ? 0L : occlusion.grid().version();
         List<Percept> percepts = new ArrayList<>();
 
-        // Visual pass: distance + field-of-view check (no occlusion/raycast yet).
-        for (Map.Entry<EntityId, EntityState> entry : toJavaMap(snapshot.entities()).entrySet()) {
-            EntityId targetId = entry.getKey();
-            if (targetId.equals(observer)) {
+        // Visual pass: distance + field-of-view check, then occlusion when a grid is set.
+        if (hasVision(profile)) {
+            for (Tuple2<EntityId, EntityState> entry : snapshot.entities()) {
+                if (entry._1().equals(observer)) {
+                    continue;
+                }
+                Location target = entry._2().position();
+                float intensity = visualIntensity(observerPos.x(), observerPos.y(), observerPos.z(),
+                    target.x(), target.y(), target.z(), profile);
+                if (intensity != NOT_SENSED && (occlusion == null
+                        || occlusion.visible(observerPos.x(), observerPos.z(), target.x(), target.z()))) {
+                    percepts.add(visualPercept(entry._1(), entry._2(), intensity));
+                }
+            }
+        }
+
+        hear(observerPos, profile, sounds, percepts);
+        return remember(changes, observer, profile, occlusion, losVersion,
+            snapshotOf(observer, snapshot.tick(), observerPos, percepts));
+    }
+
+    /**
+     * Senses every observer in one pass over the snapshot.
+     *
+     * Entity positions are copied once into primitive arrays and bucketed in a spatial hash;
+     * each observer tests only the entities in cells within its vision radius. Observers
+     * absent from the snapshot get an empty snapshot, as with {@link #sense}. With an
+     * activity map set, observers that can be reused are resolved first and the hash is only
+     * built if some observer still needs sensing.
+     *
+     * @return one snapshot per observer, in iteration order of {@code observers}
+     */
+    public Map<EntityId, PerceptionSnapshot> senseAll(Collection<EntityId> observers, WorldSnapshot snapshot) {
+        Objects.requireNonNull(observers);
+        Objects.requireNonNull(snapshot);
+
+        LineOfSight occlusion = lineOfSight;
+        long losVersion = occlusion == null ? 0L : occlusion.grid().version();
+        SoundField sounds = soundEventQueue.binnedForTick(snapshot.tick());
+        SenseActivityMap changes = activity;
+        if (changes != null && changes.advance(snapshot, sounds)) {
+            maintain(changes, snapshot);
+        }
+
+        Map<EntityId, SensorProfile> profiles = new LinkedHashMap<>();
+        Map<EntityId, PerceptionSnapshot> result = new LinkedHashMap<>();
+        float maxVision = 0f;
+        for (EntityId observer : observers) {
+            SensorProfile profile = profileRegistry.getOrDefault(Objects.requireNonNull(observer));
+            EntityState observerState = snapshot.entities().get(observer).getOrNull();
+            PerceptionSnapshot reused = changes == null || observerState == null ? null
+                : reuse(changes, observer, profile, observerState.position(), occlusion, snapshot.tick());
+            // Observers still to sense hold a null slot, keeping the caller's order.
+            result.put(observer, reused);
+            if (reused != null) {
                 continue;
             }
-            EntityState targetState = entry.getValue();
-            if (isVisible(observerPos, targetState.position(), profile)) {
-                float intensity = 1f -
-                    (observerPos.distanceTo(targetState.position()) / profile.visionRadiusMetres());
-                float clampedIntensity = clamp01(intensity);
-                ThreatLevel threat = threatOf(targetState);
-                percepts.add(new Percept(
-                    targetId,
-                    StimulusType.VISUAL,
-                    targetState.position(),
-                    clampedIntensity,
-                    clampedIntensity,
-                    threat,
-                    false));
+            profiles.put(observer, profile);
+            if (hasVision(profile)) {
+                maxVision = Math.max(maxVision, profile.visionRadiusMetres());
             }
         }
+        if (profiles.isEmpty()) {
+            return result;
+        }
+
+        int count = snapshot.entities().size();
+        EntityId[] ids = new EntityId[count];
+        EntityState[] states = new EntityState[count];
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        float[] zs = new float[count];
+        int n = 0;
+        for (Tuple2<EntityId, EntityState> entry : snapshot.entities()) {
+            Location position = entry._2().position();
+            ids[n] = entry._1();
+            states[n] = entry._2();
+            xs[n] = position.x();
+            ys[n] = position.y();
+            zs[n] = position.z();
+            n++;
+        }
+
+        SpatialHash grid = SpatialHash.of(xs, zs, n, Math.max(MIN_CELL_SIZE, maxVision));
+        SpatialHash.Candidates candidates = new SpatialHash.Candidates();
+        int[] inCone = new int[16];
+        float[] intensities = new float[16];
+        boolean[] clear = new boolean[16];
 
-        for (SoundEvent sound : soundEventQueue.drainForTick(snapshot.tick())) {
-            if (isAudible(observerPos, sound, profile)) {
-                float distance = observerPos.distanceTo(sound.position());
-                float effectiveIntensity = sound.intensity() *
-                    (1f - (distance / profile.hearingRadiusMetres()));
-                float clamped = clamp01(effectiveIntensity);
+        for (Map.Entry<EntityId, SensorProfile> entry : profiles.entrySet()) {
+            EntityId observer = entry.getKey();
+            SensorProfile profile = entry.getValue();
+            EntityState observerState = snapshot.entities().get(observer).getOrNull();
+            if (observerState == null) {
+                lastSensed.remove(observer);
+                result.put(observer, PerceptionSnapshot.empty(observer, snapshot.tick(), new Location(0f, 0f, 0f)));
+                continue;
+            }
+            Location observerPos = observerState.position();
+            float ox = observerPos.x();
+            float oy = observerPos.y();
+            float oz = observerPos.z();
+            List<Percept> percepts = new ArrayList<>();
+
+            if (hasVision(profile)) {
+                int found = grid.query(ox, oz, profile.visionRadiusMetres(), candidates);
+                if (found > inCone.length) {
+                    inCone = new int[found];
+                    intensities = new float[found];
+                    clear = new boolean[found];
+                }
+                int seen = 0;
+                for (int c = 0; c < found; c++) {
+                    int i = candidates.get(c);
+                    if (ids[i].equals(observer)) {
+                        continue;
+                    }
+                    float intensity = visualIntensity(ox, oy, oz, xs[i], ys[i], zs[i], profile);
+                    if (intensity != NOT_SENSED) {
+                        inCone[seen] = i;
+                        intensities[seen] = intensity;
+                        seen++;
+                    }
+                }
+                if (occlusion != null) {
+                    occlusion.visible(ox, oz, xs, zs, inCone, seen, clear);
+                }
+                for (int c = 0; c < seen; c++) {
+                    if (occlusion == null || clear[c]) {
+                        int i = inCone[c];
+                        percepts.add(visualPercept(ids[i], states[i], intensities[c]));
+                    }
+                }
+            }
+
+            hear(observerPos, profile, sounds, percepts);
+            result.put(observer, remember(changes, observer, profile, occlusion, losVersion,
+                snapshotOf(observer, snapshot.tick(), observerPos, percepts)));
+        }
+        return result;
+    }
+
+    /**
+     * The observer's last snapshot, aged to {@code tick}, if nothing it could sense has changed
+     * since; otherwise {@code null}.
+     */
+    private PerceptionSnapshot reuse(SenseActivityMap changes, EntityId observer, SensorProfile profile,
+                                     Location observerPos, LineOfSight occlusion, long tick) {
+        Sensed last = lastSensed.get(observer);
+        if (last == null) {
+            return null;
+        }
+        PerceptionSnapshot previous = last.snapshot();
+        if (previous.tick() > tick
+                || !last.profile().equals(profile)
+                || last.lineOfSight() != occlusion
+                || (occlusion != null && last.losVersion() != occlusion.grid().version())
+                || !previous.ownerLocation().equals(observerPos)) {
+            return null;
+        }
+        float range = Math.max(hasVision(profile) ? profile.visionRadiusMetres() : 0f,
+            profile.hearingRadiusMetres());
+        if (changes.activeSince(observerPos.x(), observerPos.z(), range, previous.tick())) {
+            return null;
+        }
+        if (previous.tick() == tick) {
+            return previous;
+        }
+        List<Percept> seen = new ArrayList<>();
+        for (Percept percept : previous.percepts()) {
+            if (percept.stimulusType() == StimulusType.VISUAL) {
+                seen.add(percept);
+            }
+        }
+        PerceptionSnapshot aged = snapshotOf(observer, tick, observerPos, seen);
+        lastSensed.put(observer, new Sensed(aged, profile, occlusion, last.losVersion()));
+        return aged;
+    }
+
+    private PerceptionSnapshot remember(SenseActivityMap changes, EntityId observer, SensorProfile profile,
+                                        LineOfSight occlusion, long losVersion, PerceptionSnapshot sensed) {
+        if (changes != null) {
+            lastSensed.put(observer, new Sensed(sensed, profile, occlusion, losVersion));
+        }
+        return sensed;
+    }
+
+    /**
+     * Every {@link #MAINTENANCE_INTERVAL_TICKS} ticks, forgets observers that are no longer in
+     * the snapshot and compacts the activity map to the oldest remembered sense. Runs on the
+     * call that advanced the map, so at most once per tick. Remembered senses only ever move
+     * forward in time, so no later query looks behind the compaction point.
+     */
+    private void maintain(SenseActivityMap changes, WorldSnapshot snapshot) {
+        long tick = snapshot.tick();
+        long last = maintainedAt;
+        if (last != Long.MIN_VALUE && tick >= last && tick - last < MAINTENANCE_INTERVAL_TICKS) {
+            return;
+        }
+        maintainedAt = tick;
+        lastSensed.keySet().removeIf(observer -> !snapshot.entities().containsKey(observer));
+        long oldest = tick;
+        for (Sensed sensed : lastSensed.values()) {
+            oldest = Math.min(oldest, sensed.snapshot().tick());
+        }
+        changes.compact(oldest);
+    }
+
+    /** Last full or aged sense of one observer and what it was sensed under. */
+    private record Sensed(PerceptionSnapshot snapshot, SensorProfile profile,
+                          LineOfSight lineOfSight, long losVersion) {
+    }
+
+    /** Hearing pass over the sound bins near the observer, in posting order. */
+    private static void hear(Location observerPos, SensorProfile profile, SoundField sounds,
+                             List<Percept> percepts) {
+        for (int index : sounds.candidates(observerPos.x(), observerPos.z(), profile)) {
+            SoundEvent sound = sounds.event(index);
+            float intensity = auditoryIntensity(observerPos.x(), observerPos.y(), observerPos.z(), sound, profile);
+            if (intensity != NOT_SENSED) {
                 percepts.add(new Percept(
                     sound.sourceEntityId(),
                     sound.type(),
                     sound.position(),
-                    clamped,
-                    clamped,
+                    intensity,
+                    intensity,
                     ThreatLevel.NONE,
                     false));
             }
         }
+    }
 
+    private static PerceptionSnapshot snapshotOf(EntityId observer, long tick, Location observerPos,
+                                                 List<Percept> percepts) {
         return new PerceptionSnapshot(
             observer,
-            snapshot.tick(),
+            tick,
             List.copyOf(percepts),
             percepts.stream().max((a, b) -> Float.compare(a.salienceScore(), b.salienceScore())),
             maxThreat(percepts),
@@ -87,30 +358,61 @@ public final class SimulatedSenses {
             percepts.size());
     }
 
-    private static boolean isVisible(Location observer, Location target, SensorProfile profile) {
-        if (profile.visionRadiusMetres() <= 0f || profile.visionAngleDegrees() <= 0f) {
-            return false;
-        }
-        float distance = observer.distanceTo(target);
+    private static Percept visualPercept(EntityId targetId, EntityState targetState, float intensity) {
+        return new Percept(
+            targetId,
+            StimulusType.VISUAL,
+            targetState.position(),
+            intensity,
+            intensity,
+            threatOf(targetState),
+            false);
+    }
+
+    private static boolean hasVision(SensorProfile profile) {
+        return profile.visionRadiusMetres() > 0f && profile.visionAngleDegrees() > 0f;
+    }
+
+    /**
+     * Clamped visual intensity, or {@link #NOT_SENSED} when the target is out of range or
+     * outside the field of view. Same arithmetic as {@link Location#distanceTo} and
+     * {@link Location#bearingTo}, on raw coordinates.
+     */
+    private static float visualIntensity(float ox, float oy, float oz,
+                                         float tx, float ty, float tz,
+                                         SensorProfile profile) {
+        float dx = ox - tx;
+        float dy = oy - ty;
+        float dz = oz - tz;
+        float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
         if (distance > profile.visionRadiusMetres()) {
-            return false;
+            return NOT_SENSED;
         }
-        float bearing = observer.bearingTo(target);
+        float bearing = (float) Math.toDegrees(Math.atan2(tx - ox, -(tz - oz)));
+        bearing = (bearing % 360f + 360f) % 360f;
         float delta = angularDiffDegrees(profile.facingAngleDegrees(), bearing);
-        return delta <= (profile.visionAngleDegrees() * 0.5f);
+        if (delta > profile.visionAngleDegrees() * 0.5f) {
+            return NOT_SENSED;
+        }
+        return clamp01(1f - (distance / profile.visionRadiusMetres()));
     }
 
-    private static boolean isAudible(Location observer, SoundEvent sound, SensorProfile profile) {
-        if (profile.hearingRadiusMetres() <= 0f) {
-            return false;
-        }
-        float distance = observer.distanceTo(sound.position());
+    /** Clamped heard intensity, or {@link #NOT_SENSED} when out of range or below acuity. */
+    private static float auditoryIntensity(float ox, float oy, float oz, SoundEvent sound, SensorProfile profile) {
+        Location source = sound.position();
+        float dx = ox - source.x();
+        float dy = oy - source.y();
+        float dz = oz - source.z();
+        float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
         if (distance > profile.hearingRadiusMetres()) {
-            return false;
+            return NOT_SENSED;
         }
         float effectiveIntensity = sound.intensity() *
             (1f - (distance / profile.hearingRadiusMetres()));
-        return effectiveIntensity >= profile.hearingAcuity();
+        if (effectiveIntensity < profile.hearingAcuity()) {
+            return NOT_SENSED;
+        }
+        return clamp01(effectiveIntensity);
     }
 
     private static float angularDiffDegrees(float a, float b) {
@@ -128,11 +430,6 @@ public final class SimulatedSenses {
         return v;
     }
 
-    @SuppressWarnings("unchecked")
-    private static Map<EntityId, EntityState> toJavaMap(HashMap<EntityId, EntityState> entities) {
-        return entities.toJavaMap();
-    }
-
     private static ThreatLevel maxThreat(List<Percept> percepts) {
         ThreatLevel max = ThreatLevel.NONE;
         for (Percept percept : percepts) {
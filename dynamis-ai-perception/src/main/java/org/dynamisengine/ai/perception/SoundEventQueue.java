@@ -4,11 +4,35 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
-/** Thread-safe event buffer for sound events consumed by SimulatedSenses. */
+/**
+ * Thread-safe event buffer for sound events consumed by SimulatedSenses.
+ *
+ * Hearing reads {@link #binnedForTick}: the first call for a tick drains the buffer into a
+ * spatially binned {@link SoundField} and every later call for that tick gets the same field,
+ * so all observers hear the same sounds regardless of who senses first. Sounds posted after
+ * the drain are delivered with the next tick.
+ */
 public final class SoundEventQueue {
 
+    /** Default bin size — on the order of a typical hearing radius. */
+    public static final float DEFAULT_BIN_SIZE_METRES = 16f;
+
     private final Object lock = new Object();
+    private final float binSizeMetres;
     private List<SoundEvent> buffer = new ArrayList<>();
+    private long binnedTick = Long.MIN_VALUE;
+    private SoundField binned;
+
+    public SoundEventQueue() {
+        this(DEFAULT_BIN_SIZE_METRES);
+    }
+
+    public SoundEventQueue(float binSizeMetres) {
+        if (!(binSizeMetres > 0f)) {
+            throw new IllegalArgumentException("binSizeMetres must be > 0");
+        }
+        this.binSizeMetres = binSizeMetres;
+    }
 
     public void post(SoundEvent event) {
         Objects.requireNonNull(event);
@@ -18,7 +42,7 @@ public final class SoundEventQueue {
     }
 
     /**
-     * Drains all currently queued sound events atomically.
+     * Drains all currently queued sound events atomically, bypassing per-tick binning.
      * The tick argument is accepted for API clarity and future filtering.
      */
     public List<SoundEvent> drainForTick(long tick) {
@@ -29,6 +53,20 @@ public final class SoundEventQueue {
         }
     }
 
+    /** This tick's sounds, drained and binned on the first call for the tick. */
+    SoundField binnedForTick(long tick) {
+        synchronized (lock) {
+            if (binned == null || binnedTick != tick) {
+                binned = buffer.isEmpty()
+                    ? SoundField.empty(binSizeMetres)
+                    : new SoundField(buffer, binSizeMetres);
+                buffer = new ArrayList<>();
+                binnedTick = tick;
+            }
+            return binned;
+        }
+    }
+
     public List<SoundEvent> peek() {
         synchronized (lock) {
             return List.copyOf(buffer);
@@ -0,0 +1,100 @@
+package org.dynamisengine.ai.perception;
+
+import org.dynamisengine.ai.core.Location;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * One tick's sound events, binned by XZ cell for hearing queries.
+ *
+ * Built once per tick by {@link SoundEventQueue#binnedForTick} and shared by every observer.
+ * An observer looks only at bins within its hearing radius. The sounds that can possibly be
+ * heard from a cell are culled once per (cell, hearing radius, acuity) and reused by every
+ * observer standing in that cell. Culling is conservative, so the exact per-observer test
+ * still decides audibility and the percepts are unchanged.
+ */
+final class SoundField {
+
+    private record CellQuery(long cell, float hearingRadius, float acuity) {}
+
+    private static final int[] NONE = new int[0];
+
+    private final List<SoundEvent> events;
+    private final float[] xs;
+    private final float[] zs;
+    private final SpatialHash bins;
+    private final ConcurrentMap<CellQuery, int[]> audibleByCell = new ConcurrentHashMap<>();
+
+    SoundField(List<SoundEvent> events, float cellSize) {
+        this.events = List.copyOf(events);
+        int count = this.events.size();
+        this.xs = new float[count];
+        this.zs = new float[count];
+        for (int i = 0; i < count; i++) {
+            Location position = this.events.get(i).position();
+            xs[i] = position.x();
+            zs[i] = position.z();
+        }
+        this.bins = SpatialHash.of(xs, zs, count, cellSize);
+    }
+
+    static SoundField empty(float cellSize) {
+        return new SoundField(List.of(), cellSize);
+    }
+
+    List<SoundEvent> events() {
+        return events;
+    }
+
+    SoundEvent event(int index) {
+        return events.get(index);
+    }
+
+    /**
+     * Indices, in posting order, of the sounds an observer at (x, z) with this profile might
+     * hear — a superset of the audible ones.
+     */
+    int[] candidates(float x, float z, SensorProfile profile) {
+        if (events.isEmpty() || profile.hearingRadiusMetres() <= 0f) {
+            return NONE;
+        }
+        int cellX = bins.cell(x);
+        int cellZ = bins.cell(z);
+        CellQuery query = new CellQuery(SpatialHash.key(cellX, cellZ),
+            profile.hearingRadiusMetres(), profile.hearingAcuity());
+        return audibleByCell.computeIfAbsent(query, q -> cull(cellX, cellZ, q));
+    }
+
+    /** Sounds audible from at least the nearest point of the cell, by XZ distance. */
+    private int[] cull(int cellX, int cellZ, CellQuery query) {
+        float size = bins.cellSize();
+        // Slack absorbs float rounding in cell assignment, keeping the cull conservative.
+        float slack = size * 1e-3f;
+        float minX = cellX * size - slack;
+        float minZ = cellZ * size - slack;
+        float maxX = (cellX + 1) * size + slack;
+        float maxZ = (cellZ + 1) * size + slack;
+        SpatialHash.Candidates nearby = new SpatialHash.Candidates();
+        int found = bins.query((minX + maxX) * 0.5f, (minZ + maxZ) * 0.5f,
+            query.hearingRadius() + (maxX - minX) * 0.5f, nearby);
+        int[] kept = new int[found];
+        int count = 0;
+        for (int c = 0; c < found; c++) {
+            int i = nearby.get(c);
+            float dx = Math.max(0f, Math.max(minX - xs[i], xs[i] - maxX));
+            float dz = Math.max(0f, Math.max(minZ - zs[i], zs[i] - maxZ));
+            float nearest = (float) Math.sqrt(dx * dx + dz * dz);
+            if (nearest > query.hearingRadius()) {
+                continue;
+            }
+            float loudest = events.get(i).intensity() * (1f - nearest / query.hearingRadius());
+            if (loudest >= query.acuity()) {
+                kept[count++] = i;
+            }
+        }
+        return count == found ? kept : Arrays.copyOf(kept, count);
+    }
+}
@@ -0,0 +1,117 @@
+package org.dynamisengine.ai.perception;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Uniform XZ grid over indexed points — the broadphase for batch sensing.
+ *
+ * Built once per tick from primitive coordinate arrays; items are referred to by their
+ * index into those arrays. Queries return candidate indices in ascending order, so callers
+ * that iterate candidates see items in the same order as a full scan would.
+ */
+final class SpatialHash {
+
+    private final float cellSize;
+    private final Map<Long, Bucket> cells = new HashMap<>();
+
+    private static final class Bucket {
+        int[] items = new int[4];
+        int size;
+
+        void add(int item) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = item;
+        }
+    }
+
+    SpatialHash(float cellSize) {
+        if (!(cellSize > 0f)) {
+            throw new IllegalArgumentException("cellSize must be > 0");
+        }
+        this.cellSize = cellSize;
+    }
+
+    /** Grid over the first {@code count} points of {@code xs}/{@code zs}. */
+    static SpatialHash of(float[] xs, float[] zs, int count, float cellSize) {
+        SpatialHash hash = new SpatialHash(cellSize);
+        for (int i = 0; i < count; i++) {
+            hash.insert(i, xs[i], zs[i]);
+        }
+        return hash;
+    }
+
+    void insert(int item, float x, float z) {
+        cells.computeIfAbsent(key(cell(x), cell(z)), k -> new Bucket()).add(item);
+    }
+
+    int cell(float coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    float cellSize() {
+        return cellSize;
+    }
+
+    static long key(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Writes the indices of every item in a cell overlapping the square of half-width
+     * {@code radius} around (x, z) into {@code out}, ascending.
+     *
+     * @return the candidate count, also left in {@code out}
+     */
+    int query(float x, float z, float radius, Candidates out) {
+        out.size = 0;
+        int minX = cell(x - radius);
+        int maxX = cell(x + radius);
+        int minZ = cell(z - radius);
+        int maxZ = cell(z + radius);
+        long span = (long) (maxX - minX + 1) * (maxZ - minZ + 1);
+        if (span > cells.size()) {
+            // Radius covers more cells than are occupied — walk the occupied ones instead.
+            for (Map.Entry<Long, Bucket> entry : cells.entrySet()) {
+                long key = entry.getKey();
+                int cellX = (int) (key >> 32);
+                int cellZ = (int) key;
+                if (cellX >= minX && cellX <= maxX && cellZ >= minZ && cellZ <= maxZ) {
+                    out.addAll(entry.getValue());
+                }
+            }
+        } else {
+            for (int cellX = minX; cellX <= maxX; cellX++) {
+                for (int cellZ = minZ; cellZ <= maxZ; cellZ++) {
+                    Bucket bucket = cells.get(key(cellX, cellZ));
+                    if (bucket != null) {
+                        out.addAll(bucket);
+                    }
+                }
+            }
+        }
+        Arrays.sort(out.items, 0, out.size);
+        return out.size;
+    }
+
+    /** Reusable candidate buffer — one per querying thread. */
+    static final class Candidates {
+        int[] items = new int[64];
+        int size;
+
+        int get(int i) {
+            return items[i];
+        }
+
+        private void addAll(Bucket bucket) {
+            if (size + bucket.size > items.length) {
+                items = Arrays.copyOf(items, Math.max(items.length * 2, size + bucket.size));
+            }
+            System.arraycopy(bucket.items, 0, items, size, bucket.size);
+            size += bucket.size;
+        }
+    }
+}
@@ -3,6 +3,10 @@ package org.dynamisengine.ai.perception;
 import org.dynamisengine.ai.core.Location;
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class InfluenceGridTest {
@@ -74,6 +78,68 @@ class InfluenceGridTest {
         assertEquals(0f, grid.get(10, 10), 1e-6f);
     }
 
+    @Test
+    void stampFollowsLinearFalloffFromTheCentreCell() {
+        InfluenceGrid grid = new InfluenceGrid(21, 21, 2f);
+        grid.addRadialInfluence(grid.cellCentre(10, 10), 8f, 0.8f);
+
+        for (int z = 0; z < 21; z++) {
+            for (int x = 0; x < 21; x++) {
+                float dist = (float) Math.sqrt((x - 10) * (x - 10) + (z - 10) * (z - 10));
+                assertEquals(0.8f * Math.max(0f, 1f - dist / 4f), grid.get(x, z), 1e-6f);
+            }
+        }
+    }
+
+    @Test
+    void batchStampMatchesOneStampAtATime() {
+        Random random = new Random(48L);
+        int count = 200;
+        float[] xs = new float[count];
+        float[] zs = new float[count];
+        float[] radii = new float[count];
+        float[] peaks = new float[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = random.nextFloat() * 90f - 10f;
+            zs[i] = random.nextFloat() * 70f - 10f;
+            radii[i] = random.nextFloat() * 12f;
+            peaks[i] = random.nextFloat() * 0.4f - 0.2f;
+        }
+        radii[7] = 0f;
+        peaks[9] = 0f;
+
+        InfluenceGrid batch = new InfluenceGrid(80, 60, 1f, -1f, 1f);
+        InfluenceGrid single = new InfluenceGrid(80, 60, 1f, -1f, 1f);
+        batch.addRadialInfluences(xs, zs, radii, peaks, count);
+        for (int i = 0; i < count; i++) {
+            single.addRadialInfluence(new Location(xs[i], 0f, zs[i]), radii[i], peaks[i]);
+        }
+
+        assertArrayEquals(single.rawSnapshot(), batch.rawSnapshot());
+        assertEquals(single.activeTileCount(), batch.activeTileCount());
+    }
+
+    @Test
+    void stampCentredOffGridOnlyAddsItsClippedTail() {
+        InfluenceGrid grid = new InfluenceGrid(10, 10, 1f);
+        grid.addRadialInfluence(new Location(-2.5f, 0f, 4.5f), 4f, 1f);
+
+        assertEquals(0.25f, grid.get(0, 4), 1e-6f);
+        assertEquals(0f, grid.get(1, 4), 1e-6f);
+        grid.addRadialInfluence(new Location(1e30f, 0f, 1e30f), 4f, 1f);
+        assertEquals(1, grid.activeTileCount());
+    }
+
+    @Test
+    void wideStampFallsBackToInPlaceFalloff() {
+        InfluenceGrid grid = new InfluenceGrid(100, 3, 1f);
+        grid.addRadialInfluence(grid.cellCentre(0, 1), 80f, 1f);
+
+        assertEquals(1f, grid.get(0, 1), 1e-6f);
+        assertEquals(0.5f, grid.get(40, 1), 1e-6f);
+        assertEquals(0f, grid.get(80, 1), 1e-6f);
+    }
+
     @Test
     void propagateSpreadsSpikeToNeighbours() {
         InfluenceGrid grid = new InfluenceGrid(7, 7, 1f);
@@ -87,6 +153,173 @@ class InfluenceGridTest {
         assertTrue(grid.get(4, 3) > 0f);
     }
 
+    @Test
+    void bandedPropagateMatchesSinglePassExactly() {
+        InfluenceGrid single = new InfluenceGrid(37, 53, 1f);
+        InfluenceGrid banded = new InfluenceGrid(37, 53, 1f);
+        Random random = new Random(7L);
+        for (int z = 0; z < 53; z++) {
+            for (int x = 0; x < 37; x++) {
+                float value = random.nextFloat();
+                single.set(x, z, value);
+                banded.set(x, z, value);
+            }
+        }
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().factory());
+        try {
+            for (int pass = 0; pass < 3; pass++) {
+                single.propagate(0.6f, 0.1f);
+                banded.propagate(0.6f, 0.1f, 5, executor);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertArrayEquals(single.rawSnapshot(), banded.rawSnapshot());
+    }
+
+    @Test
+    void bandedPropagateHandlesMoreBandsThanRows() {
+        InfluenceGrid single = new InfluenceGrid(6, 3, 1f);
+        InfluenceGrid banded = new InfluenceGrid(6, 3, 1f);
+        single.set(2, 1, 1f);
+        banded.set(2, 1, 1f);
+
+        single.propagate(0.6f, 0.1f);
+        banded.propagate(0.6f, 0.1f, 8, Runnable::run);
+
+        assertArrayEquals(single.rawSnapshot(), banded.rawSnapshot());
+    }
+
+    @Test
+    void untouchedGridHasNoActiveTiles() {
+        InfluenceGrid grid = new InfluenceGrid(64, 64, 1f);
+        grid.decayAll(0.5f);
+        grid.propagate(0.6f, 0.1f);
+
+        assertEquals(0, grid.activeTileCount());
+    }
+
+    @Test
+    void stampWakesOnlyTheTilesItTouches() {
+        InfluenceGrid grid = new InfluenceGrid(64, 64, 1f);
+        grid.addRadialInfluence(grid.cellCentre(40, 40), 3f, 1f);
+
+        assertEquals(1, grid.activeTileCount());
+    }
+
+    @Test
+    void propagationWakesNeighbourTilesAcrossTheBorder() {
+        InfluenceGrid grid = new InfluenceGrid(64, 64, 1f);
+        grid.set(15, 20, 1f);
+
+        grid.propagate(0.6f, 0.1f);
+
+        assertEquals(0.1f, grid.get(16, 20), 1e-6f);
+        assertEquals(2, grid.activeTileCount());
+    }
+
+    @Test
+    void decayedTilesGoDormantAndAreZeroed() {
+        InfluenceGrid grid = new InfluenceGrid(64, 64, 1f);
+        grid.addRadialInfluence(grid.cellCentre(8, 8), 4f, 1f);
+
+        for (int i = 0; i < 40; i++) {
+            grid.decayAll(0.7f);
+        }
+
+        assertEquals(0, grid.activeTileCount());
+        for (float v : grid.rawSnapshot()) {
+            assertEquals(0f, v);
+        }
+    }
+
+    @Test
+    void sparsePropagateMatchesDenseReference() {
+        InfluenceGrid grid = new InfluenceGrid(70, 45, 1f);
+        grid.addRadialInfluence(grid.cellCentre(3, 3), 5f, 0.9f);
+        grid.addRadialInfluence(grid.cellCentre(47, 31), 8f, 0.7f);
+        grid.set(69, 44, 0.5f);
+
+        for (int pass = 0; pass < 6; pass++) {
+            float[] expected = referencePropagate(grid.rawSnapshot(), 70, 45, 0.6f, 0.1f);
+            grid.propagate(0.6f, 0.1f);
+            assertArrayEquals(expected, grid.rawSnapshot());
+        }
+    }
+
+    @Test
+    void signedGridKeepsNegativeTilesAwake() {
+        InfluenceGrid grid = new InfluenceGrid(32, 32, 1f, -1f, 1f);
+        grid.addRadialInfluence(grid.cellCentre(20, 20), 4f, -0.8f);
+        grid.decayAll(0.95f);
+
+        assertEquals(1, grid.activeTileCount());
+        assertTrue(grid.get(20, 20) < -0.7f);
+    }
+
+    @Test
+    void propagateAfterTilesFallAsleepMatchesDenseReference() {
+        InfluenceGrid grid = new InfluenceGrid(48, 48, 1f);
+        grid.addRadialInfluence(grid.cellCentre(8, 8), 6f, 1f);
+        grid.addRadialInfluence(grid.cellCentre(40, 40), 6f, 0.01f);
+
+        for (int pass = 0; pass < 12; pass++) {
+            float[] expected = referencePropagate(grid.rawSnapshot(), 48, 48, 0.6f, 0.1f);
+            grid.propagate(0.6f, 0.1f);
+            assertArrayEquals(expected, grid.rawSnapshot());
+            // The faint stamp goes dormant part-way through, leaving stale values in the back buffer.
+            grid.decayAll(0.3f);
+        }
+    }
+
+    @Test
+    void pinnedBufferIsNeverWrittenAgain() {
+        InfluenceGrid grid = new InfluenceGrid(32, 32, 1f);
+        grid.addRadialInfluence(grid.cellCentre(10, 10), 5f, 1f);
+        float[] pinned = grid.pin();
+        float[] before = pinned.clone();
+
+        grid.set(10, 10, 0f);
+        grid.decayAll(0.5f);
+        grid.propagate(0.6f, 0.1f);
+        grid.addRadialInfluence(grid.cellCentre(20, 20), 5f, 1f);
+
+        assertArrayEquals(before, pinned);
+        assertNotEquals(before[10 * 32 + 10], grid.get(10, 10));
+    }
+
+    @Test
+    void releasedBufferIsReusedInsteadOfAllocating() {
+        InfluenceGrid grid = new InfluenceGrid(16, 16, 1f);
+        float[] first = grid.pin();
+        grid.set(1, 1, 0.5f);
+        float[] second = grid.pin();
+        assertNotSame(first, second);
+
+        grid.release(first);
+        grid.set(2, 2, 0.5f);
+
+        float[] third = grid.pin();
+        assertSame(first, third);
+        assertEquals(0.5f, third[16 + 1], 1e-6f);
+        assertEquals(0.5f, third[2 * 16 + 2], 1e-6f);
+        assertEquals(0f, second[2 * 16 + 2], 1e-6f);
+    }
+
+    @Test
+    void bufferStaysPinnedUntilEveryPinIsReleased() {
+        InfluenceGrid grid = new InfluenceGrid(16, 16, 1f);
+        float[] pinned = grid.pin();
+        grid.pin();
+
+        grid.release(pinned);
+        grid.set(3, 3, 1f);
+
+        assertEquals(0f, pinned[3 * 16 + 3], 1e-6f);
+        assertThrows(IllegalArgumentException.class, () -> grid.release(new float[256]));
+    }
+
     @Test
     void sampleAtExactCellCentreReturnsCellValue() {
         InfluenceGrid grid = new InfluenceGrid(6, 6, 1f);
@@ -113,4 +346,19 @@ class InfluenceGridTest {
 
         assertEquals(1f, grid.get(3, 3), 1e-6f);
     }
+
+    private static float[] referencePropagate(float[] src, int width, int height, float self, float neighbour) {
+        float[] out = new float[src.length];
+        for (int z = 0; z < height; z++) {
+            for (int x = 0; x < width; x++) {
+                float left = src[z * width + Math.max(0, x - 1)];
+                float right = src[z * width + Math.min(width - 1, x + 1)];
+                float up = src[Math.max(0, z - 1) * width + x];
+                float down = src[Math.min(height - 1, z + 1) * width + x];
+                float blended = src[z * width + x] * self + (left + right + up + down) * neighbour;
+                out[z * width + x] = Math.max(0f, Math.min(1f, blended));
+            }
+        }
+        return out;
+    }
 }
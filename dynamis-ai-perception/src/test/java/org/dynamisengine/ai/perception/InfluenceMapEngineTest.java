@@ -12,6 +12,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -81,6 +82,68 @@ class InfluenceMapEngineTest {
             snap.sample(InfluenceLayer.THREAT, new Location(2.5f, 0f, 2.5f)), 1e-6f);
     }
 
+    @Test
+    void snapshotSurvivesLaterUpdates() {
+        InfluenceMapEngine engine = new InfluenceMapEngine(20, 20, 1f, new Location(0, 0, 0));
+        engine.update(snapshotWithEntity(EntityId.of(1L), new Location(10f, 0f, 10f),
+            Map.of("threatLevel", ThreatLevel.CRITICAL)), List.of());
+
+        try (InfluenceMapSnapshot snap = engine.snapshot(1L)) {
+            float[] threat = snap.layers().get(InfluenceLayer.THREAT);
+            for (int i = 0; i < 5; i++) {
+                engine.update(emptySnapshot(), List.of(new SoundEvent(
+                    EntityId.of(2L), new Location(4f, 0f, 4f), 1.0f, StimulusType.AUDITORY, 2L)));
+            }
+
+            assertArrayEquals(threat, snap.layers().get(InfluenceLayer.THREAT));
+            assertEquals(0f, snap.sample(InfluenceLayer.SOUND, new Location(4.5f, 0f, 4.5f)), 1e-6f);
+        }
+        assertEquals(0, engine.grid(InfluenceLayer.THREAT).pinnedBufferCount());
+    }
+
+    @Test
+    void unclosedSnapshotReleasesItsBuffersThroughTheCleaner() {
+        InfluenceMapEngine engine = new InfluenceMapEngine(20, 20, 1f, new Location(0, 0, 0));
+        engine.update(emptySnapshot(), List.of());
+        InfluenceMapSnapshot snapshot = engine.snapshot(1L);
+        InfluenceGrid threat = engine.grid(InfluenceLayer.THREAT);
+        assertEquals(1, threat.pinnedBufferCount());
+
+        snapshot.runCleanerAction();
+        assertEquals(0, threat.pinnedBufferCount());
+
+        // The action runs at most once, so a late close does not release again.
+        snapshot.close();
+        snapshot.runCleanerAction();
+        assertEquals(0, threat.pinnedBufferCount());
+    }
+
+    @Test
+    void snapshotsCarryTheEngineEpoch() {
+        InfluenceMapEngine engine = new InfluenceMapEngine(8, 8, 1f, new Location(0, 0, 0));
+        engine.update(emptySnapshot(), List.of());
+
+        try (InfluenceMapSnapshot a = engine.snapshot(1L); InfluenceMapSnapshot b = engine.snapshot(1L)) {
+            assertEquals(a.epoch(), b.epoch());
+            engine.addCoverAt(new Location(2f, 0f, 2f), 0.5f);
+            try (InfluenceMapSnapshot c = engine.snapshot(1L)) {
+                assertTrue(c.epoch() > a.epoch());
+                assertEquals(engine.epoch(), c.epoch());
+            }
+        }
+    }
+
+    @Test
+    void closedSnapshotRejectsReads() {
+        InfluenceMapEngine engine = new InfluenceMapEngine(8, 8, 1f, new Location(0, 0, 0));
+        InfluenceMapSnapshot snap = engine.snapshot(1L);
+        snap.close();
+        snap.close();
+
+        assertThrows(IllegalStateException.class,
+            () -> snap.sample(InfluenceLayer.THREAT, new Location(1f, 0f, 1f)));
+    }
+
     @Test
     void addCoverPersistsAcrossUpdateCalls() {
         InfluenceMapEngine engine = new InfluenceMapEngine(10, 10, 1f, new Location(0, 0, 0));
@@ -124,6 +187,63 @@ class InfluenceMapEngineTest {
         assertEquals(0.77f, engine.grid(InfluenceLayer.MOVEMENT).get(1, 1), 1e-6f);
     }
 
+    @Test
+    void parallelUpdateMatchesSerialUpdateExactly() {
+        InfluenceMapEngine serial = new InfluenceMapEngine(256, 200, 1f, new Location(-20f, 0f, -20f), 1);
+        InfluenceMapEngine parallel = new InfluenceMapEngine(256, 200, 1f, new Location(-20f, 0f, -20f), 6);
+        Random random = new Random(44L);
+        ThreatLevel[] levels = ThreatLevel.values();
+        try {
+            for (long tick = 1; tick <= 4; tick++) {
+                HashMap<EntityId, EntityState> entities = HashMap.empty();
+                for (long id = 1; id <= 40; id++) {
+                    Location pos = new Location(random.nextFloat() * 260f - 20f, 0f, random.nextFloat() * 220f - 20f);
+                    Map<String, Object> props = random.nextBoolean()
+                        ? Map.of("threatLevel", levels[random.nextInt(levels.length)])
+                        : Map.of("faction", random.nextBoolean() ? "friendly" : "hostile");
+                    entities = entities.put(EntityId.of(id), new EntityState(EntityId.of(id), pos, props));
+                }
+                WorldSnapshot snapshot = new WorldSnapshot(tick, entities,
+                    new GlobalFacts(Map.of()), new EnvironmentState("clear", 12f, 1f));
+                List<SoundEvent> sounds = List.of(
+                    new SoundEvent(EntityId.of(1L), new Location(random.nextFloat() * 200f, 0f, random.nextFloat() * 180f),
+                        random.nextFloat(), StimulusType.AUDITORY, tick),
+                    new SoundEvent(EntityId.of(2L), new Location(random.nextFloat() * 200f, 0f, random.nextFloat() * 180f),
+                        random.nextFloat(), StimulusType.AUDITORY, tick));
+
+                serial.update(snapshot, sounds);
+                parallel.update(snapshot, sounds);
+
+                for (InfluenceLayer layer : InfluenceLayer.values()) {
+                    assertArrayEquals(serial.grid(layer).rawSnapshot(), parallel.grid(layer).rawSnapshot(),
+                        layer + " diverged at tick " + tick);
+                }
+            }
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveParallelism() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new InfluenceMapEngine(8, 8, 1f, new Location(0, 0, 0), 0));
+    }
+
+    @Test
+    void parallelismIsOptIn() {
+        InfluenceMapEngine defaults = new InfluenceMapEngine(256, 256, 1f, new Location(0, 0, 0));
+        InfluenceMapEngine small = new InfluenceMapEngine(16, 16, 1f, new Location(0, 0, 0), 8);
+        InfluenceMapEngine parallel = new InfluenceMapEngine(256, 256, 1f, new Location(0, 0, 0), 8);
+        try {
+            assertFalse(defaults.isParallel());
+            assertFalse(small.isParallel());
+            assertTrue(parallel.isParallel());
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
     private static WorldSnapshot snapshotWithEntity(EntityId id, Location pos, Map<String, Object> props) {
         HashMap<EntityId, EntityState> entities = HashMap.<EntityId, EntityState>empty()
             .put(id, new EntityState(id, pos, props));
@@ -4,6 +4,7 @@ import org.dynamisengine.ai.core.Location;
 import org.junit.jupiter.api.Test;
 
 import java.util.EnumMap;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -80,4 +81,105 @@ class InfluenceMapSnapshotTest {
         assertThrows(UnsupportedOperationException.class,
             () -> snapshot.layers().put(InfluenceLayer.COVER, new float[4]));
     }
+
+    @Test
+    void layersReturnsCopiesOfSnapshotData() {
+        EnumMap<InfluenceLayer, float[]> source = new EnumMap<>(InfluenceLayer.class);
+        source.put(InfluenceLayer.THREAT, new float[]{0.4f, 0f, 0f, 0f});
+        InfluenceMapSnapshot snapshot = new InfluenceMapSnapshot(source, 2, 2, 1f, 60L);
+
+        snapshot.layers().get(InfluenceLayer.THREAT)[0] = 1f;
+
+        assertEquals(0.4f, snapshot.layers().get(InfluenceLayer.THREAT)[0], 1e-6f);
+        assertEquals(0L, snapshot.epoch());
+    }
+
+    @Test
+    void highestCellNearPicksHighestInRadiusOrFallsBackToCentre() {
+        EnumMap<InfluenceLayer, float[]> layers = new EnumMap<>(InfluenceLayer.class);
+        float[] threat = new float[25];
+        threat[0] = 0.6f;
+        threat[12] = 0.3f;
+        threat[24] = 0.9f;
+        layers.put(InfluenceLayer.THREAT, threat);
+        InfluenceMapSnapshot snapshot = new InfluenceMapSnapshot(layers, 5, 5, 1f, 70L);
+
+        Location near = snapshot.highestCellNear(InfluenceLayer.THREAT, new Location(1f, 0f, 1f), 1.5f);
+        Location tiny = snapshot.highestCellNear(InfluenceLayer.THREAT, new Location(2.5f, 0f, 2.5f), 0.1f);
+
+        assertEquals(0.5f, near.x(), 1e-6f);
+        assertEquals(0.5f, near.z(), 1e-6f);
+        assertEquals(2.5f, tiny.x(), 1e-6f);
+        assertEquals(2.5f, tiny.z(), 1e-6f);
+    }
+
+    @Test
+    void regionSumCoversCellsWhoseCentresLieInTheBox() {
+        EnumMap<InfluenceLayer, float[]> layers = new EnumMap<>(InfluenceLayer.class);
+        float[] cover = new float[16];
+        for (int i = 0; i < cover.length; i++) {
+            cover[i] = i;
+        }
+        layers.put(InfluenceLayer.COVER, cover);
+        InfluenceMapSnapshot snapshot = new InfluenceMapSnapshot(layers, 4, 4, 2f, 80L);
+
+        assertEquals(5f + 6f + 9f + 10f, snapshot.regionSum(InfluenceLayer.COVER, 1, 1, 2, 2), 1e-5f);
+        assertEquals(5f + 6f + 9f + 10f,
+            snapshot.regionSum(InfluenceLayer.COVER, new Location(5.5f, 0f, 5.5f), new Location(2.5f, 0f, 2.5f)), 1e-5f);
+        assertEquals(120f, snapshot.regionSum(InfluenceLayer.COVER, -5, -5, 50, 50), 1e-4f);
+    }
+
+    @Test
+    void sampleWeightedMatchesPerLayerSamplesExactly() {
+        Random random = new Random(49L);
+        int width = 37;
+        int height = 29;
+        EnumMap<InfluenceLayer, float[]> layers = new EnumMap<>(InfluenceLayer.class);
+        for (InfluenceLayer layer : InfluenceLayer.values()) {
+            float[] data = new float[width * height];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = random.nextFloat() * 2f - 1f;
+            }
+            layers.put(layer, data);
+        }
+        InfluenceMapSnapshot snapshot = new InfluenceMapSnapshot(layers, width, height, 1.5f, 90L);
+
+        int count = 203;
+        float[] xs = new float[count];
+        float[] zs = new float[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = random.nextFloat() * 70f - 7f;
+            zs[i] = random.nextFloat() * 56f - 7f;
+        }
+        float[] weights = new float[InfluenceLayer.values().length];
+        weights[InfluenceLayer.THREAT.ordinal()] = -1.5f;
+        weights[InfluenceLayer.COVER.ordinal()] = 0.75f;
+        weights[InfluenceLayer.TERRITORIAL.ordinal()] = 0.3f;
+        float[] out = new float[count + 1];
+        out[count] = 42f;
+
+        snapshot.sampleWeighted(xs, zs, count, weights, out);
+
+        for (int i = 0; i < count; i++) {
+            Location position = new Location(xs[i], 0f, zs[i]);
+            float expected = 0f;
+            for (InfluenceLayer layer : InfluenceLayer.values()) {
+                if (weights[layer.ordinal()] != 0f) {
+                    expected += snapshot.sample(layer, position) * weights[layer.ordinal()];
+                }
+            }
+            assertEquals(expected, out[i], 0f);
+        }
+        assertEquals(42f, out[count], 0f);
+    }
+
+    @Test
+    void sampleWeightedRejectsWrongWeightCount() {
+        InfluenceMapSnapshot snapshot = new InfluenceMapSnapshot(new EnumMap<>(InfluenceLayer.class), 2, 2, 1f, 1L);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> snapshot.sampleWeighted(new float[1], new float[1], 1, new float[2], new float[1]));
+        assertThrows(IndexOutOfBoundsException.class,
+            () -> snapshot.sampleWeighted(new float[1], new float[1], 2, new float[5], new float[2]));
+    }
 }
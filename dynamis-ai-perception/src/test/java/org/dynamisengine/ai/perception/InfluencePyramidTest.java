@@ -0,0 +1,107 @@
+package org.dynamisengine.ai.perception;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InfluencePyramidTest {
+
+    @Test
+    void discSearchMatchesFullScanIncludingTies() {
+        Random random = new Random(47L);
+        for (int round = 0; round < 30; round++) {
+            int width = 1 + random.nextInt(70);
+            int height = 1 + random.nextInt(70);
+            float cellSize = 0.5f + random.nextFloat() * 2f;
+            float[] data = new float[width * height];
+            for (int i = 0; i < data.length; i++) {
+                // Few distinct values, so ties are common.
+                data[i] = random.nextInt(6) / 5f;
+            }
+            InfluencePyramid pyramid = InfluencePyramid.of(data, width, height);
+
+            for (int query = 0; query < 40; query++) {
+                float cx = (random.nextFloat() * 1.4f - 0.2f) * width * cellSize;
+                float cz = (random.nextFloat() * 1.4f - 0.2f) * height * cellSize;
+                float radius = random.nextFloat() * 20f;
+                float radiusSq = radius * radius;
+                for (boolean highest : new boolean[]{false, true}) {
+                    assertEquals(scan(data, width, height, cellSize, cx, cz, radiusSq, highest),
+                        pyramid.extremeInDisc(highest, cx, cz, radiusSq, cellSize));
+                }
+            }
+        }
+    }
+
+    @Test
+    void unboundedRadiusCoversWholeGrid() {
+        float[] data = {0.5f, 0.2f, 0.9f, 0.2f, 0.7f, 0.1f};
+        InfluencePyramid pyramid = InfluencePyramid.of(data, 3, 2);
+
+        assertEquals(5, pyramid.extremeInDisc(false, 0f, 0f, Float.POSITIVE_INFINITY, 1f));
+        assertEquals(5, pyramid.extremeInDisc(false, 0f, 0f, Float.NaN, 1f));
+        assertEquals(2, pyramid.extremeInDisc(true, 0f, 0f, Float.POSITIVE_INFINITY, 1f));
+    }
+
+    @Test
+    void discMissingEveryCellCentreFindsNothing() {
+        InfluencePyramid pyramid = InfluencePyramid.of(new float[16], 4, 4);
+
+        assertEquals(-1, pyramid.extremeInDisc(false, 1f, 1f, 0.01f, 1f));
+    }
+
+    @Test
+    void highestIndexIsFirstMaximum() {
+        float[] data = {0.1f, 0.8f, 0.3f, 0.8f};
+
+        assertEquals(1, InfluencePyramid.of(data, 2, 2).highestIndex());
+    }
+
+    @Test
+    void regionSumMatchesDirectSumAndClipsToGrid() {
+        Random random = new Random(3L);
+        int width = 23;
+        int height = 17;
+        float[] data = new float[width * height];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = random.nextFloat();
+        }
+        InfluencePyramid pyramid = InfluencePyramid.of(data, width, height);
+
+        for (int query = 0; query < 50; query++) {
+            int minX = random.nextInt(width + 6) - 3;
+            int minZ = random.nextInt(height + 6) - 3;
+            int maxX = minX + random.nextInt(12);
+            int maxZ = minZ + random.nextInt(12);
+            double expected = 0.0;
+            for (int z = Math.max(0, minZ); z <= Math.min(height - 1, maxZ); z++) {
+                for (int x = Math.max(0, minX); x <= Math.min(width - 1, maxX); x++) {
+                    expected += data[z * width + x];
+                }
+            }
+            assertEquals(expected, pyramid.regionSum(minX, minZ, maxX, maxZ), 1e-9);
+        }
+        assertEquals(0.0, pyramid.regionSum(5, 5, 4, 9), 0.0);
+    }
+
+    private static int scan(float[] data, int width, int height, float cellSize,
+                            float cx, float cz, float radiusSq, boolean highest) {
+        int best = -1;
+        for (int z = 0; z < height; z++) {
+            for (int x = 0; x < width; x++) {
+                float dx = (x + 0.5f) * cellSize - cx;
+                float dz = (z + 0.5f) * cellSize - cz;
+                if ((dx * dx + dz * dz) > radiusSq) {
+                    continue;
+                }
+                int index = z * width + x;
+                if (best < 0 || (highest ? data[index] > data[best] : data[index] < data[best])) {
+                    best = index;
+                }
+            }
+        }
+        return best;
+    }
+}
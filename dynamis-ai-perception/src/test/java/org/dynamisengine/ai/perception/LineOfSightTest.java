@@ -0,0 +1,87 @@
+package org.dynamisengine.ai.perception;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineOfSightTest {
+
+    /** 10x10 grid of 1m cells with a wall along column 5, rows 0-7. */
+    private static OccupancyGrid walled() {
+        OccupancyGrid grid = new OccupancyGrid(10, 10, 1f, 0f, 0f);
+        for (int row = 0; row < 8; row++) {
+            grid.setBlocked(5, row, true);
+        }
+        return grid;
+    }
+
+    @Test
+    void wallBlocksAndGapAdmitsSight() {
+        LineOfSight sight = new LineOfSight(walled());
+
+        assertFalse(sight.visible(1.5f, 2.5f, 8.5f, 2.5f));
+        assertTrue(sight.visible(1.5f, 9.5f, 8.5f, 9.5f));
+        assertTrue(sight.visible(1.5f, 1.5f, 4.5f, 6.5f));
+    }
+
+    @Test
+    void resultsAreSymmetricAndCachedPerCellPair() {
+        LineOfSight sight = new LineOfSight(walled());
+
+        boolean forward = sight.visible(1.2f, 3.7f, 8.9f, 8.1f);
+        boolean backward = sight.visible(8.1f, 8.6f, 1.9f, 3.1f);
+
+        assertEquals(forward, backward);
+        assertEquals(1L, sight.traceCount());
+        assertEquals(1L, sight.cacheHitCount());
+    }
+
+    @Test
+    void gridChangeInvalidatesCachedResults() {
+        OccupancyGrid grid = walled();
+        LineOfSight sight = new LineOfSight(grid);
+        assertFalse(sight.visible(1.5f, 2.5f, 8.5f, 2.5f));
+
+        grid.setBlocked(5, 2, false);
+
+        assertTrue(sight.visible(1.5f, 2.5f, 8.5f, 2.5f));
+        assertEquals(2L, sight.traceCount());
+    }
+
+    @Test
+    void diagonalWallBlocksButGrazingOneCornerDoesNot() {
+        OccupancyGrid grid = new OccupancyGrid(4, 4, 1f, 0f, 0f);
+        grid.setBlocked(1, 0, true);
+        LineOfSight sight = new LineOfSight(grid);
+        assertTrue(sight.visible(0.5f, 0.5f, 2.5f, 2.5f));
+
+        grid.setBlocked(0, 1, true);
+        assertFalse(sight.visible(0.5f, 0.5f, 2.5f, 2.5f));
+    }
+
+    @Test
+    void batchMatchesSingleQueries() {
+        LineOfSight sight = new LineOfSight(walled());
+        float[] xs = {8.5f, 8.5f, 3.5f, 6.5f};
+        float[] zs = {2.5f, 9.5f, 0.5f, 8.5f};
+        int[] indices = {0, 1, 2, 3};
+        boolean[] out = new boolean[4];
+
+        sight.visible(1.5f, 2.5f, xs, zs, indices, 4, out);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals(new LineOfSight(walled()).visible(1.5f, 2.5f, xs[i], zs[i]), out[i]);
+        }
+    }
+
+    @Test
+    void cellsOutsideTheGridAreOpen() {
+        OccupancyGrid grid = new OccupancyGrid(2, 2, 1f, 0f, 0f);
+        grid.setBlocked(0, 0, true);
+        LineOfSight sight = new LineOfSight(grid);
+
+        assertTrue(grid.isBlocked(0, 0));
+        assertFalse(grid.isBlocked(-1, 0));
+        assertTrue(sight.visible(-5f, 5f, 5f, 5f));
+    }
+}
@@ -0,0 +1,107 @@
+package org.dynamisengine.ai.perception;
+
+import io.vavr.collection.HashMap;
+import org.dynamisengine.core.entity.EntityId;
+import org.dynamisengine.ai.core.EntityState;
+import org.dynamisengine.ai.core.EnvironmentState;
+import org.dynamisengine.ai.core.GlobalFacts;
+import org.dynamisengine.ai.core.Location;
+import org.dynamisengine.ai.core.WorldSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SenseActivityMapTest {
+
+    private static final SoundField SILENCE = SoundField.empty(16f);
+
+    @Test
+    void unchangedSnapshotsLeaveNoActivity() {
+        SenseActivityMap map = new SenseActivityMap();
+        HashMap<EntityId, EntityState> entities = entities(EntityId.of(1L), 5f, 5f);
+        map.advance(snapshot(1L, entities), SILENCE);
+        map.advance(snapshot(2L, entities), SILENCE);
+        map.advance(snapshot(3L, entities(EntityId.of(1L), 5f, 5f)), SILENCE);
+
+        assertFalse(map.activeSince(5f, 5f, 50f, 1L));
+    }
+
+    @Test
+    void movementStampsBothTheOldAndNewCells() {
+        SenseActivityMap map = new SenseActivityMap();
+        EntityId id = EntityId.of(1L);
+        map.advance(snapshot(1L, entities(id, 5f, 5f)), SILENCE);
+        map.advance(snapshot(2L, entities(id, 100f, 100f)), SILENCE);
+
+        assertTrue(map.activeSince(5f, 5f, 1f, 1L));
+        assertTrue(map.activeSince(100f, 100f, 1f, 1L));
+        assertFalse(map.activeSince(5f, 5f, 1f, 2L));
+        assertFalse(map.activeSince(50f, 50f, 1f, 1L));
+    }
+
+    @Test
+    void removedEntitiesAndSoundsAreActivity() {
+        SenseActivityMap map = new SenseActivityMap();
+        map.advance(snapshot(1L, entities(EntityId.of(1L), 5f, 5f)), SILENCE);
+        SoundField sounds = new SoundField(List.of(new SoundEvent(EntityId.of(2L),
+            new Location(-40f, 0f, 60f), 1f, StimulusType.AUDITORY, 2L)), 16f);
+        map.advance(snapshot(2L, HashMap.empty()), sounds);
+
+        assertTrue(map.activeSince(5f, 5f, 1f, 1L));
+        assertTrue(map.activeSince(-40f, 60f, 1f, 1L));
+        // A range wider than the map's stamps walks the stamps instead of the cells.
+        assertTrue(map.activeSince(0f, 0f, 10_000f, 1L));
+        assertFalse(map.activeSince(0f, 0f, 10_000f, 2L));
+    }
+
+    @Test
+    void ticksBeforeTrackingStartedAreAlwaysActive() {
+        SenseActivityMap map = new SenseActivityMap();
+        HashMap<EntityId, EntityState> entities = entities(EntityId.of(1L), 5f, 5f);
+        map.advance(snapshot(5L, entities), SILENCE);
+
+        assertTrue(map.activeSince(5f, 5f, 1f, 4L));
+        assertFalse(map.activeSince(5f, 5f, 1f, 5L));
+
+        map.advance(snapshot(3L, entities), SILENCE);
+        assertTrue(map.activeSince(5f, 5f, 1f, 3L));
+    }
+
+    @Test
+    void compactionDropsOldStampsAndTreatsEarlierTicksAsActive() {
+        SenseActivityMap map = new SenseActivityMap();
+        EntityId id = EntityId.of(1L);
+        map.advance(snapshot(1L, entities(id, 5f, 5f)), SILENCE);
+        map.advance(snapshot(2L, entities(id, 100f, 100f)), SILENCE);
+        map.advance(snapshot(3L, entities(id, 200f, 200f)), SILENCE);
+        assertEquals(3, map.activeCellCount());
+
+        map.compact(2L);
+
+        assertEquals(2, map.activeCellCount());
+        assertTrue(map.activeSince(5f, 5f, 1f, 1L));
+        assertFalse(map.activeSince(5f, 5f, 1f, 2L));
+        assertTrue(map.activeSince(100f, 100f, 1f, 2L));
+        assertFalse(map.activeSince(100f, 100f, 1f, 3L));
+    }
+
+    @Test
+    void rejectsNonPositiveCellSize() {
+        assertThrows(IllegalArgumentException.class, () -> new SenseActivityMap(0f));
+    }
+
+    private static HashMap<EntityId, EntityState> entities(EntityId id, float x, float z) {
+        return HashMap.<EntityId, EntityState>empty().put(id, new EntityState(id, new Location(x, 0f, z), Map.of()));
+    }
+
+    private static WorldSnapshot snapshot(long tick, HashMap<EntityId, EntityState> entities) {
+        return new WorldSnapshot(tick, entities, new GlobalFacts(Map.of()),
+            new EnvironmentState("clear", 12f, 1f));
+    }
+}
@@ -10,10 +10,13 @@ import org.dynamisengine.ai.core.WorldSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class SimulatedSensesTest {
@@ -151,6 +154,247 @@ class SimulatedSensesTest {
         assertEquals(7L, snapshot.tick());
     }
 
+    @Test
+    void senseAllMatchesPerObserverSense() {
+        Random random = new Random(42L);
+        HashMap<EntityId, EntityState> map = HashMap.empty();
+        List<EntityId> observers = new ArrayList<>();
+        for (long id = 1L; id <= 200L; id++) {
+            EntityId entity = EntityId.of(id);
+            Location position = new Location(random.nextFloat() * 200f - 100f,
+                random.nextFloat() * 4f, random.nextFloat() * 200f - 100f);
+            map = map.put(entity, new EntityState(entity, position, Map.of()));
+            if (id % 3L == 0L) {
+                observers.add(entity);
+                registry.register(entity, new SensorProfile(5f + random.nextFloat() * 40f,
+                    random.nextFloat() * 360f, random.nextFloat() * 30f, random.nextFloat(),
+                    random.nextFloat() * 360f));
+            }
+        }
+        observers.add(EntityId.of(999L));
+        WorldSnapshot snapshot = new WorldSnapshot(3L, map, new GlobalFacts(Map.of()),
+            new EnvironmentState("clear", 12f, 1f));
+        List<SoundEvent> sounds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            sounds.add(new SoundEvent(EntityId.of(1000L + i), new Location(random.nextFloat() * 200f - 100f,
+                0f, random.nextFloat() * 200f - 100f), random.nextFloat(), StimulusType.AUDITORY, 3L));
+        }
+
+        sounds.forEach(queue::post);
+        Map<EntityId, PerceptionSnapshot> batch = senses.senseAll(observers, snapshot);
+
+        assertEquals(observers, List.copyOf(batch.keySet()));
+        int percepts = 0;
+        for (EntityId id : observers) {
+            PerceptionSnapshot single = senses.sense(id, snapshot);
+            assertEquals(single, batch.get(id));
+            percepts += single.percepts().size();
+        }
+        assertTrue(percepts > 0);
+    }
+
+    @Test
+    void senseAllLetsEveryObserverHearTheSameSound() {
+        EntityId other = EntityId.of(2L);
+        queue.post(new SoundEvent(EntityId.of(3L), new Location(0f, 0f, -2f),
+            1f, StimulusType.AUDITORY, 1L));
+        WorldSnapshot snapshot = snapshotOf(observer, state(0f, 0f), other, state(1f, 0f));
+
+        Map<EntityId, PerceptionSnapshot> result = senses.senseAll(List.of(observer, other), snapshot);
+
+        assertTrue(result.get(observer).percepts().stream().anyMatch(p -> p.stimulusType() == StimulusType.AUDITORY));
+        assertTrue(result.get(other).percepts().stream().anyMatch(p -> p.stimulusType() == StimulusType.AUDITORY));
+    }
+
+    @Test
+    void everyObserverHearsTheTickSoundsRegardlessOfOrder() {
+        EntityId other = EntityId.of(2L);
+        queue.post(new SoundEvent(EntityId.of(3L), new Location(0f, 0f, -2f),
+            1f, StimulusType.AUDITORY, 1L));
+        WorldSnapshot snapshot = snapshotOf(observer, state(0f, 0f), other, state(1f, 0f));
+
+        PerceptionSnapshot first = senses.sense(observer, snapshot);
+        PerceptionSnapshot second = senses.sense(other, snapshot);
+
+        assertTrue(first.percepts().stream().anyMatch(p -> p.stimulusType() == StimulusType.AUDITORY));
+        assertTrue(second.percepts().stream().anyMatch(p -> p.stimulusType() == StimulusType.AUDITORY));
+    }
+
+    @Test
+    void soundsPostedAfterTheDrainArriveNextTick() {
+        WorldSnapshot snapshot = snapshotOf(observer, state(0f, 0f));
+        senses.sense(observer, snapshot);
+        queue.post(new SoundEvent(EntityId.of(3L), new Location(0f, 0f, -2f),
+            1f, StimulusType.AUDITORY, 1L));
+
+        assertTrue(senses.sense(observer, snapshot).percepts().isEmpty());
+        WorldSnapshot next = new WorldSnapshot(2L, snapshot.entities(), snapshot.globalFacts(), snapshot.environment());
+        assertEquals(1, senses.sense(observer, next).percepts().size());
+    }
+
+    @Test
+    void occludedTargetsAreNotSeen() {
+        OccupancyGrid grid = new OccupancyGrid(40, 40, 1f, -20f, -20f);
+        for (int col = 0; col < 40; col++) {
+            grid.setBlocked(col, 14, true); // wall at z in [-6, -5)
+        }
+        senses.setLineOfSight(new LineOfSight(grid));
+        EntityId near = EntityId.of(2L);
+        EntityId behindWall = EntityId.of(3L);
+        WorldSnapshot snapshot = snapshotOf(
+            observer, state(0f, 0f),
+            near, state(0f, -3f),
+            behindWall, state(0f, -10f));
+
+        PerceptionSnapshot single = senses.sense(observer, snapshot);
+        PerceptionSnapshot batch = senses.senseAll(List.of(observer), snapshot).get(observer);
+
+        assertTrue(single.percepts().stream().anyMatch(p -> p.source().equals(near)));
+        assertTrue(single.percepts().stream().noneMatch(p -> p.source().equals(behindWall)));
+        assertEquals(single, batch);
+    }
+
+    @Test
+    void activityMapSkippingMatchesAlwaysSensing() {
+        Random random = new Random(7L);
+        SoundEventQueue skippingQueue = new SoundEventQueue();
+        SimulatedSenses skipping = new SimulatedSenses(registry, skippingQueue);
+        skipping.setActivityMap(new SenseActivityMap());
+        OccupancyGrid grid = new OccupancyGrid(100, 100, 4f, -200f, -200f);
+        LineOfSight lineOfSight = new LineOfSight(grid);
+        senses.setLineOfSight(lineOfSight);
+        skipping.setLineOfSight(lineOfSight);
+
+        HashMap<EntityId, EntityState> map = HashMap.empty();
+        List<EntityId> observers = new ArrayList<>();
+        for (long id = 1L; id <= 120L; id++) {
+            EntityId entity = EntityId.of(id);
+            map = map.put(entity, new EntityState(entity, new Location(random.nextFloat() * 300f - 150f,
+                0f, random.nextFloat() * 300f - 150f), Map.of()));
+            if (id % 4L == 0L) {
+                observers.add(entity);
+                registry.register(entity, new SensorProfile(5f + random.nextFloat() * 30f,
+                    random.nextFloat() * 360f, random.nextFloat() * 20f, random.nextFloat(),
+                    random.nextFloat() * 360f));
+            }
+        }
+
+        for (long tick = 1L; tick <= 40L; tick++) {
+            for (int moves = random.nextInt(4); moves > 0; moves--) {
+                EntityId entity = EntityId.of(1L + random.nextInt(120));
+                map = map.put(entity, new EntityState(entity, new Location(random.nextFloat() * 300f - 150f,
+                    0f, random.nextFloat() * 300f - 150f), Map.of()));
+            }
+            if (random.nextInt(3) == 0) {
+                SoundEvent sound = new SoundEvent(EntityId.of(500L), new Location(random.nextFloat() * 300f - 150f,
+                    0f, random.nextFloat() * 300f - 150f), random.nextFloat(), StimulusType.AUDITORY, tick);
+                queue.post(sound);
+                skippingQueue.post(sound);
+            }
+            if (tick % 10L == 0L) {
+                grid.setBlocked(random.nextInt(100), random.nextInt(100), true);
+            }
+            WorldSnapshot snapshot = new WorldSnapshot(tick, map, new GlobalFacts(Map.of()),
+                new EnvironmentState("clear", 12f, 1f));
+
+            if (tick % 2L == 0L) {
+                assertEquals(senses.senseAll(observers, snapshot), skipping.senseAll(observers, snapshot));
+            } else {
+                for (EntityId id : observers) {
+                    assertEquals(senses.sense(id, snapshot), skipping.sense(id, snapshot));
+                }
+            }
+        }
+    }
+
+    @Test
+    void staticSceneReusesTheLastSnapshot() {
+        senses.setActivityMap(new SenseActivityMap());
+        WorldSnapshot first = snapshotOf(observer, state(0f, 0f), EntityId.of(2L), state(0f, -10f));
+        WorldSnapshot second = new WorldSnapshot(2L, first.entities(), first.globalFacts(), first.environment());
+
+        PerceptionSnapshot sensed = senses.sense(observer, first);
+        assertSame(sensed, senses.sense(observer, first));
+        PerceptionSnapshot aged = senses.sense(observer, second);
+
+        assertEquals(2L, aged.tick());
+        assertEquals(sensed.percepts(), aged.percepts());
+        assertSame(aged, senses.sense(observer, second));
+    }
+
+    @Test
+    void activityInRangeForcesAResense() {
+        senses.setActivityMap(new SenseActivityMap());
+        EntityId target = EntityId.of(2L);
+        WorldSnapshot first = snapshotOf(observer, state(0f, 0f), target, state(0f, -10f));
+        senses.sense(observer, first);
+
+        WorldSnapshot moved = new WorldSnapshot(2L, first.entities().put(target,
+            new EntityState(target, new Location(0f, 0f, -100f), Map.of())), first.globalFacts(), first.environment());
+        assertTrue(senses.sense(observer, moved).percepts().isEmpty());
+
+        queue.post(new SoundEvent(EntityId.of(3L), new Location(0f, 0f, -2f),
+            1f, StimulusType.AUDITORY, 3L));
+        WorldSnapshot loud = new WorldSnapshot(3L, moved.entities(), moved.globalFacts(), moved.environment());
+        assertEquals(1, senses.sense(observer, loud).percepts().size());
+    }
+
+    @Test
+    void agingDropsSoundsFromEarlierTicks() {
+        senses.setActivityMap(new SenseActivityMap());
+        queue.post(new SoundEvent(EntityId.of(3L), new Location(0f, 0f, -2f),
+            1f, StimulusType.AUDITORY, 1L));
+        WorldSnapshot first = snapshotOf(observer, state(0f, 0f), EntityId.of(2L), state(0f, -10f));
+        assertEquals(2, senses.sense(observer, first).percepts().size());
+
+        PerceptionSnapshot next = senses.sense(observer,
+            new WorldSnapshot(2L, first.entities(), first.globalFacts(), first.environment()));
+
+        assertEquals(1, next.percepts().size());
+        assertEquals(StimulusType.VISUAL, next.percepts().get(0).stimulusType());
+    }
+
+    @Test
+    void despawnedObserversAreForgotten() {
+        senses.setActivityMap(new SenseActivityMap());
+        EntityId other = EntityId.of(2L);
+        WorldSnapshot first = snapshotOf(observer, state(0f, 0f), other, state(0f, -10f));
+        senses.senseAll(List.of(observer, other), first);
+        assertEquals(2, senses.rememberedCount());
+
+        senses.sense(other, new WorldSnapshot(2L, snapshotOf(observer, state(0f, 0f)).entities(),
+            first.globalFacts(), first.environment()));
+        assertEquals(1, senses.rememberedCount());
+
+        senses.forget(observer);
+        assertEquals(0, senses.rememberedCount());
+    }
+
+    @Test
+    void observersNoLongerSensedAreSweptAndTheActivityMapCompacted() {
+        SenseActivityMap map = new SenseActivityMap();
+        senses.setActivityMap(map);
+        EntityId walker = EntityId.of(2L);
+        EntityId leaver = EntityId.of(3L);
+        WorldSnapshot first = snapshotOf(observer, state(0f, 0f), walker, state(0f, -10f),
+            leaver, state(500f, 500f));
+        senses.senseAll(List.of(observer, leaver), first);
+
+        HashMap<EntityId, EntityState> remaining = snapshotOf(observer, state(0f, 0f)).entities();
+        long ticks = 3L * SimulatedSenses.MAINTENANCE_INTERVAL_TICKS;
+        for (long tick = 2L; tick <= ticks; tick++) {
+            // The walker crosses a new cell every tick; the leaver despawns and is never sensed again.
+            WorldSnapshot snapshot = new WorldSnapshot(tick, remaining.put(walker,
+                new EntityState(walker, new Location(tick * 20f, 0f, 1000f), Map.of())),
+                first.globalFacts(), first.environment());
+            senses.sense(observer, snapshot);
+        }
+
+        assertEquals(1, senses.rememberedCount());
+        assertTrue(map.activeCellCount() <= SimulatedSenses.MAINTENANCE_INTERVAL_TICKS + 2,
+            "cells stamped before the oldest remembered sense should be compacted");
+    }
+
     private static WorldSnapshot snapshotOf(Object... entries) {
         HashMap<EntityId, EntityState> map = HashMap.empty();
         for (int i = 0; i < entries.length; i += 2) {
@@ -8,6 +8,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class SoundEventQueueTest {
@@ -51,6 +52,20 @@ class SoundEventQueueTest {
         assertEquals(2, drained.size());
     }
 
+    @Test
+    void binnedForTickDrainsOncePerTick() {
+        SoundEventQueue queue = new SoundEventQueue();
+        queue.post(event(1L));
+
+        SoundField first = queue.binnedForTick(1L);
+        queue.post(event(1L));
+
+        assertSame(first, queue.binnedForTick(1L));
+        assertEquals(1, first.events().size());
+        assertEquals(1, queue.binnedForTick(2L).events().size());
+        assertTrue(queue.binnedForTick(3L).events().isEmpty());
+    }
+
     private static SoundEvent event(long tick) {
         return new SoundEvent(EntityId.of(1L), new Location(0f, 0f, 0f),
             0.5f, StimulusType.AUDITORY, tick);
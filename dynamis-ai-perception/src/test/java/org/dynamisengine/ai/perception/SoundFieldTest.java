@@ -0,0 +1,70 @@
+package org.dynamisengine.ai.perception;
+
+import org.dynamisengine.ai.core.Location;
+import org.dynamisengine.core.entity.EntityId;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoundFieldTest {
+
+    @Test
+    void candidatesIncludeEveryAudibleSoundInPostingOrder() {
+        Random random = new Random(7L);
+        List<SoundEvent> events = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            events.add(new SoundEvent(EntityId.of(i), new Location(random.nextFloat() * 300f - 150f,
+                random.nextFloat() * 3f, random.nextFloat() * 300f - 150f), random.nextFloat(),
+                StimulusType.AUDITORY, 1L));
+        }
+        SoundField field = new SoundField(events, 16f);
+
+        for (int trial = 0; trial < 500; trial++) {
+            float x = random.nextFloat() * 300f - 150f;
+            float z = random.nextFloat() * 300f - 150f;
+            SensorProfile profile = new SensorProfile(30f, 120f, 5f + random.nextFloat() * 40f,
+                random.nextFloat(), 0f);
+            Location observer = new Location(x, 0f, z);
+
+            int[] candidates = field.candidates(x, z, profile);
+
+            int[] sorted = candidates.clone();
+            Arrays.sort(sorted);
+            assertArrayEquals(sorted, candidates);
+            for (int i = 0; i < events.size(); i++) {
+                SoundEvent sound = events.get(i);
+                float distance = observer.distanceTo(sound.position());
+                boolean audible = distance <= profile.hearingRadiusMetres()
+                    && sound.intensity() * (1f - distance / profile.hearingRadiusMetres()) >= profile.hearingAcuity();
+                if (audible) {
+                    assertTrue(Arrays.binarySearch(candidates, i) >= 0, "missed audible sound " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void observersInOneCellShareTheCulledList() {
+        SoundField field = new SoundField(List.of(new SoundEvent(EntityId.of(1L),
+            new Location(4f, 0f, 4f), 1f, StimulusType.AUDITORY, 1L)), 16f);
+        SensorProfile profile = SensorProfile.defaultHuman();
+
+        assertSame(field.candidates(1f, 1f, profile), field.candidates(15f, 15f, profile));
+        assertNotSame(field.candidates(1f, 1f, profile), field.candidates(17f, 1f, profile));
+    }
+
+    @Test
+    void deafOrEmptyFieldHasNoCandidates() {
+        SoundField empty = SoundField.empty(16f);
+        assertEquals(0, empty.candidates(0f, 0f, SensorProfile.defaultHuman()).length);
+
+        SoundField field = new SoundField(List.of(new SoundEvent(EntityId.of(1L),
+            new Location(0f, 0f, 0f), 1f, StimulusType.AUDITORY, 1L)), 16f);
+        assertEquals(0, field.candidates(0f, 0f, SensorProfile.deaf()).length);
+    }
+}
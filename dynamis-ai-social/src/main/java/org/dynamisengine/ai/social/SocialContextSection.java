@@ -0,0 +1,68 @@
+package org.dynamisengine.ai.social;
+
+import org.dynamisengine.ai.cognition.DialogueRequest;
+import org.dynamisengine.ai.cognition.PromptContextSection;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Prompt context section describing the speaker's relationship with the listener.
+ * Versioned by the fields it renders, so unchanged relationships reuse their cached text.
+ */
+public final class SocialContextSection implements PromptContextSection {
+
+    private final SocialSystem social;
+
+    public SocialContextSection(SocialSystem social) {
+        this.social = Objects.requireNonNull(social);
+    }
+
+    @Override
+    public String name() {
+        return "social";
+    }
+
+    @Override
+    public long version(DialogueRequest request) {
+        if (request.speaker() == null || request.target() == null) {
+            return 0L;
+        }
+        SocialContext ctx = social.buildContext(request.speaker(), request.target());
+        if (!ctx.isKnownEntity()) {
+            return 0L;
+        }
+        Relationship rel = ctx.relationship();
+        String topic = ctx.lastDialogue().map(DialogueEntry::topic).orElse(null);
+        long version = 17L;
+        version = version * 31L + Float.floatToIntBits(rel.trust());
+        version = version * 31L + Float.floatToIntBits(rel.affinity());
+        version = version * 31L + Objects.hash(rel.tags(), topic);
+        return version;
+    }
+
+    @Override
+    public void render(DialogueRequest request, int tokenBudget, StringBuilder out) {
+        if (request.speaker() == null || request.target() == null) {
+            return;
+        }
+        SocialContext ctx = social.buildContext(request.speaker(), request.target());
+        if (!ctx.isKnownEntity()) {
+            return;
+        }
+        Relationship rel = ctx.relationship();
+        out.append(String.format(Locale.ROOT, "Relationship with listener: trust %.2f, affinity %.2f",
+            rel.trust(), rel.affinity()));
+        String separator = " [";
+        for (RelationshipTag tag : RelationshipTag.values()) {
+            if (rel.hasTag(tag)) {
+                out.append(separator).append(tag.name().toLowerCase(Locale.ROOT));
+                separator = ", ";
+            }
+        }
+        if (!separator.equals(" [")) {
+            out.append(']');
+        }
+        ctx.lastDialogue().ifPresent(d -> out.append("\nLast talked about: ").append(d.topic()));
+    }
+}
@@ -0,0 +1,69 @@
+package org.dynamisengine.ai.social;
+
+import org.dynamisengine.ai.cognition.AffectVector;
+import org.dynamisengine.ai.cognition.DialogueRequest;
+import org.dynamisengine.core.entity.EntityId;
+import org.dynamisengine.ai.core.Location;
+import org.dynamisengine.ai.core.ThreatLevel;
+import org.dynamisengine.ai.core.WorldFacts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SocialContextSectionTest {
+
+    private DefaultSocialSystem social;
+    private SocialContextSection section;
+    private EntityId npc;
+    private EntityId player;
+
+    @BeforeEach
+    void setUp() {
+        social = new DefaultSocialSystem();
+        section = new SocialContextSection(social);
+        npc = EntityId.of(1L);
+        player = EntityId.of(2L);
+    }
+
+    private DialogueRequest request() {
+        return new DialogueRequest(
+            npc, player, "Hello.",
+            new WorldFacts(Map.of(), List.of(), ThreatLevel.NONE,
+                new Location(0, 0, 0), null),
+            AffectVector.neutral(),
+            null);
+    }
+
+    @Test
+    void unknownEntityRendersNothing() {
+        StringBuilder out = new StringBuilder();
+        section.render(request(), 64, out);
+        assertEquals(0, out.length());
+    }
+
+    @Test
+    void rendersTrustAffinityAndTags() {
+        social.adjustTrust(npc, player, 0.5f);
+        social.tagRelationship(npc, player, RelationshipTag.ALLY);
+
+        StringBuilder out = new StringBuilder();
+        section.render(request(), 64, out);
+
+        assertTrue(out.toString().startsWith("Relationship with listener: trust "));
+        assertTrue(out.toString().contains("[ally]"));
+    }
+
+    @Test
+    void versionChangesWithRelationship() {
+        social.adjustTrust(npc, player, 0.2f);
+        long before = section.version(request());
+        assertEquals(before, section.version(request()));
+
+        social.adjustTrust(npc, player, 0.2f);
+        assertNotEquals(before, section.version(request()));
+    }
+}
@@ -78,6 +78,21 @@ public abstract class VectorMemoryStoreContractTest {
         }
     }
 
+    @Test
+    void versionMovesOnlyWithTheOwnersRecords() {
+        long initial = store.version(OWNER);
+        MemoryRecord r = MemoryRecord.create(OWNER, "versioned", "p", 0.5f);
+        store.store(r, unitVector());
+        long stored = store.version(OWNER);
+        assertNotEquals(initial, stored);
+
+        store.store(MemoryRecord.create(EntityId.of(2L), "other", "p", 0.5f), unitVector());
+        assertEquals(stored, store.version(OWNER));
+
+        store.remove(r.id());
+        assertNotEquals(stored, store.version(OWNER));
+    }
+
     @Test
     void closeIsIdempotent() {
         assertDoesNotThrow(() -> {
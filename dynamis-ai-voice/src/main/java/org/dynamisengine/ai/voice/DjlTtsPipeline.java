@@ -2,6 +2,7 @@ package org.dynamisengine.ai.voice;
 
 import org.dynamisengine.ai.cognition.AffectVector;
 import org.dynamisengine.ai.cognition.DialogueResponse;
+import org.dynamisengine.ai.core.BootstrapGraph;
 import org.dynamisengine.core.entity.EntityId;
 import org.dynamisengine.core.logging.DynamisLogger;
 
@@ -22,6 +23,10 @@ public final class DjlTtsPipeline implements TTSPipeline {
 
     private static final DynamisLogger log = DynamisLogger.get(DjlTtsPipeline.class);
 
+    public static final String CHATTERBOX_STAGE = "tts-chatterbox";
+    public static final String BARK_STAGE = "tts-bark";
+    public static final String KOKORO_STAGE = "tts-kokoro";
+
     private final ChatterboxEngine chatterbox;
     private final BarkEngine bark;
     private final KokoroEngine kokoro;
@@ -51,17 +56,36 @@ public final class DjlTtsPipeline implements TTSPipeline {
     /**
      * Factory — initialize all available engines.
      * Engines whose model paths do not exist are silently skipped.
+     * The engines load concurrently; this returns once all of them have settled.
      */
     public static DjlTtsPipeline create(TtsModelConfig chatterboxCfg,
                                         TtsModelConfig barkCfg,
                                         TtsModelConfig kokoroCfg) {
+        BootstrapGraph graph = new BootstrapGraph();
+        DjlTtsPipeline pipeline = create(chatterboxCfg, barkCfg, kokoroCfg, graph);
+        graph.start();
+        graph.allSettled().join();
+        graph.shutdown();
+        return pipeline;
+    }
+
+    /**
+     * Lazy factory — registers one load stage per engine ({@link #CHATTERBOX_STAGE},
+     * {@link #BARK_STAGE}, {@link #KOKORO_STAGE}) on {@code graph} and returns at once.
+     * Until an engine's stage is ready, rendering uses the next engine in the fallback chain;
+     * a stage whose model is missing completes exceptionally and the fallback stays.
+     */
+    public static DjlTtsPipeline create(TtsModelConfig chatterboxCfg,
+                                        TtsModelConfig barkCfg,
+                                        TtsModelConfig kokoroCfg,
+                                        BootstrapGraph graph) {
         ChatterboxEngine cb = new ChatterboxEngine(chatterboxCfg);
         BarkEngine bk = new BarkEngine(barkCfg);
         KokoroEngine ko = new KokoroEngine(kokoroCfg);
 
-        tryInit("Chatterbox", cb::initialize);
-        tryInit("Bark", bk::initialize);
-        tryInit("Kokoro", ko::initialize);
+        graph.stage(CHATTERBOX_STAGE, cb::initialize);
+        graph.stage(BARK_STAGE, bk::initialize);
+        graph.stage(KOKORO_STAGE, ko::initialize);
 
         return new DjlTtsPipeline(cb, bk, ko);
     }
@@ -166,17 +190,4 @@ public final class DjlTtsPipeline implements TTSPipeline {
         }
         return AudioStream.empty("nonverbal-empty");
     }
-
-    private static void tryInit(String name, TtsInitRunnable init) {
-        try {
-            init.run();
-        } catch (TtsEngineException e) {
-            log.info(String.format("%s engine not available — will use fallback: %s", name, e.getMessage()));
-        }
-    }
-
-    @FunctionalInterface
-    private interface TtsInitRunnable {
-        void run();
-    }
 }
@@ -29,17 +29,42 @@ public final class WaveformVisemeExtractor implements VisemeExtractor {
 
     private final RuleBasedVisemeExtractor fallback;
     private final Path modelPath;
-    private ZooModel<NDList, NDList> model;
-    private boolean live;
+    private volatile ZooModel<NDList, NDList> model;
+    private volatile boolean live;
 
     public WaveformVisemeExtractor() {
         this(DEFAULT_MODEL_PATH);
     }
 
     public WaveformVisemeExtractor(Path modelPath) {
+        this(modelPath, true);
+    }
+
+    private WaveformVisemeExtractor(Path modelPath, boolean eager) {
         this.modelPath = modelPath;
         this.fallback = new RuleBasedVisemeExtractor();
-        initialize();
+        if (eager) {
+            initialize();
+        }
+    }
+
+    /**
+     * Extractor that does not load the model yet — it uses the rule-based fallback until
+     * {@link #load()} has run, typically as a BootstrapGraph stage.
+     */
+    public static WaveformVisemeExtractor deferred(Path modelPath) {
+        return new WaveformVisemeExtractor(modelPath, false);
+    }
+
+    /** Loads the model if not already live; a missing or broken model keeps the fallback. */
+    public synchronized void load() {
+        if (!live) {
+            initialize();
+        }
+    }
+
+    public boolean isLive() {
+        return live;
     }
 
     @Override
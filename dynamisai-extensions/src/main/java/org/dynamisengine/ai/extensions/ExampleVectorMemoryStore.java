@@ -8,7 +8,9 @@ import org.dynamisengine.ai.memory.VectorMemoryStore;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -24,11 +26,13 @@ public final class ExampleVectorMemoryStore implements VectorMemoryStore {
     private record Entry(MemoryRecord record, EmbeddingVector vector) {}
 
     private final List<Entry> entries = new ArrayList<>();
+    private final Map<EntityId, Long> versions = new HashMap<>();
     private final ExampleSentenceEncoder encoder = new ExampleSentenceEncoder();
 
     @Override
     public synchronized void store(MemoryRecord record, EmbeddingVector vector) {
         entries.add(new Entry(record, vector));
+        versions.merge(record.owner(), 1L, Long::sum);
     }
 
     @Override
@@ -38,7 +42,13 @@ public final class ExampleVectorMemoryStore implements VectorMemoryStore {
 
     @Override
     public synchronized void remove(UUID id) {
-        entries.removeIf(e -> e.record().id().equals(id));
+        entries.removeIf(e -> {
+            if (!e.record().id().equals(id)) {
+                return false;
+            }
+            versions.merge(e.record().owner(), 1L, Long::sum);
+            return true;
+        });
     }
 
     @Override
@@ -82,6 +92,11 @@ public final class ExampleVectorMemoryStore implements VectorMemoryStore {
         return (int) entries.stream().map(Entry::record).filter(r -> r.owner().equals(owner)).count();
     }
 
+    @Override
+    public synchronized long version(EntityId owner) {
+        return versions.getOrDefault(owner, 0L);
+    }
+
     @Override
     public synchronized int size() {
         return entries.size();
@@ -89,6 +104,9 @@ public final class ExampleVectorMemoryStore implements VectorMemoryStore {
 
     @Override
     public synchronized void close() {
+        for (Entry e : entries) {
+            versions.merge(e.record().owner(), 1L, Long::sum);
+        }
         entries.clear();
     }
 }